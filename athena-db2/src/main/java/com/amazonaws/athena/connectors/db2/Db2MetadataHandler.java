@@ -88,6 +88,7 @@ public class Db2MetadataHandler extends JdbcMetadataHandler
     private static final Logger LOGGER = LoggerFactory.getLogger(Db2MetadataHandler.class);
     static final String PARTITION_NUMBER = "PARTITION_NUMBER";
     static final String PARTITIONING_COLUMN = "PARTITIONING_COLUMN";
+    static final String ALL_PARTITIONS = "0";
     /**
      * DB2 has max number of partition 32,000
      */
@@ -235,7 +236,7 @@ public class Db2MetadataHandler extends JdbcMetadataHandler
                 LOGGER.debug("Getting as single Partition: ");
                 blockWriter.writeRows((Block block, int rowNum) ->
                 {
-                    block.setValue(PARTITION_NUMBER, rowNum, "0");
+                    block.setValue(PARTITION_NUMBER, rowNum, ALL_PARTITIONS);
                     //we wrote 1 row so we return 1
                     return 1;
                 });
@@ -285,6 +286,12 @@ public class Db2MetadataHandler extends JdbcMetadataHandler
 
         LOGGER.debug("partitionContd: {}", partitionContd);
 
+        // Unpartitioned tables are split on key ranges when they have a suitable key column.
+        Set<Split> rangeSplits = makeRangeSplits(getSplitsRequest, PARTITION_NUMBER, ALL_PARTITIONS);
+        if (!rangeSplits.isEmpty()) {
+            return new GetSplitsResponse(getSplitsRequest.getCatalogName(), rangeSplits, null);
+        }
+
         for (int curPartition = partitionContd; curPartition < partitions.getRowCount(); curPartition++) {
             FieldReader locationReader = partitions.getFieldReader(PARTITION_NUMBER);
             locationReader.setPosition(curPartition);
@@ -315,6 +322,15 @@ public class Db2MetadataHandler extends JdbcMetadataHandler
         return new GetSplitsResponse(getSplitsRequest.getCatalogName(), splits, null);
     }
 
+    /**
+     * HASH8 returns a bigint which may be negative, the remainder is taken before ABS so that it can not overflow.
+     */
+    @Override
+    protected String getHashSplitClause(final String column, final int bucketCount, final int bucket)
+    {
+        return String.format("ABS(MOD(HASH8(%s), %d)) = %d", column, bucketCount, bucket);
+    }
+
     /**
      * Overridden this method to describe the types of capabilities supported by a data source
      * @param allocator Tool for creating and managing Apache Arrow Blocks.
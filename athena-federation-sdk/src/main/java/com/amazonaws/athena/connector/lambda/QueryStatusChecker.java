@@ -27,7 +27,9 @@ import com.google.common.collect.ImmutableSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.lang.String.format;
@@ -50,6 +52,7 @@ public class QueryStatusChecker
 
     private boolean wasStarted = false;
     private final AtomicBoolean isRunning = new AtomicBoolean(true);
+    private final List<Runnable> terminationListeners = new CopyOnWriteArrayList<>();
     private final AmazonAthena athena;
     private final ThrottlingInvoker athenaInvoker;
     private final String queryId;
@@ -80,6 +83,30 @@ public class QueryStatusChecker
         return isRunning.get();
     }
 
+    /**
+     * Registers a listener which is run once, on the status checker thread, as soon as the query is found to have
+     * terminated. This lets callers abort work which is blocked, such as a pending request to the source, instead of
+     * waiting for their next call to #isQueryRunning. If the query has already terminated the listener is run
+     * immediately on the calling thread.
+     *
+     * @param listener The listener, which should return quickly.
+     */
+    public void addTerminationListener(Runnable listener)
+    {
+        terminationListeners.add(listener);
+        if (!isQueryRunning() && terminationListeners.remove(listener)) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Removes a listener registered with #addTerminationListener, once the work it would abort has completed.
+     */
+    public void removeTerminationListener(Runnable listener)
+    {
+        terminationListeners.remove(listener);
+    }
+
     /**
      * Stops the status checker thread
      */
@@ -109,6 +136,21 @@ public class QueryStatusChecker
         logger.debug("Query terminated. Ceasing status polling");
     }
 
+    private void notifyTerminationListeners()
+    {
+        for (Runnable listener : terminationListeners) {
+            // removal decides whether this thread or #addTerminationListener runs a listener registered concurrently
+            if (terminationListeners.remove(listener)) {
+                try {
+                    listener.run();
+                }
+                catch (RuntimeException e) {
+                    logger.warn("Termination listener failed for query {}", queryId, e);
+                }
+            }
+        }
+    }
+
     private void checkStatus(String queryId, int attempt)
             throws InterruptedException
     {
@@ -119,6 +161,7 @@ public class QueryStatusChecker
             if (TERMINAL_STATES.contains(state)) {
                 logger.debug("Query {} has terminated with state {}", queryId, state);
                 isRunning.set(false);
+                notifyTerminationListeners();
             }
         }
         catch (Exception e) {
@@ -36,6 +36,7 @@ import org.slf4j.LoggerFactory;
 
 import java.beans.Transient;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -79,6 +80,12 @@ public class Block
     //Note that we will _NOT_ close this ConstraintEvaluator because we may not own it and the emptyEvaluator
     //has no resources that could leak.
     private ConstraintEvaluator constraintEvaluator = ConstraintEvaluator.emptyEvaluator();
+    //Lazily populated map of top-level field name to field index.
+    private Map<String, Integer> fieldIndexes;
+    //Lazily populated tables of setters, one per top-level FieldVector, used to avoid resolving the vector's type (and
+    //the Java type of the values being written) on every value written. See ValueSetterFactory.
+    private ValueSetter[] valueSetters;
+    private ComplexValueSetter[] complexValueSetters;
 
     /**
      * Used by a BlockAllocator to construct a block by setting the key values that a Block 'holds'. Most of the meaningful
@@ -146,7 +153,7 @@ public class Block
     public boolean setValue(String fieldName, int row, Object value)
     {
         if (constraintEvaluator.apply(fieldName, value)) {
-            BlockUtils.setValue(getFieldVector(fieldName), row, value);
+            writeValue(requireFieldIndex(fieldName), row, value);
             return true;
         }
         return false;
@@ -170,15 +177,83 @@ public class Block
     public boolean offerValue(String fieldName, int row, Object value)
     {
         if (constraintEvaluator.apply(fieldName, value)) {
-            FieldVector vector = getFieldVector(fieldName);
-            if (vector != null) {
-                BlockUtils.setValue(vector, row, value);
+            int fieldIndex = getFieldIndex(fieldName);
+            if (fieldIndex >= 0) {
+                writeValue(fieldIndex, row, value);
             }
             return true;
         }
         return false;
     }
 
+    /**
+     * Writes the provided value to the field at the specified index on the specified row. This is equivalent to
+     * setValue(String, int, Object) but avoids looking up the field by name and resolving the field's type on every
+     * call, making it better suited to tight loops that write many values. Field indexes can be obtained once, up front,
+     * by calling getFieldIndex(...).
+     *
+     * @param fieldIndex The index of the field, in this Block's Schema, that you wish to write to.
+     * @param row The row number to write to. Note that Apache Arrow Blocks begin with row 0 just like a typical array.
+     * @param value The value you wish to write.
+     * @return True if the value was written to the Block, False if the value was not written due to failing a constraint.
+     * @note This method will throw an IndexOutOfBoundsException if you call it with an invalid field index. You can use
+     * offerValue(int, int, Object) to ignore missing fields.
+     */
+    public boolean setValue(int fieldIndex, int row, Object value)
+    {
+        if (constraintEvaluator.apply(schema.getFields().get(fieldIndex).getName(), value)) {
+            writeValue(fieldIndex, row, value);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Attempts to write the provided value to the field at the specified index on the specified row. This is equivalent
+     * to offerValue(String, int, Object) but avoids looking up the field by name and resolving the field's type on every
+     * call. Field indexes can be obtained once, up front, by calling getFieldIndex(...).
+     *
+     * @param fieldIndex The index of the field, in this Block's Schema, that you wish to write to. A negative index
+     * (as returned by getFieldIndex(...) for a missing field) is treated as a field that is not in this Block.
+     * @param row The row number to write to. Note that Apache Arrow Blocks begin with row 0 just like a typical array.
+     * @param value The value you wish to write.
+     * @return True if the value was written to the Block (even if the field is missing from the Block),
+     * False if the value was not written due to failing a constraint.
+     */
+    public boolean offerValue(int fieldIndex, int row, Object value)
+    {
+        if (fieldIndex < 0) {
+            return true;
+        }
+        return setValue(fieldIndex, row, value);
+    }
+
+    /**
+     * Writes the value using the cached ValueSetter for the given field index, creating the ValueSetter on first use.
+     */
+    private void writeValue(int fieldIndex, int row, Object value)
+    {
+        if (valueSetters == null) {
+            valueSetters = new ValueSetter[vectorSchema.getFieldVectors().size()];
+        }
+
+        ValueSetter setter = valueSetters[fieldIndex];
+        if (setter == null) {
+            setter = ValueSetterFactory.newCachingValueSetter(vectorSchema.getVector(fieldIndex));
+            valueSetters[fieldIndex] = setter;
+        }
+
+        try {
+            setter.setValue(row, value);
+        }
+        catch (RuntimeException ex) {
+            FieldVector vector = vectorSchema.getVector(fieldIndex);
+            throw new RuntimeException("Unable to set value for field " + vector.getField().getName()
+                + " using value " + value
+                + " of type " + vector.getMinorType(), ex);
+        }
+    }
+
     /**
      * Attempts to set the provided value for the given field name and row. If the Block's schema does not
      * contain such a field, this method does nothing and returns false.
@@ -194,8 +269,7 @@ public class Block
      */
     public boolean setComplexValue(String fieldName, int row, FieldResolver fieldResolver, Object value)
     {
-        FieldVector vector = getFieldVector(fieldName);
-        BlockUtils.setComplexValue(vector, row, fieldResolver, value);
+        writeComplexValue(requireFieldIndex(fieldName), row, fieldResolver, value);
         return true;
     }
 
@@ -213,13 +287,67 @@ public class Block
      */
     public boolean offerComplexValue(String fieldName, int row, FieldResolver fieldResolver, Object value)
     {
-        FieldVector vector = getFieldVector(fieldName);
-        if (vector != null) {
-            BlockUtils.setComplexValue(vector, row, fieldResolver, value);
+        int fieldIndex = getFieldIndex(fieldName);
+        if (fieldIndex >= 0) {
+            writeComplexValue(fieldIndex, row, fieldResolver, value);
         }
         return true;
     }
 
+    /**
+     * Writes the provided complex value to the field at the specified index on the specified row. This is equivalent to
+     * setComplexValue(String, int, FieldResolver, Object) but avoids looking up the field by name on every call.
+     *
+     * @param fieldIndex The index of the field, in this Block's Schema, that you wish to write to.
+     * @param row The row number to write to. Note that Apache Arrow Blocks begin with row 0 just like a typical array.
+     * @param fieldResolver The FieldResolver used to map your value to the complex type.
+     * @param value The value you wish to write.
+     * @return True, complex values are not subject to constraints.
+     */
+    public boolean setComplexValue(int fieldIndex, int row, FieldResolver fieldResolver, Object value)
+    {
+        writeComplexValue(fieldIndex, row, fieldResolver, value);
+        return true;
+    }
+
+    /**
+     * Attempts to write the provided complex value to the field at the specified index on the specified row. This is
+     * equivalent to offerComplexValue(String, int, FieldResolver, Object) but avoids looking up the field by name on
+     * every call.
+     *
+     * @param fieldIndex The index of the field, in this Block's Schema, that you wish to write to. A negative index
+     * (as returned by getFieldIndex(...) for a missing field) is treated as a field that is not in this Block.
+     * @param row The row number to write to. Note that Apache Arrow Blocks begin with row 0 just like a typical array.
+     * @param fieldResolver The FieldResolver used to map your value to the complex type.
+     * @param value The value you wish to write.
+     * @return True, complex values are not subject to constraints.
+     */
+    public boolean offerComplexValue(int fieldIndex, int row, FieldResolver fieldResolver, Object value)
+    {
+        if (fieldIndex >= 0) {
+            writeComplexValue(fieldIndex, row, fieldResolver, value);
+        }
+        return true;
+    }
+
+    /**
+     * Writes the value using the cached ComplexValueSetter for the given field index, creating the ComplexValueSetter
+     * on first use.
+     */
+    private void writeComplexValue(int fieldIndex, int row, FieldResolver fieldResolver, Object value)
+    {
+        if (complexValueSetters == null) {
+            complexValueSetters = new ComplexValueSetter[vectorSchema.getFieldVectors().size()];
+        }
+
+        ComplexValueSetter setter = complexValueSetters[fieldIndex];
+        if (setter == null) {
+            setter = ValueSetterFactory.newComplexValueSetter(vectorSchema.getVector(fieldIndex));
+            complexValueSetters[fieldIndex] = setter;
+        }
+        setter.setComplexValue(row, fieldResolver, value);
+    }
+
     /**
      * Provides access to the Apache Arrow Vector Schema when direct access to Apache Arrow is required.
      *
@@ -267,6 +395,52 @@ public class Block
         return vectorSchema.getVector(fieldName).getReader();
     }
 
+    /**
+     * Provides access to the Apache Arrow FieldReader for the field at the given index.
+     *
+     * @param fieldIndex The index of the field, in this Block's Schema, to retrieve.
+     * @return The FieldReader that can be used to read values from the Block for the specified field.
+     * @note This method throws an IndexOutOfBoundsException if the requested index is not valid for this Block's Schema.
+     */
+    public FieldReader getFieldReader(int fieldIndex)
+    {
+        return vectorSchema.getVector(fieldIndex).getReader();
+    }
+
+    /**
+     * Resolves the index of the given field name in this Block's Schema. The returned index can be used with the index
+     * based accessors (e.g. setValue(int, int, Object)) to avoid looking up the field by name for every value.
+     *
+     * @param fieldName The name of the field to resolve.
+     * @return The index of the field, or -1 if the field is not in this Block's Schema.
+     */
+    public int getFieldIndex(String fieldName)
+    {
+        if (fieldIndexes == null) {
+            List<Field> fields = schema.getFields();
+            Map<String, Integer> indexes = new HashMap<>(fields.size() * 2);
+            for (int i = 0; i < fields.size(); i++) {
+                indexes.putIfAbsent(fields.get(i).getName(), i);
+            }
+            fieldIndexes = indexes;
+        }
+        Integer fieldIndex = fieldIndexes.get(fieldName);
+        return (fieldIndex != null) ? fieldIndex : -1;
+    }
+
+    /**
+     * Resolves the index of the given field name, failing in the same way as the name based setters always have
+     * (with an NPE) if the field is not in this Block's Schema.
+     */
+    private int requireFieldIndex(String fieldName)
+    {
+        int fieldIndex = getFieldIndex(fieldName);
+        if (fieldIndex < 0) {
+            throw new NullPointerException("Field " + fieldName + " is not in this Block's Schema");
+        }
+        return fieldIndex;
+    }
+
     /**
      * Provides access to the Apache Arrow FieldVector which can be used to write values for the given field name.
      *
@@ -282,6 +456,18 @@ public class Block
         return vectorSchema.getVector(fieldName);
     }
 
+    /**
+     * Provides access to the Apache Arrow FieldVector for the field at the given index.
+     *
+     * @param fieldIndex The index of the field, in this Block's Schema, to retrieve.
+     * @return The FieldVector that can be used to read or write values for the specified field.
+     * @note This method throws an IndexOutOfBoundsException if the requested index is not valid for this Block's Schema.
+     */
+    public FieldVector getFieldVector(int fieldIndex)
+    {
+        return vectorSchema.getVector(fieldIndex);
+    }
+
     /**
      * Provides access to the list of all top-level FieldReaders in this Block.
      *
@@ -145,10 +145,11 @@ public class BlockUtils
         schemaBuilder.addField(columnName, type);
         Schema schema = schemaBuilder.build();
         Block block = allocator.createBlock(schema);
+        FieldVector vector = block.getFieldVector(columnName);
         int count = 0;
         for (Object next : values) {
             try {
-                setValue(block.getFieldVector(columnName), count++, next);
+                setValue(vector, count++, next);
             }
             catch (Exception ex) {
                 throw new RuntimeException("Error for " + type + " " + columnName + " " + next, ex);
@@ -247,51 +248,16 @@ public class BlockUtils
             //TODO: add all types
             switch (vector.getMinorType()) {
                 case TIMESTAMPMILLITZ:
-                    if (value instanceof Long) {
-                        ((TimeStampMilliTZVector) vector).setSafe(pos, (long) value);
-                    }
-                    else {
-                        String targetTimeZone = ((ArrowType.Timestamp) vector.getField().getType()).getTimezone();
-                        ((TimeStampMilliTZVector) vector).setSafe(pos, DateTimeFormatterUtil.timestampMilliTzHolderFromObject(value, targetTimeZone));
-                    }
+                    setTimeStampMilliTZValue((TimeStampMilliTZVector) vector, pos, value);
                     break;
                 case TIMESTAMPMICROTZ:
-                    if (value instanceof Long) {
-                        ((TimeStampMicroTZVector) vector).setSafe(pos, (long) value);
-                    }
-                    else {
-                        String targetTimeZone = ((ArrowType.Timestamp) vector.getField().getType()).getTimezone();
-                        ((TimeStampMicroTZVector) vector).setSafe(pos, DateTimeFormatterUtil.timestampMicroTzHolderFromObject(value, targetTimeZone));
-                    }
+                    setTimeStampMicroTZValue((TimeStampMicroTZVector) vector, pos, value);
                     break;
                 case DATEMILLI:
-                    if (value instanceof Date) {
-                        ((DateMilliVector) vector).setSafe(pos, ((Date) value).getTime());
-                    }
-                    else if (value instanceof LocalDateTime) {
-                        ((DateMilliVector) vector).setSafe(
-                                pos,
-                                ((LocalDateTime) value).atZone(UTC_ZONE_ID).toInstant().toEpochMilli());
-                    }
-                    else {
-                        ((DateMilliVector) vector).setSafe(pos, (long) value);
-                    }
+                    setDateMilliValue((DateMilliVector) vector, pos, value);
                     break;
                 case DATEDAY:
-                    if (value instanceof Date) {
-                        long days = java.time.Duration.of(((Date) value).getTime(), java.time.temporal.ChronoUnit.MILLIS).toDays();
-                        ((DateDayVector) vector).setSafe(pos, new Long(days).intValue());
-                    }
-                    else if (value instanceof LocalDate) {
-                        int days = (int) ((LocalDate) value).toEpochDay();
-                        ((DateDayVector) vector).setSafe(pos, days);
-                    }
-                    else if (value instanceof Long) {
-                        ((DateDayVector) vector).setSafe(pos, ((Long) value).intValue());
-                    }
-                    else {
-                        ((DateDayVector) vector).setSafe(pos, (int) value);
-                    }
+                    setDateDayValue((DateDayVector) vector, pos, value);
                     break;
                 case FLOAT8:
                     ((Float8Vector) vector).setSafe(pos, (double) value);
@@ -300,57 +266,25 @@ public class BlockUtils
                     ((Float4Vector) vector).setSafe(pos, (float) value);
                     break;
                 case INT:
-                    if (value != null && value instanceof Long) {
-                        //This may seem odd at first but many frameworks (like Presto) use long as the preferred
-                        //native java type for representing integers. We do this to keep type conversions simple.
-                        ((IntVector) vector).setSafe(pos, ((Long) value).intValue());
-                    }
-                    else {
-                        ((IntVector) vector).setSafe(pos, (int) value);
-                    }
+                    setIntValue((IntVector) vector, pos, value);
                     break;
                 case TINYINT:
-                    if (value instanceof Byte) {
-                        ((TinyIntVector) vector).setSafe(pos, (byte) value);
-                    }
-                    else {
-                        ((TinyIntVector) vector).setSafe(pos, (int) value);
-                    }
+                    setTinyIntValue((TinyIntVector) vector, pos, value);
                     break;
                 case SMALLINT:
-                    if (value instanceof Short) {
-                        ((SmallIntVector) vector).setSafe(pos, (short) value);
-                    }
-                    else {
-                        ((SmallIntVector) vector).setSafe(pos, (int) value);
-                    }
+                    setSmallIntValue((SmallIntVector) vector, pos, value);
                     break;
                 case UINT1:
-                    if (value instanceof Byte) {
-                        ((UInt1Vector) vector).setSafe(pos, (byte) value);
-                    }
-                    else {
-                        ((UInt1Vector) vector).setSafe(pos, (int) value);
-                    }
+                    setUInt1Value((UInt1Vector) vector, pos, value);
                     break;
                 case UINT2:
-                    if (value instanceof Character) {
-                        ((UInt2Vector) vector).setSafe(pos, (char) value);
-                    }
-                    else {
-                        ((UInt2Vector) vector).setSafe(pos, (int) value);
-                    }
+                    setUInt2Value((UInt2Vector) vector, pos, value);
                     break;
                 case UINT4:
                     ((UInt4Vector) vector).setSafe(pos, (int) value);
                     break;
                 case UINT8:
-                    if (value instanceof Long) {
-                        ((UInt8Vector) vector).setSafe(pos, (long) value);
-                    }
-                    else {
-                        ((UInt8Vector) vector).setSafe(pos, (int) value);
-                    }
+                    setUInt8Value((UInt8Vector) vector, pos, value);
                     break;
                 case BIGINT:
                     ((BigIntVector) vector).setSafe(pos, (long) value);
@@ -359,36 +293,13 @@ public class BlockUtils
                     ((VarBinaryVector) vector).setSafe(pos, (byte[]) value);
                     break;
                 case DECIMAL:
-                    DecimalVector dVector = ((DecimalVector) vector);
-                    if (value instanceof Double) {
-                        BigDecimal bdVal = new BigDecimal((double) value);
-                        bdVal = bdVal.setScale(dVector.getScale(), RoundingMode.HALF_UP);
-                        dVector.setSafe(pos, bdVal);
-                    }
-                    else {
-                        BigDecimal scaledValue = ((BigDecimal) value).setScale(dVector.getScale(), RoundingMode.HALF_UP);
-                        ((DecimalVector) vector).setSafe(pos, scaledValue);
-                    }
+                    setDecimalValue((DecimalVector) vector, pos, value);
                     break;
                 case VARCHAR:
-                    if (value instanceof Text) {
-                        ((VarCharVector) vector).setSafe(pos, (Text) value);
-                    }
-                    else {
-                        // always fall back to the object's toString()
-                        ((VarCharVector) vector).setSafe(pos, value.toString().getBytes(Charsets.UTF_8));
-                    }
+                    setVarCharValue((VarCharVector) vector, pos, value);
                     break;
                 case BIT:
-                    if (value instanceof Integer && (int) value > 0) {
-                        ((BitVector) vector).setSafe(pos, 1);
-                    }
-                    else if (value instanceof Boolean && (boolean) value) {
-                        ((BitVector) vector).setSafe(pos, 1);
-                    }
-                    else {
-                        ((BitVector) vector).setSafe(pos, 0);
-                    }
+                    setBitValue((BitVector) vector, pos, value);
                     break;
                 default:
                     throw new IllegalArgumentException("Unknown type " + vector.getMinorType());
@@ -402,6 +313,197 @@ public class BlockUtils
         }
     }
 
+    /**
+     * Creates a ValueSetter bound to the provided FieldVector. The vector's type is resolved once, when the setter is
+     * created, so that callers writing many values to the same vector (e.g. Block's index based setters) avoid the
+     * per-value type dispatch performed by setValue(...). Values are coerced exactly as setValue(...) would coerce them.
+     *
+     * @param vector The FieldVector the returned ValueSetter will write to.
+     * @return A ValueSetter which writes to the provided vector.
+     * @throws IllegalArgumentException if the vector's type is not supported by setValue(...).
+     */
+    public static ValueSetter newValueSetter(FieldVector vector)
+    {
+        return withFieldContext(vector, newValueSetterWithoutFieldContext(vector));
+    }
+
+    /**
+     * Same as newValueSetter(...) but failures are not wrapped with the name of the field, for callers such as Block
+     * which add it themselves.
+     */
+    static ValueSetter newValueSetterWithoutFieldContext(FieldVector vector)
+    {
+        return ValueSetterFactory.newValueSetter(vector, null);
+    }
+
+    private static ValueSetter withFieldContext(FieldVector vector, ValueSetter setter)
+    {
+        return (pos, value) -> {
+            try {
+                setter.setValue(pos, value);
+            }
+            catch (RuntimeException ex) {
+                throw new RuntimeException("Unable to set value for field " + vector.getField().getName()
+                    + " using value " + value
+                    + " of type " + vector.getMinorType(), ex);
+            }
+        };
+    }
+
+    static void setTimeStampMilliTZValue(TimeStampMilliTZVector vector, int pos, Object value)
+    {
+        if (value instanceof Long) {
+            vector.setSafe(pos, (long) value);
+        }
+        else {
+            String targetTimeZone = ((ArrowType.Timestamp) vector.getField().getType()).getTimezone();
+            vector.setSafe(pos, DateTimeFormatterUtil.timestampMilliTzHolderFromObject(value, targetTimeZone));
+        }
+    }
+
+    static void setTimeStampMicroTZValue(TimeStampMicroTZVector vector, int pos, Object value)
+    {
+        if (value instanceof Long) {
+            vector.setSafe(pos, (long) value);
+        }
+        else {
+            String targetTimeZone = ((ArrowType.Timestamp) vector.getField().getType()).getTimezone();
+            vector.setSafe(pos, DateTimeFormatterUtil.timestampMicroTzHolderFromObject(value, targetTimeZone));
+        }
+    }
+
+    static void setDateMilliValue(DateMilliVector vector, int pos, Object value)
+    {
+        if (value instanceof Date) {
+            vector.setSafe(pos, ((Date) value).getTime());
+        }
+        else if (value instanceof LocalDateTime) {
+            vector.setSafe(
+                    pos,
+                    ((LocalDateTime) value).atZone(UTC_ZONE_ID).toInstant().toEpochMilli());
+        }
+        else {
+            vector.setSafe(pos, (long) value);
+        }
+    }
+
+    static void setDateDayValue(DateDayVector vector, int pos, Object value)
+    {
+        if (value instanceof Date) {
+            long days = java.time.Duration.of(((Date) value).getTime(), java.time.temporal.ChronoUnit.MILLIS).toDays();
+            vector.setSafe(pos, new Long(days).intValue());
+        }
+        else if (value instanceof LocalDate) {
+            int days = (int) ((LocalDate) value).toEpochDay();
+            vector.setSafe(pos, days);
+        }
+        else if (value instanceof Long) {
+            vector.setSafe(pos, ((Long) value).intValue());
+        }
+        else {
+            vector.setSafe(pos, (int) value);
+        }
+    }
+
+    static void setIntValue(IntVector vector, int pos, Object value)
+    {
+        if (value instanceof Long) {
+            //This may seem odd at first but many frameworks (like Presto) use long as the preferred
+            //native java type for representing integers. We do this to keep type conversions simple.
+            vector.setSafe(pos, ((Long) value).intValue());
+        }
+        else {
+            vector.setSafe(pos, (int) value);
+        }
+    }
+
+    static void setTinyIntValue(TinyIntVector vector, int pos, Object value)
+    {
+        if (value instanceof Byte) {
+            vector.setSafe(pos, (byte) value);
+        }
+        else {
+            vector.setSafe(pos, (int) value);
+        }
+    }
+
+    static void setSmallIntValue(SmallIntVector vector, int pos, Object value)
+    {
+        if (value instanceof Short) {
+            vector.setSafe(pos, (short) value);
+        }
+        else {
+            vector.setSafe(pos, (int) value);
+        }
+    }
+
+    static void setUInt1Value(UInt1Vector vector, int pos, Object value)
+    {
+        if (value instanceof Byte) {
+            vector.setSafe(pos, (byte) value);
+        }
+        else {
+            vector.setSafe(pos, (int) value);
+        }
+    }
+
+    static void setUInt2Value(UInt2Vector vector, int pos, Object value)
+    {
+        if (value instanceof Character) {
+            vector.setSafe(pos, (char) value);
+        }
+        else {
+            vector.setSafe(pos, (int) value);
+        }
+    }
+
+    static void setUInt8Value(UInt8Vector vector, int pos, Object value)
+    {
+        if (value instanceof Long) {
+            vector.setSafe(pos, (long) value);
+        }
+        else {
+            vector.setSafe(pos, (int) value);
+        }
+    }
+
+    static void setDecimalValue(DecimalVector vector, int pos, Object value)
+    {
+        if (value instanceof Double) {
+            BigDecimal bdVal = new BigDecimal((double) value);
+            bdVal = bdVal.setScale(vector.getScale(), RoundingMode.HALF_UP);
+            vector.setSafe(pos, bdVal);
+        }
+        else {
+            BigDecimal scaledValue = ((BigDecimal) value).setScale(vector.getScale(), RoundingMode.HALF_UP);
+            vector.setSafe(pos, scaledValue);
+        }
+    }
+
+    static void setVarCharValue(VarCharVector vector, int pos, Object value)
+    {
+        if (value instanceof Text) {
+            vector.setSafe(pos, (Text) value);
+        }
+        else {
+            // always fall back to the object's toString()
+            vector.setSafe(pos, value.toString().getBytes(Charsets.UTF_8));
+        }
+    }
+
+    static void setBitValue(BitVector vector, int pos, Object value)
+    {
+        if (value instanceof Integer && (int) value > 0) {
+            vector.setSafe(pos, 1);
+        }
+        else if (value instanceof Boolean && (boolean) value) {
+            vector.setSafe(pos, 1);
+        }
+        else {
+            vector.setSafe(pos, 0);
+        }
+    }
+
     /**
      * Used to convert a specific row in the provided Block to a human readable string. This is useful for diagnostic
      * logging.
@@ -533,10 +635,13 @@ public class BlockUtils
 
         for (FieldReader src : srcBlock.getFieldReaders()) {
             int dstOffset = dstBlock.getRowCount();
+            FieldVector dst = dstBlock.getFieldVector(src.getField().getName());
+            // complex types keep going through setValue(...), which reports them the way it always has
+            ValueSetter typedSetter = ValueSetterFactory.newTypedValueSetter(dst, null);
+            ValueSetter dstSetter = (typedSetter != null) ? withFieldContext(dst, typedSetter) : (pos, value) -> setValue(dst, pos, value);
             for (int i = firstRow; i <= lastRow; i++) {
-                FieldVector dst = dstBlock.getFieldVector(src.getField().getName());
                 src.setPosition(i);
-                setValue(dst, dstOffset++, src.readObject());
+                dstSetter.setValue(dstOffset++, src.readObject());
             }
         }
 
@@ -545,6 +650,30 @@ public class BlockUtils
         return rowsCopied;
     }
 
+    /**
+     * Resolves the index, within the provided schema, of each of the provided field names. Blocks created from the
+     * schema can use the returned indexes with their index based setters (e.g. Block.offerValue(int, int, Object)).
+     *
+     * @param schema The schema to resolve the field names against.
+     * @param fieldNames The field names to resolve.
+     * @return The index of each field name in the schema, or -1 for field names which are not in the schema.
+     */
+    public static int[] getFieldIndexes(Schema schema, List<String> fieldNames)
+    {
+        List<Field> fields = schema.getFields();
+        int[] indexes = new int[fieldNames.size()];
+        for (int i = 0; i < fieldNames.size(); i++) {
+            indexes[i] = -1;
+            for (int j = 0; j < fields.size(); j++) {
+                if (fields.get(j).getName().equals(fieldNames.get(i))) {
+                    indexes[i] = j;
+                    break;
+                }
+            }
+        }
+        return indexes;
+    }
+
     /**
      * Checks if a row is null by checking that all fields in that row are null (aka not set).
      *
@@ -775,10 +904,28 @@ public class BlockUtils
      * @param fromMapOrStruct write the simple value for non map/struct or map/struct type
      */
     protected static void writeSimpleValue(FieldWriter writer, Field field, BufferAllocator allocator, Object value, boolean fromMapOrStruct)
+    {
+        writeSimpleValue(writer, field, Types.getMinorTypeForArrowType(field.getType()), allocator, value, fromMapOrStruct);
+    }
+
+    /**
+     * Variant of writeSimpleValue(...) which accepts the field's already resolved MinorType. This allows callers that
+     * write many values for the same field (e.g. the ComplexValueSetters created by ValueSetterFactory) to resolve the
+     * field's type once instead of once per value.
+     *
+     * @param writer The FieldWriter (already positioned at the row) that we want to write into.
+     * @param field The concrete type of the values.
+     * @param minorType The MinorType of the field's ArrowType.
+     * @param allocator The BlockAllocator that can be used for allocating Arrow Buffers for fields which require conversion
+     * to Arrow Buff before being written.
+     * @param value The value to write.
+     * @param fromMapOrStruct write the simple value for non map/struct or map/struct type
+     */
+    protected static void writeSimpleValue(FieldWriter writer, Field field, Types.MinorType minorType, BufferAllocator allocator, Object value, boolean fromMapOrStruct)
     {
         ArrowType type = field.getType();
         try {
-            switch (Types.getMinorTypeForArrowType(type)) {
+            switch (minorType) {
                 case TIMESTAMPMILLITZ: {
                     String timezone =  ((ArrowType.Timestamp) type).getTimezone();
                     // Known issue with Lists and Maps of TimeStampMilliTZ. This will throw.
@@ -1017,7 +1164,7 @@ public class BlockUtils
         catch (RuntimeException ex) {
             throw new RuntimeException("Unable to write value for field "
                 + field.getName() + " using value " + value
-                + " with minor type " + Types.getMinorTypeForArrowType(type), ex);
+                + " with minor type " + minorType, ex);
         }
     }
 
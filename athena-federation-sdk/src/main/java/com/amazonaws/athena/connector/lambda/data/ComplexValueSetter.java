@@ -0,0 +1,40 @@
+package com.amazonaws.athena.connector.lambda.data;
+
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Writes complex (List, Struct, Map) values into a single, pre-resolved, Apache Arrow FieldVector. Implementations
+ * are bound to their vector, and the shape of its field, when they are created.
+ *
+ * @see ValueSetterFactory#newComplexValueSetter(org.apache.arrow.vector.FieldVector)
+ */
+@FunctionalInterface
+public interface ComplexValueSetter
+{
+    /**
+     * Writes the provided complex value to the specified row of the vector this ComplexValueSetter is bound to.
+     *
+     * @param pos The row number that the value should be written to.
+     * @param resolver The FieldResolver that can be used to map your value to the complex type (mostly for Structs, Maps).
+     * @param value The value to write.
+     */
+    void setComplexValue(int pos, FieldResolver resolver, Object value);
+}
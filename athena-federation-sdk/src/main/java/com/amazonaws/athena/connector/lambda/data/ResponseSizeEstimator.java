@@ -0,0 +1,119 @@
+package com.amazonaws.athena.connector.lambda.data;
+
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.ipc.WriteChannel;
+import org.apache.arrow.vector.ipc.message.MessageSerializer;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.util.List;
+
+/**
+ * Estimates the size of a Block once it has been serialized into an inline ReadRecordsResponse. Block.getSize() only
+ * sums the used bytes of the underlying Apache Arrow buffers, whereas the inline response also carries the serialized
+ * Schema, Apache Arrow IPC metadata and padding, and base64 encodes both when writing them to JSON. The estimate is
+ * intended to be slightly conservative so that it can be compared against hard response size limits.
+ */
+public class ResponseSizeEstimator
+{
+    //Fixed allowance for the JSON envelope of the response (type, catalog name, allocator id, field names, etc...)
+    private static final long ENVELOPE_BYTES = 1024;
+    //IPC continuation marker and metadata length prefix.
+    private static final long IPC_PREFIX_BYTES = 8;
+    //Allowance for the fixed portion of the flatbuffer RecordBatch message header.
+    private static final long IPC_HEADER_BYTES = 128;
+    //Each FieldNode (length, null count) and Buffer (offset, length) in the message header is a pair of longs.
+    private static final long IPC_STRUCT_BYTES = 16;
+    //Apache Arrow IPC pads the metadata and every buffer in the message body to 8 bytes.
+    private static final long IPC_ALIGNMENT = 8;
+
+    //The base64 encoded size of the serialized Schema, which is the same for every Block of this Schema.
+    private final long encodedSchemaBytes;
+
+    /**
+     * @param schema The Schema of the Blocks whose response size will be estimated.
+     */
+    public ResponseSizeEstimator(Schema schema)
+    {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            MessageSerializer.serialize(new WriteChannel(Channels.newChannel(out)), schema, AthenaFederationIpcOption.DEFAULT);
+            this.encodedSchemaBytes = base64Size(out.size());
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Estimates the number of bytes the provided Block will occupy once serialized into an inline response.
+     *
+     * @param block The Block to estimate, must be of the Schema provided to the constructor.
+     * @return The estimated number of bytes.
+     */
+    public long estimateInlineSize(Block block)
+    {
+        long encodedBatchBytes = (block.getRowCount() > 0) ? base64Size(estimateRecordBatchSize(block)) : 0;
+        return ENVELOPE_BYTES + encodedSchemaBytes + encodedBatchBytes;
+    }
+
+    /**
+     * Estimates the number of bytes of the Apache Arrow IPC RecordBatch message for the provided Block, without the
+     * cost of actually serializing it.
+     *
+     * @param block The Block to estimate.
+     * @return The estimated number of bytes.
+     */
+    public static long estimateRecordBatchSize(Block block)
+    {
+        long[] metadataAndBody = new long[2];
+        accumulate(block.getFieldVectors(), metadataAndBody);
+        return IPC_PREFIX_BYTES + align(IPC_HEADER_BYTES + metadataAndBody[0]) + metadataAndBody[1];
+    }
+
+    private static void accumulate(List<FieldVector> vectors, long[] metadataAndBody)
+    {
+        for (FieldVector next : vectors) {
+            metadataAndBody[0] += IPC_STRUCT_BYTES;
+            for (ArrowBuf buffer : next.getFieldBuffers()) {
+                metadataAndBody[0] += IPC_STRUCT_BYTES;
+                metadataAndBody[1] += align(buffer.readableBytes());
+            }
+            accumulate(next.getChildrenFromFields(), metadataAndBody);
+        }
+    }
+
+    private static long align(long bytes)
+    {
+        return (bytes + IPC_ALIGNMENT - 1) / IPC_ALIGNMENT * IPC_ALIGNMENT;
+    }
+
+    private static long base64Size(long bytes)
+    {
+        return (bytes + 2) / 3 * 4;
+    }
+}
@@ -105,6 +105,8 @@ public class S3BlockSpiller
     private final AtomicReference<RuntimeException> asyncException = new AtomicReference<>(null);
     //
     private final ConstraintEvaluator constraintEvaluator;
+    //Used to estimate the serialized size of the in progress Block when deciding if it can be inlined.
+    private final ResponseSizeEstimator responseSizeEstimator;
     //Used to track total bytes written
     private final AtomicLong totalBytesSpilled = new AtomicLong();
     //Time this BlockSpiller wss created.
@@ -163,6 +165,7 @@ public class S3BlockSpiller
         asyncSpillPool = (spillConfig.getNumSpillThreads() <= 0) ? null : makeAsyncSpillPool(spillConfig);
         this.maxRowsPerCall = maxRowsPerCall;
         this.constraintEvaluator = constraintEvaluator;
+        this.responseSizeEstimator = new ResponseSizeEstimator(schema);
     }
 
     /**
@@ -215,7 +218,9 @@ public class S3BlockSpiller
     }
 
     /**
-     * Used to tell if any blocks were spilled or if the response can be inline.
+     * Used to tell if any blocks were spilled or if the response can be inline. The in progress Block can be inlined
+     * if its estimated serialized size fits within the larger of the max inline Block size and the max inline
+     * response size. A max inline Block size of 0 disables inlining.
      *
      * @return True is spill occurred, false otherwise.
      */
@@ -231,13 +236,25 @@ public class S3BlockSpiller
             lock.lock();
             ensureInit();
             Block block = inProgressBlock.get();
-            return !spillLocations.isEmpty() || block.getSize() >= spillConfig.getMaxInlineBlockSize();
+            return !spillLocations.isEmpty() || !fitsInline(block);
         }
         finally {
             lock.unlock();
         }
     }
 
+    /**
+     * Checks if the provided Block, once serialized, fits in an inline response.
+     */
+    private boolean fitsInline(Block block)
+    {
+        if (spillConfig.getMaxInlineBlockSize() <= 0) {
+            return false;
+        }
+        long maxInlineBytes = Math.max(spillConfig.getMaxInlineBlockSize(), spillConfig.getMaxInlineResponseBytes());
+        return responseSizeEstimator.estimateInlineSize(block) < maxInlineBytes;
+    }
+
     /**
      * If spilled() returns false this can be used to access the block.
      *
@@ -250,7 +267,9 @@ public class S3BlockSpiller
             throw new RuntimeException("Blocks have spilled, calls to getBlock not permitted. use getSpillLocations instead.");
         }
 
-        logger.info("getBlock: Inline Block size[{}] bytes vs {}", inProgressBlock.get().getSize(), spillConfig.getMaxInlineBlockSize());
+        logger.info("getBlock: Inline Block size[{}] bytes, estimated response size[{}] bytes vs {} and {}",
+                new Object[] {inProgressBlock.get().getSize(), responseSizeEstimator.estimateInlineSize(inProgressBlock.get()),
+                        spillConfig.getMaxInlineBlockSize(), spillConfig.getMaxInlineResponseBytes()});
         return inProgressBlock.get();
     }
 
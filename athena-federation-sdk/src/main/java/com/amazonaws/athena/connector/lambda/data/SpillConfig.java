@@ -42,6 +42,8 @@ public class SpillConfig
     private final long maxBlockBytes;
     //The max bytes that can be in an inline (non-spilled) Block.
     private final long maxInlineBlockSize;
+    //The max estimated bytes of a serialized inline response, 0 disables this check.
+    private final long maxInlineResponseBytes;
     //The default number of threads to use for async spill operations. 0 indicates that the calling thread should be used.
     private final int numSpillThreads;
 
@@ -52,6 +54,7 @@ public class SpillConfig
         requestId = requireNonNull(builder.requestId, "requestId was null");
         maxBlockBytes = builder.maxBlockBytes;
         maxInlineBlockSize = builder.maxInlineBlockSize;
+        maxInlineResponseBytes = builder.maxInlineResponseBytes;
         numSpillThreads = builder.numSpillThreads;
     }
 
@@ -103,6 +106,16 @@ public class SpillConfig
         return maxInlineBlockSize;
     }
 
+    /**
+     * Gets max number of bytes the estimated, serialized, inline response can contain before spilling is required.
+     * This is typically the response size limit of the transport (e.g. Lambda) less some headroom.
+     * @return The number of bytes, 0 indicates that only getMaxInlineBlockSize() should be used.
+     */
+    public long getMaxInlineResponseBytes()
+    {
+        return maxInlineResponseBytes;
+    }
+
     /**
      * Gets the number of threads the BlockSpiller can use.
      * @return The number of threads.
@@ -122,6 +135,7 @@ public class SpillConfig
         Builder builder = new Builder();
         builder.encryptionKey = copy.getEncryptionKey();
         builder.maxBlockBytes = copy.getMaxBlockBytes();
+        builder.maxInlineResponseBytes = copy.getMaxInlineResponseBytes();
         return builder;
     }
 
@@ -132,6 +146,7 @@ public class SpillConfig
         private SpillLocation spillLocation;
         private long maxBlockBytes;
         private long maxInlineBlockSize;
+        private long maxInlineResponseBytes;
         private int numSpillThreads = DEFAULT_SPILL_THREADS;
 
         private Builder() {}
@@ -172,6 +187,12 @@ public class SpillConfig
             return this;
         }
 
+        public Builder withMaxInlineResponseBytes(long val)
+        {
+            maxInlineResponseBytes = val;
+            return this;
+        }
+
         public SpillConfig build()
         {
             return new SpillConfig(this);
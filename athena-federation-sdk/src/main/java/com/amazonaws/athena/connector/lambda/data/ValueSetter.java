@@ -0,0 +1,40 @@
+package com.amazonaws.athena.connector.lambda.data;
+
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Writes values into a single, pre-resolved, Apache Arrow FieldVector. Implementations are bound to their vector
+ * when they are created so that the vector's type only needs to be resolved once rather than on every value written.
+ *
+ * @see BlockUtils#newValueSetter(org.apache.arrow.vector.FieldVector)
+ */
+@FunctionalInterface
+public interface ValueSetter
+{
+    /**
+     * Writes the provided value to the specified row of the vector this ValueSetter is bound to. A null value
+     * sets the row to null.
+     *
+     * @param pos The row number that the value should be written to.
+     * @param value The value to write.
+     */
+    void setValue(int pos, Object value);
+}
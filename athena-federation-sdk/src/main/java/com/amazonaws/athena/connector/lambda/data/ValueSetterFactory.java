@@ -0,0 +1,757 @@
+package com.amazonaws.athena.connector.lambda.data;
+
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DateMilliVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.TimeStampMilliTZVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.UInt1Vector;
+import org.apache.arrow.vector.UInt2Vector;
+import org.apache.arrow.vector.UInt4Vector;
+import org.apache.arrow.vector.UInt8Vector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.MapVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.arrow.vector.complex.impl.UnionMapWriter;
+import org.apache.arrow.vector.complex.writer.FieldWriter;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.util.Text;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Creates ValueSetters and ComplexValueSetters which are specialized for a particular FieldVector and, where possible,
+ * for the Java type of the values being written to it.
+ * <p>
+ * BlockUtils.setValue(...) and BlockUtils.setComplexValue(...) resolve the vector's type and then test the value's
+ * Java type (Date, LocalDateTime, String, Text, etc...) on every call. Most sources, however, produce the same Java
+ * type for every value of a given column. The setters created here perform those checks once, when the setter is
+ * created, and are then reused for every value written to the vector. Block caches these setters per field.
+ * <p>
+ * Specialized setters coerce values exactly as BlockUtils.setValue(...) would. Combinations of vector type and Java
+ * type which have no specialized setter fall back to a setter which performs the same coercions as
+ * BlockUtils.setValue(...). This is also the setter BlockUtils.newValueSetter(...) returns.
+ */
+public final class ValueSetterFactory
+{
+    //The number of times a caching setter will re-specialize for a new Java type before assuming the source is
+    //polymorphic and permanently falling back to the generic setter.
+    private static final int MAX_RESPECIALIZATIONS = 4;
+
+    private ValueSetterFactory() {}
+
+    /**
+     * Creates a ValueSetter for the provided vector which is specialized for values of the given Java type. The
+     * returned setter accepts null values but, for non-null values, expects values of exactly the given Java type.
+     * Use newCachingValueSetter(...) if the Java type of the values is not known up front.
+     *
+     * @param vector The FieldVector the returned ValueSetter will write to.
+     * @param javaType The Java type of the (non-null) values that will be written using the returned ValueSetter, or
+     * null if it is not known, in which case values are coerced exactly as BlockUtils.setValue(...) would.
+     * @return A ValueSetter which writes to the provided vector.
+     * @throws IllegalArgumentException if the vector's type is not supported by BlockUtils.setValue(...).
+     */
+    public static ValueSetter newValueSetter(FieldVector vector, Class<?> javaType)
+    {
+        ValueSetter setter = newTypedValueSetter(vector, javaType);
+        if (setter == null) {
+            throw new IllegalArgumentException("Unknown type " + vector.getMinorType());
+        }
+        return setter;
+    }
+
+    /**
+     * Same as newValueSetter(...) but returns null, rather than failing, if the vector's type is not supported by
+     * BlockUtils.setValue(...). Combinations of vector type and Java type which have no specialized setter get the
+     * setter which coerces values as BlockUtils.setValue(...) does.
+     */
+    static ValueSetter newTypedValueSetter(FieldVector vector, Class<?> javaType)
+    {
+        switch (vector.getMinorType()) {
+            case BIGINT: {
+                BigIntVector typedVector = (BigIntVector) vector;
+                return (pos, value) -> {
+                    if (value == null) {
+                        typedVector.setNull(pos);
+                    }
+                    else {
+                        typedVector.setSafe(pos, (long) value);
+                    }
+                };
+            }
+            case INT: {
+                IntVector typedVector = (IntVector) vector;
+                if (javaType == Integer.class) {
+                    return (pos, value) -> {
+                        if (value == null) {
+                            typedVector.setNull(pos);
+                        }
+                        else {
+                            typedVector.setSafe(pos, (int) value);
+                        }
+                    };
+                }
+                if (javaType == Long.class) {
+                    return (pos, value) -> {
+                        if (value == null) {
+                            typedVector.setNull(pos);
+                        }
+                        else {
+                            typedVector.setSafe(pos, ((Long) value).intValue());
+                        }
+                    };
+                }
+                return (pos, value) -> {
+                    if (value == null) {
+                        typedVector.setNull(pos);
+                    }
+                    else {
+                        BlockUtils.setIntValue(typedVector, pos, value);
+                    }
+                };
+            }
+            case SMALLINT: {
+                SmallIntVector typedVector = (SmallIntVector) vector;
+                if (javaType == Short.class) {
+                    return (pos, value) -> {
+                        if (value == null) {
+                            typedVector.setNull(pos);
+                        }
+                        else {
+                            typedVector.setSafe(pos, (short) value);
+                        }
+                    };
+                }
+                if (javaType == Integer.class) {
+                    return (pos, value) -> {
+                        if (value == null) {
+                            typedVector.setNull(pos);
+                        }
+                        else {
+                            typedVector.setSafe(pos, (int) value);
+                        }
+                    };
+                }
+                return (pos, value) -> {
+                    if (value == null) {
+                        typedVector.setNull(pos);
+                    }
+                    else {
+                        BlockUtils.setSmallIntValue(typedVector, pos, value);
+                    }
+                };
+            }
+            case TINYINT: {
+                TinyIntVector typedVector = (TinyIntVector) vector;
+                if (javaType == Byte.class) {
+                    return (pos, value) -> {
+                        if (value == null) {
+                            typedVector.setNull(pos);
+                        }
+                        else {
+                            typedVector.setSafe(pos, (byte) value);
+                        }
+                    };
+                }
+                if (javaType == Integer.class) {
+                    return (pos, value) -> {
+                        if (value == null) {
+                            typedVector.setNull(pos);
+                        }
+                        else {
+                            typedVector.setSafe(pos, (int) value);
+                        }
+                    };
+                }
+                return (pos, value) -> {
+                    if (value == null) {
+                        typedVector.setNull(pos);
+                    }
+                    else {
+                        BlockUtils.setTinyIntValue(typedVector, pos, value);
+                    }
+                };
+            }
+            case UINT1: {
+                UInt1Vector typedVector = (UInt1Vector) vector;
+                return (pos, value) -> {
+                    if (value == null) {
+                        typedVector.setNull(pos);
+                    }
+                    else {
+                        BlockUtils.setUInt1Value(typedVector, pos, value);
+                    }
+                };
+            }
+            case UINT2: {
+                UInt2Vector typedVector = (UInt2Vector) vector;
+                return (pos, value) -> {
+                    if (value == null) {
+                        typedVector.setNull(pos);
+                    }
+                    else {
+                        BlockUtils.setUInt2Value(typedVector, pos, value);
+                    }
+                };
+            }
+            case UINT4: {
+                UInt4Vector typedVector = (UInt4Vector) vector;
+                return (pos, value) -> {
+                    if (value == null) {
+                        typedVector.setNull(pos);
+                    }
+                    else {
+                        typedVector.setSafe(pos, (int) value);
+                    }
+                };
+            }
+            case UINT8: {
+                UInt8Vector typedVector = (UInt8Vector) vector;
+                return (pos, value) -> {
+                    if (value == null) {
+                        typedVector.setNull(pos);
+                    }
+                    else {
+                        BlockUtils.setUInt8Value(typedVector, pos, value);
+                    }
+                };
+            }
+            case FLOAT8: {
+                Float8Vector typedVector = (Float8Vector) vector;
+                return (pos, value) -> {
+                    if (value == null) {
+                        typedVector.setNull(pos);
+                    }
+                    else {
+                        typedVector.setSafe(pos, (double) value);
+                    }
+                };
+            }
+            case FLOAT4: {
+                Float4Vector typedVector = (Float4Vector) vector;
+                return (pos, value) -> {
+                    if (value == null) {
+                        typedVector.setNull(pos);
+                    }
+                    else {
+                        typedVector.setSafe(pos, (float) value);
+                    }
+                };
+            }
+            case BIT: {
+                BitVector typedVector = (BitVector) vector;
+                if (javaType == Boolean.class) {
+                    return (pos, value) -> {
+                        if (value == null) {
+                            typedVector.setNull(pos);
+                        }
+                        else {
+                            typedVector.setSafe(pos, ((boolean) value) ? 1 : 0);
+                        }
+                    };
+                }
+                if (javaType == Integer.class) {
+                    return (pos, value) -> {
+                        if (value == null) {
+                            typedVector.setNull(pos);
+                        }
+                        else {
+                            typedVector.setSafe(pos, ((int) value > 0) ? 1 : 0);
+                        }
+                    };
+                }
+                return (pos, value) -> {
+                    if (value == null) {
+                        typedVector.setNull(pos);
+                    }
+                    else {
+                        BlockUtils.setBitValue(typedVector, pos, value);
+                    }
+                };
+            }
+            case VARCHAR: {
+                VarCharVector typedVector = (VarCharVector) vector;
+                if (javaType == String.class) {
+                    return (pos, value) -> {
+                        if (value == null) {
+                            typedVector.setNull(pos);
+                        }
+                        else {
+                            typedVector.setSafe(pos, ((String) value).getBytes(StandardCharsets.UTF_8));
+                        }
+                    };
+                }
+                if (javaType == Text.class) {
+                    return (pos, value) -> {
+                        if (value == null) {
+                            typedVector.setNull(pos);
+                        }
+                        else {
+                            typedVector.setSafe(pos, (Text) value);
+                        }
+                    };
+                }
+                return (pos, value) -> {
+                    if (value == null) {
+                        typedVector.setNull(pos);
+                    }
+                    else {
+                        BlockUtils.setVarCharValue(typedVector, pos, value);
+                    }
+                };
+            }
+            case VARBINARY: {
+                VarBinaryVector typedVector = (VarBinaryVector) vector;
+                return (pos, value) -> {
+                    if (value == null) {
+                        typedVector.setNull(pos);
+                    }
+                    else {
+                        typedVector.setSafe(pos, (byte[]) value);
+                    }
+                };
+            }
+            case DECIMAL: {
+                DecimalVector typedVector = (DecimalVector) vector;
+                if (javaType == BigDecimal.class) {
+                    return (pos, value) -> {
+                        if (value == null) {
+                            typedVector.setNull(pos);
+                        }
+                        else {
+                            typedVector.setSafe(pos, ((BigDecimal) value).setScale(typedVector.getScale(), RoundingMode.HALF_UP));
+                        }
+                    };
+                }
+                return (pos, value) -> {
+                    if (value == null) {
+                        typedVector.setNull(pos);
+                    }
+                    else {
+                        BlockUtils.setDecimalValue(typedVector, pos, value);
+                    }
+                };
+            }
+            case DATEMILLI: {
+                DateMilliVector typedVector = (DateMilliVector) vector;
+                if (javaType == LocalDateTime.class) {
+                    return (pos, value) -> {
+                        if (value == null) {
+                            typedVector.setNull(pos);
+                        }
+                        else {
+                            typedVector.setSafe(pos, ((LocalDateTime) value).atZone(BlockUtils.UTC_ZONE_ID).toInstant().toEpochMilli());
+                        }
+                    };
+                }
+                if (javaType == Long.class) {
+                    return (pos, value) -> {
+                        if (value == null) {
+                            typedVector.setNull(pos);
+                        }
+                        else {
+                            typedVector.setSafe(pos, (long) value);
+                        }
+                    };
+                }
+                if (javaType != null && Date.class.isAssignableFrom(javaType)) {
+                    return (pos, value) -> {
+                        if (value == null) {
+                            typedVector.setNull(pos);
+                        }
+                        else {
+                            typedVector.setSafe(pos, ((Date) value).getTime());
+                        }
+                    };
+                }
+                return (pos, value) -> {
+                    if (value == null) {
+                        typedVector.setNull(pos);
+                    }
+                    else {
+                        BlockUtils.setDateMilliValue(typedVector, pos, value);
+                    }
+                };
+            }
+            case DATEDAY: {
+                DateDayVector typedVector = (DateDayVector) vector;
+                if (javaType == LocalDate.class) {
+                    return (pos, value) -> {
+                        if (value == null) {
+                            typedVector.setNull(pos);
+                        }
+                        else {
+                            typedVector.setSafe(pos, (int) ((LocalDate) value).toEpochDay());
+                        }
+                    };
+                }
+                if (javaType == Integer.class) {
+                    return (pos, value) -> {
+                        if (value == null) {
+                            typedVector.setNull(pos);
+                        }
+                        else {
+                            typedVector.setSafe(pos, (int) value);
+                        }
+                    };
+                }
+                if (javaType == Long.class) {
+                    return (pos, value) -> {
+                        if (value == null) {
+                            typedVector.setNull(pos);
+                        }
+                        else {
+                            typedVector.setSafe(pos, ((Long) value).intValue());
+                        }
+                    };
+                }
+                return (pos, value) -> {
+                    if (value == null) {
+                        typedVector.setNull(pos);
+                    }
+                    else {
+                        BlockUtils.setDateDayValue(typedVector, pos, value);
+                    }
+                };
+            }
+            case TIMESTAMPMILLITZ: {
+                TimeStampMilliTZVector typedVector = (TimeStampMilliTZVector) vector;
+                if (javaType == Long.class) {
+                    return (pos, value) -> {
+                        if (value == null) {
+                            typedVector.setNull(pos);
+                        }
+                        else {
+                            typedVector.setSafe(pos, (long) value);
+                        }
+                    };
+                }
+                return (pos, value) -> {
+                    if (value == null) {
+                        typedVector.setNull(pos);
+                    }
+                    else {
+                        BlockUtils.setTimeStampMilliTZValue(typedVector, pos, value);
+                    }
+                };
+            }
+            case TIMESTAMPMICROTZ: {
+                TimeStampMicroTZVector typedVector = (TimeStampMicroTZVector) vector;
+                if (javaType == Long.class) {
+                    return (pos, value) -> {
+                        if (value == null) {
+                            typedVector.setNull(pos);
+                        }
+                        else {
+                            typedVector.setSafe(pos, (long) value);
+                        }
+                    };
+                }
+                return (pos, value) -> {
+                    if (value == null) {
+                        typedVector.setNull(pos);
+                    }
+                    else {
+                        BlockUtils.setTimeStampMicroTZValue(typedVector, pos, value);
+                    }
+                };
+            }
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Creates a ValueSetter for the provided vector which specializes itself for the Java type of the first non-null
+     * value it is asked to write, and re-specializes if that type later changes. Sources which produce values of
+     * many different Java types for the same column eventually fall back to the generic setter.
+     *
+     * @param vector The FieldVector the returned ValueSetter will write to.
+     * @return A ValueSetter which writes to the provided vector.
+     */
+    public static ValueSetter newCachingValueSetter(FieldVector vector)
+    {
+        return new CachingValueSetter(vector);
+    }
+
+    /**
+     * Creates a ComplexValueSetter for the provided LIST, STRUCT or MAP vector. The shape of the field (its child fields
+     * and their types) is resolved once, when the setter is created, rather than for every value and every nested
+     * element written.
+     *
+     * @param vector The complex FieldVector the returned ComplexValueSetter will write to.
+     * @return A ComplexValueSetter which writes to the provided vector.
+     * @throws RuntimeException if the vector is not a LIST, STRUCT or MAP vector.
+     */
+    public static ComplexValueSetter newComplexValueSetter(FieldVector vector)
+    {
+        BufferAllocator allocator = vector.getAllocator();
+        Field field = vector.getField();
+        //MapVector extends ListVector so it must be tested first.
+        if (vector instanceof MapVector) {
+            UnionMapWriter writer = ((MapVector) vector).getWriter();
+            return (pos, resolver, value) -> {
+                writer.setPosition(pos);
+                BlockUtils.writeMap(allocator, writer, field, pos, value, resolver);
+            };
+        }
+        else if (vector instanceof ListVector) {
+            FieldWriter writer = ((ListVector) vector).getWriter();
+            ListNode node = new ListNode(field);
+            return (pos, resolver, value) -> {
+                writer.setPosition(pos);
+                node.writeList(allocator, writer, pos, resolver, (List) value);
+            };
+        }
+        else if (vector instanceof StructVector) {
+            FieldWriter writer = ((StructVector) vector).getWriter();
+            StructNode node = new StructNode(field);
+            return (pos, resolver, value) -> {
+                writer.setPosition(pos);
+                node.writeStruct(allocator, writer, pos, resolver, value);
+            };
+        }
+        throw new RuntimeException("Unsupported 'Complex' vector " +
+                vector.getClass().getSimpleName() + " for field " + field.getName());
+    }
+
+    /**
+     * ValueSetter which delegates to a setter specialized for the Java type of the values it has most recently seen.
+     */
+    private static class CachingValueSetter
+            implements ValueSetter
+    {
+        private final FieldVector vector;
+        private ValueSetter nullSetter;
+        private ValueSetter delegate;
+        private Class<?> delegateType;
+        private int specializations;
+
+        private CachingValueSetter(FieldVector vector)
+        {
+            this.vector = vector;
+        }
+
+        @Override
+        public void setValue(int pos, Object value)
+        {
+            if (value == null) {
+                if (nullSetter == null) {
+                    nullSetter = BlockUtils.newValueSetterWithoutFieldContext(vector);
+                }
+                nullSetter.setValue(pos, null);
+                return;
+            }
+
+            if (value.getClass() != delegateType) {
+                respecialize(value.getClass());
+            }
+            delegate.setValue(pos, value);
+        }
+
+        private void respecialize(Class<?> javaType)
+        {
+            if (specializations < MAX_RESPECIALIZATIONS) {
+                specializations++;
+                delegate = newValueSetter(vector, javaType);
+                delegateType = javaType;
+            }
+            else if (delegateType != null) {
+                //Give up on specialization, null is never the class of a non-null value so we will not come back here.
+                delegate = BlockUtils.newValueSetterWithoutFieldContext(vector);
+                delegateType = null;
+            }
+        }
+    }
+
+    /**
+     * A node in the pre-resolved representation of a complex field, used by ComplexValueSetters to write a value (or a
+     * nested element) of the node's field.
+     */
+    private abstract static class Node
+    {
+        protected final Field field;
+
+        private Node(Field field)
+        {
+            this.field = field;
+        }
+
+        /**
+         * Writes the value as a child of the provided parent writer.
+         *
+         * @param allocator The BufferAllocator to use for types which require conversion to an Arrow Buffer.
+         * @param parent The FieldWriter of the enclosing List, Struct or Map.
+         * @param pos The position (row) in the Apache Arrow batch we are writing to.
+         * @param resolver The FieldResolver used to extract child values from complex values.
+         * @param value The value to write.
+         * @param fromMapOrStruct True if the parent is a Map or Struct, false if it is a List.
+         */
+        abstract void write(BufferAllocator allocator, FieldWriter parent, int pos, FieldResolver resolver, Object value, boolean fromMapOrStruct);
+
+        static Node of(Field field)
+        {
+            switch (Types.getMinorTypeForArrowType(field.getType())) {
+                case LIST:
+                    return new ListNode(field);
+                case STRUCT:
+                    return new StructNode(field);
+                case MAP:
+                    return new MapNode(field);
+                default:
+                    return new SimpleNode(field);
+            }
+        }
+    }
+
+    private static class ListNode
+            extends Node
+    {
+        //Apache Arrow List types have a single 'special' child field which gives us the concrete type of the values
+        //stored in the list.
+        private final Node child;
+
+        private ListNode(Field field)
+        {
+            super(field);
+            this.child = (field.getChildren() != null && !field.getChildren().isEmpty()) ? Node.of(field.getChildren().get(0)) : null;
+        }
+
+        @Override
+        void write(BufferAllocator allocator, FieldWriter parent, int pos, FieldResolver resolver, Object value, boolean fromMapOrStruct)
+        {
+            FieldWriter writer = (FieldWriter) (fromMapOrStruct ? parent.list(field.getName()) : parent.list());
+            writeList(allocator, writer, pos, resolver, (List) value);
+        }
+
+        void writeList(BufferAllocator allocator, FieldWriter writer, int pos, FieldResolver resolver, Iterable value)
+        {
+            if (value == null) {
+                writer.writeNull();
+                return;
+            }
+
+            writer.startList();
+            Iterator itr = value.iterator();
+            while (itr.hasNext()) {
+                child.write(allocator, writer, pos, resolver, itr.next(), false);
+            }
+            writer.endList();
+        }
+    }
+
+    private static class StructNode
+            extends Node
+    {
+        private final List<Field> childFields;
+        private final List<Node> children;
+
+        private StructNode(Field field)
+        {
+            super(field);
+            this.childFields = field.getChildren();
+            this.children = new ArrayList<>(childFields.size());
+            for (Field next : childFields) {
+                children.add(Node.of(next));
+            }
+        }
+
+        @Override
+        void write(BufferAllocator allocator, FieldWriter parent, int pos, FieldResolver resolver, Object value, boolean fromMapOrStruct)
+        {
+            FieldWriter writer = (FieldWriter) (fromMapOrStruct ? parent.struct(field.getName()) : parent.struct());
+            writeStruct(allocator, writer, pos, resolver, value);
+        }
+
+        void writeStruct(BufferAllocator allocator, FieldWriter writer, int pos, FieldResolver resolver, Object value)
+        {
+            if (value == null) {
+                writer.writeNull();
+                return;
+            }
+
+            writer.start();
+            for (int i = 0; i < children.size(); i++) {
+                Object childValue = resolver.getFieldValue(childFields.get(i), value);
+                children.get(i).write(allocator, writer, pos, resolver, childValue, true);
+            }
+            writer.end();
+        }
+    }
+
+    private static class MapNode
+            extends Node
+    {
+        private MapNode(Field field)
+        {
+            super(field);
+        }
+
+        @Override
+        void write(BufferAllocator allocator, FieldWriter parent, int pos, FieldResolver resolver, Object value, boolean fromMapOrStruct)
+        {
+            //Maps are rare enough in nested positions that we simply delegate to BlockUtils which validates the
+            //key/value layout of the field on each write.
+            FieldWriter writer = (FieldWriter) (fromMapOrStruct ? parent.map(field.getName()) : parent.map());
+            BlockUtils.writeMap(allocator, writer, field, pos, value, resolver);
+        }
+    }
+
+    private static class SimpleNode
+            extends Node
+    {
+        private final Types.MinorType minorType;
+
+        private SimpleNode(Field field)
+        {
+            super(field);
+            this.minorType = Types.getMinorTypeForArrowType(field.getType());
+        }
+
+        @Override
+        void write(BufferAllocator allocator, FieldWriter parent, int pos, FieldResolver resolver, Object value, boolean fromMapOrStruct)
+        {
+            BlockUtils.writeSimpleValue(parent, field, minorType, allocator, value, fromMapOrStruct);
+        }
+    }
+}
@@ -33,9 +33,13 @@ import com.amazonaws.athena.connector.lambda.udf.UserDefinedFunctionRequest;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.crac.Core;
+import org.crac.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -46,13 +50,19 @@ import java.io.OutputStream;
  * to use this CompositeHandler to run a single lambda function for the following reasons:
  * 1. Can be simpler to deploy and manage a single vs multiple Lambda functions
  * 2. You don't need to independently control the cost or performance of metadata vs. data operations.
+ * <p>
+ * The CompositeHandler also registers itself for checkpoint/restore notifications (e.g. Lambda SnapStart) and primes
+ * both handlers, via warmUp(), before a checkpoint is taken. Setting the warm_up_on_init environment variable to true
+ * primes the handlers at construction time instead, which moves the same cost into the function's init phase.
  *
  * @see RequestStreamHandler
  */
 public class CompositeHandler
-        implements RequestStreamHandler
+        implements RequestStreamHandler, Resource
 {
     private static final Logger logger = LoggerFactory.getLogger(CompositeHandler.class);
+    //Environment variable which, when true, primes the handlers at construction time.
+    protected static final String WARM_UP_ON_INIT_ENV = "warm_up_on_init";
     //The MetadataHandler to delegate metadata operations to.
     private final MetadataHandler metadataHandler;
     //The RecordHandler to delegate data operations to.
@@ -71,6 +81,7 @@ public class CompositeHandler
         this.metadataHandler = metadataHandler;
         this.recordHandler = recordHandler;
         this.udfhandler = null;
+        registerWarmUp();
     }
 
     /**
@@ -85,6 +96,7 @@ public class CompositeHandler
         this.metadataHandler = metadataHandler;
         this.recordHandler = recordHandler;
         this.udfhandler = udfhandler;
+        registerWarmUp();
     }
 
     /**
@@ -164,6 +176,56 @@ public class CompositeHandler
         }
     }
 
+    /**
+     * Primes the composed handlers by sending a synthetic PingRequest through the full request path, which is the only
+     * ping sent while warming up, and then delegating to MetadataHandler.warmUp(...) and RecordHandler.warmUp(...). Failures are logged and otherwise
+     * ignored since priming is only an optimization.
+     */
+    public void warmUp()
+    {
+        long startTime = System.currentTimeMillis();
+        try (BlockAllocatorImpl allocator = new BlockAllocatorImpl()) {
+            ObjectMapper objectMapper = VersionedObjectMapperFactory.create(allocator);
+            byte[] pingRequest = objectMapper.writeValueAsBytes(new PingRequest(HandlerWarmUp.WARM_UP_IDENTITY,
+                    HandlerWarmUp.WARM_UP_CATALOG, HandlerWarmUp.WARM_UP_QUERY_ID));
+            handleRequest(new ByteArrayInputStream(pingRequest), new ByteArrayOutputStream(), null);
+            metadataHandler.warmUp(allocator);
+            recordHandler.warmUp(allocator);
+        }
+        catch (Exception ex) {
+            logger.warn("warmUp: Completed with an exception.", ex);
+        }
+        logger.info("warmUp: Completed in {} ms", System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Invoked before a checkpoint of this function is taken (e.g. Lambda SnapStart), primes the handlers so that the
+     * restored function does not pay for class loading and JIT compilation on its first request.
+     */
+    @Override
+    public void beforeCheckpoint(org.crac.Context<? extends Resource> context)
+    {
+        warmUp();
+    }
+
+    @Override
+    public void afterRestore(org.crac.Context<? extends Resource> context)
+    {
+        logger.info("afterRestore: Restored from checkpoint.");
+    }
+
+    /**
+     * Registers this handler for checkpoint/restore notifications, which is a no-op on runtimes without checkpoint
+     * support, and optionally primes the handlers right away.
+     */
+    private void registerWarmUp()
+    {
+        Core.getGlobalContext().register(this);
+        if (Boolean.parseBoolean(System.getenv(WARM_UP_ON_INIT_ENV))) {
+            warmUp();
+        }
+    }
+
     /**
      * Helper used to assert that the response generated by the handler is not null.
      */
@@ -0,0 +1,266 @@
+package com.amazonaws.athena.connector.lambda.handlers;
+
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.amazonaws.athena.connector.lambda.data.Block;
+import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
+import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
+import com.amazonaws.athena.connector.lambda.data.FieldResolver;
+import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
+import com.amazonaws.athena.connector.lambda.domain.Split;
+import com.amazonaws.athena.connector.lambda.domain.TableName;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
+import com.amazonaws.athena.connector.lambda.domain.spill.S3SpillLocation;
+import com.amazonaws.athena.connector.lambda.domain.spill.SpillLocation;
+import com.amazonaws.athena.connector.lambda.metadata.GetDataSourceCapabilitiesRequest;
+import com.amazonaws.athena.connector.lambda.metadata.GetDataSourceCapabilitiesResponse;
+import com.amazonaws.athena.connector.lambda.metadata.GetSplitsRequest;
+import com.amazonaws.athena.connector.lambda.metadata.GetSplitsResponse;
+import com.amazonaws.athena.connector.lambda.metadata.GetTableLayoutRequest;
+import com.amazonaws.athena.connector.lambda.metadata.GetTableLayoutResponse;
+import com.amazonaws.athena.connector.lambda.metadata.GetTableRequest;
+import com.amazonaws.athena.connector.lambda.metadata.GetTableResponse;
+import com.amazonaws.athena.connector.lambda.metadata.ListSchemasRequest;
+import com.amazonaws.athena.connector.lambda.metadata.ListSchemasResponse;
+import com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest;
+import com.amazonaws.athena.connector.lambda.metadata.ListTablesResponse;
+import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
+import com.amazonaws.athena.connector.lambda.records.ReadRecordsResponse;
+import com.amazonaws.athena.connector.lambda.records.RemoteReadRecordsResponse;
+import com.amazonaws.athena.connector.lambda.request.FederationRequest;
+import com.amazonaws.athena.connector.lambda.request.FederationResponse;
+import com.amazonaws.athena.connector.lambda.request.PingRequest;
+import com.amazonaws.athena.connector.lambda.request.PingResponse;
+import com.amazonaws.athena.connector.lambda.security.FederatedIdentity;
+import com.amazonaws.athena.connector.lambda.serde.VersionedObjectMapperFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
+import static com.amazonaws.athena.connector.lambda.handlers.FederationCapabilities.CAPABILITIES;
+
+/**
+ * Builds the synthetic, in-memory, requests and data used to warm up (prime) handlers before they serve their first
+ * real request. Priming loads and JIT compiles the SDK's serialization, Apache Arrow and constraint evaluation code
+ * paths so that a function restored from a checkpoint (e.g. Lambda SnapStart) or primed at init time does not pay for
+ * them on its first request. None of the requests built here reach a data source.
+ *
+ * @see CompositeHandler#warmUp()
+ */
+final class HandlerWarmUp
+{
+    private static final Logger logger = LoggerFactory.getLogger(HandlerWarmUp.class);
+
+    static final String WARM_UP_CATALOG = "warm_up_catalog";
+    static final String WARM_UP_QUERY_ID = "warm_up_query_id";
+    static final FederatedIdentity WARM_UP_IDENTITY = new FederatedIdentity("warm_up_arn", "warm_up_account", Collections.emptyMap(), Collections.emptyList());
+    static final TableName WARM_UP_TABLE = new TableName("warm_up_schema", "warm_up_table");
+    //Enough rows to push the row writing loops past the interpreter, few enough that nothing ever spills.
+    static final int WARM_UP_ROWS = 100;
+
+    private static final String INT_COL = "int_col";
+    private static final String BIGINT_COL = "bigint_col";
+    private static final String VARCHAR_COL = "varchar_col";
+    private static final String FLOAT8_COL = "float8_col";
+    private static final String BIT_COL = "bit_col";
+    private static final String DECIMAL_COL = "decimal_col";
+    private static final String DATEDAY_COL = "dateday_col";
+    private static final String DATEMILLI_COL = "datemilli_col";
+    private static final String LIST_COL = "list_col";
+    private static final String STRUCT_COL = "struct_col";
+
+    private HandlerWarmUp() {}
+
+    /**
+     * @return A schema covering the commonly used primitive types as well as a List and a Struct.
+     */
+    static Schema schema()
+    {
+        return SchemaBuilder.newBuilder()
+                .addIntField(INT_COL)
+                .addBigIntField(BIGINT_COL)
+                .addStringField(VARCHAR_COL)
+                .addFloat8Field(FLOAT8_COL)
+                .addBitField(BIT_COL)
+                .addDecimalField(DECIMAL_COL, 38, 9)
+                .addDateDayField(DATEDAY_COL)
+                .addDateMilliField(DATEMILLI_COL)
+                .addListField(LIST_COL, Types.MinorType.VARCHAR.getType())
+                .addStructField(STRUCT_COL)
+                .addChildField(STRUCT_COL, INT_COL, Types.MinorType.INT.getType())
+                .addChildField(STRUCT_COL, VARCHAR_COL, Types.MinorType.VARCHAR.getType())
+                .addMetadata("warm_up", "true")
+                .build();
+    }
+
+    /**
+     * @return Constraints which filter on, but do not exclude any of the rows written by, writeRows(...).
+     */
+    static Constraints constraints(BlockAllocator allocator)
+    {
+        Map<String, ValueSet> summary = ImmutableMap.of(INT_COL,
+                SortedRangeSet.copyOf(Types.MinorType.INT.getType(),
+                        ImmutableList.of(Range.greaterThanOrEqual(allocator, Types.MinorType.INT.getType(), 0)), false));
+        return new Constraints(summary, Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT);
+    }
+
+    /**
+     * @return A ReadRecordsRequest for the warm up table which never spills.
+     */
+    static ReadRecordsRequest readRecordsRequest(BlockAllocator allocator)
+    {
+        return new ReadRecordsRequest(WARM_UP_IDENTITY,
+                WARM_UP_QUERY_ID,
+                WARM_UP_CATALOG,
+                WARM_UP_TABLE,
+                schema(),
+                Split.newBuilder(spillLocation(), null).add(INT_COL, "0").build(),
+                constraints(allocator),
+                Long.MAX_VALUE,
+                Long.MAX_VALUE);
+    }
+
+    /**
+     * @return A GetTableRequest for the warm up table.
+     */
+    static GetTableRequest getTableRequest()
+    {
+        return new GetTableRequest(WARM_UP_IDENTITY, WARM_UP_QUERY_ID, WARM_UP_CATALOG, WARM_UP_TABLE, Collections.emptyMap());
+    }
+
+    /**
+     * Writes WARM_UP_ROWS rows into the provided BlockSpiller, one row per call as connectors typically do.
+     */
+    static void writeRows(BlockSpiller spiller)
+    {
+        for (int i = 0; i < WARM_UP_ROWS; i++) {
+            int value = i;
+            spiller.writeRows((Block block, int row) -> {
+                boolean matched = block.setValue(INT_COL, row, value);
+                matched &= block.setValue(BIGINT_COL, row, (long) value);
+                matched &= block.setValue(VARCHAR_COL, row, "value_" + value);
+                matched &= block.setValue(FLOAT8_COL, row, value * 1.5D);
+                matched &= block.setValue(BIT_COL, row, value % 2 == 0);
+                matched &= block.setValue(DECIMAL_COL, row, BigDecimal.valueOf(value, 2));
+                matched &= block.setValue(DATEDAY_COL, row, LocalDate.ofEpochDay(value));
+                matched &= block.setValue(DATEMILLI_COL, row, LocalDateTime.of(2020, 1, 1, 0, 0).plusSeconds(value));
+                block.setComplexValue(LIST_COL, row, FieldResolver.DEFAULT, ImmutableList.of("a" + value, "b" + value));
+                block.setComplexValue(STRUCT_COL, row, FieldResolver.DEFAULT, ImmutableMap.of(INT_COL, value, VARCHAR_COL, "c" + value));
+                return matched ? 1 : 0;
+            });
+        }
+    }
+
+    /**
+     * Serializes and deserializes every request and response type with the SerDe version this SDK negotiates with an
+     * up to date engine. Failures are logged and otherwise ignored since priming is only an optimization.
+     *
+     * @param allocator The BlockAllocator to use for the Apache Arrow resources of the messages.
+     * @param sourceType The source type of the connector, used in the PingResponse.
+     * @return The number of messages which failed to round trip.
+     */
+    static int primeSerDe(BlockAllocator allocator, String sourceType)
+            throws Exception
+    {
+        Schema schema = schema();
+        List<FederationRequest> requests = new ArrayList<>();
+        List<FederationResponse> responses = new ArrayList<>();
+        try (Block partitions = allocator.createBlock(SchemaBuilder.newBuilder().addIntField(INT_COL).build());
+                Block records = allocator.createBlock(schema)) {
+            for (int i = 0; i < 10; i++) {
+                partitions.setValue(INT_COL, i, i);
+            }
+            partitions.setRowCount(10);
+            records.setValue(INT_COL, 0, 1);
+            records.setRowCount(1);
+
+            Split split = Split.newBuilder(spillLocation(), null).add(INT_COL, "0").build();
+            requests.add(new PingRequest(WARM_UP_IDENTITY, WARM_UP_CATALOG, WARM_UP_QUERY_ID));
+            requests.add(new ListSchemasRequest(WARM_UP_IDENTITY, WARM_UP_QUERY_ID, WARM_UP_CATALOG));
+            requests.add(new ListTablesRequest(WARM_UP_IDENTITY, WARM_UP_QUERY_ID, WARM_UP_CATALOG, WARM_UP_TABLE.getSchemaName(), null, ListTablesRequest.UNLIMITED_PAGE_SIZE_VALUE));
+            requests.add(getTableRequest());
+            requests.add(new GetTableLayoutRequest(WARM_UP_IDENTITY, WARM_UP_QUERY_ID, WARM_UP_CATALOG, WARM_UP_TABLE, constraints(allocator), schema, ImmutableSet.of(INT_COL)));
+            requests.add(new GetSplitsRequest(WARM_UP_IDENTITY, WARM_UP_QUERY_ID, WARM_UP_CATALOG, WARM_UP_TABLE, partitions, ImmutableList.of(INT_COL), constraints(allocator), null));
+            requests.add(new GetDataSourceCapabilitiesRequest(WARM_UP_IDENTITY, WARM_UP_QUERY_ID, WARM_UP_CATALOG));
+            requests.add(readRecordsRequest(allocator));
+
+            responses.add(new PingResponse(WARM_UP_CATALOG, WARM_UP_QUERY_ID, sourceType, CAPABILITIES, SerDeVersion.SERDE_VERSION));
+            responses.add(new ListSchemasResponse(WARM_UP_CATALOG, ImmutableList.of(WARM_UP_TABLE.getSchemaName())));
+            responses.add(new ListTablesResponse(WARM_UP_CATALOG, ImmutableList.of(WARM_UP_TABLE), null));
+            responses.add(new GetTableResponse(WARM_UP_CATALOG, WARM_UP_TABLE, schema));
+            responses.add(new GetTableLayoutResponse(WARM_UP_CATALOG, WARM_UP_TABLE, partitions));
+            responses.add(new GetSplitsResponse(WARM_UP_CATALOG, ImmutableSet.of(split)));
+            responses.add(new GetDataSourceCapabilitiesResponse(WARM_UP_CATALOG, Collections.emptyMap()));
+            responses.add(new ReadRecordsResponse(WARM_UP_CATALOG, records));
+            responses.add(new RemoteReadRecordsResponse(WARM_UP_CATALOG, schema, ImmutableList.of(spillLocation()), null));
+
+            int failures = 0;
+            ObjectMapper objectMapper = VersionedObjectMapperFactory.create(allocator);
+            for (FederationRequest next : requests) {
+                failures += roundTrip(objectMapper, next, FederationRequest.class) ? 0 : 1;
+            }
+            for (FederationResponse next : responses) {
+                failures += roundTrip(objectMapper, next, FederationResponse.class) ? 0 : 1;
+            }
+            return failures;
+        }
+    }
+
+    private static boolean roundTrip(ObjectMapper objectMapper, Object message, Class<? extends AutoCloseable> type)
+    {
+        try (AutoCloseable deserialized = objectMapper.readValue(objectMapper.writeValueAsBytes(message), type)) {
+            logger.debug("roundTrip: primed {}", deserialized.getClass().getSimpleName());
+            return true;
+        }
+        catch (Exception ex) {
+            logger.warn("roundTrip: failed to prime {}", message.getClass().getSimpleName(), ex);
+            return false;
+        }
+    }
+
+    private static SpillLocation spillLocation()
+    {
+        return S3SpillLocation.newBuilder()
+                .withBucket("warm_up_bucket")
+                .withPrefix("warm_up_prefix")
+                .withQueryId(WARM_UP_QUERY_ID)
+                .withSplitId("warm_up_split")
+                .withIsDirectory(true)
+                .build();
+    }
+}
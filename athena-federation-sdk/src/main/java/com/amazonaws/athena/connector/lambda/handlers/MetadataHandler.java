@@ -522,6 +522,32 @@ public abstract class MetadataHandler
         //NoOp
     }
 
+    /**
+     * Primes this handler before it serves its first request, either at init time or just before a checkpoint is
+     * taken (e.g. Lambda SnapStart). The default implementation runs a GetTable round trip for an in-memory table,
+     * through the same SerDe and type checks a real one goes through, and round trips every request and response
+     * type through the SerDe using synthetic values. CompositeHandler already pings this handler. Override
+     * this to also prime connector specific code paths (e.g. driver class loading) but avoid opening connections
+     * to your source since they would not survive a checkpoint.
+     *
+     * @param allocator Tool for creating and managing Apache Arrow Blocks.
+     */
+    public void warmUp(BlockAllocator allocator)
+            throws Exception
+    {
+        ObjectMapper objectMapper = VersionedObjectMapperFactory.create(allocator);
+        byte[] request = objectMapper.writeValueAsBytes(HandlerWarmUp.getTableRequest());
+        try (GetTableRequest getTableRequest = (GetTableRequest) objectMapper.readValue(request, FederationRequest.class);
+                GetTableResponse response = new GetTableResponse(getTableRequest.getCatalogName(), getTableRequest.getTableName(), HandlerWarmUp.schema())) {
+            assertTypes(response);
+            try (FederationResponse deserialized = objectMapper.readValue(objectMapper.writeValueAsBytes(response), FederationResponse.class)) {
+                logger.info("warmUp: primed {} for {}", deserialized.getClass().getSimpleName(), getTableRequest.getTableName());
+            }
+        }
+        int failures = HandlerWarmUp.primeSerDe(allocator, sourceType);
+        logger.info("warmUp: primed the SerDe with {} failures", failures);
+    }
+
     /**
      * Helper function that is used to ensure we always have a non-null response.
      *
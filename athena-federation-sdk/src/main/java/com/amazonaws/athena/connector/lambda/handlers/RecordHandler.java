@@ -69,6 +69,9 @@ public abstract class RecordHandler
 {
     private static final Logger logger = LoggerFactory.getLogger(RecordHandler.class);
     private static final String MAX_BLOCK_SIZE_BYTES = "MAX_BLOCK_SIZE_BYTES";
+    private static final String MAX_INLINE_RESPONSE_BYTES = "MAX_INLINE_RESPONSE_BYTES";
+    //Lambda's 6MB synchronous response limit less headroom for estimation error.
+    private static final long DEFAULT_MAX_INLINE_RESPONSE_BYTES = 5_500_000;
     private static final int NUM_SPILL_THREADS = 2;
     protected final java.util.Map<String, String> configOptions;
     private final AmazonS3 amazonS3;
@@ -233,17 +236,60 @@ public abstract class RecordHandler
         if (configOptions.get(MAX_BLOCK_SIZE_BYTES) != null) {
             maxBlockSize = Long.parseLong(configOptions.get(MAX_BLOCK_SIZE_BYTES));
         }
+        long maxInlineResponseBytes = DEFAULT_MAX_INLINE_RESPONSE_BYTES;
+        if (configOptions.get(MAX_INLINE_RESPONSE_BYTES) != null) {
+            maxInlineResponseBytes = Long.parseLong(configOptions.get(MAX_INLINE_RESPONSE_BYTES));
+        }
 
         return SpillConfig.newBuilder()
                 .withSpillLocation(request.getSplit().getSpillLocation())
                 .withMaxBlockBytes(maxBlockSize)
                 .withMaxInlineBlockBytes(request.getMaxInlineBlockSize())
+                .withMaxInlineResponseBytes(maxInlineResponseBytes)
                 .withRequestId(request.getQueryId())
                 .withEncryptionKey(request.getSplit().getEncryptionKey())
                 .withNumSpillThreads(NUM_SPILL_THREADS)
                 .build();
     }
 
+    /**
+     * Primes this handler before it serves its first request, either at init time or just before a checkpoint is
+     * taken (e.g. Lambda SnapStart). The default implementation writes synthetic rows through the same
+     * ConstraintEvaluator, BlockSpiller, and serialization path that doReadRecords(...) uses, without reaching your
+     * source. Override this to also prime connector specific code paths (e.g. driver class loading) but avoid opening
+     * connections to your source since they would not survive a checkpoint.
+     *
+     * @param allocator Tool for creating and managing Apache Arrow Blocks.
+     */
+    public void warmUp(BlockAllocator allocator)
+            throws Exception
+    {
+        if (amazonS3 == null) {
+            logger.info("warmUp: skipping, no S3 client is available.");
+            return;
+        }
+
+        ReadRecordsRequest request = HandlerWarmUp.readRecordsRequest(allocator);
+        //The warm up rows are always inlined, the spill location is never written to.
+        SpillConfig spillConfig = SpillConfig.newBuilder()
+                .withSpillLocation(request.getSplit().getSpillLocation())
+                .withMaxBlockBytes(request.getMaxBlockSize())
+                .withMaxInlineBlockBytes(request.getMaxInlineBlockSize())
+                .withRequestId(request.getQueryId())
+                .withNumSpillThreads(0)
+                .build();
+        try (ConstraintEvaluator evaluator = new ConstraintEvaluator(allocator, request.getSchema(), request.getConstraints());
+                S3BlockSpiller spiller = new S3BlockSpiller(amazonS3, spillConfig, allocator, request.getSchema(), evaluator, configOptions)) {
+            HandlerWarmUp.writeRows(spiller);
+            try (ReadRecordsResponse response = new ReadRecordsResponse(request.getCatalogName(), spiller.getBlock())) {
+                ObjectMapper objectMapper = VersionedObjectMapperFactory.create(allocator);
+                try (FederationResponse deserialized = objectMapper.readValue(objectMapper.writeValueAsBytes(response), FederationResponse.class)) {
+                    logger.info("warmUp: primed {} with {} rows", deserialized.getClass().getSimpleName(), response.getRecordCount());
+                }
+            }
+        }
+    }
+
     private PingResponse doPing(PingRequest request)
     {
         PingResponse response = new PingResponse(request.getCatalogName(), request.getQueryId(), sourceType, CAPABILITIES, SERDE_VERSION);
@@ -38,6 +38,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.amazonaws.athena.connector.lambda.handlers.AthenaExceptionFilter.ATHENA_EXCEPTION_FILTER;
 import static org.junit.Assert.*;
@@ -68,6 +69,32 @@ public class QueryStatusCheckerTest
         verify(athena, times(1)).getQueryExecution(any());
     }
 
+    @Test
+    public void testTerminationListener()
+            throws InterruptedException
+    {
+        String queryId = "query4";
+        GetQueryExecutionRequest request = new GetQueryExecutionRequest().withQueryExecutionId(queryId);
+        when(athena.getQueryExecution(request)).thenReturn(new GetQueryExecutionResult().withQueryExecution(new QueryExecution().withStatus(new QueryExecutionStatus().withState("CANCELLED"))));
+        try (QueryStatusChecker queryStatusChecker = new QueryStatusChecker(athena, athenaInvoker, queryId)) {
+            AtomicInteger notified = new AtomicInteger();
+            AtomicInteger removed = new AtomicInteger();
+            Runnable removedListener = removed::incrementAndGet;
+            queryStatusChecker.addTerminationListener(notified::incrementAndGet);
+            queryStatusChecker.addTerminationListener(removedListener);
+            queryStatusChecker.removeTerminationListener(removedListener);
+            assertEquals(0, notified.get());
+            Thread.sleep(2000);
+            assertFalse(queryStatusChecker.isQueryRunning());
+            assertEquals(1, notified.get());
+            assertEquals(0, removed.get());
+
+            // listeners added after termination run immediately
+            queryStatusChecker.addTerminationListener(notified::incrementAndGet);
+            assertEquals(2, notified.get());
+        }
+    }
+
     @Test
     public void testSlowTermination()
             throws InterruptedException
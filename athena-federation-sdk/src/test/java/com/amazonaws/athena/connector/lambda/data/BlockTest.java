@@ -128,6 +128,80 @@ public class BlockTest
         }
     }
 
+    @Test
+    public void indexBasedAccessTest()
+            throws Exception
+    {
+        Schema schema = SchemaBuilder.newBuilder()
+                .addIntField("col1")
+                .addStringField("col2")
+                .addFloat8Field("col3")
+                .build();
+
+        try (Block block = allocator.createBlock(schema)) {
+            int col1 = block.getFieldIndex("col1");
+            int col2 = block.getFieldIndex("col2");
+            int col3 = block.getFieldIndex("col3");
+            assertEquals(0, col1);
+            assertEquals(1, col2);
+            assertEquals(2, col3);
+            assertEquals(-1, block.getFieldIndex("unknown_col"));
+
+            assertTrue(block.setValue(col1, 0, 10));
+            assertTrue(block.setValue(col2, 0, "value"));
+            assertTrue(block.setValue(col3, 0, 1.5D));
+            assertTrue(block.offerValue(col1, 1, 11L));
+            assertTrue(block.offerValue(col2, 1, null));
+            assertTrue(block.offerValue(col3, 1, null));
+            assertTrue(block.offerValue(block.getFieldIndex("unknown_col"), 1, 12));
+            block.setRowCount(2);
+
+            assertEquals(block.getFieldVector("col2"), block.getFieldVector(col2));
+            FieldReader col1Reader = block.getFieldReader(col1);
+            col1Reader.setPosition(0);
+            assertEquals(10, col1Reader.readInteger().intValue());
+            col1Reader.setPosition(1);
+            assertEquals(11, col1Reader.readInteger().intValue());
+
+            FieldReader col2Reader = block.getFieldReader(col2);
+            col2Reader.setPosition(0);
+            assertEquals("value", col2Reader.readText().toString());
+            col2Reader.setPosition(1);
+            assertFalse(col2Reader.isSet());
+
+            FieldReader col3Reader = block.getFieldReader(col3);
+            col3Reader.setPosition(0);
+            assertEquals(1.5D, col3Reader.readDouble(), 0.0D);
+            col3Reader.setPosition(1);
+            assertFalse(col3Reader.isSet());
+        }
+    }
+
+    @Test
+    public void constrainedIndexBasedAccessTest()
+            throws Exception
+    {
+        Schema schema = SchemaBuilder.newBuilder()
+                .addIntField("col1")
+                .addIntField("col2")
+                .build();
+
+        Block block = allocator.createBlock(schema);
+
+        ValueSet col1Constraint = EquatableValueSet.newBuilder(allocator, Types.MinorType.INT.getType(), true, false)
+                .add(10).build();
+        Constraints constraints = new Constraints(Collections.singletonMap("col1", col1Constraint), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT);
+        try (ConstraintEvaluator constraintEvaluator = new ConstraintEvaluator(allocator, schema, constraints)) {
+            block.constrain(constraintEvaluator);
+            int col1 = block.getFieldIndex("col1");
+            assertTrue(block.setValue(col1, 0, 10));
+            assertTrue(block.offerValue(col1, 0, 10));
+            assertFalse(block.setValue(col1, 0, 11));
+            assertFalse(block.offerValue(col1, 0, 11));
+            assertTrue(block.offerValue(block.getFieldIndex("col2"), 0, 11));
+        }
+    }
+
     //TODO: Break this into multiple smaller tests, probably primitive types vs. complex vs. nested complex
     //TODO: List of Lists
     //TODO: List of Structs
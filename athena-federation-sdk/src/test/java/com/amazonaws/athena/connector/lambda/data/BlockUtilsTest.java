@@ -112,6 +112,47 @@ public class BlockUtilsTest
         }
     }
 
+    @Test
+    public void copyRowsReportsField()
+    {
+        Schema schema = SchemaBuilder.newBuilder()
+                .addField("col1", new ArrowType.Int(32, true))
+                .addListField("col2", Types.MinorType.INT.getType())
+                .build();
+        Block src = allocator.createBlock(schema);
+        BlockUtils.setValue(src.getFieldVector("col1"), 0, 10);
+        BlockUtils.setComplexValue(src.getFieldVector("col2"), 0, FieldResolver.DEFAULT, ImmutableList.of(1, 2));
+        src.setRowCount(1);
+
+        Block dst = allocator.createBlock(schema);
+        try {
+            BlockUtils.copyRows(src, dst, 0, 0);
+            fail("Expected complex values to be rejected");
+        }
+        catch (RuntimeException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().startsWith("Unable to set value for field col2"));
+        }
+
+        ValueSetter setter = BlockUtils.newValueSetter(dst.getFieldVector("col1"));
+        try {
+            setter.setValue(0, "not an int");
+            fail("Expected a String to be rejected by an INT vector");
+        }
+        catch (RuntimeException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().startsWith("Unable to set value for field col1"));
+        }
+    }
+
+    @Test
+    public void getFieldIndexes()
+    {
+        Schema schema = SchemaBuilder.newBuilder()
+                .addField("col1", new ArrowType.Int(32, true))
+                .addField("col2", new ArrowType.Int(32, true))
+                .build();
+        assertArrayEquals(new int[] {1, -1, 0}, BlockUtils.getFieldIndexes(schema, ImmutableList.of("col2", "col3", "col1")));
+    }
+
     @Test
     public void isNullRow()
     {
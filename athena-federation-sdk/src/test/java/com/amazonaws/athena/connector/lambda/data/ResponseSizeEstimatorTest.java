@@ -0,0 +1,108 @@
+package com.amazonaws.athena.connector.lambda.data;
+
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.amazonaws.athena.connector.lambda.records.ReadRecordsResponse;
+import com.amazonaws.athena.connector.lambda.serde.VersionedObjectMapperFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.arrow.vector.ipc.WriteChannel;
+import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
+import org.apache.arrow.vector.ipc.message.MessageSerializer;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ResponseSizeEstimatorTest
+{
+    private BlockAllocatorImpl allocator;
+
+    @Before
+    public void setup()
+    {
+        allocator = new BlockAllocatorImpl();
+    }
+
+    @After
+    public void tearDown()
+    {
+        allocator.close();
+    }
+
+    @Test
+    public void estimateInlineSize()
+            throws Exception
+    {
+        Schema schema = SchemaBuilder.newBuilder()
+                .addIntField("col1")
+                .addStringField("col2")
+                .addListField("col3", Types.MinorType.BIGINT.getType())
+                .build();
+        ResponseSizeEstimator estimator = new ResponseSizeEstimator(schema);
+        ObjectMapper objectMapper = VersionedObjectMapperFactory.create(allocator);
+
+        for (int rows : new int[] {0, 1, 10, 1_000}) {
+            Block block = allocator.createBlock(schema);
+            for (int i = 0; i < rows; i++) {
+                block.setValue("col1", i, i);
+                block.setValue("col2", i, "value_" + i);
+                block.setComplexValue("col3", i, FieldResolver.DEFAULT, Arrays.asList((long) i, (long) i + 1));
+            }
+            block.setRowCount(rows);
+
+            long estimate = estimator.estimateInlineSize(block);
+            long actual = objectMapper.writeValueAsBytes(new ReadRecordsResponse("catalog", block)).length;
+            assertTrue("rows " + rows + " estimate " + estimate + " < actual " + actual, estimate >= actual);
+            assertTrue("rows " + rows + " estimate " + estimate + " too large for actual " + actual, estimate <= actual * 2 + 2048);
+            block.close();
+        }
+    }
+
+    @Test
+    public void estimateRecordBatchSize()
+            throws Exception
+    {
+        Schema schema = SchemaBuilder.newBuilder().addBigIntField("col1").build();
+        try (Block block = allocator.createBlock(schema)) {
+            for (int i = 0; i < 3; i++) {
+                block.setValue("col1", i, (long) i);
+            }
+            block.setRowCount(3);
+            long actual;
+            try (ArrowRecordBatch batch = block.getRecordBatch()) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                MessageSerializer.serialize(new WriteChannel(Channels.newChannel(out)), batch, AthenaFederationIpcOption.DEFAULT);
+                actual = out.size();
+            }
+            long estimate = ResponseSizeEstimator.estimateRecordBatchSize(block);
+            assertTrue("estimate " + estimate + " < actual " + actual, estimate >= actual);
+            assertEquals(0, estimate % 8);
+        }
+    }
+}
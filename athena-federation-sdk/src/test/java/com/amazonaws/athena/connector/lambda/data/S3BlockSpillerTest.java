@@ -196,6 +196,42 @@ public class S3BlockSpillerTest
         logger.info("spillTest: exit");
     }
 
+    @Test
+    public void inlineDecisionTest()
+    {
+        Schema schema = expected.getSchema();
+        SpillConfig tinyInlineConfig = SpillConfig.newBuilder(spillConfig)
+                .withRequestId(requestId)
+                .withSpillLocation(spillConfig.getSpillLocation())
+                .withMaxInlineBlockBytes(1)
+                .build();
+        try (S3BlockSpiller spiller = new S3BlockSpiller(mockS3, tinyInlineConfig, allocator, schema, ConstraintEvaluator.emptyEvaluator(), com.google.common.collect.ImmutableMap.of())) {
+            spiller.writeRows((Block block, int row) -> block.setValue("col1", row, 1) && block.setValue("col2", row, "value") ? 1 : 0);
+            assertTrue(spiller.spilled());
+        }
+
+        SpillConfig responseLimitConfig = SpillConfig.newBuilder(tinyInlineConfig)
+                .withRequestId(requestId)
+                .withSpillLocation(spillConfig.getSpillLocation())
+                .withMaxInlineBlockBytes(1)
+                .withMaxInlineResponseBytes(1_000_000)
+                .build();
+        try (S3BlockSpiller spiller = new S3BlockSpiller(mockS3, responseLimitConfig, allocator, schema, ConstraintEvaluator.emptyEvaluator(), com.google.common.collect.ImmutableMap.of())) {
+            spiller.writeRows((Block block, int row) -> block.setValue("col1", row, 1) && block.setValue("col2", row, "value") ? 1 : 0);
+            assertFalse(spiller.spilled());
+            assertEquals(1, spiller.getBlock().getRowCount());
+        }
+
+        SpillConfig inlineDisabledConfig = SpillConfig.newBuilder(responseLimitConfig)
+                .withRequestId(requestId)
+                .withSpillLocation(spillConfig.getSpillLocation())
+                .withMaxInlineBlockBytes(0)
+                .build();
+        try (S3BlockSpiller spiller = new S3BlockSpiller(mockS3, inlineDisabledConfig, allocator, schema, ConstraintEvaluator.emptyEvaluator(), com.google.common.collect.ImmutableMap.of())) {
+            assertTrue(spiller.spilled());
+        }
+    }
+
     private class ByteHolder
     {
         private byte[] bytes;
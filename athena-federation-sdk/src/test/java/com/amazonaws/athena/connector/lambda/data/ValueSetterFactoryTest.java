@@ -0,0 +1,183 @@
+package com.amazonaws.athena.connector.lambda.data;
+
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.complex.reader.FieldReader;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.arrow.vector.util.Text;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ValueSetterFactoryTest
+{
+    private BlockAllocatorImpl allocator;
+
+    @Before
+    public void setup()
+    {
+        allocator = new BlockAllocatorImpl();
+    }
+
+    @After
+    public void tearDown()
+    {
+        allocator.close();
+    }
+
+    @Test
+    public void specializedSettersMatchSetValue()
+            throws Exception
+    {
+        assertSameAsSetValue(Types.MinorType.BIGINT.getType(), 10L, null, 11L);
+        assertSameAsSetValue(Types.MinorType.INT.getType(), 10, null, 11);
+        assertSameAsSetValue(Types.MinorType.INT.getType(), 10L, null, 11L);
+        assertSameAsSetValue(Types.MinorType.SMALLINT.getType(), (short) 10, null, (short) 11);
+        assertSameAsSetValue(Types.MinorType.TINYINT.getType(), (byte) 10, null, (byte) 11);
+        assertSameAsSetValue(Types.MinorType.FLOAT8.getType(), 1.5D, null, 2.5D);
+        assertSameAsSetValue(Types.MinorType.FLOAT4.getType(), 1.5F, null, 2.5F);
+        assertSameAsSetValue(Types.MinorType.BIT.getType(), true, null, false);
+        assertSameAsSetValue(Types.MinorType.BIT.getType(), 1, null, 0);
+        assertSameAsSetValue(Types.MinorType.VARCHAR.getType(), "a", null, "b");
+        assertSameAsSetValue(Types.MinorType.VARCHAR.getType(), new Text("a"), null, new Text("b"));
+        assertSameAsSetValue(Types.MinorType.VARBINARY.getType(), new byte[] {1, 2}, null, new byte[] {3});
+        assertSameAsSetValue(new ArrowType.Decimal(10, 2, 128), new BigDecimal("1.234"), null, new BigDecimal("5"));
+        assertSameAsSetValue(new ArrowType.Date(DateUnit.MILLISECOND), new Date(100_000L), null, new java.sql.Timestamp(200_000L));
+        assertSameAsSetValue(new ArrowType.Date(DateUnit.MILLISECOND), LocalDateTime.of(2020, 3, 18, 12, 54, 29), null, 1000L);
+        assertSameAsSetValue(new ArrowType.Date(DateUnit.DAY), LocalDate.of(2020, 3, 18), null, 100);
+        assertSameAsSetValue(new ArrowType.Date(DateUnit.DAY), 10L, null, new Date(86_400_000L * 3));
+    }
+
+    @Test
+    public void cachingSetterHandlesChangingTypes()
+            throws Exception
+    {
+        Schema schema = SchemaBuilder.newBuilder().addIntField("col1").build();
+        try (Block block = allocator.createBlock(schema)) {
+            ValueSetter setter = ValueSetterFactory.newCachingValueSetter(block.getFieldVector("col1"));
+            List<Object> values = Arrays.asList(1, 2L, null, 3, 4L, 5, 6L, 7, 8L, null, 9);
+            for (int i = 0; i < values.size(); i++) {
+                setter.setValue(i, values.get(i));
+            }
+            block.setRowCount(values.size());
+
+            FieldReader reader = block.getFieldReader("col1");
+            for (int i = 0; i < values.size(); i++) {
+                reader.setPosition(i);
+                if (values.get(i) == null) {
+                    assertFalse(reader.isSet());
+                }
+                else {
+                    assertEquals(((Number) values.get(i)).intValue(), reader.readInteger().intValue());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void complexSettersMatchSetComplexValue()
+            throws Exception
+    {
+        Field listField = new Field("list",
+                FieldType.nullable(Types.MinorType.LIST.getType()),
+                Collections.singletonList(new Field("item", FieldType.nullable(Types.MinorType.BIGINT.getType()), null)));
+        Field structField = new Field("struct",
+                FieldType.nullable(Types.MinorType.STRUCT.getType()),
+                ImmutableList.of(
+                        new Field("name", FieldType.nullable(Types.MinorType.VARCHAR.getType()), null),
+                        new Field("scores", FieldType.nullable(Types.MinorType.LIST.getType()),
+                                Collections.singletonList(new Field("item", FieldType.nullable(new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE)), null)))));
+        Schema schema = new Schema(ImmutableList.of(listField, structField));
+
+        List<List<Long>> lists = Arrays.asList(Arrays.asList(1L, 2L, 3L), null, Collections.emptyList(), Arrays.asList(4L));
+        List<Object> structs = Arrays.asList(
+                ImmutableMap.of("name", "a", "scores", Arrays.asList(1.0D, 2.0D)),
+                null,
+                ImmutableMap.of("name", "b", "scores", Collections.emptyList()),
+                ImmutableMap.of("name", "c", "scores", Arrays.asList(3.0D)));
+
+        try (Block expected = allocator.createBlock(schema);
+                Block actual = allocator.createBlock(schema)) {
+            ComplexValueSetter listSetter = ValueSetterFactory.newComplexValueSetter(actual.getFieldVector("list"));
+            ComplexValueSetter structSetter = ValueSetterFactory.newComplexValueSetter(actual.getFieldVector("struct"));
+            for (int i = 0; i < lists.size(); i++) {
+                BlockUtils.setComplexValue(expected.getFieldVector("list"), i, FieldResolver.DEFAULT, lists.get(i));
+                BlockUtils.setComplexValue(expected.getFieldVector("struct"), i, FieldResolver.DEFAULT, structs.get(i));
+                listSetter.setComplexValue(i, FieldResolver.DEFAULT, lists.get(i));
+                structSetter.setComplexValue(i, FieldResolver.DEFAULT, structs.get(i));
+            }
+            expected.setRowCount(lists.size());
+            actual.setRowCount(lists.size());
+
+            assertEquals(expected, actual);
+        }
+    }
+
+    private void assertSameAsSetValue(ArrowType type, Object first, Object second, Object third)
+            throws Exception
+    {
+        Schema schema = SchemaBuilder.newBuilder().addField("col1", type).build();
+        try (Block expected = allocator.createBlock(schema);
+                Block actual = allocator.createBlock(schema)) {
+            FieldVector expectedVector = expected.getFieldVector("col1");
+            FieldVector actualVector = actual.getFieldVector("col1");
+            ValueSetter specialized = ValueSetterFactory.newValueSetter(actualVector, first.getClass());
+            ValueSetter caching = ValueSetterFactory.newCachingValueSetter(actualVector);
+
+            List<Object> values = Arrays.asList(first, second, third);
+            for (int i = 0; i < values.size(); i++) {
+                BlockUtils.setValue(expectedVector, i, values.get(i));
+                //Rows 0 and 1 use the specialized setter, the caching setter must cope with a change of type.
+                if (i < 2) {
+                    specialized.setValue(i, values.get(i));
+                }
+                else {
+                    caching.setValue(i, values.get(i));
+                }
+            }
+            expected.setRowCount(values.size());
+            actual.setRowCount(values.size());
+
+            assertTrue("Mismatch for " + type + " " + first.getClass(), expected.equals(actual));
+        }
+    }
+}
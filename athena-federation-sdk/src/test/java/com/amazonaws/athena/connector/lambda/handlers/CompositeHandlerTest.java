@@ -65,7 +65,9 @@ import java.util.HashMap;
 import java.util.UUID;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -163,6 +165,28 @@ public class CompositeHandlerTest
                 .doReadRecords(nullable(BlockAllocator.class), nullable(ReadRecordsRequest.class));
     }
 
+    @Test
+    public void warmUp()
+            throws Exception
+    {
+        //Run the real MetadataHandler warm up, which no longer pings on its own.
+        doCallRealMethod().when(mockMetadataHandler).warmUp(nullable(BlockAllocator.class));
+        compositeHandler.warmUp();
+        verify(mockMetadataHandler, times(1)).doPing(nullable(PingRequest.class));
+        verify(mockMetadataHandler, times(1)).warmUp(nullable(BlockAllocator.class));
+        verify(mockRecordHandler, times(1)).warmUp(nullable(BlockAllocator.class));
+    }
+
+    @Test
+    public void warmUpSerDe()
+            throws Exception
+    {
+        //Fails if the GetTable round trip does not make it through the SerDe and the type checks.
+        doCallRealMethod().when(mockMetadataHandler).warmUp(nullable(BlockAllocator.class));
+        mockMetadataHandler.warmUp(allocator);
+        assertEquals(0, HandlerWarmUp.primeSerDe(allocator, "type"));
+    }
+
     @Test
     public void doListSchemaNames()
             throws Exception
@@ -23,6 +23,7 @@ import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
 import com.amazonaws.athena.connector.lambda.ThrottlingInvoker;
 import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
+import com.amazonaws.athena.connector.lambda.data.BlockUtils;
 import com.amazonaws.athena.connector.lambda.data.FieldResolver;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
@@ -154,10 +155,16 @@ public class GcsRecordHandler
                             // This will be loaded with new values on every call to loadNextBatch on the reader.
                             VectorSchemaRoot root = reader.getVectorSchemaRoot()
                     ) {
+                        List<FieldVector> gcsFieldVectors = invoker.invoke(root::getFieldVectors);
+                        // Resolve the block field index of each source vector once per batch rather than once per value.
+                        int[] fieldIndexes = BlockUtils.getFieldIndexes(schema, gcsFieldVectors.stream()
+                                .map(vector -> vector.getField().getName().toLowerCase()).collect(Collectors.toList()));
+                        int[] partitionFieldIndexes = BlockUtils.getFieldIndexes(schema, partitionColumns.stream()
+                                .map(field -> field.getName().toLowerCase()).collect(Collectors.toList()));
                         // We will loop on batch records and consider each records to write in spiller.
                         for (int rowIndex = 0; rowIndex < root.getRowCount(); rowIndex++) {
                             // we are passing record to spiller to be written.
-                            execute(spiller, invoker.invoke(root::getFieldVectors), rowIndex, partitionColumns, split);
+                            execute(spiller, gcsFieldVectors, fieldIndexes, rowIndex, partitionColumns, partitionFieldIndexes, split);
                         }
                     }
                 }
@@ -171,22 +178,26 @@ public class GcsRecordHandler
      * get the record to write into spiller.
      *  @param spiller         - block spiller
      * @param gcsFieldVectors - the batch
+     * @param fieldIndexes    - block field index of each vector in the batch
      * @param rowIndex        - row index
      * @param partitionColumns   - partition column
+     * @param partitionFieldIndexes - block field index of each partition column
      * @param split           - split
      */
     private void execute(
             BlockSpiller spiller,
-            List<FieldVector> gcsFieldVectors, int rowIndex, List<Field> partitionColumns, Split split)
+            List<FieldVector> gcsFieldVectors, int[] fieldIndexes, int rowIndex,
+            List<Field> partitionColumns, int[] partitionFieldIndexes, Split split)
     {
         spiller.writeRows((Block block, int rowNum) -> {
             boolean isMatched = true;
             // offer value for partition column
-            for (Field field : partitionColumns) {
-                isMatched &= block.offerValue(field.getName().toLowerCase(), rowNum, split.getProperty(field.getName().toLowerCase()));
+            for (int i = 0; i < partitionColumns.size(); i++) {
+                isMatched &= block.offerValue(partitionFieldIndexes[i], rowNum, split.getProperty(partitionColumns.get(i).getName().toLowerCase()));
             }
 
-            for (FieldVector vector : gcsFieldVectors) {
+            for (int i = 0; i < gcsFieldVectors.size(); i++) {
+                FieldVector vector = gcsFieldVectors.get(i);
                 Object value = vector.getObject(rowIndex);
                 // Writing data in spiller for each field.
                 Field nextField = vector.getField();
@@ -199,7 +210,7 @@ public class GcsRecordHandler
                             isMatched &= block.offerComplexValue(nextField.getName().toLowerCase(), rowNum, FieldResolver.DEFAULT, value);
                             break;
                         default:
-                            isMatched &= block.offerValue(nextField.getName().toLowerCase(), rowNum, GcsUtil.coerce(vector, value));
+                            isMatched &= block.offerValue(fieldIndexes[i], rowNum, GcsUtil.coerce(vector, value));
                             break;
                     }
                     if (!isMatched) {
@@ -24,6 +24,7 @@ import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
 import com.amazonaws.athena.connector.lambda.ThrottlingInvoker;
 import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
+import com.amazonaws.athena.connector.lambda.data.BlockUtils;
 import com.amazonaws.athena.connector.lambda.data.FieldResolver;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.handlers.RecordHandler;
@@ -70,6 +71,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 import static com.amazonaws.athena.connectors.google.bigquery.BigQueryExceptionFilter.EXCEPTION_FILTER;
 import static com.amazonaws.athena.connectors.google.bigquery.BigQueryUtils.fixCaseForDatasetName;
@@ -277,8 +279,10 @@ public class BigQueryRecordHandler
                     Preconditions.checkState(response.hasArrowRecordBatch());
                     VectorSchemaRoot root = reader.processRows(response.getArrowRecordBatch());
                     long rowLimit = (recordsRequest.getConstraints().getLimit() > 0 && recordsRequest.getConstraints().getLimit() < root.getRowCount()) ? recordsRequest.getConstraints().getLimit() : root.getRowCount();
+                    int[] fieldIndexes = BlockUtils.getFieldIndexes(recordsRequest.getSchema(), root.getFieldVectors().stream()
+                            .map(vector -> vector.getField().getName()).collect(Collectors.toList()));
                     for (int rowIndex = 0; rowIndex < rowLimit; rowIndex++) {
-                        outputResults(spiller, recordsRequest, root, rowIndex);
+                        outputResults(spiller, recordsRequest, root, fieldIndexes, rowIndex);
                     }
                 }
             }
@@ -291,12 +295,15 @@ public class BigQueryRecordHandler
      * @param spiller        The {@link BlockSpiller} provided when readWithConstraints() is called.
      * @param recordsRequest The {@link ReadRecordsRequest} provided when readWithConstraints() is called.
      * @param result         The {@link TableResult} provided by {@link BigQuery} client after a query has completed executing.
+     * @param fieldIndexes   The index, in the request schema, of each vector in the result.
      */
-    private void outputResults(BlockSpiller spiller, ReadRecordsRequest recordsRequest, VectorSchemaRoot result, int rowIndex)
+    private void outputResults(BlockSpiller spiller, ReadRecordsRequest recordsRequest, VectorSchemaRoot result, int[] fieldIndexes, int rowIndex)
     {
         if (result != null) {
             spiller.writeRows((Block block, int rowNum) -> {
-                for (FieldVector vector : result.getFieldVectors()) {
+                List<FieldVector> vectors = result.getFieldVectors();
+                for (int i = 0; i < vectors.size(); i++) {
+                    FieldVector vector = vectors.get(i);
                     boolean isMatched = true;
                     Object value = vector.getObject(rowIndex);
                     switch (vector.getMinorType()) {
@@ -305,7 +312,7 @@ public class BigQueryRecordHandler
                             isMatched &= block.offerComplexValue(vector.getField().getName(), rowNum, FieldResolver.DEFAULT, value);
                             break;
                         default:
-                            isMatched &= block.offerValue(vector.getField().getName(), rowNum, BigQueryUtils.coerce(vector, value));
+                            isMatched &= block.offerValue(fieldIndexes[i], rowNum, BigQueryUtils.coerce(vector, value));
                             break;
                     }
                     if (!isMatched) {
@@ -37,6 +37,7 @@ import com.amazonaws.athena.connector.lambda.metadata.ListTablesResponse;
 import com.amazonaws.athena.connectors.jdbc.connection.DatabaseConnectionConfig;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcConnectionFactory;
 import com.amazonaws.athena.connectors.jdbc.manager.JDBCUtil;
+import com.amazonaws.athena.connectors.jdbc.manager.JdbcMetadataCache;
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcMetadataHandler;
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcMetadataHandlerFactory;
 import com.amazonaws.services.athena.AmazonAthena;
@@ -49,7 +50,8 @@ import java.util.Map;
 /**
  * Metadata handler multiplexer that supports multiple engines e.g. MySQL, PostGreSql and Redshift in same Lambda.
  *
- * Uses catalog name and associations to database types to route operations.
+ * Uses catalog name and associations to database types to route operations. Each catalog's handler has its own
+ * connection pool, while all of them share one metadata cache keyed by catalog, see {@link JdbcMetadataCache}.
  */
 public class MultiplexingJdbcMetadataHandler
         extends JdbcMetadataHandler
@@ -77,6 +79,7 @@ public class MultiplexingJdbcMetadataHandler
         if (this.metadataHandlerMap.size() > MAX_CATALOGS_TO_MULTIPLEX) {
             throw new RuntimeException("Max 100 catalogs supported in multiplexer.");
         }
+        shareMetadataCache();
     }
 
     /**
@@ -86,6 +89,14 @@ public class MultiplexingJdbcMetadataHandler
     {
         super(jdbcMetadataHandlerFactory.getEngine(), configOptions);
         this.metadataHandlerMap = Validate.notEmpty(JDBCUtil.createJdbcMetadataHandlerMap(configOptions, jdbcMetadataHandlerFactory), "Could not find any delegatee.");
+        shareMetadataCache();
+    }
+
+    private void shareMetadataCache()
+    {
+        for (JdbcMetadataHandler metadataHandler : this.metadataHandlerMap.values()) {
+            metadataHandler.setMetadataCache(getMetadataCache());
+        }
     }
 
     private void validateMultiplexer(final String catalogName)
@@ -123,7 +134,9 @@ public class MultiplexingJdbcMetadataHandler
             throws Exception
     {
         validateMultiplexer(getTableRequest.getCatalogName());
-        return this.metadataHandlerMap.get(getTableRequest.getCatalogName()).doGetTable(blockAllocator, getTableRequest);
+        JdbcMetadataHandler metadataHandler = this.metadataHandlerMap.get(getTableRequest.getCatalogName());
+        return getMetadataCache().get(getTableRequest.getCatalogName(), "table", getTableRequest.getTableName(),
+                () -> metadataHandler.doGetTable(blockAllocator, getTableRequest));
     }
 
     @Override
@@ -164,4 +177,18 @@ public class MultiplexingJdbcMetadataHandler
         validateMultiplexer(request.getCatalogName());
         return this.metadataHandlerMap.get(request.getCatalogName()).doGetDataSourceCapabilities(allocator, request);
     }
+
+    /**
+     * Also opens a connection to each catalog when {@link JDBCUtil#WARM_UP_CONNECTIONS} is enabled, so that the first
+     * query of every catalog finds a pooled connection.
+     */
+    @Override
+    public void warmUp(BlockAllocator allocator)
+            throws Exception
+    {
+        super.warmUp(allocator);
+        if (JDBCUtil.isConnectionWarmUpEnabled(configOptions)) {
+            JDBCUtil.warmUpCatalogs(this.metadataHandlerMap, JdbcMetadataHandler::warmUpConnection);
+        }
+    }
 }
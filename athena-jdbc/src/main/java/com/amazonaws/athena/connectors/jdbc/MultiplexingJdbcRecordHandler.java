@@ -20,6 +20,7 @@
 package com.amazonaws.athena.connectors.jdbc;
 
 import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
+import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
 import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
@@ -100,4 +101,18 @@ public class MultiplexingJdbcRecordHandler
     {
         return this.recordHandlerMap.get(catalogName).buildSplitSql(jdbcConnection, catalogName, tableName, schema, constraints, split);
     }
+
+    /**
+     * Also opens a connection to each catalog when {@link JDBCUtil#WARM_UP_CONNECTIONS} is enabled, so that the first
+     * read of every catalog finds a pooled connection.
+     */
+    @Override
+    public void warmUp(BlockAllocator allocator)
+            throws Exception
+    {
+        super.warmUp(allocator);
+        if (JDBCUtil.isConnectionWarmUpEnabled(configOptions)) {
+            JDBCUtil.warmUpCatalogs(this.recordHandlerMap, JdbcRecordHandler::warmUpConnection);
+        }
+    }
 }
@@ -0,0 +1,618 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.connection;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decorates a {@link JdbcConnectionFactory} with a pool of idle connections so that the connections opened for one
+ * request can be reused by later requests served by the same (warm) function instance, avoiding the network,
+ * TLS, and authentication round trips of opening a new connection for every split.
+ * <ul>
+ * <li>Connections are pooled per credential. When the credential provider returns a new credential (e.g. after a
+ * secret rotation) idle connections opened with other credentials are closed.</li>
+ * <li>Connections are validated with {@link Connection#isValid(int)} before being handed out.</li>
+ * <li>Connections which have been idle for longer than the idle timeout are closed instead of being reused. Eviction
+ * happens when connections are borrowed or returned, so no background threads are needed.</li>
+ * <li>At most maxIdleConnections idle connections are kept per credential, connections returned beyond that
+ * are closed.</li>
+ * <li>If maxOpenConnections is set, at most that many connections, idle or in use, are open at once. Callers asking
+ * for a connection beyond that wait up to maxWaitMillis for one to be returned or closed, and then fail.</li>
+ * <li>Connections whose network timeout was changed, as done when cancelling a statement, are closed instead of
+ * being reused.</li>
+ * <li>If enabled, the statements prepared on a connection are cached along with it, see
+ * {@link PreparedStatementCache}.</li>
+ * <li>Statements created through a connection handed out by this factory return that connection from
+ * {@link Statement#getConnection()}, and those left open are closed when the connection is returned.</li>
+ * </ul>
+ * Closing a connection handed out by this factory returns it to the pool after closing its open statements, rolling
+ * back any open transaction and restoring auto-commit, as well as the read-only mode, catalog and transaction isolation
+ * if they were changed through the connection. Other session state, e.g. set with SQL statements, must be restored by
+ * the caller.
+ */
+public class PooledJdbcConnectionFactory
+        implements JdbcConnectionFactory, AutoCloseable
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(PooledJdbcConnectionFactory.class);
+
+    //Max idle connections to keep per credential, a value of 0 (the default) disables pooling. Can be set for a single
+    //catalog by prefixing it with the catalog name, e.g. mycatalog_jdbc_connection_pool_size.
+    public static final String POOL_SIZE_PROPERTY = "jdbc_connection_pool_size";
+    //Max time, in milliseconds, a connection can be idle before it is closed instead of being reused.
+    public static final String POOL_IDLE_TIMEOUT_MS_PROPERTY = "jdbc_connection_pool_idle_timeout_ms";
+    //Max prepared statements to cache per connection, a value of 0 (the default) disables statement caching.
+    public static final String STATEMENT_CACHE_SIZE_PROPERTY = "jdbc_statement_cache_size";
+    //Max connections, idle or in use, the pool can have open at once, a value of 0 (the default) means no limit.
+    public static final String POOL_MAX_OPEN_PROPERTY = "jdbc_connection_pool_max_open";
+    //Max time, in milliseconds, to wait for a connection once the pool has POOL_MAX_OPEN_PROPERTY connections open.
+    public static final String POOL_MAX_WAIT_MS_PROPERTY = "jdbc_connection_pool_max_wait_ms";
+    private static final long DEFAULT_IDLE_TIMEOUT_MS = 300_000;
+    private static final long DEFAULT_MAX_WAIT_MS = 30_000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final JdbcConnectionFactory delegate;
+    private final int maxIdleConnections;
+    private final long idleTimeoutMillis;
+    private final int statementCacheSize;
+    private final int maxOpenConnections;
+    private final long maxWaitMillis;
+    //Number of connections opened by this pool which have not been closed yet, whether idle or in use.
+    private int openConnections;
+    //Idle connections, most recently used first, keyed by the credential they were opened with (null if none).
+    private final Map<JdbcCredential, Deque<IdleConnection>> idleConnections = new HashMap<>();
+
+    /**
+     * @param delegate The factory used to open new connections.
+     * @param maxIdleConnections Max number of idle connections to keep per credential.
+     * @param idleTimeoutMillis Max time, in milliseconds, a connection can be idle before it is closed.
+     */
+    public PooledJdbcConnectionFactory(JdbcConnectionFactory delegate, int maxIdleConnections, long idleTimeoutMillis)
+    {
+        this(delegate, maxIdleConnections, idleTimeoutMillis, 0);
+    }
+
+    /**
+     * @param delegate The factory used to open new connections.
+     * @param maxIdleConnections Max number of idle connections to keep per credential.
+     * @param idleTimeoutMillis Max time, in milliseconds, a connection can be idle before it is closed.
+     * @param statementCacheSize Max number of prepared statements to cache per connection, 0 to disable caching.
+     */
+    public PooledJdbcConnectionFactory(JdbcConnectionFactory delegate, int maxIdleConnections, long idleTimeoutMillis, int statementCacheSize)
+    {
+        this(delegate, maxIdleConnections, idleTimeoutMillis, statementCacheSize, 0, 0);
+    }
+
+    /**
+     * @param delegate The factory used to open new connections.
+     * @param maxIdleConnections Max number of idle connections to keep per credential.
+     * @param idleTimeoutMillis Max time, in milliseconds, a connection can be idle before it is closed.
+     * @param statementCacheSize Max number of prepared statements to cache per connection, 0 to disable caching.
+     * @param maxOpenConnections Max number of connections, idle or in use, open at once, 0 for no limit.
+     * @param maxWaitMillis Max time, in milliseconds, getConnection waits for a connection once maxOpenConnections
+     * connections are open.
+     */
+    public PooledJdbcConnectionFactory(JdbcConnectionFactory delegate, int maxIdleConnections, long idleTimeoutMillis, int statementCacheSize,
+            int maxOpenConnections, long maxWaitMillis)
+    {
+        this.delegate = Validate.notNull(delegate, "delegate must not be null");
+        Validate.isTrue(maxIdleConnections > 0, "maxIdleConnections must be positive");
+        Validate.isTrue(statementCacheSize >= 0, "statementCacheSize must not be negative");
+        Validate.isTrue(maxOpenConnections >= 0, "maxOpenConnections must not be negative");
+        this.maxIdleConnections = maxIdleConnections;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.maxOpenConnections = maxOpenConnections;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * Wraps the provided factory in a PooledJdbcConnectionFactory if pooling is enabled by the provided config options.
+     *
+     * @param delegate The factory used to open new connections.
+     * @param configOptions The connector's config options, see POOL_SIZE_PROPERTY, POOL_IDLE_TIMEOUT_MS_PROPERTY,
+     * STATEMENT_CACHE_SIZE_PROPERTY, POOL_MAX_OPEN_PROPERTY and POOL_MAX_WAIT_MS_PROPERTY.
+     * @return The pooled factory if pooling is enabled, otherwise the provided factory.
+     */
+    public static JdbcConnectionFactory wrapIfEnabled(JdbcConnectionFactory delegate, Map<String, String> configOptions)
+    {
+        return wrapIfEnabled(delegate, configOptions, null);
+    }
+
+    /**
+     * Wraps the provided factory in a PooledJdbcConnectionFactory if pooling is enabled for the provided catalog, each
+     * catalog multiplexed by a function gets its own pool.
+     *
+     * @param delegate The factory used to open new connections.
+     * @param configOptions The connector's config options, see POOL_SIZE_PROPERTY, POOL_IDLE_TIMEOUT_MS_PROPERTY,
+     * STATEMENT_CACHE_SIZE_PROPERTY, POOL_MAX_OPEN_PROPERTY and POOL_MAX_WAIT_MS_PROPERTY.
+     * @param catalog The catalog the connections are opened to, whose POOL_SIZE_PROPERTY overrides the connector's.
+     * @return The pooled factory if pooling is enabled, otherwise the provided factory.
+     */
+    public static JdbcConnectionFactory wrapIfEnabled(JdbcConnectionFactory delegate, Map<String, String> configOptions, String catalog)
+    {
+        if (delegate == null || delegate instanceof PooledJdbcConnectionFactory || configOptions == null) {
+            return delegate;
+        }
+        String poolSizeProperty = (catalog != null) ? catalog + "_" + POOL_SIZE_PROPERTY : POOL_SIZE_PROPERTY;
+        int poolSize = Integer.parseInt(configOptions.getOrDefault(poolSizeProperty, configOptions.getOrDefault(POOL_SIZE_PROPERTY, "0")));
+        if (poolSize <= 0) {
+            return delegate;
+        }
+        long idleTimeoutMillis = Long.parseLong(configOptions.getOrDefault(POOL_IDLE_TIMEOUT_MS_PROPERTY, String.valueOf(DEFAULT_IDLE_TIMEOUT_MS)));
+        int statementCacheSize = Integer.parseInt(configOptions.getOrDefault(STATEMENT_CACHE_SIZE_PROPERTY, "0"));
+        int maxOpenConnections = Integer.parseInt(configOptions.getOrDefault(POOL_MAX_OPEN_PROPERTY, "0"));
+        long maxWaitMillis = Long.parseLong(configOptions.getOrDefault(POOL_MAX_WAIT_MS_PROPERTY, String.valueOf(DEFAULT_MAX_WAIT_MS)));
+        LOGGER.info("wrapIfEnabled: Pooling up to {} idle and {} open (0 for no limit) connections to catalog {} with an idle timeout of {} ms, caching up to {} statements per connection",
+                new Object[] {poolSize, maxOpenConnections, catalog, idleTimeoutMillis, statementCacheSize});
+        return new PooledJdbcConnectionFactory(delegate, poolSize, idleTimeoutMillis, statementCacheSize, maxOpenConnections, maxWaitMillis);
+    }
+
+    @Override
+    public Connection getConnection(final JdbcCredentialProvider jdbcCredentialProvider)
+            throws Exception
+    {
+        JdbcCredential credential = (jdbcCredentialProvider != null) ? jdbcCredentialProvider.getCredential() : null;
+        long deadline = System.currentTimeMillis() + maxWaitMillis;
+        IdleConnection idle;
+        while ((idle = borrowOrReserve(credential, deadline)) != null) {
+            if (isValid(idle.connection)) {
+                return wrap(idle.connection, credential, idle.statements);
+            }
+            LOGGER.info("getConnection: Discarding pooled connection which failed validation.");
+            closePhysical(idle.connection);
+        }
+
+        //A slot was reserved for a new connection, give it back if the connection can not be opened
+        Connection connection;
+        try {
+            connection = delegate.getConnection(jdbcCredentialProvider);
+        }
+        catch (Exception ex) {
+            onPhysicalClose();
+            throw ex;
+        }
+        return wrap(connection, credential, (statementCacheSize > 0) ? new PreparedStatementCache(connection, statementCacheSize) : null);
+    }
+
+    /**
+     * Closes all idle connections. Connections which are currently in use are closed when they are returned.
+     */
+    @Override
+    public void close()
+    {
+        List<Connection> closing = new ArrayList<>();
+        synchronized (this) {
+            for (Deque<IdleConnection> next : idleConnections.values()) {
+                next.forEach(idle -> closing.add(idle.connection));
+            }
+            idleConnections.clear();
+        }
+        closing.forEach(this::closePhysical);
+    }
+
+    /**
+     * @return The total number of idle connections in the pool.
+     */
+    public synchronized int getIdleConnectionCount()
+    {
+        return idleConnections.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    /**
+     * @return The total number of connections opened by the pool which have not been closed, whether idle or in use.
+     */
+    public synchronized int getOpenConnectionCount()
+    {
+        return openConnections;
+    }
+
+    /**
+     * Takes the most recently used idle connection for the provided credential, evicting expired idle connections
+     * and idle connections opened with other credentials. If there is none, reserves a slot for a new connection,
+     * waiting until the deadline for a connection to be returned or closed if maxOpenConnections are open.
+     *
+     * @return An idle connection, or null if a slot for a new connection was reserved.
+     * @throws SQLException if no connection became available before the deadline.
+     */
+    private IdleConnection borrowOrReserve(JdbcCredential credential, long deadline)
+            throws SQLException, InterruptedException
+    {
+        while (true) {
+            List<Connection> evicted;
+            synchronized (this) {
+                evicted = evict(credential);
+                if (evicted.isEmpty()) {
+                    Deque<IdleConnection> idle = idleConnections.get(credential);
+                    if (idle != null && !idle.isEmpty()) {
+                        return idle.pollFirst();
+                    }
+                    if (maxOpenConnections <= 0 || openConnections < maxOpenConnections) {
+                        openConnections++;
+                        return null;
+                    }
+                    long remainingMillis = deadline - System.currentTimeMillis();
+                    if (remainingMillis <= 0) {
+                        throw new SQLException("Timed out waiting for a pooled connection, " + openConnections + " connections are open.");
+                    }
+                    wait(remainingMillis);
+                }
+            }
+            //Evicted connections are closed outside the lock, freeing their slots before looking again.
+            evicted.forEach(this::closePhysical);
+        }
+    }
+
+    /**
+     * Returns a connection to the pool, or closes it if it can not be reused or the pool is full.
+     */
+    private void release(Connection connection, JdbcCredential credential, PreparedStatementCache statements, PooledConnectionHandler handler)
+    {
+        if (!reset(connection, handler)) {
+            closePhysical(connection);
+            return;
+        }
+
+        boolean pooled = false;
+        List<Connection> evicted;
+        synchronized (this) {
+            evicted = evict(credential);
+            Deque<IdleConnection> idle = idleConnections.computeIfAbsent(credential, key -> new ArrayDeque<>());
+            if (idle.size() < maxIdleConnections) {
+                idle.addFirst(new IdleConnection(connection, statements, System.currentTimeMillis()));
+                notifyAll();
+                pooled = true;
+            }
+        }
+        evicted.forEach(this::closePhysical);
+        if (!pooled) {
+            closePhysical(connection);
+        }
+    }
+
+    /**
+     * Removes idle connections which have expired or which were opened with a credential other than the provided one.
+     *
+     * @return The removed connections, which the caller must close with closePhysical(...) once it released the lock.
+     */
+    private synchronized List<Connection> evict(JdbcCredential credential)
+    {
+        long expiredBefore = System.currentTimeMillis() - idleTimeoutMillis;
+        List<Connection> evicted = new ArrayList<>();
+        List<JdbcCredential> emptyKeys = new ArrayList<>();
+        for (Map.Entry<JdbcCredential, Deque<IdleConnection>> next : idleConnections.entrySet()) {
+            boolean rotated = !Objects.equals(next.getKey(), credential);
+            Iterator<IdleConnection> itr = next.getValue().iterator();
+            while (itr.hasNext()) {
+                IdleConnection idle = itr.next();
+                if (rotated || idle.lastUsedMillis < expiredBefore) {
+                    itr.remove();
+                    evicted.add(idle.connection);
+                }
+            }
+            if (next.getValue().isEmpty()) {
+                emptyKeys.add(next.getKey());
+            }
+        }
+        emptyKeys.forEach(idleConnections::remove);
+        return evicted;
+    }
+
+    /**
+     * Restores the connection to its default state.
+     *
+     * @param handler The handler the connection was borrowed through, which knows the settings changed since.
+     * @return True if the connection can be reused, false otherwise.
+     */
+    private boolean reset(Connection connection, PooledConnectionHandler handler)
+    {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            if (handler.originalTransactionIsolation != null) {
+                connection.setTransactionIsolation(handler.originalTransactionIsolation);
+            }
+            if (handler.originalReadOnly != null) {
+                connection.setReadOnly(handler.originalReadOnly);
+            }
+            if (handler.catalogChanged) {
+                connection.setCatalog(handler.originalCatalog);
+            }
+            connection.clearWarnings();
+            return true;
+        }
+        catch (SQLException | RuntimeException ex) {
+            LOGGER.warn("reset: Unable to reset connection, it will be closed.", ex);
+            return false;
+        }
+    }
+
+    private boolean isValid(Connection connection)
+    {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        }
+        catch (SQLException | RuntimeException ex) {
+            LOGGER.warn("isValid: Unable to validate connection.", ex);
+            return false;
+        }
+    }
+
+    /**
+     * Closes a connection opened by this pool, freeing its slot for callers waiting on maxOpenConnections.
+     */
+    private void closePhysical(Connection connection)
+    {
+        closeQuietly(connection);
+        onPhysicalClose();
+    }
+
+    private synchronized void onPhysicalClose()
+    {
+        openConnections--;
+        notifyAll();
+    }
+
+    private static void closeQuietly(Connection connection)
+    {
+        try {
+            connection.close();
+        }
+        catch (SQLException | RuntimeException ex) {
+            LOGGER.warn("closeQuietly: Unable to close connection.", ex);
+        }
+    }
+
+    /**
+     * Wraps the physical connection in a proxy that returns it to the pool when closed.
+     *
+     * @param statements The statement cache of the connection, null if statements are not cached.
+     */
+    private Connection wrap(Connection connection, JdbcCredential credential, PreparedStatementCache statements)
+    {
+        return (Connection) Proxy.newProxyInstance(PooledJdbcConnectionFactory.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                new PooledConnectionHandler(connection, credential, statements));
+    }
+
+    private static class IdleConnection
+    {
+        private final Connection connection;
+        private final PreparedStatementCache statements;
+        private final long lastUsedMillis;
+
+        private IdleConnection(Connection connection, PreparedStatementCache statements, long lastUsedMillis)
+        {
+            this.connection = connection;
+            this.statements = statements;
+            this.lastUsedMillis = lastUsedMillis;
+        }
+    }
+
+    private class PooledConnectionHandler
+            implements InvocationHandler
+    {
+        private final Connection connection;
+        private final JdbcCredential credential;
+        private final PreparedStatementCache statements;
+        //Statements created through this handler which have not been closed yet.
+        private final Set<Statement> openStatements = ConcurrentHashMap.newKeySet();
+        private boolean closed;
+        // Set once the network timeout is changed, e.g. to bound the close of a cancelled statement.
+        private volatile boolean discard;
+        // Settings of the connection before they were first changed through this handler, null (or, for the catalog,
+        // catalogChanged false) if unchanged.
+        private Integer originalTransactionIsolation;
+        private Boolean originalReadOnly;
+        private boolean catalogChanged;
+        private String originalCatalog;
+
+        private PooledConnectionHandler(Connection connection, JdbcCredential credential, PreparedStatementCache statements)
+        {
+            this.connection = connection;
+            this.credential = credential;
+            this.statements = statements;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args)
+                throws Throwable
+        {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        closeOpenStatements();
+                        if (discard) {
+                            closePhysical(connection);
+                        }
+                        else {
+                            release(connection, credential, statements, this);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + connection + "]";
+                default:
+                    if (closed) {
+                        throw new SQLException("Connection is closed.");
+                    }
+                    discard = discard || method.getName().equals("setNetworkTimeout");
+                    rememberOriginalSetting(method.getName());
+                    Object result;
+                    if (statements != null && method.getName().equals("prepareStatement") && args.length == 1) {
+                        result = statements.prepare((String) args[0], (Connection) proxy);
+                    }
+                    else {
+                        try {
+                            result = method.invoke(connection, args);
+                        }
+                        catch (InvocationTargetException ex) {
+                            throw ex.getCause();
+                        }
+                    }
+                    //createStatement, prepareStatement and prepareCall
+                    if (result != null && Statement.class.isAssignableFrom(method.getReturnType())) {
+                        return track((Statement) result, method.getReturnType(), (Connection) proxy);
+                    }
+                    return result;
+            }
+        }
+
+        /**
+         * Wraps the statement in a proxy that returns the pooled connection from getConnection() and which is closed,
+         * if the caller did not close it, when the connection is returned.
+         */
+        private Statement track(Statement statement, Class<?> type, Connection owner)
+        {
+            TrackedStatementHandler handler = new TrackedStatementHandler(statement, owner, openStatements);
+            Statement tracked = (Statement) Proxy.newProxyInstance(PooledJdbcConnectionFactory.class.getClassLoader(),
+                    new Class<?>[] {type},
+                    handler);
+            openStatements.add(tracked);
+            return tracked;
+        }
+
+        /**
+         * Closes the statements the caller left open, which returns cached ones to the statement cache.
+         */
+        private void closeOpenStatements()
+        {
+            for (Statement next : new ArrayList<>(openStatements)) {
+                try {
+                    next.close();
+                }
+                catch (SQLException | RuntimeException ex) {
+                    LOGGER.warn("closeOpenStatements: Unable to close statement.", ex);
+                }
+            }
+        }
+
+        /**
+         * Records the value of a setting the first time it is about to be changed, so that it can be restored when the
+         * connection is returned to the pool.
+         */
+        private void rememberOriginalSetting(String methodName)
+                throws SQLException
+        {
+            switch (methodName) {
+                case "setTransactionIsolation":
+                    if (originalTransactionIsolation == null) {
+                        originalTransactionIsolation = connection.getTransactionIsolation();
+                    }
+                    break;
+                case "setReadOnly":
+                    if (originalReadOnly == null) {
+                        originalReadOnly = connection.isReadOnly();
+                    }
+                    break;
+                case "setCatalog":
+                    if (!catalogChanged) {
+                        originalCatalog = connection.getCatalog();
+                        catalogChanged = true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static class TrackedStatementHandler
+            implements InvocationHandler
+    {
+        private final Statement statement;
+        private final Connection owner;
+        private final Set<Statement> openStatements;
+        private volatile boolean closed;
+
+        private TrackedStatementHandler(Statement statement, Connection owner, Set<Statement> openStatements)
+        {
+            this.statement = statement;
+            this.owner = owner;
+            this.openStatements = openStatements;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args)
+                throws Throwable
+        {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        openStatements.remove(proxy);
+                        statement.close();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Tracked[" + statement + "]";
+                default:
+                    if (closed) {
+                        throw new SQLException("Statement is closed.");
+                    }
+                    try {
+                        return method.invoke(statement, args);
+                    }
+                    catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.connection;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Caches the prepared statements of a pooled physical connection, keyed by their SQL text, so that splits of the same
+ * shape served by a warm function instance reuse the statements, and with them the plans which drivers such as the
+ * Oracle, SQL Server, Db2 and PostgreSQL ones prepare on the server once a statement is executed repeatedly.
+ * <ul>
+ * <li>Closing a statement handed out by the cache returns it to the cache after clearing its parameters and restoring
+ * its fetch size and max rows.</li>
+ * <li>A statement is handed out to a single user at a time, preparing SQL whose cached statement is in use returns a
+ * statement which is not cached.</li>
+ * <li>Statements which were cancelled or failed to be reset are closed instead of being returned to the cache.</li>
+ * <li>At most maxStatements statements are cached, the least recently used one is closed beyond that.</li>
+ * </ul>
+ * Cached statements are closed along with the physical connection.
+ */
+class PreparedStatementCache
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreparedStatementCache.class);
+
+    private final Connection connection;
+    private final int maxStatements;
+    //Cached statements, least recently used first, keyed by their normalized SQL.
+    private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param connection The physical connection statements are prepared on.
+     * @param maxStatements Max number of statements to cache.
+     */
+    PreparedStatementCache(Connection connection, int maxStatements)
+    {
+        this.connection = Validate.notNull(connection, "connection must not be null");
+        Validate.isTrue(maxStatements > 0, "maxStatements must be positive");
+        this.maxStatements = maxStatements;
+    }
+
+    /**
+     * Returns the cached statement for the provided SQL, preparing and caching it if needed.
+     *
+     * @param sql The SQL of the statement.
+     * @param owner The connection returned by {@link PreparedStatement#getConnection()}.
+     * @return A statement which is returned to the cache when closed.
+     */
+    synchronized PreparedStatement prepare(String sql, Connection owner)
+            throws SQLException
+    {
+        String key = normalize(sql);
+        CachedStatement cached = statements.get(key);
+        if (cached != null && cached.inUse) {
+            LOGGER.debug("prepare: Cached statement is in use, preparing an uncached one.");
+            return connection.prepareStatement(sql);
+        }
+        if (cached == null) {
+            cached = new CachedStatement(key, connection.prepareStatement(sql));
+            statements.put(key, cached);
+            evict();
+        }
+        cached.inUse = true;
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatementCache.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class},
+                new CachedStatementHandler(cached, owner));
+    }
+
+    /**
+     * @return The number of cached statements, in use or not.
+     */
+    synchronized int size()
+    {
+        return statements.size();
+    }
+
+    /**
+     * Returns a statement to the cache, or closes it if it can not be reused or was evicted while in use.
+     */
+    private synchronized void release(CachedStatement cached)
+    {
+        cached.inUse = false;
+        if (cached.discard || statements.get(cached.key) != cached || !reset(cached)) {
+            statements.remove(cached.key, cached);
+            closeQuietly(cached.statement);
+        }
+    }
+
+    /**
+     * Closes the least recently used statements beyond maxStatements, statements in use are closed once released.
+     */
+    private void evict()
+    {
+        Iterator<CachedStatement> itr = statements.values().iterator();
+        while (statements.size() > maxStatements && itr.hasNext()) {
+            CachedStatement eldest = itr.next();
+            itr.remove();
+            if (!eldest.inUse) {
+                closeQuietly(eldest.statement);
+            }
+        }
+    }
+
+    /**
+     * Restores the statement to the state it was prepared in.
+     *
+     * @return True if the statement can be reused, false otherwise.
+     */
+    private static boolean reset(CachedStatement cached)
+    {
+        try {
+            PreparedStatement statement = cached.statement;
+            if (statement.isClosed()) {
+                return false;
+            }
+            ResultSet resultSet = statement.getResultSet();
+            if (resultSet != null) {
+                resultSet.close();
+            }
+            statement.clearParameters();
+            statement.clearWarnings();
+            if (statement.getFetchSize() != cached.fetchSize) {
+                statement.setFetchSize(cached.fetchSize);
+            }
+            if (statement.getMaxRows() != cached.maxRows) {
+                statement.setMaxRows(cached.maxRows);
+            }
+            return true;
+        }
+        catch (SQLException | RuntimeException ex) {
+            LOGGER.warn("reset: Unable to reset statement, it will be closed.", ex);
+            return false;
+        }
+    }
+
+    private static String normalize(String sql)
+    {
+        return sql.trim();
+    }
+
+    private static void closeQuietly(PreparedStatement statement)
+    {
+        try {
+            statement.close();
+        }
+        catch (SQLException | RuntimeException ex) {
+            LOGGER.warn("closeQuietly: Unable to close statement.", ex);
+        }
+    }
+
+    private static class CachedStatement
+    {
+        private final String key;
+        private final PreparedStatement statement;
+        private final int fetchSize;
+        private final int maxRows;
+        private boolean inUse;
+        // Set once the statement is cancelled, as the driver may leave it in an unusable state.
+        private volatile boolean discard;
+
+        private CachedStatement(String key, PreparedStatement statement)
+                throws SQLException
+        {
+            this.key = key;
+            this.statement = statement;
+            this.fetchSize = statement.getFetchSize();
+            this.maxRows = statement.getMaxRows();
+        }
+    }
+
+    private class CachedStatementHandler
+            implements InvocationHandler
+    {
+        private final CachedStatement cached;
+        private final Connection owner;
+        private volatile boolean closed;
+
+        private CachedStatementHandler(CachedStatement cached, Connection owner)
+        {
+            this.cached = cached;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args)
+                throws Throwable
+        {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(cached);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || cached.statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached[" + cached.statement + "]";
+                default:
+                    if (closed) {
+                        throw new SQLException("Statement is closed.");
+                    }
+                    cached.discard = cached.discard || method.getName().equals("cancel");
+                    try {
+                        return method.invoke(cached.statement, args);
+                    }
+                    catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.manager;
+
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.BigIntExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.BitExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.DateDayExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.DateMilliExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.DecimalExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.Extractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.Float4Extractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.Float8Extractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.IntExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.SmallIntExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.TinyIntExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.VarBinaryExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.VarCharExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.holders.NullableDecimalHolder;
+import com.amazonaws.athena.connector.lambda.data.writers.holders.NullableVarBinaryHolder;
+import com.amazonaws.athena.connector.lambda.data.writers.holders.NullableVarCharHolder;
+import org.apache.arrow.vector.holders.NullableBigIntHolder;
+import org.apache.arrow.vector.holders.NullableBitHolder;
+import org.apache.arrow.vector.holders.NullableDateDayHolder;
+import org.apache.arrow.vector.holders.NullableDateMilliHolder;
+import org.apache.arrow.vector.holders.NullableFloat4Holder;
+import org.apache.arrow.vector.holders.NullableFloat8Holder;
+import org.apache.arrow.vector.holders.NullableIntHolder;
+import org.apache.arrow.vector.holders.NullableSmallIntHolder;
+import org.apache.arrow.vector.holders.NullableTinyIntHolder;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Field;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Creates the Extractors which write the columns of a {@link ColumnValueReader}, passed as their context, to a Block.
+ * Readers only decode their values, the Extractors own the null handling, the conversion to each Arrow type's holder and
+ * the partition columns of the split.
+ */
+public final class ColumnValueExtractors
+{
+    private ColumnValueExtractors() {}
+
+    /**
+     * @see #makeExtractor(Field, int, Map)
+     */
+    public static Extractor makeExtractor(Field field, int column)
+    {
+        return makeExtractor(field, column, Collections.emptyMap());
+    }
+
+    /**
+     * @param field the field to write.
+     * @param column the column of the reader holding the field's values.
+     * @param partitionValues the partition values of the split, fields found here are written with their partition
+     * value rather than read.
+     * @return the Extractor, or null if the field's type is not supported.
+     */
+    public static Extractor makeExtractor(Field field, int column, Map<String, String> partitionValues)
+    {
+        final String fieldName = field.getName();
+        if (partitionValues.containsKey(fieldName)) {
+            return (VarCharExtractor) (Object context, NullableVarCharHolder dst) ->
+            {
+                dst.isSet = 1;
+                dst.value = partitionValues.get(fieldName);
+            };
+        }
+
+        switch (Types.getMinorTypeForArrowType(field.getType())) {
+            case BIT:
+                return (BitExtractor) (Object context, NullableBitHolder dst) ->
+                {
+                    ColumnValueReader reader = (ColumnValueReader) context;
+                    dst.isSet = reader.isNull(column) ? 0 : 1;
+                    dst.value = (dst.isSet == 1 && reader.getBoolean(column)) ? 1 : 0;
+                };
+            case TINYINT:
+                return (TinyIntExtractor) (Object context, NullableTinyIntHolder dst) ->
+                {
+                    ColumnValueReader reader = (ColumnValueReader) context;
+                    dst.isSet = reader.isNull(column) ? 0 : 1;
+                    dst.value = (dst.isSet == 1) ? reader.getByte(column) : 0;
+                };
+            case SMALLINT:
+                return (SmallIntExtractor) (Object context, NullableSmallIntHolder dst) ->
+                {
+                    ColumnValueReader reader = (ColumnValueReader) context;
+                    dst.isSet = reader.isNull(column) ? 0 : 1;
+                    dst.value = (dst.isSet == 1) ? reader.getShort(column) : 0;
+                };
+            case INT:
+                return (IntExtractor) (Object context, NullableIntHolder dst) ->
+                {
+                    ColumnValueReader reader = (ColumnValueReader) context;
+                    dst.isSet = reader.isNull(column) ? 0 : 1;
+                    dst.value = (dst.isSet == 1) ? reader.getInt(column) : 0;
+                };
+            case BIGINT:
+                return (BigIntExtractor) (Object context, NullableBigIntHolder dst) ->
+                {
+                    ColumnValueReader reader = (ColumnValueReader) context;
+                    dst.isSet = reader.isNull(column) ? 0 : 1;
+                    dst.value = (dst.isSet == 1) ? reader.getLong(column) : 0;
+                };
+            case FLOAT4:
+                return (Float4Extractor) (Object context, NullableFloat4Holder dst) ->
+                {
+                    ColumnValueReader reader = (ColumnValueReader) context;
+                    dst.isSet = reader.isNull(column) ? 0 : 1;
+                    dst.value = (dst.isSet == 1) ? reader.getFloat(column) : 0;
+                };
+            case FLOAT8:
+                return (Float8Extractor) (Object context, NullableFloat8Holder dst) ->
+                {
+                    ColumnValueReader reader = (ColumnValueReader) context;
+                    dst.isSet = reader.isNull(column) ? 0 : 1;
+                    dst.value = (dst.isSet == 1) ? reader.getDouble(column) : 0;
+                };
+            case DECIMAL:
+                return (DecimalExtractor) (Object context, NullableDecimalHolder dst) ->
+                {
+                    ColumnValueReader reader = (ColumnValueReader) context;
+                    dst.isSet = reader.isNull(column) ? 0 : 1;
+                    dst.value = (dst.isSet == 1) ? reader.getDecimal(column) : null;
+                };
+            case DATEDAY:
+                return (DateDayExtractor) (Object context, NullableDateDayHolder dst) ->
+                {
+                    ColumnValueReader reader = (ColumnValueReader) context;
+                    dst.isSet = reader.isNull(column) ? 0 : 1;
+                    dst.value = (dst.isSet == 1) ? reader.getEpochDay(column) : 0;
+                };
+            case DATEMILLI:
+                return (DateMilliExtractor) (Object context, NullableDateMilliHolder dst) ->
+                {
+                    ColumnValueReader reader = (ColumnValueReader) context;
+                    dst.isSet = reader.isNull(column) ? 0 : 1;
+                    dst.value = (dst.isSet == 1) ? reader.getDateMilli(column) : 0;
+                };
+            case VARCHAR:
+                return (VarCharExtractor) (Object context, NullableVarCharHolder dst) ->
+                {
+                    ColumnValueReader reader = (ColumnValueReader) context;
+                    dst.isSet = reader.isNull(column) ? 0 : 1;
+                    dst.value = (dst.isSet == 1) ? reader.getText(column) : null;
+                };
+            case VARBINARY:
+                return (VarBinaryExtractor) (Object context, NullableVarBinaryHolder dst) ->
+                {
+                    ColumnValueReader reader = (ColumnValueReader) context;
+                    dst.isSet = reader.isNull(column) ? 0 : 1;
+                    dst.value = (dst.isSet == 1) ? reader.getBytes(column) : null;
+                };
+            default:
+                return null;
+        }
+    }
+}
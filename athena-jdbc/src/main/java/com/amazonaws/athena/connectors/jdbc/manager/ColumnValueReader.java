@@ -0,0 +1,110 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.manager;
+
+import java.math.BigDecimal;
+
+/**
+ * Reads the columns of the current row of a result which is decoded without the JDBC getters, e.g. a binary COPY or
+ * the Arrow record batches of a result, and is passed as the context of the Extractors created by
+ * {@link ColumnValueExtractors}. Each getter is only called for non null values of a column of the documented type.
+ */
+public interface ColumnValueReader
+{
+    boolean isNull(int column);
+
+    /**
+     * @return the value of a BIT column.
+     */
+    boolean getBoolean(int column);
+
+    /**
+     * @return the value of a TINYINT column.
+     */
+    default byte getByte(int column)
+    {
+        return (byte) getLong(column);
+    }
+
+    /**
+     * @return the value of a SMALLINT column.
+     */
+    default short getShort(int column)
+    {
+        return (short) getLong(column);
+    }
+
+    /**
+     * @return the value of an INT column.
+     */
+    default int getInt(int column)
+    {
+        return (int) getLong(column);
+    }
+
+    /**
+     * @return the value of a BIGINT column.
+     */
+    long getLong(int column);
+
+    /**
+     * @return the value of a FLOAT4 column.
+     */
+    default float getFloat(int column)
+    {
+        return (float) getDouble(column);
+    }
+
+    /**
+     * @return the value of a FLOAT8 column.
+     */
+    double getDouble(int column);
+
+    /**
+     * @return the value of a DECIMAL column.
+     */
+    BigDecimal getDecimal(int column);
+
+    /**
+     * @return the value of a DATEDAY column, in days since 1970-01-01.
+     */
+    int getEpochDay(int column);
+
+    /**
+     * @return the value of a DATEMILLI column, in milliseconds since 1970-01-01 00:00:00 UTC.
+     */
+    default long getDateMilli(int column)
+    {
+        throw new UnsupportedOperationException("DATEMILLI columns are not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * @return the value of a VARCHAR column.
+     */
+    String getText(int column);
+
+    /**
+     * @return the value of a VARBINARY column.
+     */
+    default byte[] getBytes(int column)
+    {
+        throw new UnsupportedOperationException("VARBINARY columns are not supported by " + getClass().getSimpleName());
+    }
+}
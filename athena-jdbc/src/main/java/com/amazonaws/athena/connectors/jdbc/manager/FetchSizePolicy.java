@@ -0,0 +1,181 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.manager;
+
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.LongSupplier;
+
+/**
+ * Sizes the fetches of a cursor based read so that one fetch holds about one block worth of rows, within the row bounds
+ * suited to the database driver, and tunes the fetch size during the read from the observed throughput.
+ *
+ * Tuning doubles the fetch size for as long as doing so improves the rate at which rows are read, and goes back to the
+ * previous size, for the rest of the read, as soon as it does not.
+ */
+public class FetchSizePolicy
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(FetchSizePolicy.class);
+
+    // Rate improvement needed to keep growing the fetch size.
+    private static final double MIN_IMPROVEMENT = 0.1;
+    // Fetches per measurement, so that each measurement includes several round trips.
+    private static final int FETCHES_PER_WINDOW = 2;
+
+    private final int minRows;
+    private final int maxRows;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param minRows smallest fetch size.
+     * @param maxRows largest fetch size, bounding the memory held by the driver for wide rows that are estimated narrow.
+     */
+    public FetchSizePolicy(int minRows, int maxRows)
+    {
+        this(minRows, maxRows, System::nanoTime);
+    }
+
+    FetchSizePolicy(int minRows, int maxRows, LongSupplier nanoClock)
+    {
+        Validate.isTrue(minRows > 0 && minRows <= maxRows, "minRows must be positive and no greater than maxRows");
+        this.minRows = minRows;
+        this.maxRows = maxRows;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @param schema schema of the rows read.
+     * @param targetBytes bytes which one fetch should hold.
+     * @return the fetch size to read with before any tuning.
+     */
+    public int getFetchSize(Schema schema, long targetBytes)
+    {
+        long rows = targetBytes / estimateRowBytes(schema);
+        return (int) Math.max(minRows, Math.min(maxRows, rows));
+    }
+
+    /**
+     * @return a Tuner adjusting the fetch size of the ResultSet, which is read with the provided fetch size.
+     */
+    public Tuner newTuner(ResultSet resultSet, int fetchSize)
+    {
+        return new Tuner(resultSet, fetchSize);
+    }
+
+    /**
+     * Estimates the size of a row from the types of its columns, using a nominal size for variable width columns.
+     */
+    public static int estimateRowBytes(Schema schema)
+    {
+        int bytes = 0;
+        for (Field field : schema.getFields()) {
+            bytes += estimateFieldBytes(field.getType());
+        }
+        return Math.max(1, bytes);
+    }
+
+    private static int estimateFieldBytes(ArrowType type)
+    {
+        switch (Types.getMinorTypeForArrowType(type)) {
+            case BIT:
+            case TINYINT:
+                return 1;
+            case SMALLINT:
+                return 2;
+            case INT:
+            case FLOAT4:
+            case DATEDAY:
+                return 4;
+            case BIGINT:
+            case FLOAT8:
+            case DATEMILLI:
+                return 8;
+            case DECIMAL:
+                return 16;
+            case VARCHAR:
+                return 64;
+            default:
+                return 256;
+        }
+    }
+
+    /**
+     * Tunes the fetch size of one ResultSet, {@link #onRow()} must be called once for each row read.
+     */
+    public class Tuner
+    {
+        private final ResultSet resultSet;
+        private int fetchSize;
+        private int previousFetchSize;
+        private double bestRate;
+        private long windowStart;
+        private int windowRows;
+        private boolean settled;
+
+        private Tuner(ResultSet resultSet, int fetchSize)
+        {
+            this.resultSet = resultSet;
+            this.fetchSize = fetchSize;
+            this.previousFetchSize = fetchSize;
+            // Drivers streaming row by row, such as MySQL with Integer.MIN_VALUE, are not tuned.
+            this.settled = fetchSize <= 0;
+            this.windowStart = nanoClock.getAsLong();
+        }
+
+        public void onRow()
+                throws SQLException
+        {
+            if (settled || ++windowRows < fetchSize * FETCHES_PER_WINDOW) {
+                return;
+            }
+            long now = nanoClock.getAsLong();
+            double rate = (double) windowRows / Math.max(1, now - windowStart);
+            if (rate > bestRate * (1 + MIN_IMPROVEMENT) && fetchSize < maxRows) {
+                bestRate = rate;
+                previousFetchSize = fetchSize;
+                fetchSize = (int) Math.min(maxRows, 2L * fetchSize);
+                resultSet.setFetchSize(fetchSize);
+            }
+            else {
+                if (rate <= bestRate * (1 + MIN_IMPROVEMENT) && previousFetchSize != fetchSize) {
+                    fetchSize = previousFetchSize;
+                    resultSet.setFetchSize(fetchSize);
+                }
+                settled = true;
+                LOGGER.debug("onRow: Settled on fetch size {}", fetchSize);
+            }
+            windowRows = 0;
+            windowStart = now;
+        }
+
+        public int getFetchSize()
+        {
+            return fetchSize;
+        }
+    }
+}
@@ -32,17 +32,44 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public final class JDBCUtil
 {
     private static final String DEFAULT_CATALOG_PREFIX = "lambda:";
     private static final String LAMBDA_FUNCTION_NAME_PROPERTY = "AWS_LAMBDA_FUNCTION_NAME";
     private static final Logger LOGGER = LoggerFactory.getLogger(JDBCUtil.class);
+    /**
+     * Whether handlers open a connection to each of their catalogs when warmed up, so that the first query of each catalog
+     * does not pay for the connection. Defaults to false, leave it off with SnapStart since connections opened before a
+     * checkpoint do not survive the restore.
+     */
+    public static final String WARM_UP_CONNECTIONS = "jdbc_warm_up_connections";
+    //Max number of catalogs warmed up at once
+    private static final int MAX_WARM_UP_THREADS = 8;
 
     private JDBCUtil() {}
 
+    /**
+     * Warms up the handler of a single catalog, see {@link #warmUpCatalogs}.
+     */
+    public interface CatalogWarmUp<T>
+    {
+        void warmUp(T handler)
+                throws Exception;
+    }
+
     /**
      * Extracts default database configuration for a database. Used when a specific database instance handler is used by Lambda function.
      *
@@ -139,6 +166,62 @@ public final class JDBCUtil
         return recordHandlerMap.build();
     }
 
+    /**
+     * @param configOptions system configOptions.
+     * @return whether connections should be opened when handlers are warmed up, see {@link #WARM_UP_CONNECTIONS}.
+     */
+    public static boolean isConnectionWarmUpEnabled(Map<String, String> configOptions)
+    {
+        return configOptions != null && Boolean.parseBoolean(configOptions.getOrDefault(WARM_UP_CONNECTIONS, "false"));
+    }
+
+    /**
+     * Warms up the handler of each catalog, in parallel, logging rather than propagating failures so that one unreachable
+     * database does not keep the others from being warmed up. A handler mapped to several catalogs, e.g. the default
+     * catalog, is warmed up once.
+     *
+     * @param handlerMap catalog -> handler, as created by the multiplexers.
+     * @param warmUp warm up of a single handler.
+     */
+    public static <T> void warmUpCatalogs(Map<String, T> handlerMap, CatalogWarmUp<T> warmUp)
+            throws InterruptedException
+    {
+        Map<String, T> distinctHandlers = new LinkedHashMap<>();
+        Set<T> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Map.Entry<String, T> next : handlerMap.entrySet()) {
+            if (seen.add(next.getValue())) {
+                distinctHandlers.put(next.getKey(), next.getValue());
+            }
+        }
+        if (distinctHandlers.isEmpty()) {
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(MAX_WARM_UP_THREADS, distinctHandlers.size()));
+        try {
+            List<Map.Entry<String, Future<?>>> futures = new ArrayList<>();
+            for (Map.Entry<String, T> next : distinctHandlers.entrySet()) {
+                T handler = next.getValue();
+                Callable<Void> task = () -> {
+                    warmUp.warmUp(handler);
+                    return null;
+                };
+                futures.add(Map.entry(next.getKey(), executor.submit(task)));
+            }
+            for (Map.Entry<String, Future<?>> next : futures) {
+                try {
+                    next.getValue().get();
+                }
+                catch (ExecutionException ex) {
+                    LOGGER.warn("warmUpCatalogs: Unable to warm up catalog {}", next.getKey(), ex.getCause());
+                }
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
     public static TableName informationSchemaCaseInsensitiveTableMatch(Connection connection, final String databaseName,
                                                      final String tableName) throws Exception
     {
@@ -0,0 +1,293 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.manager;
+
+import com.amazonaws.athena.connector.lambda.data.writers.fieldwriters.FieldWriter;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Writes an ARRAY column straight into the child vector of its {@link ListVector}, instead of copying the elements into a
+ * List written through {@link com.amazonaws.athena.connector.lambda.data.BlockUtils#setComplexValue}, which resolves and
+ * writes every element through a generic list writer.
+ *
+ * Elements are read from the array returned by {@link Array#getArray()}, as a primitive array when the driver returns one
+ * and as boxed values otherwise, and are set by index on the child vector. Only lists of the element types reported by
+ * {@link #isSupported(Field)} are handled.
+ */
+public class JdbcArrayFieldWriter
+        implements FieldWriter
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(JdbcArrayFieldWriter.class);
+
+    private final String columnName;
+    private final ListVector vector;
+    private final Types.MinorType elementType;
+
+    /**
+     * @param columnName name of the ARRAY column in the ResultSet passed as context.
+     * @param vector list vector of the column, see {@link #isSupported(Field)}.
+     */
+    public JdbcArrayFieldWriter(String columnName, ListVector vector)
+    {
+        this.columnName = columnName;
+        this.vector = vector;
+        this.elementType = vector.getDataVector().getMinorType();
+    }
+
+    /**
+     * @return true if the field is a list whose elements can be written by a JdbcArrayFieldWriter.
+     */
+    public static boolean isSupported(Field field)
+    {
+        if (!(field.getType() instanceof ArrowType.List) || field.getChildren().size() != 1) {
+            return false;
+        }
+        switch (Types.getMinorTypeForArrowType(field.getChildren().get(0).getType())) {
+            case BIT:
+            case SMALLINT:
+            case INT:
+            case BIGINT:
+            case FLOAT4:
+            case FLOAT8:
+            case VARCHAR:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public boolean write(Object context, int rowNum)
+            throws SQLException
+    {
+        ResultSet resultSet = (ResultSet) context;
+        Array array = resultSet.getArray(columnName);
+        if (array == null || resultSet.wasNull()) {
+            vector.setNull(rowNum);
+            return true;
+        }
+        try {
+            Object elements = array.getArray();
+            int offset = vector.startNewValue(rowNum);
+            int length = writeElements(elements, offset);
+            vector.endValue(rowNum, length);
+        }
+        finally {
+            free(array);
+        }
+        return true;
+    }
+
+    /**
+     * Sets the elements on the child vector, starting at the provided index.
+     *
+     * @return the number of elements.
+     */
+    private int writeElements(Object elements, int offset)
+    {
+        FieldVector child = vector.getDataVector();
+        switch (elementType) {
+            case BIT:
+                return writeBits((BitVector) child, elements, offset);
+            case SMALLINT:
+                return writeSmallInts((SmallIntVector) child, elements, offset);
+            case INT:
+                return writeInts((IntVector) child, elements, offset);
+            case BIGINT:
+                return writeBigInts((BigIntVector) child, elements, offset);
+            case FLOAT4:
+                return writeFloat4s((Float4Vector) child, elements, offset);
+            case FLOAT8:
+                return writeFloat8s((Float8Vector) child, elements, offset);
+            case VARCHAR:
+                return writeVarChars((VarCharVector) child, elements, offset);
+            default:
+                throw new UnsupportedOperationException("Unsupported array element type " + elementType);
+        }
+    }
+
+    private static int writeBits(BitVector child, Object elements, int offset)
+    {
+        if (elements instanceof boolean[]) {
+            boolean[] values = (boolean[]) elements;
+            for (int i = 0; i < values.length; i++) {
+                child.setSafe(offset + i, values[i] ? 1 : 0);
+            }
+            return values.length;
+        }
+        Object[] values = (Object[]) elements;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                child.setNull(offset + i);
+            }
+            else {
+                child.setSafe(offset + i, ((Boolean) values[i]) ? 1 : 0);
+            }
+        }
+        return values.length;
+    }
+
+    private static int writeSmallInts(SmallIntVector child, Object elements, int offset)
+    {
+        if (elements instanceof short[]) {
+            short[] values = (short[]) elements;
+            for (int i = 0; i < values.length; i++) {
+                child.setSafe(offset + i, values[i]);
+            }
+            return values.length;
+        }
+        Object[] values = (Object[]) elements;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                child.setNull(offset + i);
+            }
+            else {
+                child.setSafe(offset + i, ((Number) values[i]).shortValue());
+            }
+        }
+        return values.length;
+    }
+
+    private static int writeInts(IntVector child, Object elements, int offset)
+    {
+        if (elements instanceof int[]) {
+            int[] values = (int[]) elements;
+            for (int i = 0; i < values.length; i++) {
+                child.setSafe(offset + i, values[i]);
+            }
+            return values.length;
+        }
+        Object[] values = (Object[]) elements;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                child.setNull(offset + i);
+            }
+            else {
+                child.setSafe(offset + i, ((Number) values[i]).intValue());
+            }
+        }
+        return values.length;
+    }
+
+    private static int writeBigInts(BigIntVector child, Object elements, int offset)
+    {
+        if (elements instanceof long[]) {
+            long[] values = (long[]) elements;
+            for (int i = 0; i < values.length; i++) {
+                child.setSafe(offset + i, values[i]);
+            }
+            return values.length;
+        }
+        Object[] values = (Object[]) elements;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                child.setNull(offset + i);
+            }
+            else {
+                child.setSafe(offset + i, ((Number) values[i]).longValue());
+            }
+        }
+        return values.length;
+    }
+
+    private static int writeFloat4s(Float4Vector child, Object elements, int offset)
+    {
+        if (elements instanceof float[]) {
+            float[] values = (float[]) elements;
+            for (int i = 0; i < values.length; i++) {
+                child.setSafe(offset + i, values[i]);
+            }
+            return values.length;
+        }
+        Object[] values = (Object[]) elements;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                child.setNull(offset + i);
+            }
+            else {
+                child.setSafe(offset + i, ((Number) values[i]).floatValue());
+            }
+        }
+        return values.length;
+    }
+
+    private static int writeFloat8s(Float8Vector child, Object elements, int offset)
+    {
+        if (elements instanceof double[]) {
+            double[] values = (double[]) elements;
+            for (int i = 0; i < values.length; i++) {
+                child.setSafe(offset + i, values[i]);
+            }
+            return values.length;
+        }
+        Object[] values = (Object[]) elements;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                child.setNull(offset + i);
+            }
+            else {
+                child.setSafe(offset + i, ((Number) values[i]).doubleValue());
+            }
+        }
+        return values.length;
+    }
+
+    private static int writeVarChars(VarCharVector child, Object elements, int offset)
+    {
+        Object[] values = (Object[]) elements;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                child.setNull(offset + i);
+            }
+            else {
+                child.setSafe(offset + i, values[i].toString().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return values.length;
+    }
+
+    private static void free(Array array)
+    {
+        try {
+            array.free();
+        }
+        catch (SQLException | RuntimeException ex) {
+            LOGGER.debug("free: Unable to free array.", ex);
+        }
+    }
+}
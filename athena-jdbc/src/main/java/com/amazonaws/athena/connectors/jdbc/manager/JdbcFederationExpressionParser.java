@@ -27,7 +27,11 @@ import com.google.common.base.Joiner;
 import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.commons.lang3.NotImplementedException;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public abstract class JdbcFederationExpressionParser extends FederationExpressionParser
 {
@@ -42,6 +46,70 @@ public abstract class JdbcFederationExpressionParser extends FederationExpressio
     // connectors which support them can extend this class and override them.
     public abstract String writeArrayConstructorClause(ArrowType type, List<String> arguments);
 
+    /**
+     * Scalar functions this dialect renders with the same semantics as Athena, none by default. Dialects which override
+     * this also override {@link #writeScalarFunctionClause} where their syntax differs from ANSI SQL.
+     */
+    public Set<ScalarFunctions> getSupportedScalarFunctions()
+    {
+        return Collections.emptySet();
+    }
+
+    /**
+     * @return names of the functions this dialect can push down, to advertise through
+     * {@link com.amazonaws.athena.connector.lambda.metadata.optimizations.pushdown.ComplexExpressionPushdownSubType#SUPPORTED_FUNCTION_EXPRESSION_TYPES}.
+     */
+    public String[] getSupportedFunctionNames()
+    {
+        return Stream.concat(Arrays.stream(StandardFunctions.values()).map(StandardFunctions::getFunctionName),
+                        getSupportedScalarFunctions().stream().map(ScalarFunctions::getFunctionName))
+                .map(FunctionName::getFunctionName)
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Renders a scalar function in ANSI SQL, dialects override this for the functions they spell differently.
+     *
+     * @param function one of {@link #getSupportedScalarFunctions()}.
+     * @param type result type of the function.
+     * @param arguments rendered arguments, whose count matches the function's operator type.
+     */
+    protected String writeScalarFunctionClause(ScalarFunctions function, ArrowType type, List<String> arguments)
+    {
+        switch (function) {
+            case ABS_FUNCTION_NAME:
+                return "ABS(" + arguments.get(0) + ")";
+            case LOWER_FUNCTION_NAME:
+                return "LOWER(" + arguments.get(0) + ")";
+            case UPPER_FUNCTION_NAME:
+                return "UPPER(" + arguments.get(0) + ")";
+            case LENGTH_FUNCTION_NAME:
+                return "CHAR_LENGTH(" + arguments.get(0) + ")";
+            case TRIM_FUNCTION_NAME:
+                return "TRIM(" + arguments.get(0) + ")";
+            case LTRIM_FUNCTION_NAME:
+                return "LTRIM(" + arguments.get(0) + ")";
+            case RTRIM_FUNCTION_NAME:
+                return "RTRIM(" + arguments.get(0) + ")";
+            case SUBSTR_FUNCTION_NAME:
+            case SUBSTRING_FUNCTION_NAME:
+                if (arguments.size() < 2 || arguments.size() > 3) {
+                    throw new IllegalArgumentException("Function " + function.getFunctionName().getFunctionName() + " was provided with " + arguments.size() + " arguments.");
+                }
+                return "SUBSTRING(" + arguments.get(0) + " FROM " + arguments.get(1) + (arguments.size() == 3 ? " FOR " + arguments.get(2) : "") + ")";
+            case CONCAT_FUNCTION_NAME:
+                return Joiner.on(" || ").join(arguments);
+            case YEAR_FUNCTION_NAME:
+                return "EXTRACT(YEAR FROM " + arguments.get(0) + ")";
+            case MONTH_FUNCTION_NAME:
+                return "EXTRACT(MONTH FROM " + arguments.get(0) + ")";
+            case DAY_FUNCTION_NAME:
+                return "EXTRACT(DAY FROM " + arguments.get(0) + ")";
+            default:
+                throw new NotImplementedException("The function " + function.getFunctionName().getFunctionName() + " does not have an implementation");
+        }
+    }
+
     /**
      * JDBC Requires wrapping column names in a specific quote char
      */
@@ -56,27 +124,15 @@ public abstract class JdbcFederationExpressionParser extends FederationExpressio
     public String mapFunctionToDataSourceSyntax(FunctionName functionName, ArrowType type, List<String> arguments)
     {
         StandardFunctions functionEnum = StandardFunctions.fromFunctionName(functionName);
-        OperatorType operatorType = functionEnum.getOperatorType();
-
-        if (arguments == null || arguments.size() == 0) {
-            throw new IllegalArgumentException("Arguments cannot be null or empty.");
-        }
-        switch (operatorType) {
-            case UNARY:
-                if (arguments.size() != 1) {
-                    throw new IllegalArgumentException("Unary function type " + functionName.getFunctionName() + " was provided with " + arguments.size() + " arguments.");
-                }
-                break;
-            case BINARY:
-                if (arguments.size() != 2) {
-                    throw new IllegalArgumentException("Binary function type " + functionName.getFunctionName() + " was provided with " + arguments.size() + " arguments.");
-                }
-                break;
-            case VARARG:
-                break;
-            default:
-                throw new RuntimeException("A new operator type was introduced without adding support for it.");
+        if (functionEnum == null) {
+            ScalarFunctions scalarFunction = ScalarFunctions.fromFunctionName(functionName);
+            if (scalarFunction == null || !getSupportedScalarFunctions().contains(scalarFunction)) {
+                throw new NotImplementedException("The function " + functionName.getFunctionName() + " does not have an implementation");
+            }
+            validateArguments(functionName, scalarFunction.getOperatorType(), arguments);
+            return "(" + writeScalarFunctionClause(scalarFunction, type, arguments) + ")";
         }
+        validateArguments(functionName, functionEnum.getOperatorType(), arguments);
 
         String clause = "";
         switch (functionEnum) {
@@ -156,4 +212,27 @@ public abstract class JdbcFederationExpressionParser extends FederationExpressio
         }
         return "(" + clause + ")";
     }
+
+    private static void validateArguments(FunctionName functionName, OperatorType operatorType, List<String> arguments)
+    {
+        if (arguments == null || arguments.size() == 0) {
+            throw new IllegalArgumentException("Arguments cannot be null or empty.");
+        }
+        switch (operatorType) {
+            case UNARY:
+                if (arguments.size() != 1) {
+                    throw new IllegalArgumentException("Unary function type " + functionName.getFunctionName() + " was provided with " + arguments.size() + " arguments.");
+                }
+                break;
+            case BINARY:
+                if (arguments.size() != 2) {
+                    throw new IllegalArgumentException("Binary function type " + functionName.getFunctionName() + " was provided with " + arguments.size() + " arguments.");
+                }
+                break;
+            case VARARG:
+                break;
+            default:
+                throw new RuntimeException("A new operator type was introduced without adding support for it.");
+        }
+    }
 }
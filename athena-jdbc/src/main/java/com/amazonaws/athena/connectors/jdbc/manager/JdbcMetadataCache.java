@@ -0,0 +1,201 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.manager;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches metadata read from databases, e.g. table schemas and key columns, across the requests served by a warm function
+ * instance. Entries are keyed by catalog, so that one cache can be shared by the handlers of all the catalogs multiplexed
+ * by a function, and expire after a time to live so that schema changes are eventually picked up.
+ * <ul>
+ * <li>Caching is disabled unless {@link #METADATA_CACHE_TTL_MS} is set to a positive value.</li>
+ * <li>At most {@link #METADATA_CACHE_SIZE} entries are kept, the least recently used entries are evicted beyond that.</li>
+ * <li>Loaders run outside of the cache's lock, concurrent misses on the same key may both load the value.</li>
+ * </ul>
+ */
+public class JdbcMetadataCache
+{
+    /**
+     * Time to live, in milliseconds, of cached metadata. 0, the default, disables caching.
+     */
+    public static final String METADATA_CACHE_TTL_MS = "jdbc_metadata_cache_ttl_ms";
+    /**
+     * Max number of cached entries, across all catalogs.
+     */
+    public static final String METADATA_CACHE_SIZE = "jdbc_metadata_cache_size";
+    private static final int DEFAULT_METADATA_CACHE_SIZE = 1000;
+
+    /**
+     * Loads the value of a missing or expired entry.
+     */
+    public interface Loader<T, E extends Exception>
+    {
+        T load()
+                throws E;
+    }
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    //Cached entries, least recently used first.
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param ttlMillis Time to live, in milliseconds, of an entry, 0 to disable caching.
+     * @param maxEntries Max number of cached entries.
+     */
+    public JdbcMetadataCache(long ttlMillis, int maxEntries)
+    {
+        this(ttlMillis, maxEntries, System::currentTimeMillis);
+    }
+
+    JdbcMetadataCache(long ttlMillis, int maxEntries, LongSupplier clock)
+    {
+        Validate.isTrue(maxEntries > 0, "maxEntries must be positive");
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * @param configOptions The connector's config options, see METADATA_CACHE_TTL_MS and METADATA_CACHE_SIZE.
+     * @return A cache configured by the provided config options, which does not cache anything unless enabled.
+     */
+    public static JdbcMetadataCache fromConfig(Map<String, String> configOptions)
+    {
+        if (configOptions == null) {
+            return new JdbcMetadataCache(0, DEFAULT_METADATA_CACHE_SIZE);
+        }
+        return new JdbcMetadataCache(Long.parseLong(configOptions.getOrDefault(METADATA_CACHE_TTL_MS, "0")),
+                Integer.parseInt(configOptions.getOrDefault(METADATA_CACHE_SIZE, String.valueOf(DEFAULT_METADATA_CACHE_SIZE))));
+    }
+
+    public boolean isEnabled()
+    {
+        return ttlMillis > 0;
+    }
+
+    /**
+     * Returns the cached value of the key, loading and caching it if it is missing or expired.
+     *
+     * @param catalog The catalog the metadata was read from.
+     * @param kind The kind of metadata, e.g. "table", which scopes the key.
+     * @param key Identifies the metadata within the catalog and kind, e.g. a TableName.
+     * @param loader Reads the metadata from the database.
+     * @return The cached or loaded value, the loader's value as is when caching is disabled.
+     * @throws E The failure of the loader, failures are not cached.
+     */
+    public <T, E extends Exception> T get(String catalog, String kind, Object key, Loader<T, E> loader)
+            throws E
+    {
+        if (!isEnabled()) {
+            return loader.load();
+        }
+
+        Key cacheKey = new Key(catalog, kind, key);
+        synchronized (this) {
+            Entry entry = entries.get(cacheKey);
+            if (entry != null && entry.expiresAtMillis > clock.getAsLong()) {
+                @SuppressWarnings("unchecked")
+                T value = (T) entry.value;
+                return value;
+            }
+        }
+
+        T value = loader.load();
+        synchronized (this) {
+            entries.put(cacheKey, new Entry(value, clock.getAsLong() + ttlMillis));
+            Iterator<Entry> itr = entries.values().iterator();
+            while (entries.size() > maxEntries && itr.hasNext()) {
+                itr.next();
+                itr.remove();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drops the cached metadata of a catalog.
+     */
+    public synchronized void invalidate(String catalog)
+    {
+        entries.keySet().removeIf(next -> Objects.equals(next.catalog, catalog));
+    }
+
+    /**
+     * @return The number of cached entries, expired or not.
+     */
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+    private static class Key
+    {
+        private final String catalog;
+        private final String kind;
+        private final Object key;
+
+        private Key(String catalog, String kind, Object key)
+        {
+            this.catalog = catalog;
+            this.kind = kind;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key that = (Key) o;
+            return Objects.equals(catalog, that.catalog) && Objects.equals(kind, that.kind) && Objects.equals(key, that.key);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(catalog, kind, key);
+        }
+    }
+
+    private static class Entry
+    {
+        private final Object value;
+        private final long expiresAtMillis;
+
+        private Entry(Object value, long expiresAtMillis)
+        {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
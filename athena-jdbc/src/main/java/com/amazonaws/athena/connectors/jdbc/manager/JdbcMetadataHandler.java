@@ -20,6 +20,7 @@
 package com.amazonaws.athena.connectors.jdbc.manager;
 
 import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
+import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
 import com.amazonaws.athena.connector.lambda.data.BlockWriter;
 import com.amazonaws.athena.connector.lambda.data.FieldBuilder;
@@ -41,6 +42,7 @@ import com.amazonaws.athena.connector.lambda.metadata.ListTablesResponse;
 import com.amazonaws.athena.connectors.jdbc.connection.DatabaseConnectionConfig;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcConnectionFactory;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcCredentialProvider;
+import com.amazonaws.athena.connectors.jdbc.connection.PooledJdbcConnectionFactory;
 import com.amazonaws.athena.connectors.jdbc.connection.RdsSecretsCredentialProvider;
 import com.amazonaws.athena.connectors.jdbc.qpt.JdbcQueryPassthrough;
 import com.amazonaws.athena.connectors.jdbc.splits.Splitter;
@@ -51,6 +53,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import org.apache.arrow.vector.complex.reader.FieldReader;
 import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
@@ -68,9 +71,13 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -83,12 +90,33 @@ public abstract class JdbcMetadataHandler
         extends MetadataHandler
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(JdbcMetadataHandler.class);
-    private static final String SQL_SPLITS_STRING = "select min(%s), max(%s) from %s.%s;";
+    private static final String SQL_SPLITS_STRING = "SELECT MIN(%s), MAX(%s) FROM %s.%s";
     private static final int DEFAULT_NUM_SPLITS = 20;
+    /**
+     * Number of key-range splits generated for an unpartitioned table, values of 0 or 1 disable range splitting.
+     */
+    public static final String RANGE_SPLIT_COUNT = "jdbc_range_split_count";
+    /**
+     * Target number of rows per split when catalog statistics are available. Larger tables or partitions are split on key
+     * ranges, smaller partitions are coalesced.
+     */
+    public static final String ROWS_PER_SPLIT = "jdbc_rows_per_split";
+    private static final long DEFAULT_ROWS_PER_SPLIT = 1_000_000L;
+    /**
+     * Number of hash buckets a table without a numeric, date or timestamp key is split into, at most the number of range
+     * splits the table would get. Requires a dialect which implements {@link #getHashSplitClause}. 0, the default,
+     * disables hash splitting since each of these splits scans the whole table.
+     */
+    public static final String HASH_SPLIT_COUNT = "jdbc_hash_split_count";
+    /**
+     * Split property carrying the key-range or hash-bucket predicate of a split generated by {@link #makeRangeSplits}.
+     */
+    public static final String SPLIT_RANGE_CLAUSE = "split_range_clause";
     public static final String TABLES_AND_VIEWS = "Tables and Views";
     private final JdbcConnectionFactory jdbcConnectionFactory;
     private final DatabaseConnectionConfig databaseConnectionConfig;
     private final SplitterFactory splitterFactory = new SplitterFactory();
+    private JdbcMetadataCache metadataCache;
     protected JdbcQueryPassthrough jdbcQueryPassthrough = new JdbcQueryPassthrough();
 
     /**
@@ -99,6 +127,7 @@ public abstract class JdbcMetadataHandler
         super(sourceType, configOptions);
         this.jdbcConnectionFactory = null;
         this.databaseConnectionConfig = null;
+        this.metadataCache = JdbcMetadataCache.fromConfig(configOptions);
     }
 
     protected JdbcMetadataHandler(
@@ -107,9 +136,10 @@ public abstract class JdbcMetadataHandler
         java.util.Map<String, String> configOptions)
     {
         super(databaseConnectionConfig.getEngine(), configOptions);
-        this.jdbcConnectionFactory = Validate.notNull(jdbcConnectionFactory, "jdbcConnectionFactory must not be null");
-
         this.databaseConnectionConfig = Validate.notNull(databaseConnectionConfig, "databaseConnectionConfig must not be null");
+        this.jdbcConnectionFactory = PooledJdbcConnectionFactory.wrapIfEnabled(
+                Validate.notNull(jdbcConnectionFactory, "jdbcConnectionFactory must not be null"), configOptions, databaseConnectionConfig.getCatalog());
+        this.metadataCache = JdbcMetadataCache.fromConfig(configOptions);
     }
 
     @VisibleForTesting
@@ -121,8 +151,10 @@ public abstract class JdbcMetadataHandler
         java.util.Map<String, String> configOptions)
     {
         super(null, secretsManager, athena, databaseConnectionConfig.getEngine(), null, null, configOptions);
-        this.jdbcConnectionFactory = Validate.notNull(jdbcConnectionFactory, "jdbcConnectionFactory must not be null");
         this.databaseConnectionConfig = Validate.notNull(databaseConnectionConfig, "databaseConnectionConfig must not be null");
+        this.jdbcConnectionFactory = PooledJdbcConnectionFactory.wrapIfEnabled(
+                Validate.notNull(jdbcConnectionFactory, "jdbcConnectionFactory must not be null"), configOptions, databaseConnectionConfig.getCatalog());
+        this.metadataCache = JdbcMetadataCache.fromConfig(configOptions);
     }
 
     protected JdbcConnectionFactory getJdbcConnectionFactory()
@@ -130,6 +162,42 @@ public abstract class JdbcMetadataHandler
         return jdbcConnectionFactory;
     }
 
+    protected JdbcMetadataCache getMetadataCache()
+    {
+        return metadataCache;
+    }
+
+    /**
+     * Replaces this handler's metadata cache, used by the multiplexer to share one cache across all of its catalogs.
+     */
+    public void setMetadataCache(JdbcMetadataCache metadataCache)
+    {
+        this.metadataCache = Validate.notNull(metadataCache, "metadataCache must not be null");
+    }
+
+    /**
+     * Opens, and closes, a connection to this handler's database, which leaves it in the connection pool when pooling is
+     * enabled. See {@link JDBCUtil#WARM_UP_CONNECTIONS}.
+     */
+    public void warmUpConnection()
+            throws Exception
+    {
+        try (Connection connection = jdbcConnectionFactory.getConnection(getCredentialProvider())) {
+            LOGGER.info("warmUpConnection: Connected catalog {} to {}", databaseConnectionConfig.getCatalog(),
+                    connection.getMetaData().getDatabaseProductName());
+        }
+    }
+
+    @Override
+    public void warmUp(BlockAllocator allocator)
+            throws Exception
+    {
+        super.warmUp(allocator);
+        if (jdbcConnectionFactory != null && JDBCUtil.isConnectionWarmUpEnabled(configOptions)) {
+            warmUpConnection();
+        }
+    }
+
     protected JdbcCredentialProvider getCredentialProvider()
     {
         final String secretName = databaseConnectionConfig.getSecret();
@@ -410,40 +478,304 @@ public abstract class JdbcMetadataHandler
     @Override
     public abstract GetSplitsResponse doGetSplits(BlockAllocator blockAllocator, GetSplitsRequest getSplitsRequest);
 
+    /**
+     * Generates key-range splits for a table that the connector would otherwise read with a single split. The request must
+     * carry exactly one partition whose value is the connector's "all partitions" marker; every generated split keeps that
+     * marker (so existing FROM/WHERE handling is unchanged) and adds a {@link #SPLIT_RANGE_CLAUSE} property which
+     * {@link JdbcSplitQueryBuilder} appends to the query.
+     *
+     * @param request split request.
+     * @param partitionColumn name of the partition column in the partitions block and split properties.
+     * @param allPartitions value the connector uses for an unpartitioned table.
+     * @return range splits, empty if the table is partitioned or no suitable split column exists.
+     */
+    protected Set<Split> makeRangeSplits(final GetSplitsRequest request, final String partitionColumn, final String allPartitions)
+    {
+        Block partitions = request.getPartitions();
+        if (request.hasContinuationToken() || partitions.getRowCount() != 1) {
+            return Collections.emptySet();
+        }
+        FieldReader partitionReader = partitions.getFieldReader(partitionColumn);
+        partitionReader.setPosition(0);
+        if (!allPartitions.equals(String.valueOf(partitionReader.readText()))) {
+            return Collections.emptySet();
+        }
+
+        Set<Split> splits = new HashSet<>();
+        for (String splitClause : getSplitClauses(request.getTableName())) {
+            //Every split must have a unique location if we wish to spill to avoid failures
+            splits.add(Split.newBuilder(makeSpillLocation(request), makeEncryptionKey())
+                    .add(partitionColumn, allPartitions)
+                    .add(SPLIT_RANGE_CLAUSE, splitClause)
+                    .build());
+        }
+        LOGGER.info("{}: Generated {} range splits for table {}", request.getQueryId(), splits.size(), request.getTableName());
+        return splits;
+    }
+
+    /**
+     * Builds range predicates which partition the table on a numeric, date or timestamp key column. When the dialect
+     * reports a row estimate (see {@link #getEstimatedRowCount}) the number of ranges follows from it, so small tables
+     * are not split at all; otherwise {@link #RANGE_SPLIT_COUNT} ranges are generated.
+     *
+     * @param tableName table to split.
+     * @return range predicates covering all rows of the table, empty if the table cannot or need not be split.
+     */
     protected List<String> getSplitClauses(final TableName tableName)
     {
-        List<String> splitClauses = new ArrayList<>();
-        try (Connection jdbcConnection = getJdbcConnectionFactory().getConnection(getCredentialProvider());
-                ResultSet resultSet = jdbcConnection.getMetaData().getPrimaryKeys(null, tableName.getSchemaName(), tableName.getTableName())) {
-            List<String> primaryKeyColumns = new ArrayList<>();
-            while (resultSet.next()) {
-                primaryKeyColumns.add(resultSet.getString("COLUMN_NAME"));
+        try {
+            // an invalid split count fails here and falls back to a single split
+            if (getRangeSplitCount() <= 1) {
+                return new ArrayList<>();
             }
-            if (!primaryKeyColumns.isEmpty()) {
-                try (Statement statement = jdbcConnection.createStatement();
-                        ResultSet minMaxResultSet = statement.executeQuery(String.format(SQL_SPLITS_STRING, primaryKeyColumns.get(0), primaryKeyColumns.get(0),
-                                tableName.getSchemaName(), tableName.getTableName()))) {
-                    minMaxResultSet.next(); // expecting one result row
-                    Optional<Splitter> optionalSplitter = splitterFactory.getSplitter(primaryKeyColumns.get(0), minMaxResultSet, DEFAULT_NUM_SPLITS);
-
-                    if (optionalSplitter.isPresent()) {
-                        Splitter splitter = optionalSplitter.get();
-                        while (splitter.hasNext()) {
-                            String splitClause = splitter.nextRangeClause();
-                            LOGGER.info("Split generated {}", splitClause);
-                            splitClauses.add(splitClause);
-                        }
-                    }
-                }
+
+            try (Connection jdbcConnection = getJdbcConnectionFactory().getConnection(getCredentialProvider())) {
+                OptionalLong estimatedRowCount = getEstimatedRowCount(jdbcConnection, tableName);
+                int numSplits = estimatedRowCount.isPresent() ? getSplitCount(estimatedRowCount.getAsLong()) : getRangeSplitCount();
+                LOGGER.info("Estimated row count of table {} is {}, using {} range splits", tableName, estimatedRowCount, numSplits);
+                return getSplitClauses(jdbcConnection, tableName, numSplits);
             }
         }
         catch (Exception ex) {
             LOGGER.warn("Unable to split data.", ex);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Builds range predicates which partition the table on a numeric, date or timestamp key column. The split column is the
+     * leading primary key column or, failing that, the leading column of a unique and then a non-unique index, so that
+     * both the MIN/MAX probe and the per-split scans can use an index. The first range is unbounded below and the last one
+     * unbounded above, so rows written outside of the MIN/MAX read at planning time are not lost. A table whose key columns have no order to split on
+     * is split on hash buckets of its key instead, see {@link #HASH_SPLIT_COUNT}.
+     *
+     * @param jdbcConnection JDBC connection. See {@link Connection}.
+     * @param tableName table to split.
+     * @param numSplits number of ranges to generate.
+     * @return range predicates covering all rows of the table, empty if the table cannot be split or numSplits is at most 1.
+     * @throws SQLException JDBC database exception.
+     */
+    protected List<String> getSplitClauses(final Connection jdbcConnection, final TableName tableName, final int numSplits)
+            throws SQLException
+    {
+        List<String> splitClauses = new ArrayList<>();
+        if (numSplits <= 1) {
+            return splitClauses;
+        }
+
+        DatabaseMetaData metadata = jdbcConnection.getMetaData();
+        String catalog = (databaseConnectionConfig != null) ? databaseConnectionConfig.getCatalog() : null;
+        Map<String, Boolean> splittableColumns = metadataCache.get(catalog, "splittable_columns", tableName,
+                () -> getSplittableColumns(metadata, tableName));
+        Set<String> splitColumnCandidates = metadataCache.get(catalog, "split_column_candidates", tableName,
+                () -> getSplitColumnCandidates(metadata, tableName));
+        Optional<String> splitColumn = splitColumnCandidates.stream()
+                .filter(splittableColumns::containsKey)
+                .findFirst();
+        String quote = metadata.getIdentifierQuoteString();
+        if (!splitColumn.isPresent()) {
+            if (!splitColumnCandidates.isEmpty()) {
+                return getHashSplitClauses(tableName, quoteIdentifier(splitColumnCandidates.iterator().next(), quote), numSplits);
+            }
+            LOGGER.info("No numeric, date or timestamp key column to split table {} on", tableName);
+            return splitClauses;
+        }
+
+        String column = quoteIdentifier(splitColumn.get(), quote);
+        try (Statement statement = jdbcConnection.createStatement();
+                ResultSet minMaxResultSet = statement.executeQuery(String.format(SQL_SPLITS_STRING, column, column,
+                        quoteIdentifier(tableName.getSchemaName(), quote), quoteIdentifier(tableName.getTableName(), quote)))) {
+            minMaxResultSet.next(); // expecting one result row
+            Optional<Splitter> optionalSplitter = splitterFactory.getSplitter(column, minMaxResultSet, numSplits);
+
+            if (optionalSplitter.isPresent()) {
+                Splitter splitter = optionalSplitter.get();
+                while (splitter.hasNext()) {
+                    String splitClause = splitter.nextUnboundedRangeClause();
+                    LOGGER.info("Split generated {}", splitClause);
+                    splitClauses.add(splitClause);
+                }
+            }
+        }
+
+        // a single range covers the whole table
+        if (splitClauses.size() <= 1) {
+            return new ArrayList<>();
+        }
+
+        // rows with a null split column match none of the ranges, the first split picks them up
+        if (splittableColumns.get(splitColumn.get())) {
+            splitClauses.set(0, String.format("(%s OR %s IS NULL)", splitClauses.get(0), column));
         }
 
         return splitClauses;
     }
 
+    /**
+     * Builds hash-bucket predicates which partition the table on a key column that has no order to split ranges on, e.g.
+     * string keys or GUIDs. Every split scans the table, in parallel, so this is only done when {@link #HASH_SPLIT_COUNT}
+     * is set.
+     *
+     * @param tableName table to split.
+     * @param column quoted key column to hash.
+     * @param numSplits number of range splits the table would get, which bounds the number of buckets.
+     * @return hash predicates covering all rows of the table, empty if hash splitting is disabled or not supported.
+     */
+    private List<String> getHashSplitClauses(final TableName tableName, final String column, final int numSplits)
+    {
+        List<String> splitClauses = new ArrayList<>();
+        int bucketCount = Math.min(numSplits, getHashSplitCount());
+        if (bucketCount <= 1) {
+            LOGGER.info("No numeric, date or timestamp key column to split table {} on", tableName);
+            return splitClauses;
+        }
+
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            String splitClause = getHashSplitClause(column, bucketCount, bucket);
+            if (splitClause == null) {
+                LOGGER.info("Hash splits are not supported, not splitting table {}", tableName);
+                return new ArrayList<>();
+            }
+            LOGGER.info("Split generated {}", splitClause);
+            splitClauses.add(splitClause);
+        }
+
+        // a null key hashes to null and matches none of the buckets, the first split picks them up
+        splitClauses.set(0, String.format("(%s OR %s IS NULL)", splitClauses.get(0), column));
+        return splitClauses;
+    }
+
+    /**
+     * Builds the predicate of one hash bucket of a column, e.g. ORA_HASH(column, bucketCount - 1) = bucket, see
+     * {@link #HASH_SPLIT_COUNT}. Rows with a non-null column must fall into exactly one of the buckets.
+     *
+     * @param column quoted column to hash.
+     * @param bucketCount number of buckets.
+     * @param bucket bucket to select, from 0 to bucketCount - 1.
+     * @return predicate selecting the bucket, null if the dialect does not support hash splits (the default).
+     */
+    protected String getHashSplitClause(final String column, final int bucketCount, final int bucket)
+    {
+        return null;
+    }
+
+    private int getHashSplitCount()
+    {
+        if (configOptions == null) {
+            return 0;
+        }
+        return Integer.parseInt(configOptions.getOrDefault(HASH_SPLIT_COUNT, "0"));
+    }
+
+    private int getRangeSplitCount()
+    {
+        if (configOptions == null) {
+            return DEFAULT_NUM_SPLITS;
+        }
+        return Integer.parseInt(configOptions.getOrDefault(RANGE_SPLIT_COUNT, String.valueOf(DEFAULT_NUM_SPLITS)));
+    }
+
+    /**
+     * @return target number of rows per split, see {@link #ROWS_PER_SPLIT}.
+     */
+    protected long getRowsPerSplit()
+    {
+        if (configOptions == null) {
+            return DEFAULT_ROWS_PER_SPLIT;
+        }
+        return Long.parseLong(configOptions.getOrDefault(ROWS_PER_SPLIT, String.valueOf(DEFAULT_ROWS_PER_SPLIT)));
+    }
+
+    /**
+     * @param estimatedRowCount estimated number of rows of a table or partition.
+     * @return number of range splits needed to keep each split near {@link #getRowsPerSplit()} rows, between 1 and
+     * {@link #RANGE_SPLIT_COUNT}.
+     */
+    protected int getSplitCount(final long estimatedRowCount)
+    {
+        long rowsPerSplit = Math.max(1, getRowsPerSplit());
+        long splits = estimatedRowCount / rowsPerSplit + (estimatedRowCount % rowsPerSplit == 0 ? 0 : 1);
+        return (int) Math.max(1, Math.min(getRangeSplitCount(), splits));
+    }
+
+    /**
+     * Reads the estimated number of rows of a table from the database catalog statistics. Dialects override this with
+     * their statistics source (e.g. pg_class.reltuples); the default reports no estimate, in which case split planning
+     * does not depend on table size.
+     *
+     * @param jdbcConnection JDBC connection. See {@link Connection}.
+     * @param tableName table to estimate.
+     * @return estimated row count, empty if statistics are missing or unavailable.
+     * @throws SQLException JDBC database exception.
+     */
+    protected OptionalLong getEstimatedRowCount(final Connection jdbcConnection, final TableName tableName)
+            throws SQLException
+    {
+        return OptionalLong.empty();
+    }
+
+    /**
+     * @return splittable column name to whether it is nullable.
+     */
+    private Map<String, Boolean> getSplittableColumns(final DatabaseMetaData metadata, final TableName tableName)
+            throws SQLException
+    {
+        Map<String, Boolean> splittableColumns = new HashMap<>();
+        try (ResultSet resultSet = getColumns(null, tableName, metadata)) {
+            while (resultSet.next()) {
+                if (splitterFactory.isSplittable(resultSet.getInt("DATA_TYPE"))) {
+                    splittableColumns.put(resultSet.getString("COLUMN_NAME"), !"NO".equals(resultSet.getString("IS_NULLABLE")));
+                }
+            }
+        }
+        return splittableColumns;
+    }
+
+    /**
+     * @return leading primary key column followed by leading unique and non-unique index columns, in that order.
+     */
+    private Set<String> getSplitColumnCandidates(final DatabaseMetaData metadata, final TableName tableName)
+            throws SQLException
+    {
+        Set<String> candidates = new LinkedHashSet<>();
+        try (ResultSet resultSet = metadata.getPrimaryKeys(null, tableName.getSchemaName(), tableName.getTableName())) {
+            while (resultSet.next()) {
+                if (resultSet.getInt("KEY_SEQ") == 1) {
+                    candidates.add(resultSet.getString("COLUMN_NAME"));
+                }
+            }
+        }
+
+        List<String> nonUniqueIndexColumns = new ArrayList<>();
+        try (ResultSet resultSet = metadata.getIndexInfo(null, tableName.getSchemaName(), tableName.getTableName(), false, true)) {
+            while (resultSet.next()) {
+                String columnName = resultSet.getString("COLUMN_NAME");
+                if (resultSet.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic || resultSet.getShort("ORDINAL_POSITION") != 1 || columnName == null) {
+                    continue;
+                }
+                if (resultSet.getBoolean("NON_UNIQUE")) {
+                    nonUniqueIndexColumns.add(columnName);
+                }
+                else {
+                    candidates.add(columnName);
+                }
+            }
+        }
+        catch (SQLException ex) {
+            LOGGER.debug("Unable to read index information of table {}", tableName, ex);
+        }
+        candidates.addAll(nonUniqueIndexColumns);
+        return candidates;
+    }
+
+    private static String quoteIdentifier(final String identifier, final String quote)
+    {
+        if (StringUtils.isBlank(quote)) {
+            return identifier;
+        }
+        return quote + identifier.replace(quote, quote + quote) + quote;
+    }
+
     /**
      * Converts an ARRAY column's TYPE_NAME (provided by the jdbc metadata) to an ArrowType.
      * @param typeName The column's TYPE_NAME (e.g. _int4, _text, _float8, etc...)
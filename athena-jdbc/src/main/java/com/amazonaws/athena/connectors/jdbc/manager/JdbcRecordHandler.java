@@ -21,6 +21,7 @@ package com.amazonaws.athena.connectors.jdbc.manager;
 
 import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
 import com.amazonaws.athena.connector.lambda.data.Block;
+import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
 import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
 import com.amazonaws.athena.connector.lambda.data.BlockUtils;
 import com.amazonaws.athena.connector.lambda.data.FieldResolver;
@@ -52,6 +53,7 @@ import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
 import com.amazonaws.athena.connectors.jdbc.connection.DatabaseConnectionConfig;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcConnectionFactory;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcCredentialProvider;
+import com.amazonaws.athena.connectors.jdbc.connection.PooledJdbcConnectionFactory;
 import com.amazonaws.athena.connectors.jdbc.connection.RdsSecretsCredentialProvider;
 import com.amazonaws.athena.connectors.jdbc.qpt.JdbcQueryPassthrough;
 import com.amazonaws.services.athena.AmazonAthena;
@@ -59,6 +61,7 @@ import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.secretsmanager.AWSSecretsManager;
 import org.apache.arrow.util.VisibleForTesting;
 import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.complex.ListVector;
 import org.apache.arrow.vector.holders.NullableBigIntHolder;
 import org.apache.arrow.vector.holders.NullableBitHolder;
 import org.apache.arrow.vector.holders.NullableDateDayHolder;
@@ -79,9 +82,12 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.Array;
 import java.sql.Connection;
+import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -95,6 +101,14 @@ public abstract class JdbcRecordHandler
         extends RecordHandler
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(JdbcRecordHandler.class);
+
+    /**
+     * Number of row batches which a background thread may prefetch from the ResultSet while the previous rows are
+     * written to blocks. 0, the default, reads the ResultSet on the calling thread.
+     */
+    public static final String PREFETCH_BATCHES = "jdbc_prefetch_batches";
+    private static final int PREFETCH_BATCH_ROWS = 1000;
+
     private final JdbcConnectionFactory jdbcConnectionFactory;
     private final DatabaseConnectionConfig databaseConnectionConfig;
 
@@ -119,8 +133,9 @@ public abstract class JdbcRecordHandler
         java.util.Map<String, String> configOptions)
     {
         super(amazonS3, secretsManager, athena, databaseConnectionConfig.getEngine(), configOptions);
-        this.jdbcConnectionFactory = Validate.notNull(jdbcConnectionFactory, "jdbcConnectionFactory must not be null");
         this.databaseConnectionConfig = Validate.notNull(databaseConnectionConfig, "databaseConnectionConfig must not be null");
+        this.jdbcConnectionFactory = PooledJdbcConnectionFactory.wrapIfEnabled(
+                Validate.notNull(jdbcConnectionFactory, "jdbcConnectionFactory must not be null"), configOptions, databaseConnectionConfig.getCatalog());
     }
 
     protected JdbcConnectionFactory getJdbcConnectionFactory()
@@ -138,52 +153,182 @@ public abstract class JdbcRecordHandler
         return null;
     }
 
+    /**
+     * Opens, and closes, a connection to this handler's database, which leaves it in the connection pool when pooling is
+     * enabled. See {@link JDBCUtil#WARM_UP_CONNECTIONS}.
+     */
+    public void warmUpConnection()
+            throws Exception
+    {
+        try (Connection connection = this.jdbcConnectionFactory.getConnection(getCredentialProvider())) {
+            LOGGER.info("warmUpConnection: Connected catalog {} to {}", this.databaseConnectionConfig.getCatalog(),
+                    connection.getMetaData().getDatabaseProductName());
+        }
+    }
+
+    @Override
+    public void warmUp(BlockAllocator allocator)
+            throws Exception
+    {
+        super.warmUp(allocator);
+        if (this.jdbcConnectionFactory != null && JDBCUtil.isConnectionWarmUpEnabled(configOptions)) {
+            warmUpConnection();
+        }
+    }
+
     @Override
     public void readWithConstraint(BlockSpiller blockSpiller, ReadRecordsRequest readRecordsRequest, QueryStatusChecker queryStatusChecker)
             throws Exception
     {
         LOGGER.info("{}: Catalog: {}, table {}, splits {}", readRecordsRequest.getQueryId(), readRecordsRequest.getCatalogName(), readRecordsRequest.getTableName(),
                 readRecordsRequest.getSplit().getProperties());
+        FetchSizePolicy fetchSizePolicy = getFetchSizePolicy();
         try (Connection connection = this.jdbcConnectionFactory.getConnection(getCredentialProvider())) {
             connection.setAutoCommit(false); // For consistency. This is needed to be false to enable streaming for some database types.
             try (PreparedStatement preparedStatement = buildSplitSql(connection, readRecordsRequest.getCatalogName(), readRecordsRequest.getTableName(),
                     readRecordsRequest.getSchema(), readRecordsRequest.getConstraints(), readRecordsRequest.getSplit());
-                    ResultSet resultSet = preparedStatement.executeQuery()) {
+                    StatementCanceller statementCanceller = new StatementCanceller(connection, preparedStatement, queryStatusChecker);
+                    ResultSet resultSet = executeQuery(preparedStatement, fetchSizePolicy, readRecordsRequest)) {
                 Map<String, String> partitionValues = readRecordsRequest.getSplit().getProperties();
 
-                GeneratedRowWriter.RowWriterBuilder rowWriterBuilder = GeneratedRowWriter.newBuilder(readRecordsRequest.getConstraints());
-                for (Field next : readRecordsRequest.getSchema().getFields()) {
-                    if (next.getType() instanceof ArrowType.List) {
-                        rowWriterBuilder.withFieldWriterFactory(next.getName(), makeFactory(next));
-                    }
-                    else {
-                        rowWriterBuilder.withExtractor(next.getName(), makeExtractor(next, resultSet, partitionValues));
+                List<Field> fields = readRecordsRequest.getSchema().getFields();
+                List<Extractor> extractors = new ArrayList<>(fields.size());
+                int prefetchBatches = Integer.parseInt(configOptions.getOrDefault(PREFETCH_BATCHES, "0"));
+                boolean prefetch = prefetchBatches > 0;
+                for (Field next : fields) {
+                    // List fields are written by a FieldWriterFactory reading the ResultSet itself
+                    Extractor extractor = (next.getType() instanceof ArrowType.List) ? null : makeExtractor(next, resultSet, partitionValues);
+                    extractors.add(extractor);
+                    prefetch = prefetch && ResultSetPrefetcher.isSupported(extractor);
+                }
+
+                FetchSizePolicy.Tuner fetchSizeTuner = (fetchSizePolicy == null) ? null : fetchSizePolicy.newTuner(resultSet, preparedStatement.getFetchSize());
+                boolean completed = false;
+                try {
+                    completed = prefetch
+                            ? readPrefetched(blockSpiller, readRecordsRequest, queryStatusChecker, resultSet, extractors, prefetchBatches, statementCanceller)
+                            : readDirect(blockSpiller, readRecordsRequest, queryStatusChecker, resultSet, extractors, fetchSizeTuner);
+                }
+                finally {
+                    if (!completed) {
+                        // The query stopped running or the read failed, stop the database from producing the remaining rows.
+                        statementCanceller.cancel();
                     }
                 }
+                if (completed) {
+                    connection.commit();
+                }
+            }
+        }
+    }
 
-                GeneratedRowWriter rowWriter = rowWriterBuilder.build();
-                int rowsReturnedFromDatabase = 0;
-                while (resultSet.next()) {
+    /**
+     * Sizes the fetches of the statement with the provided policy, if any, before executing it.
+     */
+    private ResultSet executeQuery(PreparedStatement preparedStatement, FetchSizePolicy fetchSizePolicy, ReadRecordsRequest readRecordsRequest)
+            throws SQLException
+    {
+        if (fetchSizePolicy != null) {
+            int fetchSize = fetchSizePolicy.getFetchSize(readRecordsRequest.getSchema(), readRecordsRequest.getMaxBlockSize());
+            LOGGER.debug("{}: Using fetch size {}", readRecordsRequest.getQueryId(), fetchSize);
+            preparedStatement.setFetchSize(fetchSize);
+        }
+        return preparedStatement.executeQuery();
+    }
+
+    /**
+     * Reads and writes each row of the ResultSet on the calling thread.
+     *
+     * @param fetchSizeTuner tunes the fetch size of the ResultSet as rows are read, may be null.
+     * @return false if the query stopped running before the ResultSet was exhausted.
+     */
+    private boolean readDirect(BlockSpiller blockSpiller, ReadRecordsRequest readRecordsRequest, QueryStatusChecker queryStatusChecker,
+            ResultSet resultSet, List<Extractor> extractors, FetchSizePolicy.Tuner fetchSizeTuner)
+            throws Exception
+    {
+        GeneratedRowWriter.RowWriterBuilder rowWriterBuilder = GeneratedRowWriter.newBuilder(readRecordsRequest.getConstraints());
+        List<Field> fields = readRecordsRequest.getSchema().getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            Field next = fields.get(i);
+            if (extractors.get(i) == null) {
+                rowWriterBuilder.withFieldWriterFactory(next.getName(), makeFactory(next));
+            }
+            else {
+                rowWriterBuilder.withExtractor(next.getName(), extractors.get(i));
+            }
+        }
+
+        GeneratedRowWriter rowWriter = rowWriterBuilder.build();
+        int rowsReturnedFromDatabase = 0;
+        while (resultSet.next()) {
+            if (!queryStatusChecker.isQueryRunning()) {
+                return false;
+            }
+            blockSpiller.writeRows((Block block, int rowNum) -> rowWriter.writeRow(block, rowNum, resultSet) ? 1 : 0);
+            rowsReturnedFromDatabase++;
+            if (fetchSizeTuner != null) {
+                fetchSizeTuner.onRow();
+            }
+        }
+        LOGGER.info("{} rows returned by database.", rowsReturnedFromDatabase);
+        return true;
+    }
+
+    /**
+     * Drains the ResultSet on a background thread into a bounded queue of row batches while the calling thread writes
+     * the previously fetched rows, overlapping the driver's fetches with block writes.
+     *
+     * @param statementCanceller cancels the statement before the background thread is stopped, if the read ends early.
+     * @return false if the query stopped running before the ResultSet was exhausted.
+     */
+    private boolean readPrefetched(BlockSpiller blockSpiller, ReadRecordsRequest readRecordsRequest, QueryStatusChecker queryStatusChecker,
+            ResultSet resultSet, List<Extractor> extractors, int prefetchBatches, StatementCanceller statementCanceller)
+            throws Exception
+    {
+        try (ResultSetPrefetcher prefetcher = new ResultSetPrefetcher(resultSet, extractors, PREFETCH_BATCH_ROWS, prefetchBatches, queryStatusChecker,
+                statementCanceller::cancel)) {
+            GeneratedRowWriter.RowWriterBuilder rowWriterBuilder = GeneratedRowWriter.newBuilder(readRecordsRequest.getConstraints());
+            List<Field> fields = readRecordsRequest.getSchema().getFields();
+            for (int i = 0; i < fields.size(); i++) {
+                rowWriterBuilder.withExtractor(fields.get(i).getName(), prefetcher.getExtractor(i));
+            }
+
+            GeneratedRowWriter rowWriter = rowWriterBuilder.build();
+            prefetcher.start();
+            int rowsReturnedFromDatabase = 0;
+            ResultSetPrefetcher.RowBatch batch;
+            while ((batch = prefetcher.nextBatch()) != null) {
+                for (int row = 0; row < batch.getRowCount(); row++) {
                     if (!queryStatusChecker.isQueryRunning()) {
-                        return;
+                        return false;
                     }
-                    blockSpiller.writeRows((Block block, int rowNum) -> rowWriter.writeRow(block, rowNum, resultSet) ? 1 : 0);
+                    batch.setPosition(row);
+                    ResultSetPrefetcher.RowBatch context = batch;
+                    blockSpiller.writeRows((Block block, int rowNum) -> rowWriter.writeRow(block, rowNum, context) ? 1 : 0);
                     rowsReturnedFromDatabase++;
                 }
-                LOGGER.info("{} rows returned by database.", rowsReturnedFromDatabase);
-
-                connection.commit();
             }
+            if (prefetcher.isStoppedEarly()) {
+                LOGGER.info("{} rows returned by database before the query stopped running.", rowsReturnedFromDatabase);
+                return false;
+            }
+            LOGGER.info("{} rows returned by database.", rowsReturnedFromDatabase);
+            return true;
         }
     }
 
     /**
-     * Create a field extractor for complex List type.
+     * Create a field extractor for complex List type. Lists of primitive and VARCHAR elements are written straight into
+     * the list's child vector, see {@link JdbcArrayFieldWriter}.
      * @param field Field's metadata information.
      * @return Extractor for the List type.
      */
     protected FieldWriterFactory makeFactory(Field field)
     {
+        if (JdbcArrayFieldWriter.isSupported(field)) {
+            return (FieldVector vector, Extractor extractor, ConstraintProjector constraint) ->
+                    new JdbcArrayFieldWriter(field.getName(), (ListVector) vector);
+        }
         return (FieldVector vector, Extractor extractor, ConstraintProjector constraint) ->
                 (FieldWriter) (Object context, int rowNum) ->
                 {
@@ -197,7 +342,9 @@ public abstract class JdbcRecordHandler
     }
 
     /**
-     * Creates an Extractor for the given field. In this example the extractor just creates some random data.
+     * Creates an Extractor for the given field. The column index is resolved once, when the Extractor is created, so that
+     * each cell is read exactly once, by index, using the typed getter for the field's type. Columns which the driver
+     * can not resolve to an index are read by name.
      */
     @VisibleForTesting
     protected Extractor makeExtractor(Field field, ResultSet resultSet, Map<String, String> partitionValues)
@@ -213,91 +360,96 @@ public abstract class JdbcRecordHandler
             };
         }
 
+        final int columnIndex = resolveColumnIndex(resultSet, fieldName);
         switch (fieldType) {
             case BIT:
                 return (BitExtractor) (Object context, NullableBitHolder dst) ->
                 {
-                    boolean value = resultSet.getBoolean(fieldName);
+                    boolean value = (columnIndex > 0) ? resultSet.getBoolean(columnIndex) : resultSet.getBoolean(fieldName);
                     dst.value = value ? 1 : 0;
                     dst.isSet = resultSet.wasNull() ? 0 : 1;
                 };
             case TINYINT:
                 return (TinyIntExtractor) (Object context, NullableTinyIntHolder dst) ->
                 {
-                    dst.value = resultSet.getByte(fieldName);
+                    dst.value = (columnIndex > 0) ? resultSet.getByte(columnIndex) : resultSet.getByte(fieldName);
                     dst.isSet = resultSet.wasNull() ? 0 : 1;
                 };
             case SMALLINT:
                 return (SmallIntExtractor) (Object context, NullableSmallIntHolder dst) ->
                 {
-                    dst.value = resultSet.getShort(fieldName);
+                    dst.value = (columnIndex > 0) ? resultSet.getShort(columnIndex) : resultSet.getShort(fieldName);
                     dst.isSet = resultSet.wasNull() ? 0 : 1;
                 };
             case INT:
                 return (IntExtractor) (Object context, NullableIntHolder dst) ->
                 {
-                    dst.value = resultSet.getInt(fieldName);
+                    dst.value = (columnIndex > 0) ? resultSet.getInt(columnIndex) : resultSet.getInt(fieldName);
                     dst.isSet = resultSet.wasNull() ? 0 : 1;
                 };
             case BIGINT:
                 return (BigIntExtractor) (Object context, NullableBigIntHolder dst) ->
                 {
-                    dst.value = resultSet.getLong(fieldName);
+                    dst.value = (columnIndex > 0) ? resultSet.getLong(columnIndex) : resultSet.getLong(fieldName);
                     dst.isSet = resultSet.wasNull() ? 0 : 1;
                 };
             case FLOAT4:
                 return (Float4Extractor) (Object context, NullableFloat4Holder dst) ->
                 {
-                    dst.value = resultSet.getFloat(fieldName);
+                    dst.value = (columnIndex > 0) ? resultSet.getFloat(columnIndex) : resultSet.getFloat(fieldName);
                     dst.isSet = resultSet.wasNull() ? 0 : 1;
                 };
             case FLOAT8:
                 return (Float8Extractor) (Object context, NullableFloat8Holder dst) ->
                 {
                     try {
-                        dst.value = resultSet.getDouble(fieldName);
+                        dst.value = (columnIndex > 0) ? resultSet.getDouble(columnIndex) : resultSet.getDouble(fieldName);
                     }
                     catch (java.sql.SQLException ex) {
                         // We need to use Double.parseDouble()
                         // replaceAll() use to strip commas "$25,000.00"
-                        dst.value = Double.parseDouble(resultSet.getString(fieldName).replaceAll(",", "").replaceAll("\\$", ""));
+                        String value = (columnIndex > 0) ? resultSet.getString(columnIndex) : resultSet.getString(fieldName);
+                        dst.value = Double.parseDouble(value.replaceAll(",", "").replaceAll("\\$", ""));
                     }
                     dst.isSet = resultSet.wasNull() ? 0 : 1;
                 };
             case DECIMAL:
                 return (DecimalExtractor) (Object context, NullableDecimalHolder dst) ->
                 {
-                    dst.value = resultSet.getBigDecimal(fieldName);
+                    dst.value = (columnIndex > 0) ? resultSet.getBigDecimal(columnIndex) : resultSet.getBigDecimal(fieldName);
                     dst.isSet = resultSet.wasNull() ? 0 : 1;
                 };
             case DATEDAY:
                 return (DateDayExtractor) (Object context, NullableDateDayHolder dst) ->
                 {
-                    if (resultSet.getDate(fieldName) != null) {
-                        dst.value = (int) TimeUnit.MILLISECONDS.toDays(resultSet.getDate(fieldName).getTime());
+                    Date value = (columnIndex > 0) ? resultSet.getDate(columnIndex) : resultSet.getDate(fieldName);
+                    if (value != null) {
+                        dst.value = (int) TimeUnit.MILLISECONDS.toDays(value.getTime());
                     }
                     dst.isSet = resultSet.wasNull() ? 0 : 1;
                 };
             case DATEMILLI:
                 return (DateMilliExtractor) (Object context, NullableDateMilliHolder dst) ->
                 {
-                    if (resultSet.getTimestamp(fieldName) != null) {
-                        dst.value = resultSet.getTimestamp(fieldName).getTime();
+                    Timestamp value = (columnIndex > 0) ? resultSet.getTimestamp(columnIndex) : resultSet.getTimestamp(fieldName);
+                    if (value != null) {
+                        dst.value = value.getTime();
                     }
                     dst.isSet = resultSet.wasNull() ? 0 : 1;
                 };
             case VARCHAR:
                 return (VarCharExtractor) (Object context, NullableVarCharHolder dst) ->
                 {
-                    if (null != resultSet.getString(fieldName)) {
-                        dst.value = resultSet.getString(fieldName);
+                    String value = (columnIndex > 0) ? resultSet.getString(columnIndex) : resultSet.getString(fieldName);
+                    if (null != value) {
+                        dst.value = value;
                     }
                     dst.isSet = resultSet.wasNull() ? 0 : 1;
                 };
             case VARBINARY:
                 return (VarBinaryExtractor) (Object context, NullableVarBinaryHolder dst) ->
                 {
-                    dst.value = resultSet.getBytes(fieldName);
+                    dst.value = (columnIndex > 0) ? resultSet.getBytes(columnIndex) : resultSet.getBytes(fieldName);
                     dst.isSet = resultSet.wasNull() ? 0 : 1;
                 };
             default:
@@ -305,6 +457,47 @@ public abstract class JdbcRecordHandler
         }
     }
 
+    /**
+     * Resolves the 1-based index of the column with the provided label using the ResultSetMetaData.
+     *
+     * @param resultSet The ResultSet containing the column.
+     * @param columnLabel The label (or name) of the column.
+     * @return The 1-based index of the column, or 0 if it could not be resolved in which case the column should be read by label.
+     */
+    protected int resolveColumnIndex(ResultSet resultSet, String columnLabel)
+    {
+        try {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            int columnCount = (metaData != null) ? metaData.getColumnCount() : 0;
+            for (int i = 1; i <= columnCount; i++) {
+                if (columnLabel.equals(metaData.getColumnLabel(i))) {
+                    return i;
+                }
+            }
+            for (int i = 1; i <= columnCount; i++) {
+                if (columnLabel.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                    return i;
+                }
+            }
+        }
+        catch (SQLException ex) {
+            LOGGER.debug("resolveColumnIndex: Unable to resolve index of column {}, it will be read by name.", columnLabel, ex);
+        }
+        return 0;
+    }
+
+    /**
+     * Policy sizing the fetches of split reads. Connectors whose drivers fetch rows in batches can return a policy so that
+     * each fetch holds about one block of rows and is tuned during the read, otherwise the fetch size set by
+     * {@link #buildSplitSql} is used as is.
+     *
+     * @return the policy, or null.
+     */
+    protected FetchSizePolicy getFetchSizePolicy()
+    {
+        return null;
+    }
+
     /**
      * Builds split SQL string and returns prepared statement.
      *
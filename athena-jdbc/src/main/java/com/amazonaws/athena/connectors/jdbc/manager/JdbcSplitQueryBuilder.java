@@ -108,45 +108,10 @@ public abstract class JdbcSplitQueryBuilder
             final Split split)
             throws SQLException
     {
-        StringBuilder sql = new StringBuilder();
-
-        String columnNames = tableSchema.getFields().stream()
-                .map(Field::getName)
-                .filter(c -> !split.getProperties().containsKey(c))
-                .map(this::quote)
-                .collect(Collectors.joining(", "));
-
-        sql.append("SELECT ");
-        sql.append(columnNames);
-
-        if (columnNames.isEmpty()) {
-            sql.append("null");
-        }
-        sql.append(getFromClauseWithSplit(catalog, schema, table, split));
-
         List<TypeAndValue> accumulator = new ArrayList<>();
-
-        List<String> clauses = toConjuncts(tableSchema.getFields(), constraints, accumulator, split.getProperties());
-        clauses.addAll(getPartitionWhereClauses(split));
-        if (!clauses.isEmpty()) {
-            sql.append(" WHERE ")
-                    .append(Joiner.on(" AND ").join(clauses));
-        }
-
-        String orderByClause = extractOrderByClause(constraints);
-
-        if (!Strings.isNullOrEmpty(orderByClause)) {
-            sql.append(" ").append(orderByClause);
-        }
-
-        if (constraints.getLimit() > 0) {
-            sql.append(appendLimitOffset(split, constraints));
-        }
-        else {
-            sql.append(appendLimitOffset(split)); // legacy method to preserve functionality of existing connector impls
-        }
-        LOGGER.info("Generated SQL : {}", sql.toString());
-        PreparedStatement statement = jdbcConnection.prepareStatement(sql.toString());
+        String sql = buildSqlString(catalog, schema, table, tableSchema, constraints, split, accumulator);
+        LOGGER.info("Generated SQL : {}", sql);
+        PreparedStatement statement = jdbcConnection.prepareStatement(sql);
         // TODO all types, converts Arrow values to JDBC.
         for (int i = 0; i < accumulator.size(); i++) {
             TypeAndValue typeAndValue = accumulator.get(i);
@@ -209,6 +174,70 @@ public abstract class JdbcSplitQueryBuilder
         return statement;
     }
 
+    /**
+     * Generates the SQL of a split without preparing it, so that it can also be run through other means than a
+     * {@link PreparedStatement}.
+     *
+     * @param catalog Athena provided catalog name.
+     * @param schema table schema name.
+     * @param table table name.
+     * @param tableSchema table schema (column and type information).
+     * @param constraints constraints passed by Athena to push down.
+     * @param split table split.
+     * @param accumulator receives the values of the SQL parameters, in order.
+     * @return SQL of the split.
+     */
+    public String buildSqlString(
+            final String catalog,
+            final String schema,
+            final String table,
+            final Schema tableSchema,
+            final Constraints constraints,
+            final Split split,
+            final List<TypeAndValue> accumulator)
+    {
+        StringBuilder sql = new StringBuilder();
+
+        String columnNames = tableSchema.getFields().stream()
+                .map(Field::getName)
+                .filter(c -> !split.getProperties().containsKey(c))
+                .map(this::quote)
+                .collect(Collectors.joining(", "));
+
+        sql.append("SELECT ");
+        sql.append(columnNames);
+
+        if (columnNames.isEmpty()) {
+            sql.append("null");
+        }
+        sql.append(getFromClauseWithSplit(catalog, schema, table, columnNames.isEmpty() ? "null" : columnNames, split));
+
+        List<String> clauses = toConjuncts(tableSchema.getFields(), constraints, accumulator, split.getProperties());
+        clauses.addAll(getPartitionWhereClauses(split));
+        String rangeClause = split.getProperty(JdbcMetadataHandler.SPLIT_RANGE_CLAUSE);
+        if (rangeClause != null) {
+            clauses.add(rangeClause);
+        }
+        if (!clauses.isEmpty()) {
+            sql.append(" WHERE ")
+                    .append(Joiner.on(" AND ").join(clauses));
+        }
+
+        String orderByClause = extractOrderByClause(constraints);
+
+        if (!Strings.isNullOrEmpty(orderByClause)) {
+            sql.append(" ").append(orderByClause);
+        }
+
+        if (constraints.getLimit() > 0) {
+            sql.append(appendLimitOffset(split, constraints));
+        }
+        else {
+            sql.append(appendLimitOffset(split)); // legacy method to preserve functionality of existing connector impls
+        }
+        return sql.toString();
+    }
+
     protected String extractOrderByClause(Constraints constraints)
     {
         List<OrderByField> orderByClause = constraints.getOrderByClause();
@@ -226,6 +255,17 @@ public abstract class JdbcSplitQueryBuilder
 
     protected abstract String getFromClauseWithSplit(final String catalog, final String schema, final String table, final Split split);
 
+    /**
+     * Variant of {@link #getFromClauseWithSplit(String, String, String, Split)} for dialects whose FROM clause depends on the
+     * selected columns, e.g. a UNION ALL over several partitions. Defaults to the projection independent variant.
+     *
+     * @param projection quoted, comma separated columns selected by the query.
+     */
+    protected String getFromClauseWithSplit(final String catalog, final String schema, final String table, final String projection, final Split split)
+    {
+        return getFromClauseWithSplit(catalog, schema, table, split);
+    }
+
     protected abstract List<String> getPartitionWhereClauses(final Split split);
 
     private List<String> toConjuncts(List<Field> columns, Constraints constraints, List<TypeAndValue> accumulator, Map<String, String> partitionSplit)
@@ -0,0 +1,259 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.manager;
+
+import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Marker;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Decides, from the partition bounds recorded in a database catalog, whether a partition can hold rows matching the
+ * constraints pushed down on its partition column.
+ *
+ * Only numeric and date/time columns are pruned since string ordering depends on the database collation. A partition is
+ * always kept when its bounds cannot be parsed, and no partition is pruned when the constraint accepts nulls because
+ * databases differ in where they store null keys.
+ */
+public class PartitionPruner
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionPruner.class);
+
+    private final String columnName;
+    private final ArrowType type;
+    private final SortedRangeSet valueSet;
+
+    private PartitionPruner(String columnName, ArrowType type, SortedRangeSet valueSet)
+    {
+        this.columnName = columnName;
+        this.type = type;
+        this.valueSet = valueSet;
+    }
+
+    /**
+     * @param schema table schema, used to resolve the column name case-insensitively and to find its type.
+     * @param constraints pushed down constraints.
+     * @param partitionColumn partition key column as named by the database catalog.
+     * @return a pruner for the column, or empty when the constraints cannot be used to prune partitions.
+     */
+    public static Optional<PartitionPruner> forColumn(Schema schema, Constraints constraints, String partitionColumn)
+    {
+        if (partitionColumn == null || constraints.getSummary().isEmpty()) {
+            return Optional.empty();
+        }
+        Field field = null;
+        for (Field next : schema.getFields()) {
+            if (next.getName().equals(partitionColumn)) {
+                field = next;
+                break;
+            }
+            if (field == null && next.getName().equalsIgnoreCase(partitionColumn)) {
+                field = next;
+            }
+        }
+        if (field == null || !isPrunable(field.getType())) {
+            return Optional.empty();
+        }
+        ValueSet valueSet = constraints.getSummary().get(field.getName());
+        if (!(valueSet instanceof SortedRangeSet) || valueSet.isNullAllowed()) {
+            return Optional.empty();
+        }
+        return Optional.of(new PartitionPruner(field.getName(), field.getType(), (SortedRangeSet) valueSet));
+    }
+
+    /**
+     * @param lower lower bound literal, null when the partition has no lower bound.
+     * @param lowerInclusive whether the lower bound belongs to the partition.
+     * @param upper upper bound literal, null when the partition has no upper bound.
+     * @param upperInclusive whether the upper bound belongs to the partition.
+     * @return false only when no value of the range can satisfy the constraints.
+     */
+    public boolean mayMatchRange(String lower, boolean lowerInclusive, String upper, boolean upperInclusive)
+    {
+        try {
+            Comparable<?> low = (lower == null) ? null : parseLiteral(lower);
+            Comparable<?> high = (upper == null) ? null : parseLiteral(upper);
+            for (Range range : valueSet.getOrderedRanges()) {
+                if (overlaps(range, low, lowerInclusive, high, upperInclusive)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        catch (RuntimeException ex) {
+            LOGGER.debug("Unable to evaluate partition range {} - {} of column {}, keeping partition.", lower, upper, columnName, ex);
+            return true;
+        }
+    }
+
+    /**
+     * @param values literals of a list partition.
+     * @return false only when none of the values can satisfy the constraints.
+     */
+    public boolean mayMatchAny(List<String> values)
+    {
+        for (String value : values) {
+            if (mayMatchRange(value, true, value, true)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Splits a comma separated list of catalog literals, ignoring commas within quotes or parentheses.
+     *
+     * Example: "TO_DATE(' 2020-01-01', 'SYYYY-MM-DD'), 10" => ["TO_DATE(' 2020-01-01', 'SYYYY-MM-DD')", "10"]
+     */
+    public static List<String> splitLiterals(String literals)
+    {
+        List<String> result = new ArrayList<>();
+        int depth = 0;
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < literals.length(); i++) {
+            char c = literals.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            else if (!quoted && c == '(') {
+                depth++;
+            }
+            else if (!quoted && c == ')') {
+                depth--;
+            }
+            else if (!quoted && depth == 0 && c == ',') {
+                result.add(literals.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        result.add(literals.substring(start).trim());
+        return result;
+    }
+
+    /**
+     * Extracts the value of a catalog literal: the content of its first quoted string if it has one (as in '10',
+     * DATE '2020-01-01' or TO_DATE(' 2020-01-01 00:00:00', ...)), the literal itself otherwise.
+     */
+    public static String literalValue(String literal)
+    {
+        int start = literal.indexOf('\'');
+        if (start < 0) {
+            return literal.trim();
+        }
+        StringBuilder value = new StringBuilder();
+        for (int i = start + 1; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < literal.length() && literal.charAt(i + 1) == '\'') {
+                    value.append(c);
+                    i++;
+                    continue;
+                }
+                break;
+            }
+            value.append(c);
+        }
+        return value.toString().trim();
+    }
+
+    private boolean overlaps(Range range, Comparable<?> low, boolean lowInclusive, Comparable<?> high, boolean highInclusive)
+    {
+        Marker rangeLow = range.getLow();
+        Marker rangeHigh = range.getHigh();
+        if (high != null && !rangeLow.isLowerUnbounded()) {
+            int cmp = compare(high, normalize(rangeLow.getValue()));
+            if (cmp < 0 || (cmp == 0 && (!highInclusive || rangeLow.getBound() == Marker.Bound.ABOVE))) {
+                return false;
+            }
+        }
+        if (low != null && !rangeHigh.isUpperUnbounded()) {
+            int cmp = compare(normalize(rangeHigh.getValue()), low);
+            if (cmp < 0 || (cmp == 0 && (!lowInclusive || rangeHigh.getBound() == Marker.Bound.BELOW))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Comparable<?> left, Comparable<?> right)
+    {
+        return ((Comparable<Object>) left).compareTo(right);
+    }
+
+    private Comparable<?> parseLiteral(String literal)
+    {
+        String value = literalValue(literal);
+        switch (Types.getMinorTypeForArrowType(type)) {
+            case DATEDAY:
+            case DATEMILLI:
+                String dateTime = value.replace('T', ' ');
+                if (dateTime.length() == 10) {
+                    return LocalDate.parse(dateTime).atStartOfDay();
+                }
+                return LocalDateTime.parse(dateTime.replace(' ', 'T'));
+            default:
+                return new BigDecimal(value);
+        }
+    }
+
+    private Comparable<?> normalize(Object markerValue)
+    {
+        switch (Types.getMinorTypeForArrowType(type)) {
+            case DATEDAY:
+                return LocalDate.ofEpochDay(((Number) markerValue).longValue()).atStartOfDay();
+            case DATEMILLI:
+                return (LocalDateTime) markerValue;
+            default:
+                return new BigDecimal(markerValue.toString());
+        }
+    }
+
+    private static boolean isPrunable(ArrowType type)
+    {
+        switch (Types.getMinorTypeForArrowType(type)) {
+            case TINYINT:
+            case SMALLINT:
+            case INT:
+            case BIGINT:
+            case DECIMAL:
+            case DATEDAY:
+            case DATEMILLI:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
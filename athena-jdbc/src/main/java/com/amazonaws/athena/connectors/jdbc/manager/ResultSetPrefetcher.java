@@ -0,0 +1,562 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.manager;
+
+import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.BigIntExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.BitExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.DateDayExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.DateMilliExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.DecimalExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.Extractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.Float4Extractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.Float8Extractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.IntExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.SmallIntExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.TinyIntExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.VarBinaryExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.VarCharExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.holders.NullableDecimalHolder;
+import com.amazonaws.athena.connector.lambda.data.writers.holders.NullableVarBinaryHolder;
+import com.amazonaws.athena.connector.lambda.data.writers.holders.NullableVarCharHolder;
+import org.apache.arrow.vector.holders.NullableBigIntHolder;
+import org.apache.arrow.vector.holders.NullableBitHolder;
+import org.apache.arrow.vector.holders.NullableDateDayHolder;
+import org.apache.arrow.vector.holders.NullableDateMilliHolder;
+import org.apache.arrow.vector.holders.NullableFloat4Holder;
+import org.apache.arrow.vector.holders.NullableFloat8Holder;
+import org.apache.arrow.vector.holders.NullableIntHolder;
+import org.apache.arrow.vector.holders.NullableSmallIntHolder;
+import org.apache.arrow.vector.holders.NullableTinyIntHolder;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Drains a ResultSet on a background thread so that the driver's network round trips overlap with the Arrow encoding
+ * and spilling done by the reading thread.
+ *
+ * The background thread runs the ResultSet Extractors of each row and copies their values into reusable columnar
+ * {@link RowBatch}es, which are handed to the reading thread through a bounded queue. The reading thread writes rows
+ * with the Extractors returned by {@link #getExtractor(int)}, which read the current row of the batch passed as their
+ * context. Prefetching stops once the query is no longer running or the prefetcher is closed. Closing the prefetcher
+ * before the ResultSet was exhausted cancels the statement first, since the background thread may be blocked in the
+ * driver waiting for rows and does not respond to interrupts there.
+ */
+public class ResultSetPrefetcher
+        implements AutoCloseable
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResultSetPrefetcher.class);
+
+    private enum Storage
+    {
+        LONG,
+        DOUBLE,
+        OBJECT
+    }
+
+    private interface ColumnReader
+    {
+        void read(Object context, RowBatch batch, int row)
+                throws Exception;
+    }
+
+    private final ResultSet resultSet;
+    private final QueryStatusChecker queryStatusChecker;
+    private final Runnable canceller;
+    private final Storage[] storage;
+    private final ColumnReader[] readers;
+    private final Extractor[] extractors;
+    private final BlockingQueue<RowBatch> filled;
+    private final BlockingQueue<RowBatch> free;
+    private final Thread producer;
+    private volatile boolean closed;
+    private volatile Throwable failure;
+    private RowBatch current;
+    private boolean done;
+    private boolean stoppedEarly;
+
+    /**
+     * @param resultSet the ResultSet to drain, passed as the context of the source Extractors.
+     * @param sourceExtractors one Extractor reading the ResultSet per column, see {@link #isSupported(Extractor)}.
+     * @param batchRows number of rows per batch.
+     * @param queueCapacity number of filled batches which may wait for the reading thread.
+     * @param queryStatusChecker stops prefetching once the query is no longer running.
+     */
+    public ResultSetPrefetcher(ResultSet resultSet, List<Extractor> sourceExtractors, int batchRows, int queueCapacity, QueryStatusChecker queryStatusChecker)
+    {
+        this(resultSet, sourceExtractors, batchRows, queueCapacity, queryStatusChecker, () -> {});
+    }
+
+    /**
+     * @param resultSet the ResultSet to drain, passed as the context of the source Extractors.
+     * @param sourceExtractors one Extractor reading the ResultSet per column, see {@link #isSupported(Extractor)}.
+     * @param batchRows number of rows per batch.
+     * @param queueCapacity number of filled batches which may wait for the reading thread.
+     * @param queryStatusChecker stops prefetching once the query is no longer running.
+     * @param canceller cancels the statement of the ResultSet, run by {@link #close()} before it waits for the background
+     * thread when the ResultSet was not exhausted. See {@link StatementCanceller#cancel()}.
+     */
+    public ResultSetPrefetcher(ResultSet resultSet, List<Extractor> sourceExtractors, int batchRows, int queueCapacity, QueryStatusChecker queryStatusChecker,
+            Runnable canceller)
+    {
+        Validate.isTrue(batchRows > 0, "batchRows must be positive");
+        Validate.isTrue(queueCapacity > 0, "queueCapacity must be positive");
+        this.resultSet = resultSet;
+        this.queryStatusChecker = queryStatusChecker;
+        this.canceller = Validate.notNull(canceller);
+        int columnCount = sourceExtractors.size();
+        this.storage = new Storage[columnCount];
+        this.readers = new ColumnReader[columnCount];
+        this.extractors = new Extractor[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            bindColumn(i, sourceExtractors.get(i));
+        }
+
+        this.filled = new ArrayBlockingQueue<>(queueCapacity);
+        // One batch being filled, one being written and the queued ones.
+        this.free = new ArrayBlockingQueue<>(queueCapacity + 2);
+        for (int i = 0; i < queueCapacity + 2; i++) {
+            free.add(new RowBatch(storage, batchRows));
+        }
+        this.producer = new Thread(this::produce, "jdbc-resultset-prefetch");
+        this.producer.setDaemon(true);
+    }
+
+    /**
+     * @return true if the values produced by the Extractor can be buffered by a prefetcher.
+     */
+    public static boolean isSupported(Extractor extractor)
+    {
+        return extractor instanceof BitExtractor || extractor instanceof TinyIntExtractor || extractor instanceof SmallIntExtractor
+                || extractor instanceof IntExtractor || extractor instanceof BigIntExtractor || extractor instanceof Float4Extractor
+                || extractor instanceof Float8Extractor || extractor instanceof DecimalExtractor || extractor instanceof DateDayExtractor
+                || extractor instanceof DateMilliExtractor || extractor instanceof VarCharExtractor || extractor instanceof VarBinaryExtractor;
+    }
+
+    /**
+     * @return an Extractor, of the same kind as the source Extractor of the column, reading the column from the
+     * {@link RowBatch} passed as context.
+     */
+    public Extractor getExtractor(int column)
+    {
+        return extractors[column];
+    }
+
+    public void start()
+    {
+        producer.start();
+    }
+
+    /**
+     * Releases the previously returned batch and waits for the next one.
+     *
+     * @return the next batch, or null once the ResultSet is exhausted or prefetching stopped early, see
+     * {@link #isStoppedEarly()}.
+     * @throws Exception the failure of the background thread, if it failed reading the ResultSet.
+     */
+    public RowBatch nextBatch()
+            throws Exception
+    {
+        if (current != null) {
+            free.add(current);
+            current = null;
+        }
+        if (done) {
+            return null;
+        }
+        RowBatch batch = filled.take();
+        if (batch.last) {
+            done = true;
+            stoppedEarly = batch.stoppedEarly;
+            Throwable cause = failure;
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause != null) {
+                throw (Error) cause;
+            }
+        }
+        current = batch;
+        return batch;
+    }
+
+    /**
+     * @return true if the last batch was read but prefetching stopped, because the query was no longer running or the
+     * prefetcher was closed, before the ResultSet was exhausted.
+     */
+    public boolean isStoppedEarly()
+    {
+        return stoppedEarly;
+    }
+
+    /**
+     * Stops the background thread and waits for it to exit, so that the ResultSet can be closed afterwards. Unless the
+     * ResultSet was exhausted, the statement is cancelled first so that a fetch blocked in the driver returns.
+     */
+    @Override
+    public void close()
+            throws InterruptedException
+    {
+        closed = true;
+        if (!done || stoppedEarly) {
+            canceller.run();
+        }
+        producer.interrupt();
+        producer.join();
+    }
+
+    private void produce()
+    {
+        try {
+            boolean more = true;
+            while (more) {
+                RowBatch batch = free.take();
+                batch.rowCount = 0;
+                batch.stoppedEarly = false;
+                try {
+                    while (batch.rowCount < batch.capacity && !closed && (more = resultSet.next())) {
+                        for (int i = 0; i < readers.length; i++) {
+                            readers[i].read(resultSet, batch, batch.rowCount);
+                        }
+                        batch.rowCount++;
+                    }
+                    if (more && (closed || !queryStatusChecker.isQueryRunning())) {
+                        batch.stoppedEarly = true;
+                        more = false;
+                    }
+                }
+                catch (Throwable ex) {
+                    failure = ex;
+                    more = false;
+                }
+                batch.last = !more;
+                filled.put(batch);
+            }
+        }
+        catch (InterruptedException ex) {
+            LOGGER.debug("produce: Prefetching interrupted.");
+        }
+    }
+
+    private void bindColumn(int column, Extractor extractor)
+    {
+        if (extractor instanceof BitExtractor) {
+            NullableBitHolder holder = new NullableBitHolder();
+            storage[column] = Storage.LONG;
+            readers[column] = (Object context, RowBatch batch, int row) ->
+            {
+                holder.isSet = 0;
+                holder.value = 0;
+                ((BitExtractor) extractor).extract(context, holder);
+                batch.setLong(column, row, holder.isSet, holder.value);
+            };
+            extractors[column] = (BitExtractor) (Object context, NullableBitHolder dst) ->
+            {
+                RowBatch batch = (RowBatch) context;
+                dst.isSet = batch.isSet(column);
+                dst.value = (int) batch.getLong(column);
+            };
+        }
+        else if (extractor instanceof TinyIntExtractor) {
+            NullableTinyIntHolder holder = new NullableTinyIntHolder();
+            storage[column] = Storage.LONG;
+            readers[column] = (Object context, RowBatch batch, int row) ->
+            {
+                holder.isSet = 0;
+                holder.value = 0;
+                ((TinyIntExtractor) extractor).extract(context, holder);
+                batch.setLong(column, row, holder.isSet, holder.value);
+            };
+            extractors[column] = (TinyIntExtractor) (Object context, NullableTinyIntHolder dst) ->
+            {
+                RowBatch batch = (RowBatch) context;
+                dst.isSet = batch.isSet(column);
+                dst.value = (byte) batch.getLong(column);
+            };
+        }
+        else if (extractor instanceof SmallIntExtractor) {
+            NullableSmallIntHolder holder = new NullableSmallIntHolder();
+            storage[column] = Storage.LONG;
+            readers[column] = (Object context, RowBatch batch, int row) ->
+            {
+                holder.isSet = 0;
+                holder.value = 0;
+                ((SmallIntExtractor) extractor).extract(context, holder);
+                batch.setLong(column, row, holder.isSet, holder.value);
+            };
+            extractors[column] = (SmallIntExtractor) (Object context, NullableSmallIntHolder dst) ->
+            {
+                RowBatch batch = (RowBatch) context;
+                dst.isSet = batch.isSet(column);
+                dst.value = (short) batch.getLong(column);
+            };
+        }
+        else if (extractor instanceof IntExtractor) {
+            NullableIntHolder holder = new NullableIntHolder();
+            storage[column] = Storage.LONG;
+            readers[column] = (Object context, RowBatch batch, int row) ->
+            {
+                holder.isSet = 0;
+                holder.value = 0;
+                ((IntExtractor) extractor).extract(context, holder);
+                batch.setLong(column, row, holder.isSet, holder.value);
+            };
+            extractors[column] = (IntExtractor) (Object context, NullableIntHolder dst) ->
+            {
+                RowBatch batch = (RowBatch) context;
+                dst.isSet = batch.isSet(column);
+                dst.value = (int) batch.getLong(column);
+            };
+        }
+        else if (extractor instanceof BigIntExtractor) {
+            NullableBigIntHolder holder = new NullableBigIntHolder();
+            storage[column] = Storage.LONG;
+            readers[column] = (Object context, RowBatch batch, int row) ->
+            {
+                holder.isSet = 0;
+                holder.value = 0;
+                ((BigIntExtractor) extractor).extract(context, holder);
+                batch.setLong(column, row, holder.isSet, holder.value);
+            };
+            extractors[column] = (BigIntExtractor) (Object context, NullableBigIntHolder dst) ->
+            {
+                RowBatch batch = (RowBatch) context;
+                dst.isSet = batch.isSet(column);
+                dst.value = batch.getLong(column);
+            };
+        }
+        else if (extractor instanceof DateDayExtractor) {
+            NullableDateDayHolder holder = new NullableDateDayHolder();
+            storage[column] = Storage.LONG;
+            readers[column] = (Object context, RowBatch batch, int row) ->
+            {
+                holder.isSet = 0;
+                holder.value = 0;
+                ((DateDayExtractor) extractor).extract(context, holder);
+                batch.setLong(column, row, holder.isSet, holder.value);
+            };
+            extractors[column] = (DateDayExtractor) (Object context, NullableDateDayHolder dst) ->
+            {
+                RowBatch batch = (RowBatch) context;
+                dst.isSet = batch.isSet(column);
+                dst.value = (int) batch.getLong(column);
+            };
+        }
+        else if (extractor instanceof DateMilliExtractor) {
+            NullableDateMilliHolder holder = new NullableDateMilliHolder();
+            storage[column] = Storage.LONG;
+            readers[column] = (Object context, RowBatch batch, int row) ->
+            {
+                holder.isSet = 0;
+                holder.value = 0;
+                ((DateMilliExtractor) extractor).extract(context, holder);
+                batch.setLong(column, row, holder.isSet, holder.value);
+            };
+            extractors[column] = (DateMilliExtractor) (Object context, NullableDateMilliHolder dst) ->
+            {
+                RowBatch batch = (RowBatch) context;
+                dst.isSet = batch.isSet(column);
+                dst.value = batch.getLong(column);
+            };
+        }
+        else if (extractor instanceof Float4Extractor) {
+            NullableFloat4Holder holder = new NullableFloat4Holder();
+            storage[column] = Storage.DOUBLE;
+            readers[column] = (Object context, RowBatch batch, int row) ->
+            {
+                holder.isSet = 0;
+                holder.value = 0;
+                ((Float4Extractor) extractor).extract(context, holder);
+                batch.setDouble(column, row, holder.isSet, holder.value);
+            };
+            extractors[column] = (Float4Extractor) (Object context, NullableFloat4Holder dst) ->
+            {
+                RowBatch batch = (RowBatch) context;
+                dst.isSet = batch.isSet(column);
+                dst.value = (float) batch.getDouble(column);
+            };
+        }
+        else if (extractor instanceof Float8Extractor) {
+            NullableFloat8Holder holder = new NullableFloat8Holder();
+            storage[column] = Storage.DOUBLE;
+            readers[column] = (Object context, RowBatch batch, int row) ->
+            {
+                holder.isSet = 0;
+                holder.value = 0;
+                ((Float8Extractor) extractor).extract(context, holder);
+                batch.setDouble(column, row, holder.isSet, holder.value);
+            };
+            extractors[column] = (Float8Extractor) (Object context, NullableFloat8Holder dst) ->
+            {
+                RowBatch batch = (RowBatch) context;
+                dst.isSet = batch.isSet(column);
+                dst.value = batch.getDouble(column);
+            };
+        }
+        else if (extractor instanceof DecimalExtractor) {
+            NullableDecimalHolder holder = new NullableDecimalHolder();
+            storage[column] = Storage.OBJECT;
+            readers[column] = (Object context, RowBatch batch, int row) ->
+            {
+                holder.isSet = 0;
+                holder.value = null;
+                ((DecimalExtractor) extractor).extract(context, holder);
+                batch.setObject(column, row, holder.isSet, holder.value);
+            };
+            extractors[column] = (DecimalExtractor) (Object context, NullableDecimalHolder dst) ->
+            {
+                RowBatch batch = (RowBatch) context;
+                dst.isSet = batch.isSet(column);
+                dst.value = (BigDecimal) batch.getObject(column);
+            };
+        }
+        else if (extractor instanceof VarCharExtractor) {
+            NullableVarCharHolder holder = new NullableVarCharHolder();
+            storage[column] = Storage.OBJECT;
+            readers[column] = (Object context, RowBatch batch, int row) ->
+            {
+                holder.isSet = 0;
+                holder.value = null;
+                ((VarCharExtractor) extractor).extract(context, holder);
+                batch.setObject(column, row, holder.isSet, holder.value);
+            };
+            extractors[column] = (VarCharExtractor) (Object context, NullableVarCharHolder dst) ->
+            {
+                RowBatch batch = (RowBatch) context;
+                dst.isSet = batch.isSet(column);
+                dst.value = (String) batch.getObject(column);
+            };
+        }
+        else if (extractor instanceof VarBinaryExtractor) {
+            NullableVarBinaryHolder holder = new NullableVarBinaryHolder();
+            storage[column] = Storage.OBJECT;
+            readers[column] = (Object context, RowBatch batch, int row) ->
+            {
+                holder.isSet = 0;
+                holder.value = null;
+                ((VarBinaryExtractor) extractor).extract(context, holder);
+                batch.setObject(column, row, holder.isSet, holder.value);
+            };
+            extractors[column] = (VarBinaryExtractor) (Object context, NullableVarBinaryHolder dst) ->
+            {
+                RowBatch batch = (RowBatch) context;
+                dst.isSet = batch.isSet(column);
+                dst.value = (byte[]) batch.getObject(column);
+            };
+        }
+        else {
+            throw new IllegalArgumentException("Unsupported extractor for column " + column);
+        }
+    }
+
+    /**
+     * Columnar buffer of prefetched rows. The row read by the prefetcher's Extractors is selected with
+     * {@link #setPosition(int)}.
+     */
+    public static final class RowBatch
+    {
+        private final int capacity;
+        private final long[][] longs;
+        private final double[][] doubles;
+        private final Object[][] objects;
+        private final int[][] isSet;
+        private int rowCount;
+        private int position;
+        private boolean last;
+        //Set on the last batch if the ResultSet was not exhausted.
+        private boolean stoppedEarly;
+
+        private RowBatch(Storage[] storage, int capacity)
+        {
+            this.capacity = capacity;
+            this.longs = new long[storage.length][];
+            this.doubles = new double[storage.length][];
+            this.objects = new Object[storage.length][];
+            this.isSet = new int[storage.length][capacity];
+            for (int i = 0; i < storage.length; i++) {
+                switch (storage[i]) {
+                    case LONG:
+                        longs[i] = new long[capacity];
+                        break;
+                    case DOUBLE:
+                        doubles[i] = new double[capacity];
+                        break;
+                    default:
+                        objects[i] = new Object[capacity];
+                }
+            }
+        }
+
+        public int getRowCount()
+        {
+            return rowCount;
+        }
+
+        public void setPosition(int position)
+        {
+            this.position = position;
+        }
+
+        private void setLong(int column, int row, int set, long value)
+        {
+            isSet[column][row] = set;
+            longs[column][row] = value;
+        }
+
+        private void setDouble(int column, int row, int set, double value)
+        {
+            isSet[column][row] = set;
+            doubles[column][row] = value;
+        }
+
+        private void setObject(int column, int row, int set, Object value)
+        {
+            isSet[column][row] = set;
+            objects[column][row] = value;
+        }
+
+        private int isSet(int column)
+        {
+            return isSet[column][position];
+        }
+
+        private long getLong(int column)
+        {
+            return longs[column][position];
+        }
+
+        private double getDouble(int column)
+        {
+            return doubles[column][position];
+        }
+
+        private Object getObject(int column)
+        {
+            return objects[column][position];
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.manager;
+
+import com.amazonaws.athena.connector.lambda.domain.predicate.functions.FunctionName;
+import com.amazonaws.athena.connector.lambda.domain.predicate.functions.OperatorType;
+
+/**
+ * Scalar functions, beyond the operators of {@link com.amazonaws.athena.connector.lambda.domain.predicate.functions.StandardFunctions},
+ * which JDBC connectors can push down in complex expressions. Each dialect renders and advertises the subset whose
+ * semantics match Athena's, see {@link JdbcFederationExpressionParser#getSupportedScalarFunctions()}.
+ */
+public enum ScalarFunctions
+{
+    ABS_FUNCTION_NAME(new FunctionName("abs"), OperatorType.UNARY),
+
+    LOWER_FUNCTION_NAME(new FunctionName("lower"), OperatorType.UNARY),
+    UPPER_FUNCTION_NAME(new FunctionName("upper"), OperatorType.UNARY),
+    /**
+     * Length of a string in characters.
+     */
+    LENGTH_FUNCTION_NAME(new FunctionName("length"), OperatorType.UNARY),
+    /**
+     * Trims leading and trailing spaces.
+     */
+    TRIM_FUNCTION_NAME(new FunctionName("trim"), OperatorType.UNARY),
+    LTRIM_FUNCTION_NAME(new FunctionName("ltrim"), OperatorType.UNARY),
+    RTRIM_FUNCTION_NAME(new FunctionName("rtrim"), OperatorType.UNARY),
+    /**
+     * substr(string, start) or substr(string, start, length), positions start at 1 and a negative start counts from the
+     * end of the string.
+     */
+    SUBSTR_FUNCTION_NAME(new FunctionName("substr")),
+    SUBSTRING_FUNCTION_NAME(new FunctionName("substring")),
+    /**
+     * Concatenation of strings, null if any of them is null.
+     */
+    CONCAT_FUNCTION_NAME(new FunctionName("concat")),
+
+    YEAR_FUNCTION_NAME(new FunctionName("year"), OperatorType.UNARY),
+    MONTH_FUNCTION_NAME(new FunctionName("month"), OperatorType.UNARY),
+    DAY_FUNCTION_NAME(new FunctionName("day"), OperatorType.UNARY);
+
+    final FunctionName functionName;
+    final OperatorType operatorType;
+
+    ScalarFunctions(FunctionName functionName)
+    {
+        this(functionName, OperatorType.VARARG);
+    }
+
+    ScalarFunctions(FunctionName functionName, OperatorType operatorType)
+    {
+        this.functionName = functionName;
+        this.operatorType = operatorType;
+    }
+
+    public FunctionName getFunctionName()
+    {
+        return this.functionName;
+    }
+
+    public OperatorType getOperatorType()
+    {
+        return this.operatorType;
+    }
+
+    public static ScalarFunctions fromFunctionName(FunctionName functionName)
+    {
+        for (ScalarFunctions function : ScalarFunctions.values()) {
+            if (function.getFunctionName().equals(functionName)) {
+                return function;
+            }
+        }
+        return null;
+    }
+}
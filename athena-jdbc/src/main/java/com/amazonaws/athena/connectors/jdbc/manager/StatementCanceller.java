@@ -0,0 +1,101 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.manager;
+
+import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cancels a running statement as soon as the Athena query terminates, or when the caller abandons the read, so that the
+ * database stops executing it and closing the statement does not wait for the remaining rows to be drained.
+ *
+ * Cancellation also bounds the connection's network timeout, so a database which does not acknowledge the cancel can
+ * not block the close indefinitely.
+ */
+public class StatementCanceller
+        implements AutoCloseable
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatementCanceller.class);
+
+    // Max time, in milliseconds, which a blocking call on the connection may take once the statement is cancelled.
+    private static final int CANCEL_NETWORK_TIMEOUT_MS = 10_000;
+
+    private final Connection connection;
+    private final Statement statement;
+    private final QueryStatusChecker queryStatusChecker;
+    private final Runnable listener = this::cancel;
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+
+    /**
+     * @param connection connection the statement runs on.
+     * @param statement statement to cancel.
+     * @param queryStatusChecker the statement is cancelled once it reports that the query terminated.
+     */
+    public StatementCanceller(Connection connection, Statement statement, QueryStatusChecker queryStatusChecker)
+    {
+        this.connection = connection;
+        this.statement = statement;
+        this.queryStatusChecker = queryStatusChecker;
+        queryStatusChecker.addTerminationListener(listener);
+    }
+
+    /**
+     * Cancels the statement, can be called from any thread and more than once.
+     */
+    public void cancel()
+    {
+        if (!cancelled.compareAndSet(false, true)) {
+            return;
+        }
+        LOGGER.info("cancel: Cancelling statement.");
+        try {
+            statement.cancel();
+        }
+        catch (SQLException | RuntimeException ex) {
+            LOGGER.warn("cancel: Unable to cancel statement.", ex);
+        }
+        try {
+            connection.setNetworkTimeout(Runnable::run, CANCEL_NETWORK_TIMEOUT_MS);
+        }
+        catch (SQLException | RuntimeException ex) {
+            LOGGER.debug("cancel: Unable to set network timeout.", ex);
+        }
+    }
+
+    public boolean isCancelled()
+    {
+        return cancelled.get();
+    }
+
+    /**
+     * Stops listening for the termination of the query.
+     */
+    @Override
+    public void close()
+    {
+        queryStatusChecker.removeTerminationListener(listener);
+    }
+}
@@ -0,0 +1,74 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.splits;
+
+import org.apache.commons.lang3.Validate;
+
+import java.time.LocalDate;
+
+/**
+ * Date splits iterator. Splits a closed date range on day boundaries using {@link LongSplitter} over epoch days, so every
+ * split covers whole days and consecutive splits never overlap. Range clauses use the JDBC date escape ({d 'yyyy-mm-dd'})
+ * which every supported driver translates into its native date literal.
+ */
+public class DateSplitter
+        implements Splitter<LocalDate>
+{
+    private final SplitInfo<LocalDate> splitInfo;
+    private final LongSplitter daySplitter;
+
+    /**
+     * @param splitInfo split information. E.g. split range, expected splits, column name.
+     */
+    public DateSplitter(SplitInfo<LocalDate> splitInfo)
+    {
+        this.splitInfo = Validate.notNull(splitInfo);
+        SplitRange<Long> dayRange = new SplitRange<>(splitInfo.getSplitRange().getLow().toEpochDay(), splitInfo.getSplitRange().getHigh().toEpochDay());
+        this.daySplitter = new LongSplitter(new SplitInfo<>(dayRange, splitInfo.getColumnName(), splitInfo.getColumnType(), splitInfo.getNumSplits()));
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        return this.daySplitter.hasNext();
+    }
+
+    @Override
+    public SplitRange<LocalDate> next()
+    {
+        SplitRange<Long> dayRange = this.daySplitter.next();
+        return new SplitRange<>(LocalDate.ofEpochDay(dayRange.getLow()), LocalDate.ofEpochDay(dayRange.getHigh()));
+    }
+
+    @Override
+    public String nextRangeClause()
+    {
+        SplitRange<LocalDate> splitRange = next();
+        return String.format("(%s >= {d '%s'} AND %s <= {d '%s'})", this.splitInfo.getColumnName(), splitRange.getLow(), splitInfo.getColumnName(), splitRange.getHigh());
+    }
+
+    @Override
+    public String nextUnboundedRangeClause()
+    {
+        SplitRange<LocalDate> splitRange = next();
+        return RangeClauses.unbounded(this.splitInfo.getColumnName(), splitRange.getLow().equals(this.splitInfo.getSplitRange().getLow()),
+                String.format("{d '%s'}", splitRange.getLow()), !hasNext(), "<=", String.format("{d '%s'}", splitRange.getHigh()));
+    }
+}
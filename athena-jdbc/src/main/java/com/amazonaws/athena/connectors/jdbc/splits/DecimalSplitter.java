@@ -0,0 +1,58 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.splits;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Decimal splits iterator. Lower bounds are evenly interpolated between low and high and rounded down to the scale of
+ * the endpoints. See {@link HalfOpenRangeSplitter} for the range semantics.
+ *
+ * Example: [0.00, 1.00] as input split range, expected splits = 4
+ *  Splits = [0.00,0.25), [0.25,0.50), [0.50,0.75), [0.75,1.00]
+ */
+public class DecimalSplitter
+        extends HalfOpenRangeSplitter<BigDecimal>
+{
+    /**
+     * @param splitInfo split information. E.g. split range, expected splits, column name.
+     */
+    public DecimalSplitter(SplitInfo<BigDecimal> splitInfo)
+    {
+        super(splitInfo, i -> interpolate(splitInfo, i));
+    }
+
+    private static BigDecimal interpolate(SplitInfo<BigDecimal> splitInfo, int i)
+    {
+        BigDecimal low = splitInfo.getSplitRange().getLow();
+        BigDecimal high = splitInfo.getSplitRange().getHigh();
+        int scale = Math.max(0, Math.max(low.scale(), high.scale()));
+        return low.add(high.subtract(low)
+                .multiply(BigDecimal.valueOf(i))
+                .divide(BigDecimal.valueOf(splitInfo.getNumSplits()), scale, RoundingMode.FLOOR));
+    }
+
+    @Override
+    protected String toSqlLiteral(BigDecimal value)
+    {
+        return value.toPlainString();
+    }
+}
@@ -0,0 +1,104 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.splits;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * Base for splitters over continuous domains (decimals, timestamps) where ranges cannot be made closed without gaps.
+ * Each split covers [lower bound, next lower bound) and the last split covers [lower bound, high]. Lower bounds that
+ * collapse onto their predecessor (e.g. because of rounding on a narrow range) are dropped, so fewer splits than
+ * requested may be produced but never empty or overlapping ones.
+ *
+ * @param <T> split column value type.
+ */
+abstract class HalfOpenRangeSplitter<T extends Comparable<? super T>>
+        implements Splitter<T>
+{
+    private final SplitInfo<T> splitInfo;
+    private final List<T> lowerBounds = new ArrayList<>();
+    private int current;
+
+    /**
+     * @param splitInfo split information. E.g. split range, expected splits, column name.
+     * @param boundary provides the i-th interpolated lower bound for 0 < i < numSplits.
+     */
+    HalfOpenRangeSplitter(SplitInfo<T> splitInfo, IntFunction<T> boundary)
+    {
+        this.splitInfo = Validate.notNull(splitInfo);
+        T low = splitInfo.getSplitRange().getLow();
+        T high = splitInfo.getSplitRange().getHigh();
+        Validate.isTrue(high.compareTo(low) >= 0, "high is lower than low");
+
+        this.lowerBounds.add(low);
+        for (int i = 1; i < splitInfo.getNumSplits(); i++) {
+            T bound = boundary.apply(i);
+            if (bound.compareTo(this.lowerBounds.get(this.lowerBounds.size() - 1)) > 0 && bound.compareTo(high) <= 0) {
+                this.lowerBounds.add(bound);
+            }
+        }
+    }
+
+    /**
+     * @param value split column value.
+     * @return SQL literal for the value.
+     */
+    protected abstract String toSqlLiteral(T value);
+
+    @Override
+    public boolean hasNext()
+    {
+        return this.current < this.lowerBounds.size();
+    }
+
+    @Override
+    public SplitRange<T> next()
+    {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T low = this.lowerBounds.get(this.current);
+        this.current++;
+        T high = hasNext() ? this.lowerBounds.get(this.current) : this.splitInfo.getSplitRange().getHigh();
+        return new SplitRange<>(low, high);
+    }
+
+    @Override
+    public String nextRangeClause()
+    {
+        SplitRange<T> splitRange = next();
+        String upperOperator = hasNext() ? "<" : "<=";
+        return String.format("(%s >= %s AND %s %s %s)", this.splitInfo.getColumnName(), toSqlLiteral(splitRange.getLow()),
+                this.splitInfo.getColumnName(), upperOperator, toSqlLiteral(splitRange.getHigh()));
+    }
+
+    @Override
+    public String nextUnboundedRangeClause()
+    {
+        SplitRange<T> splitRange = next();
+        return RangeClauses.unbounded(this.splitInfo.getColumnName(), this.current == 1, toSqlLiteral(splitRange.getLow()), !hasNext(), "<",
+                toSqlLiteral(splitRange.getHigh()));
+    }
+}
@@ -98,4 +98,12 @@ public class IntegerSplitter
         SplitRange<Integer> splitRange = next();
         return String.format("(%s >= %s AND %s <= %s)", this.splitInfo.getColumnName(), splitRange.getLow(), splitInfo.getColumnName(), splitRange.getHigh());
     }
+
+    @Override
+    public String nextUnboundedRangeClause()
+    {
+        SplitRange<Integer> splitRange = next();
+        return RangeClauses.unbounded(this.splitInfo.getColumnName(), splitRange.getLow().equals(this.splitInfo.getSplitRange().getLow()),
+                String.valueOf(splitRange.getLow()), !hasNext(), "<=", String.valueOf(splitRange.getHigh()));
+    }
 }
@@ -0,0 +1,100 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.splits;
+
+import org.apache.commons.lang3.Validate;
+
+import java.math.BigInteger;
+import java.util.NoSuchElementException;
+
+/**
+ * Long splits iterator. Follows the same contract as {@link IntegerSplitter}: closed, contiguous ranges where the first
+ * `r` splits absorb the remainder. Arithmetic is carried out on {@link BigInteger} so that ranges spanning most of the
+ * long domain (e.g. [Long.MIN_VALUE, Long.MAX_VALUE]) do not overflow.
+ */
+public class LongSplitter
+        implements Splitter<Long>
+{
+    private final SplitInfo<Long> splitInfo;
+    private final BigInteger high;
+    private final BigInteger step;
+    private final long remainder;
+    private BigInteger current;
+    private int currentSplit;
+
+    /**
+     * @param splitInfo split information. E.g. split range, expected splits, column name.
+     */
+    public LongSplitter(SplitInfo<Long> splitInfo)
+    {
+        this.splitInfo = Validate.notNull(splitInfo);
+        Validate.isTrue(splitInfo.getSplitRange().getHigh() >= splitInfo.getSplitRange().getLow(), "high is lower than low");
+        this.current = BigInteger.valueOf(splitInfo.getSplitRange().getLow());
+        this.high = BigInteger.valueOf(splitInfo.getSplitRange().getHigh());
+
+        BigInteger diff = this.high.subtract(this.current).add(BigInteger.ONE);
+        BigInteger[] stepAndRemainder = diff.divideAndRemainder(BigInteger.valueOf(splitInfo.getNumSplits()));
+        this.step = stepAndRemainder[0];
+        this.remainder = stepAndRemainder[1].longValue();
+        this.currentSplit = 1;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        return this.current.compareTo(this.high) <= 0;
+    }
+
+    @Override
+    public SplitRange<Long> next()
+    {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        // subtraction due to closed interval and inclusive endpoints.
+        BigInteger splitHigh = this.current.add(this.step).subtract(BigInteger.ONE);
+        if (this.remainder >= this.currentSplit) {
+            splitHigh = splitHigh.add(BigInteger.ONE);
+        }
+        splitHigh = splitHigh.min(this.high);
+        BigInteger low = this.current;
+
+        this.current = splitHigh.add(BigInteger.ONE);
+        this.currentSplit++;
+
+        return new SplitRange<>(low.longValueExact(), splitHigh.longValueExact());
+    }
+
+    @Override
+    public String nextRangeClause()
+    {
+        SplitRange<Long> splitRange = next();
+        return String.format("(%s >= %s AND %s <= %s)", this.splitInfo.getColumnName(), splitRange.getLow(), splitInfo.getColumnName(), splitRange.getHigh());
+    }
+
+    @Override
+    public String nextUnboundedRangeClause()
+    {
+        SplitRange<Long> splitRange = next();
+        return RangeClauses.unbounded(this.splitInfo.getColumnName(), splitRange.getLow().equals(this.splitInfo.getSplitRange().getLow()),
+                String.valueOf(splitRange.getLow()), !hasNext(), "<=", String.valueOf(splitRange.getHigh()));
+    }
+}
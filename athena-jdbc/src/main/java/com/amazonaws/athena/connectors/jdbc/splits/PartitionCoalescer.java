@@ -0,0 +1,78 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.splits;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups partitions into splits using their estimated row counts, so that tables with many small partitions are read by a
+ * handful of splits rather than one per partition.
+ *
+ * Example: rowsPerSplit = 100, partitions p1..p5 with 40, 50, 30, 500 and unknown rows
+ *  Groups = [p1,p2], [p3], [p4], [p5] // p3 would overflow the first group, p4 is large and p5 has no statistics.
+ */
+public final class PartitionCoalescer
+{
+    private PartitionCoalescer() {}
+
+    /**
+     * @param partitions partitions in the order they should be read.
+     * @param rowCounts estimated row count per partition, partitions without an entry are never coalesced.
+     * @param rowsPerSplit maximum estimated rows of a coalesced group.
+     * @param maxPartitionsPerSplit maximum number of partitions in a group, bounds the generated SQL.
+     * @param <T> partition identifier type.
+     * @return consecutive groups covering every partition exactly once.
+     */
+    public static <T> List<List<T>> coalesce(final List<T> partitions, final Map<T, Long> rowCounts, final long rowsPerSplit, final int maxPartitionsPerSplit)
+    {
+        Validate.isTrue(maxPartitionsPerSplit > 0, "maxPartitionsPerSplit must be positive");
+        List<List<T>> groups = new ArrayList<>();
+        List<T> current = new ArrayList<>();
+        long currentRows = 0;
+        for (T partition : partitions) {
+            Long rows = rowCounts.get(partition);
+            if (rows == null || rows < 0 || rows >= rowsPerSplit) {
+                if (!current.isEmpty()) {
+                    groups.add(current);
+                    current = new ArrayList<>();
+                    currentRows = 0;
+                }
+                groups.add(Collections.singletonList(partition));
+                continue;
+            }
+            if (!current.isEmpty() && (currentRows + rows > rowsPerSplit || current.size() >= maxPartitionsPerSplit)) {
+                groups.add(current);
+                current = new ArrayList<>();
+                currentRows = 0;
+            }
+            current.add(partition);
+            currentRows += rows;
+        }
+        if (!current.isEmpty()) {
+            groups.add(current);
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,51 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.splits;
+
+/**
+ * Formats the clauses of a sequence of contiguous split ranges, see {@link Splitter#nextUnboundedRangeClause()}.
+ */
+final class RangeClauses
+{
+    private RangeClauses() {}
+
+    /**
+     * @param column split column name.
+     * @param first whether the range is the first one, which is left unbounded below.
+     * @param low SQL literal of the lower bound, inclusive.
+     * @param last whether the range is the last one, which is left unbounded above.
+     * @param upperOperator comparison operator of the upper bound, < or <=.
+     * @param high SQL literal of the upper bound.
+     * @return SQL clause for the range.
+     */
+    static String unbounded(String column, boolean first, String low, boolean last, String upperOperator, String high)
+    {
+        if (first && last) {
+            return String.format("%s IS NOT NULL", column);
+        }
+        if (first) {
+            return String.format("%s %s %s", column, upperOperator, high);
+        }
+        if (last) {
+            return String.format("%s >= %s", column, low);
+        }
+        return String.format("(%s >= %s AND %s %s %s)", column, low, column, upperOperator, high);
+    }
+}
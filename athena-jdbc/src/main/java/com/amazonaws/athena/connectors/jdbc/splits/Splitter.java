@@ -34,4 +34,13 @@ public interface Splitter<T>
      * @return SQL clause for the range, both endpoints inclusive.
      */
     String nextRangeClause();
+
+    /**
+     * Provides the next split clause to be used in SQL queries. Unlike {@link #nextRangeClause()} the first range is left
+     * unbounded below and the last range unbounded above, so that together the clauses also match values outside of the
+     * range the splitter was created with, e.g. rows written after the range was read.
+     *
+     * @return SQL clause for the range.
+     */
+    String nextUnboundedRangeClause();
 }
@@ -19,8 +19,12 @@
  */
 package com.amazonaws.athena.connectors.jdbc.splits;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.Optional;
 
@@ -29,11 +33,34 @@ import java.util.Optional;
  */
 public class SplitterFactory
 {
+    private static final int LONG_BITS = 63;
+
+    /**
+     * @param jdbcType JDBC column type. See {@link Types}.
+     * @return true if {@link #getSplitter(String, ResultSet, int)} can create a splitter for columns of the given type.
+     */
+    public boolean isSplittable(final int jdbcType)
+    {
+        switch (jdbcType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+            case Types.DATE:
+            case Types.TIMESTAMP:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     /**
      * @param columnName split column name.
      * @param resultSet split min and max values.
      * @param maxSplits number of splits.
-     * @return {@link Splitter} optional.
+     * @return {@link Splitter} optional. Empty if the column type is not splittable or the table has no non-null values.
      * @throws SQLException exception accessing min and max values from {@link ResultSet}.
      */
     public Optional<Splitter> getSplitter(final String columnName, final ResultSet resultSet, final int maxSplits)
@@ -41,10 +68,92 @@ public class SplitterFactory
     {
         int type = resultSet.getMetaData().getColumnType(1);
         switch (type) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
             case Types.INTEGER:
-                return Optional.of(new IntegerSplitter(new SplitInfo<>(new SplitRange<>(resultSet.getInt(1), resultSet.getInt(2)), columnName, type, maxSplits)));
+                return getIntegerSplitter(columnName, type, resultSet, maxSplits);
+            case Types.BIGINT:
+                return getLongSplitter(columnName, type, resultSet, maxSplits);
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return getDecimalSplitter(columnName, type, resultSet, maxSplits);
+            case Types.DATE:
+                return getDateSplitter(columnName, type, resultSet, maxSplits);
+            case Types.TIMESTAMP:
+                return getTimestampSplitter(columnName, type, resultSet, maxSplits);
             default:
                return Optional.empty();
         }
     }
+
+    private Optional<Splitter> getIntegerSplitter(final String columnName, final int type, final ResultSet resultSet, final int maxSplits)
+            throws SQLException
+    {
+        int low = resultSet.getInt(1);
+        int high = resultSet.getInt(2);
+        if (resultSet.wasNull()) {
+            return Optional.empty();
+        }
+        return Optional.of(new IntegerSplitter(new SplitInfo<>(new SplitRange<>(low, high), columnName, type, maxSplits)));
+    }
+
+    private Optional<Splitter> getLongSplitter(final String columnName, final int type, final ResultSet resultSet, final int maxSplits)
+            throws SQLException
+    {
+        long low = resultSet.getLong(1);
+        long high = resultSet.getLong(2);
+        if (resultSet.wasNull()) {
+            return Optional.empty();
+        }
+        return Optional.of(new LongSplitter(new SplitInfo<>(new SplitRange<>(low, high), columnName, type, maxSplits)));
+    }
+
+    private Optional<Splitter> getDecimalSplitter(final String columnName, final int type, final ResultSet resultSet, final int maxSplits)
+            throws SQLException
+    {
+        BigDecimal low = resultSet.getBigDecimal(1);
+        BigDecimal high = resultSet.getBigDecimal(2);
+        if (low == null || high == null) {
+            return Optional.empty();
+        }
+        // integral columns get closed integer ranges, fractional ones half-open decimal ranges
+        if (resultSet.getMetaData().getScale(1) == 0 && fitsLong(low) && fitsLong(high)) {
+            return Optional.of(new LongSplitter(new SplitInfo<>(new SplitRange<>(low.longValueExact(), high.longValueExact()), columnName, type, maxSplits)));
+        }
+        return Optional.of(new DecimalSplitter(new SplitInfo<>(new SplitRange<>(low, high), columnName, type, maxSplits)));
+    }
+
+    private Optional<Splitter> getDateSplitter(final String columnName, final int type, final ResultSet resultSet, final int maxSplits)
+            throws SQLException
+    {
+        Date low = resultSet.getDate(1);
+        Date high = resultSet.getDate(2);
+        if (low == null || high == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new DateSplitter(new SplitInfo<>(new SplitRange<>(low.toLocalDate(), high.toLocalDate()), columnName, type, maxSplits)));
+    }
+
+    private Optional<Splitter> getTimestampSplitter(final String columnName, final int type, final ResultSet resultSet, final int maxSplits)
+            throws SQLException
+    {
+        Timestamp low = resultSet.getTimestamp(1);
+        Timestamp high = resultSet.getTimestamp(2);
+        if (low == null || high == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new TimestampSplitter(new SplitInfo<>(new SplitRange<>(low.toLocalDateTime(), high.toLocalDateTime()), columnName, type, maxSplits)));
+    }
+
+    private static boolean fitsLong(final BigDecimal value)
+    {
+        if (value.signum() == 0) {
+            return true;
+        }
+        if (value.stripTrailingZeros().scale() > 0) {
+            return false;
+        }
+        BigInteger integral = value.toBigIntegerExact();
+        return integral.bitLength() <= LONG_BITS;
+    }
 }
@@ -0,0 +1,55 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.splits;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Timestamp splits iterator. Lower bounds are evenly interpolated between low and high and truncated to milliseconds.
+ * See {@link HalfOpenRangeSplitter} for the range semantics. Range clauses use the JDBC timestamp escape
+ * ({ts 'yyyy-mm-dd hh:mm:ss.fffffffff'}) which every supported driver translates into its native timestamp literal.
+ */
+public class TimestampSplitter
+        extends HalfOpenRangeSplitter<LocalDateTime>
+{
+    /**
+     * @param splitInfo split information. E.g. split range, expected splits, column name.
+     */
+    public TimestampSplitter(SplitInfo<LocalDateTime> splitInfo)
+    {
+        super(splitInfo, i -> interpolate(splitInfo, i));
+    }
+
+    private static LocalDateTime interpolate(SplitInfo<LocalDateTime> splitInfo, int i)
+    {
+        LocalDateTime low = splitInfo.getSplitRange().getLow();
+        Duration span = Duration.between(low, splitInfo.getSplitRange().getHigh());
+        return low.plus(span.multipliedBy(i).dividedBy(splitInfo.getNumSplits())).truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    @Override
+    protected String toSqlLiteral(LocalDateTime value)
+    {
+        return String.format("{ts '%s'}", Timestamp.valueOf(value));
+    }
+}
@@ -27,13 +27,17 @@ import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.metadata.GetSplitsRequest;
 import com.amazonaws.athena.connector.lambda.metadata.GetTableLayoutRequest;
 import com.amazonaws.athena.connector.lambda.metadata.GetTableRequest;
+import com.amazonaws.athena.connector.lambda.metadata.GetTableResponse;
 import com.amazonaws.athena.connector.lambda.metadata.ListSchemasRequest;
 import com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest;
 import com.amazonaws.athena.connectors.jdbc.connection.DatabaseConnectionConfig;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcConnectionFactory;
+import com.amazonaws.athena.connectors.jdbc.manager.JdbcMetadataCache;
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcMetadataHandler;
 import com.amazonaws.services.athena.AmazonAthena;
 import com.amazonaws.services.secretsmanager.AWSSecretsManager;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -101,6 +105,27 @@ public class MultiplexingJdbcMetadataHandlerTest
         Mockito.verify(this.fakeDatabaseHandler, Mockito.times(1)).doGetTable(Mockito.eq(this.allocator), Mockito.eq(getTableRequest));
     }
 
+    @Test
+    public void doGetTableCached()
+            throws Exception
+    {
+        DatabaseConnectionConfig databaseConnectionConfig = new DatabaseConnectionConfig("testCatalog", "fakedatabase",
+                "fakedatabase://jdbc:fakedatabase://hostname/${testSecret}", "testSecret");
+        JdbcMetadataHandler cachingHandler = new MultiplexingJdbcMetadataHandler(this.secretsManager, this.athena, this.jdbcConnectionFactory,
+                this.metadataHandlerMap, databaseConnectionConfig, ImmutableMap.of(JdbcMetadataCache.METADATA_CACHE_TTL_MS, "60000"));
+        Mockito.verify(this.fakeDatabaseHandler).setMetadataCache(Mockito.any(JdbcMetadataCache.class));
+
+        GetTableRequest getTableRequest = Mockito.mock(GetTableRequest.class);
+        Mockito.when(getTableRequest.getCatalogName()).thenReturn("fakedatabase");
+        Mockito.when(getTableRequest.getTableName()).thenReturn(new TableName("testSchema", "testTable"));
+        GetTableResponse getTableResponse = Mockito.mock(GetTableResponse.class);
+        Mockito.when(this.fakeDatabaseHandler.doGetTable(this.allocator, getTableRequest)).thenReturn(getTableResponse);
+
+        Assert.assertSame(getTableResponse, cachingHandler.doGetTable(this.allocator, getTableRequest));
+        Assert.assertSame(getTableResponse, cachingHandler.doGetTable(this.allocator, getTableRequest));
+        Mockito.verify(this.fakeDatabaseHandler, Mockito.times(1)).doGetTable(Mockito.eq(this.allocator), Mockito.eq(getTableRequest));
+    }
+
     @Test
     public void doGetTableLayout()
             throws Exception
@@ -0,0 +1,330 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.connection;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class PooledJdbcConnectionFactoryTest
+{
+    private final JdbcCredentialProvider credentialProvider = new StaticJdbcCredentialProvider(new JdbcCredential("testUser", "testPassword"));
+    private final JdbcCredentialProvider rotatedCredentialProvider = new StaticJdbcCredentialProvider(new JdbcCredential("testUser", "rotatedPassword"));
+    private JdbcConnectionFactory delegate;
+
+    @Before
+    public void setup()
+            throws Exception
+    {
+        delegate = Mockito.mock(JdbcConnectionFactory.class);
+        Mockito.when(delegate.getConnection(Mockito.any())).thenAnswer(invocation -> newPhysicalConnection());
+    }
+
+    @Test
+    public void reusesConnections()
+            throws Exception
+    {
+        PooledJdbcConnectionFactory factory = new PooledJdbcConnectionFactory(delegate, 2, 60_000);
+
+        Connection first = factory.getConnection(credentialProvider);
+        Connection physical = first.unwrap(Connection.class);
+        first.close();
+        Assert.assertTrue(first.isClosed());
+        Assert.assertEquals(1, factory.getIdleConnectionCount());
+        Mockito.verify(physical, Mockito.never()).close();
+        Mockito.verify(physical).rollback();
+        Mockito.verify(physical).setAutoCommit(true);
+
+        Connection second = factory.getConnection(credentialProvider);
+        Assert.assertFalse(second.isClosed());
+        Assert.assertSame(physical, second.unwrap(Connection.class));
+        Mockito.verify(delegate, Mockito.times(1)).getConnection(Mockito.any());
+        second.close();
+    }
+
+    @Test
+    public void discardsInvalidConnections()
+            throws Exception
+    {
+        PooledJdbcConnectionFactory factory = new PooledJdbcConnectionFactory(delegate, 2, 60_000);
+
+        Connection first = factory.getConnection(credentialProvider);
+        Connection physical = first.unwrap(Connection.class);
+        first.close();
+        Mockito.when(physical.isValid(Mockito.anyInt())).thenReturn(false);
+
+        Connection second = factory.getConnection(credentialProvider);
+        Assert.assertNotSame(physical, second.unwrap(Connection.class));
+        Mockito.verify(physical).close();
+        Mockito.verify(delegate, Mockito.times(2)).getConnection(Mockito.any());
+    }
+
+    @Test
+    public void discardsConnectionsWithNetworkTimeout()
+            throws Exception
+    {
+        PooledJdbcConnectionFactory factory = new PooledJdbcConnectionFactory(delegate, 2, 60_000);
+
+        Connection first = factory.getConnection(credentialProvider);
+        Connection physical = first.unwrap(Connection.class);
+        first.setNetworkTimeout(Runnable::run, 1000);
+        first.close();
+
+        Assert.assertEquals(0, factory.getIdleConnectionCount());
+        Mockito.verify(physical).close();
+    }
+
+    @Test
+    public void evictsOnRotationAndExpiry()
+            throws Exception
+    {
+        PooledJdbcConnectionFactory factory = new PooledJdbcConnectionFactory(delegate, 2, 60_000);
+        Connection first = factory.getConnection(credentialProvider);
+        Connection physical = first.unwrap(Connection.class);
+        first.close();
+
+        Connection rotated = factory.getConnection(rotatedCredentialProvider);
+        Mockito.verify(physical).close();
+        Assert.assertNotSame(physical, rotated.unwrap(Connection.class));
+        rotated.close();
+
+        PooledJdbcConnectionFactory expiring = new PooledJdbcConnectionFactory(delegate, 2, -1);
+        Connection expired = expiring.getConnection(credentialProvider);
+        Connection expiredPhysical = expired.unwrap(Connection.class);
+        expired.close();
+        expiring.getConnection(credentialProvider).close();
+        Mockito.verify(expiredPhysical).close();
+    }
+
+    @Test
+    public void limitsIdleConnections()
+            throws Exception
+    {
+        PooledJdbcConnectionFactory factory = new PooledJdbcConnectionFactory(delegate, 1, 60_000);
+        Connection first = factory.getConnection(credentialProvider);
+        Connection second = factory.getConnection(credentialProvider);
+        Connection secondPhysical = second.unwrap(Connection.class);
+        first.close();
+        second.close();
+
+        Assert.assertEquals(1, factory.getIdleConnectionCount());
+        Mockito.verify(secondPhysical).close();
+
+        factory.close();
+        Assert.assertEquals(0, factory.getIdleConnectionCount());
+    }
+
+    @Test
+    public void limitsOpenConnections()
+            throws Exception
+    {
+        PooledJdbcConnectionFactory factory = new PooledJdbcConnectionFactory(delegate, 1, 60_000, 0, 1, 10_000);
+        Connection first = factory.getConnection(credentialProvider);
+        Connection physical = first.unwrap(Connection.class);
+        Assert.assertEquals(1, factory.getOpenConnectionCount());
+
+        // A second caller waits for the first connection to be returned and then reuses it
+        CompletableFuture<Connection> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return factory.getConnection(credentialProvider);
+            }
+            catch (Exception ex) {
+                throw new RuntimeException(ex);
+            }
+        });
+        Thread.sleep(100);
+        Assert.assertFalse(second.isDone());
+        first.close();
+        Assert.assertSame(physical, second.get(10, TimeUnit.SECONDS).unwrap(Connection.class));
+        Mockito.verify(delegate, Mockito.times(1)).getConnection(Mockito.any());
+
+        // Closing a connection instead of returning it frees its slot
+        second.get().setNetworkTimeout(Runnable::run, 1000);
+        second.get().close();
+        Assert.assertEquals(0, factory.getOpenConnectionCount());
+        factory.getConnection(credentialProvider).close();
+        Assert.assertEquals(1, factory.getOpenConnectionCount());
+    }
+
+    @Test(expected = SQLException.class)
+    public void failsWhenNoConnectionIsReturnedInTime()
+            throws Exception
+    {
+        PooledJdbcConnectionFactory factory = new PooledJdbcConnectionFactory(delegate, 1, 60_000, 0, 1, 10);
+        factory.getConnection(credentialProvider);
+        factory.getConnection(credentialProvider);
+    }
+
+    @Test
+    public void restoresSettingsOnReturn()
+            throws Exception
+    {
+        PooledJdbcConnectionFactory factory = new PooledJdbcConnectionFactory(delegate, 1, 60_000);
+        Connection connection = factory.getConnection(credentialProvider);
+        Connection physical = connection.unwrap(Connection.class);
+        Mockito.when(physical.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_READ_COMMITTED);
+        Mockito.when(physical.isReadOnly()).thenReturn(false);
+        Mockito.when(physical.getCatalog()).thenReturn("testCatalog");
+
+        connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        connection.setReadOnly(true);
+        connection.setCatalog("otherCatalog");
+        connection.setCatalog("anotherCatalog");
+        connection.close();
+
+        Mockito.verify(physical).setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        Mockito.verify(physical).setReadOnly(false);
+        Mockito.verify(physical).setCatalog("testCatalog");
+        Mockito.verify(physical, Mockito.times(1)).getCatalog();
+
+        // Settings which were not changed are left alone
+        factory.getConnection(credentialProvider).close();
+        Mockito.verify(physical, Mockito.times(1)).setReadOnly(false);
+    }
+
+    @Test
+    public void cachesStatementsAcrossBorrows()
+            throws Exception
+    {
+        PooledJdbcConnectionFactory factory = new PooledJdbcConnectionFactory(delegate, 1, 60_000, 4);
+
+        Connection first = factory.getConnection(credentialProvider);
+        Connection physical = first.unwrap(Connection.class);
+        Mockito.when(physical.prepareStatement(Mockito.anyString())).thenAnswer(invocation -> Mockito.mock(PreparedStatement.class));
+        PreparedStatement statement = first.prepareStatement("SELECT 1");
+        Assert.assertSame(first, statement.getConnection());
+        statement.close();
+        first.close();
+
+        Connection second = factory.getConnection(credentialProvider);
+        second.prepareStatement("SELECT 1").close();
+        second.close();
+        Mockito.verify(physical, Mockito.times(1)).prepareStatement("SELECT 1");
+    }
+
+    @Test
+    public void wrapsEveryStatementFactoryMethod()
+            throws Exception
+    {
+        PooledJdbcConnectionFactory factory = new PooledJdbcConnectionFactory(delegate, 1, 60_000);
+        Connection connection = factory.getConnection(credentialProvider);
+        Connection physical = connection.unwrap(Connection.class);
+        Mockito.when(physical.createStatement()).thenAnswer(invocation -> Mockito.mock(Statement.class));
+        Mockito.when(physical.prepareStatement(Mockito.anyString())).thenAnswer(invocation -> Mockito.mock(PreparedStatement.class));
+        Mockito.when(physical.prepareStatement(Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenAnswer(invocation -> Mockito.mock(PreparedStatement.class));
+        Mockito.when(physical.prepareCall(Mockito.anyString())).thenAnswer(invocation -> Mockito.mock(CallableStatement.class));
+
+        Assert.assertSame(connection, connection.createStatement().getConnection());
+        Assert.assertSame(connection, connection.prepareStatement("SELECT 1").getConnection());
+        Assert.assertSame(connection, connection.prepareStatement("SELECT 1", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY).getConnection());
+        Assert.assertSame(connection, connection.prepareCall("{call test()}").getConnection());
+        connection.close();
+    }
+
+    @Test
+    public void closesOpenStatementsOnReturn()
+            throws Exception
+    {
+        PooledJdbcConnectionFactory factory = new PooledJdbcConnectionFactory(delegate, 1, 60_000, 4);
+        Connection first = factory.getConnection(credentialProvider);
+        Connection physical = first.unwrap(Connection.class);
+        Statement statement = Mockito.mock(Statement.class);
+        Mockito.when(physical.createStatement()).thenReturn(statement);
+        Mockito.when(physical.prepareStatement(Mockito.anyString())).thenAnswer(invocation -> Mockito.mock(PreparedStatement.class));
+
+        Statement leaked = first.createStatement();
+        first.prepareStatement("SELECT 1");
+        first.close();
+        Mockito.verify(statement).close();
+        Assert.assertTrue(leaked.isClosed());
+
+        // The cached statement left open was returned to the cache rather than kept in use
+        Connection second = factory.getConnection(credentialProvider);
+        second.prepareStatement("SELECT 1").close();
+        second.close();
+        Mockito.verify(physical, Mockito.times(1)).prepareStatement("SELECT 1");
+    }
+
+    @Test
+    public void closesEvictedConnectionsOutsideTheLock()
+            throws Exception
+    {
+        PooledJdbcConnectionFactory factory = new PooledJdbcConnectionFactory(delegate, 2, -1);
+        Connection expired = factory.getConnection(credentialProvider);
+        Connection physical = expired.unwrap(Connection.class);
+        AtomicBoolean closedUnderLock = new AtomicBoolean();
+        Mockito.doAnswer(invocation -> {
+            closedUnderLock.set(Thread.holdsLock(factory));
+            return null;
+        }).when(physical).close();
+        expired.close();
+
+        factory.getConnection(credentialProvider).close();
+        Mockito.verify(physical).close();
+        Assert.assertFalse(closedUnderLock.get());
+    }
+
+    @Test(expected = SQLException.class)
+    public void rejectsUseAfterClose()
+            throws Exception
+    {
+        Connection connection = new PooledJdbcConnectionFactory(delegate, 1, 60_000).getConnection(null);
+        connection.close();
+        connection.createStatement();
+    }
+
+    @Test
+    public void wrapIfEnabled()
+    {
+        Assert.assertSame(delegate, PooledJdbcConnectionFactory.wrapIfEnabled(delegate, Collections.emptyMap()));
+        Assert.assertTrue(PooledJdbcConnectionFactory.wrapIfEnabled(delegate,
+                ImmutableMap.of(PooledJdbcConnectionFactory.POOL_SIZE_PROPERTY, "4")) instanceof PooledJdbcConnectionFactory);
+
+        // The pool size of a catalog overrides the connector's
+        Map<String, String> configOptions = ImmutableMap.of(PooledJdbcConnectionFactory.POOL_SIZE_PROPERTY, "4",
+                "mycatalog_" + PooledJdbcConnectionFactory.POOL_SIZE_PROPERTY, "0");
+        Assert.assertSame(delegate, PooledJdbcConnectionFactory.wrapIfEnabled(delegate, configOptions, "mycatalog"));
+        Assert.assertTrue(PooledJdbcConnectionFactory.wrapIfEnabled(delegate, configOptions, "othercatalog") instanceof PooledJdbcConnectionFactory);
+    }
+
+    private static Connection newPhysicalConnection()
+            throws SQLException
+    {
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.isValid(Mockito.anyInt())).thenReturn(true);
+        Mockito.when(connection.unwrap(Connection.class)).thenReturn(connection);
+        return connection;
+    }
+}
@@ -0,0 +1,143 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.connection;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class PreparedStatementCacheTest
+{
+    private Connection connection;
+    private Connection owner;
+
+    @Before
+    public void setup()
+            throws SQLException
+    {
+        connection = Mockito.mock(Connection.class);
+        owner = Mockito.mock(Connection.class);
+        Mockito.when(connection.prepareStatement(Mockito.anyString())).thenAnswer(invocation -> newPhysicalStatement());
+    }
+
+    @Test
+    public void reusesStatements()
+            throws SQLException
+    {
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 2);
+
+        PreparedStatement first = cache.prepare("SELECT * FROM t WHERE id = ?", owner);
+        PreparedStatement physical = first.unwrap(PreparedStatement.class);
+        Assert.assertSame(owner, first.getConnection());
+        first.setLong(1, 1L);
+        first.setFetchSize(1000);
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(physical.getResultSet()).thenReturn(resultSet);
+        first.close();
+        Assert.assertTrue(first.isClosed());
+        Mockito.verify(physical, Mockito.never()).close();
+        Mockito.verify(resultSet).close();
+        Mockito.verify(physical).clearParameters();
+
+        PreparedStatement second = cache.prepare("  SELECT * FROM t WHERE id = ?\n", owner);
+        Assert.assertSame(physical, second.unwrap(PreparedStatement.class));
+        Mockito.verify(connection, Mockito.times(1)).prepareStatement(Mockito.anyString());
+        second.close();
+    }
+
+    @Test
+    public void doesNotShareStatementsInUse()
+            throws SQLException
+    {
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 2);
+
+        PreparedStatement first = cache.prepare("SELECT 1", owner);
+        PreparedStatement second = cache.prepare("SELECT 1", owner);
+        PreparedStatement uncached = second.unwrap(PreparedStatement.class);
+        Assert.assertNotSame(first.unwrap(PreparedStatement.class), uncached);
+        Assert.assertEquals(1, cache.size());
+
+        first.close();
+        second.close();
+        Mockito.verify(uncached).close();
+    }
+
+    @Test
+    public void closesCancelledStatements()
+            throws SQLException
+    {
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 2);
+
+        PreparedStatement first = cache.prepare("SELECT 1", owner);
+        PreparedStatement physical = first.unwrap(PreparedStatement.class);
+        first.cancel();
+        first.close();
+
+        Mockito.verify(physical).close();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNotSame(physical, cache.prepare("SELECT 1", owner).unwrap(PreparedStatement.class));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed()
+            throws SQLException
+    {
+        PreparedStatementCache cache = new PreparedStatementCache(connection, 2);
+
+        PreparedStatement first = cache.prepare("SELECT 1", owner);
+        PreparedStatement firstPhysical = first.unwrap(PreparedStatement.class);
+        first.close();
+        cache.prepare("SELECT 2", owner).close();
+        // Evicted while in use, closed once released
+        PreparedStatement inUse = cache.prepare("SELECT 3", owner);
+        PreparedStatement inUsePhysical = inUse.unwrap(PreparedStatement.class);
+        cache.prepare("SELECT 4", owner).close();
+        cache.prepare("SELECT 5", owner).close();
+
+        Mockito.verify(firstPhysical).close();
+        Mockito.verify(inUsePhysical, Mockito.never()).close();
+        inUse.close();
+        Mockito.verify(inUsePhysical).close();
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test(expected = SQLException.class)
+    public void rejectsUseAfterClose()
+            throws SQLException
+    {
+        PreparedStatement statement = new PreparedStatementCache(connection, 1).prepare("SELECT 1", owner);
+        statement.close();
+        statement.executeQuery();
+    }
+
+    private static PreparedStatement newPhysicalStatement()
+            throws SQLException
+    {
+        PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(statement.unwrap(PreparedStatement.class)).thenReturn(statement);
+        return statement;
+    }
+}
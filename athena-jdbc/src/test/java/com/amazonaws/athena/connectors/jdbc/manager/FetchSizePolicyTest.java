@@ -0,0 +1,120 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.manager;
+
+import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class FetchSizePolicyTest
+{
+    private static final Schema SCHEMA = SchemaBuilder.newBuilder()
+            .addField("id", Types.MinorType.BIGINT.getType())
+            .addField("name", Types.MinorType.VARCHAR.getType())
+            .build();
+
+    @Test
+    public void getFetchSize()
+    {
+        FetchSizePolicy policy = new FetchSizePolicy(100, 10_000);
+        Assert.assertEquals(72, FetchSizePolicy.estimateRowBytes(SCHEMA));
+        Assert.assertEquals(1000, policy.getFetchSize(SCHEMA, 72_000));
+        Assert.assertEquals(100, policy.getFetchSize(SCHEMA, 72));
+        Assert.assertEquals(10_000, policy.getFetchSize(SCHEMA, 72_000_000));
+    }
+
+    @Test
+    public void growWhileThroughputImproves()
+            throws SQLException
+    {
+        AtomicLong clock = new AtomicLong();
+        FetchSizePolicy policy = new FetchSizePolicy(100, 800, clock::get);
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        FetchSizePolicy.Tuner tuner = policy.newTuner(resultSet, 100);
+
+        // Each window reads two fetches worth of rows, at one nanosecond per row plus 100 per fetch.
+        readWindow(tuner, clock, 100, 100);
+        Assert.assertEquals(200, tuner.getFetchSize());
+        readWindow(tuner, clock, 200, 100);
+        Assert.assertEquals(400, tuner.getFetchSize());
+        readWindow(tuner, clock, 400, 100);
+        Assert.assertEquals(800, tuner.getFetchSize());
+        readWindow(tuner, clock, 800, 100);
+        Assert.assertEquals(800, tuner.getFetchSize());
+
+        Mockito.verify(resultSet).setFetchSize(200);
+        Mockito.verify(resultSet).setFetchSize(400);
+        Mockito.verify(resultSet).setFetchSize(800);
+        Mockito.verifyNoMoreInteractions(resultSet);
+    }
+
+    @Test
+    public void revertWhenThroughputDoesNotImprove()
+            throws SQLException
+    {
+        AtomicLong clock = new AtomicLong();
+        FetchSizePolicy policy = new FetchSizePolicy(100, 800, clock::get);
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        FetchSizePolicy.Tuner tuner = policy.newTuner(resultSet, 100);
+
+        readWindow(tuner, clock, 100, 0);
+        Assert.assertEquals(200, tuner.getFetchSize());
+        readWindow(tuner, clock, 200, 0);
+        Assert.assertEquals(100, tuner.getFetchSize());
+        // Settled
+        readWindow(tuner, clock, 100, 1000);
+        Assert.assertEquals(100, tuner.getFetchSize());
+
+        Mockito.verify(resultSet).setFetchSize(200);
+        Mockito.verify(resultSet).setFetchSize(100);
+        Mockito.verifyNoMoreInteractions(resultSet);
+    }
+
+    @Test
+    public void streamingIsNotTuned()
+            throws SQLException
+    {
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        FetchSizePolicy.Tuner tuner = new FetchSizePolicy(100, 800).newTuner(resultSet, Integer.MIN_VALUE);
+        for (int i = 0; i < 10_000; i++) {
+            tuner.onRow();
+        }
+        Mockito.verifyNoInteractions(resultSet);
+    }
+
+    private static void readWindow(FetchSizePolicy.Tuner tuner, AtomicLong clock, int fetchSize, long nanosPerFetch)
+            throws SQLException
+    {
+        for (int i = 0; i < 2 * fetchSize; i++) {
+            clock.addAndGet(1);
+            if (i % fetchSize == 0) {
+                clock.addAndGet(nanosPerFetch);
+            }
+            tuner.onRow();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.manager;
+
+import com.amazonaws.athena.connector.lambda.data.Block;
+import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
+import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
+import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.arrow.vector.util.Text;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+public class JdbcArrayFieldWriterTest
+{
+    private final BlockAllocator allocator = new BlockAllocatorImpl();
+
+    @After
+    public void tearDown()
+    {
+        allocator.close();
+    }
+
+    @Test
+    public void isSupported()
+    {
+        Schema schema = SchemaBuilder.newBuilder()
+                .addListField("ints", Types.MinorType.INT.getType())
+                .addListField("dates", Types.MinorType.DATEDAY.getType())
+                .addIntField("id")
+                .build();
+        Assert.assertTrue(JdbcArrayFieldWriter.isSupported(schema.findField("ints")));
+        Assert.assertFalse(JdbcArrayFieldWriter.isSupported(schema.findField("dates")));
+        Assert.assertFalse(JdbcArrayFieldWriter.isSupported(schema.findField("id")));
+    }
+
+    @Test
+    public void writeArrays()
+            throws SQLException
+    {
+        Schema schema = SchemaBuilder.newBuilder()
+                .addListField("ints", Types.MinorType.INT.getType())
+                .addListField("doubles", Types.MinorType.FLOAT8.getType())
+                .addListField("names", Types.MinorType.VARCHAR.getType())
+                .build();
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Array ints = mockArray(new Integer[] {1, null, 3});
+        Array moreInts = mockArray(new int[] {4, 5});
+        Array doubles = mockArray(new double[] {1.5, -2.5});
+        Array names = mockArray(new String[] {"a", null});
+        Mockito.when(resultSet.getArray("ints")).thenReturn(ints, null, moreInts);
+        Mockito.when(resultSet.getArray("doubles")).thenReturn(doubles, doubles, null);
+        Mockito.when(resultSet.getArray("names")).thenReturn(names, null, names);
+        Mockito.when(resultSet.wasNull()).thenReturn(false);
+
+        Block block = allocator.createBlock(schema);
+        ListVector intVector = (ListVector) block.getFieldVector("ints");
+        ListVector doubleVector = (ListVector) block.getFieldVector("doubles");
+        ListVector nameVector = (ListVector) block.getFieldVector("names");
+        JdbcArrayFieldWriter intWriter = new JdbcArrayFieldWriter("ints", intVector);
+        JdbcArrayFieldWriter doubleWriter = new JdbcArrayFieldWriter("doubles", doubleVector);
+        JdbcArrayFieldWriter nameWriter = new JdbcArrayFieldWriter("names", nameVector);
+        for (int row = 0; row < 3; row++) {
+            Assert.assertTrue(intWriter.write(resultSet, row));
+            Assert.assertTrue(doubleWriter.write(resultSet, row));
+            Assert.assertTrue(nameWriter.write(resultSet, row));
+        }
+        block.setRowCount(3);
+
+        Assert.assertEquals(Arrays.asList(1, null, 3), intVector.getObject(0));
+        Assert.assertTrue(intVector.isNull(1));
+        Assert.assertEquals(Arrays.asList(4, 5), intVector.getObject(2));
+        Assert.assertEquals(Arrays.asList(1.5, -2.5), doubleVector.getObject(1));
+        Assert.assertTrue(doubleVector.isNull(2));
+        Assert.assertEquals(Arrays.asList(new Text("a"), null), nameVector.getObject(2));
+        Assert.assertTrue(nameVector.isNull(1));
+        Mockito.verify(ints).free();
+    }
+
+    private static Array mockArray(Object elements)
+            throws SQLException
+    {
+        Array array = Mockito.mock(Array.class);
+        Mockito.when(array.getArray()).thenReturn(elements);
+        return array;
+    }
+}
@@ -0,0 +1,111 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.manager;
+
+import com.amazonaws.athena.connector.lambda.domain.TableName;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class JdbcMetadataCacheTest
+{
+    private static final TableName TABLE_NAME = new TableName("testSchema", "testTable");
+
+    @Test
+    public void expireAfterTtl()
+            throws SQLException
+    {
+        AtomicLong clock = new AtomicLong();
+        AtomicInteger loads = new AtomicInteger();
+        JdbcMetadataCache cache = new JdbcMetadataCache(1000, 10, clock::get);
+
+        Assert.assertEquals(1, (int) cache.get("catalog1", "table", TABLE_NAME, loads::incrementAndGet));
+        clock.set(999);
+        Assert.assertEquals(1, (int) cache.get("catalog1", "table", new TableName("testSchema", "testTable"), loads::incrementAndGet));
+        // Keys are scoped by catalog and kind
+        Assert.assertEquals(2, (int) cache.get("catalog2", "table", TABLE_NAME, loads::incrementAndGet));
+        Assert.assertEquals(3, (int) cache.get("catalog1", "primary_keys", TABLE_NAME, loads::incrementAndGet));
+
+        clock.set(1000);
+        Assert.assertEquals(4, (int) cache.get("catalog1", "table", TABLE_NAME, loads::incrementAndGet));
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed()
+            throws SQLException
+    {
+        JdbcMetadataCache cache = new JdbcMetadataCache(1000, 2, () -> 0L);
+        cache.get("catalog1", "table", "a", () -> "a");
+        cache.get("catalog1", "table", "b", () -> "b");
+        cache.get("catalog1", "table", "a", () -> "reloaded");
+        cache.get("catalog1", "table", "c", () -> "c");
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals("a", cache.get("catalog1", "table", "a", () -> "reloaded"));
+        Assert.assertEquals("reloaded", cache.get("catalog1", "table", "b", () -> "reloaded"));
+    }
+
+    @Test
+    public void invalidateCatalog()
+            throws SQLException
+    {
+        JdbcMetadataCache cache = new JdbcMetadataCache(1000, 10, () -> 0L);
+        cache.get("catalog1", "table", "a", () -> "a");
+        cache.get("catalog2", "table", "a", () -> "a");
+
+        cache.invalidate("catalog1");
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals("reloaded", cache.get("catalog1", "table", "a", () -> "reloaded"));
+        Assert.assertEquals("a", cache.get("catalog2", "table", "a", () -> "reloaded"));
+    }
+
+    @Test
+    public void disabledByDefault()
+            throws SQLException
+    {
+        JdbcMetadataCache cache = JdbcMetadataCache.fromConfig(ImmutableMap.of());
+        AtomicInteger loads = new AtomicInteger();
+        Assert.assertFalse(cache.isEnabled());
+        Assert.assertEquals(1, (int) cache.get("catalog1", "table", TABLE_NAME, loads::incrementAndGet));
+        Assert.assertEquals(2, (int) cache.get("catalog1", "table", TABLE_NAME, loads::incrementAndGet));
+        Assert.assertEquals(0, cache.size());
+
+        Assert.assertTrue(JdbcMetadataCache.fromConfig(ImmutableMap.of(JdbcMetadataCache.METADATA_CACHE_TTL_MS, "1000")).isEnabled());
+    }
+
+    @Test(expected = SQLException.class)
+    public void failuresAreNotCached()
+            throws SQLException
+    {
+        JdbcMetadataCache cache = new JdbcMetadataCache(1000, 10, () -> 0L);
+        try {
+            cache.get("catalog1", "table", TABLE_NAME, () -> {
+                throw new SQLException("unavailable");
+            });
+        }
+        finally {
+            Assert.assertEquals(0, cache.size());
+        }
+    }
+}
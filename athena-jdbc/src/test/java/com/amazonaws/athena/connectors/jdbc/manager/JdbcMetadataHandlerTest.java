@@ -53,6 +53,7 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -241,6 +242,107 @@ public class JdbcMetadataHandlerTest
         this.jdbcMetadataHandler.doGetTable(this.blockAllocator, new GetTableRequest(this.federatedIdentity, "testQueryId", "testCatalog", inputTableName, Collections.emptyMap()));
     }
 
+    @Test
+    public void getSplitClausesHashBuckets()
+            throws Exception
+    {
+        DatabaseConnectionConfig databaseConnectionConfig = new DatabaseConnectionConfig("testCatalog", "fakedatabase",
+                "fakedatabase://jdbc:fakedatabase://hostname/${testSecret}", "testSecret");
+        JdbcMetadataHandler hashSplittingHandler = new JdbcMetadataHandler(databaseConnectionConfig, this.secretsManager, this.athena, jdbcConnectionFactory,
+                com.google.common.collect.ImmutableMap.of(JdbcMetadataHandler.HASH_SPLIT_COUNT, "4"))
+        {
+            @Override
+            public Schema getPartitionSchema(final String catalogName)
+            {
+                return PARTITION_SCHEMA;
+            }
+
+            @Override
+            public void getPartitions(final BlockWriter blockWriter, final GetTableLayoutRequest getTableLayoutRequest, QueryStatusChecker queryStatusChecker)
+            {
+            }
+
+            @Override
+            public GetSplitsResponse doGetSplits(BlockAllocator blockAllocator, GetSplitsRequest getSplitsRequest)
+            {
+                return null;
+            }
+
+            @Override
+            protected String getHashSplitClause(final String column, final int bucketCount, final int bucket)
+            {
+                return String.format("MOD(HASH(%s), %d) = %d", column, bucketCount, bucket);
+            }
+        };
+        TableName tableName = new TableName("testSchema", "testTable");
+        // the only key column is a string, which has no order to split ranges on
+        ResultSet primaryKeys = mockResultSet(new String[] {"KEY_SEQ", "COLUMN_NAME"}, new Object[][] {{1, "guid"}}, new AtomicInteger(-1));
+        Mockito.when(this.connection.getMetaData().getPrimaryKeys(null, "testSchema", "testTable")).thenReturn(primaryKeys);
+        Mockito.when(this.connection.getMetaData().getIdentifierQuoteString()).thenReturn("\"");
+
+        Assert.assertEquals(Arrays.asList(
+                        "(MOD(HASH(\"guid\"), 3) = 0 OR \"guid\" IS NULL)",
+                        "MOD(HASH(\"guid\"), 3) = 1",
+                        "MOD(HASH(\"guid\"), 3) = 2"),
+                hashSplittingHandler.getSplitClauses(this.connection, tableName, 3));
+        // without a hash function the table is not split
+        Assert.assertEquals(Collections.emptyList(), this.jdbcMetadataHandler.getSplitClauses(this.connection, tableName, 3));
+    }
+
+    @Test
+    public void getSplitClausesLeavesOuterRangesUnbounded()
+            throws Exception
+    {
+        TableName tableName = new TableName("testSchema", "testTable");
+        ResultSet columns = mockResultSet(new String[] {"DATA_TYPE", "COLUMN_NAME", "IS_NULLABLE"}, new Object[][] {{Types.INTEGER, "id", "YES"}}, new AtomicInteger(-1));
+        Mockito.when(this.connection.getMetaData().getColumns(nullable(String.class), nullable(String.class), nullable(String.class), Mockito.isNull())).thenReturn(columns);
+        ResultSet primaryKeys = mockResultSet(new String[] {"KEY_SEQ", "COLUMN_NAME"}, new Object[][] {{1, "id"}}, new AtomicInteger(-1));
+        Mockito.when(this.connection.getMetaData().getPrimaryKeys(null, "testSchema", "testTable")).thenReturn(primaryKeys);
+        Mockito.when(this.connection.getMetaData().getIdentifierQuoteString()).thenReturn("\"");
+        ResultSet minMax = Mockito.mock(ResultSet.class, Mockito.RETURNS_DEEP_STUBS);
+        Mockito.when(minMax.getMetaData().getColumnType(1)).thenReturn(Types.INTEGER);
+        Mockito.when(minMax.getInt(1)).thenReturn(1);
+        Mockito.when(minMax.getInt(2)).thenReturn(9);
+        Mockito.when(this.connection.createStatement().executeQuery("SELECT MIN(\"id\"), MAX(\"id\") FROM \"testSchema\".\"testTable\"")).thenReturn(minMax);
+
+        // rows below MIN or above MAX at planning time still fall into the outer splits
+        Assert.assertEquals(Arrays.asList(
+                        "(\"id\" <= 3 OR \"id\" IS NULL)",
+                        "(\"id\" >= 4 AND \"id\" <= 6)",
+                        "\"id\" >= 7"),
+                this.jdbcMetadataHandler.getSplitClauses(this.connection, tableName, 3));
+    }
+
+    @Test
+    public void getSplitClausesInvalidSplitCount()
+    {
+        DatabaseConnectionConfig databaseConnectionConfig = new DatabaseConnectionConfig("testCatalog", "fakedatabase",
+                "fakedatabase://jdbc:fakedatabase://hostname/${testSecret}", "testSecret");
+        JdbcMetadataHandler misconfiguredHandler = new JdbcMetadataHandler(databaseConnectionConfig, this.secretsManager, this.athena, jdbcConnectionFactory,
+                com.google.common.collect.ImmutableMap.of(JdbcMetadataHandler.RANGE_SPLIT_COUNT, "many"))
+        {
+            @Override
+            public Schema getPartitionSchema(final String catalogName)
+            {
+                return PARTITION_SCHEMA;
+            }
+
+            @Override
+            public void getPartitions(final BlockWriter blockWriter, final GetTableLayoutRequest getTableLayoutRequest, QueryStatusChecker queryStatusChecker)
+            {
+            }
+
+            @Override
+            public GetSplitsResponse doGetSplits(BlockAllocator blockAllocator, GetSplitsRequest getSplitsRequest)
+            {
+                return null;
+            }
+        };
+
+        // the table is read in a single split rather than failing the query
+        Assert.assertEquals(Collections.emptyList(), misconfiguredHandler.getSplitClauses(new TableName("testSchema", "testTable")));
+    }
+
     @Test(expected = SQLException.class)
     public void doListSchemaNamesSQLException()
             throws Exception
@@ -28,6 +28,7 @@ import com.amazonaws.athena.connector.lambda.data.S3BlockSpiller;
 import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
 import com.amazonaws.athena.connector.lambda.data.SpillConfig;
 import com.amazonaws.athena.connector.lambda.data.writers.extractors.*;
+import com.amazonaws.athena.connector.lambda.data.writers.holders.NullableVarCharHolder;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ConstraintEvaluator;
@@ -59,6 +60,7 @@ import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.Collections;
@@ -196,4 +198,29 @@ public class JdbcRecordHandlerTest
         ((Float8Extractor) actualFloat8).extract(null, dollarValue);
         Assert.assertEquals(dollarValue.value, 1000.5, 0.0);
     }
+
+    @Test
+    public void makeExtractorReadsByResolvedIndex()
+            throws Exception
+    {
+        ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(metaData.getColumnCount()).thenReturn(2);
+        Mockito.when(metaData.getColumnLabel(1)).thenReturn("ID");
+        Mockito.when(metaData.getColumnLabel(2)).thenReturn("name");
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(resultSet.getString(2)).thenReturn("value");
+
+        Assert.assertEquals(1, this.jdbcRecordHandler.resolveColumnIndex(resultSet, "id"));
+        Assert.assertEquals(2, this.jdbcRecordHandler.resolveColumnIndex(resultSet, "name"));
+        Assert.assertEquals(0, this.jdbcRecordHandler.resolveColumnIndex(resultSet, "missing"));
+
+        Extractor extractor = this.jdbcRecordHandler.makeExtractor(FieldBuilder.newBuilder("name", org.apache.arrow.vector.types.Types.MinorType.VARCHAR.getType()).build(), resultSet, Collections.emptyMap());
+        NullableVarCharHolder holder = new NullableVarCharHolder();
+        ((VarCharExtractor) extractor).extract(null, holder);
+        Assert.assertEquals("value", holder.value);
+        Assert.assertEquals(1, holder.isSet);
+        Mockito.verify(resultSet, Mockito.times(1)).getString(2);
+        Mockito.verify(resultSet, Mockito.never()).getString("name");
+    }
 }
@@ -0,0 +1,119 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.manager;
+
+import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
+import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
+import com.amazonaws.athena.connector.lambda.data.FieldBuilder;
+import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.google.common.collect.ImmutableMap;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
+
+public class PartitionPrunerTest
+{
+    private final BlockAllocator allocator = new BlockAllocatorImpl();
+    private final Schema schema = SchemaBuilder.newBuilder()
+            .addField(FieldBuilder.newBuilder("id", Types.MinorType.INT.getType()).build())
+            .addField(FieldBuilder.newBuilder("created", Types.MinorType.DATEDAY.getType()).build())
+            .addField(FieldBuilder.newBuilder("name", Types.MinorType.VARCHAR.getType()).build())
+            .build();
+
+    @After
+    public void tearDown()
+    {
+        allocator.close();
+    }
+
+    @Test
+    public void rangePartitionTest()
+    {
+        // 10 <= id < 20
+        Constraints constraints = constraints("id", SortedRangeSet.of(false, Range.range(allocator, Types.MinorType.INT.getType(), 10, true, 20, false)));
+        PartitionPruner pruner = PartitionPruner.forColumn(schema, constraints, "ID").get();
+
+        Assert.assertFalse(pruner.mayMatchRange(null, true, "10", false));
+        Assert.assertTrue(pruner.mayMatchRange("0", true, "11", false));
+        Assert.assertTrue(pruner.mayMatchRange("'15'", true, "'30'", false));
+        Assert.assertFalse(pruner.mayMatchRange("20", true, null, false));
+        Assert.assertTrue(pruner.mayMatchRange("19", false, "20", true));
+        Assert.assertTrue(pruner.mayMatchRange("MINVALUE", true, "5", false));
+    }
+
+    @Test
+    public void datePartitionTest()
+    {
+        int day = (int) LocalDate.of(2020, 1, 2).toEpochDay();
+        Constraints constraints = constraints("created", SortedRangeSet.of(false, Range.equal(allocator, Types.MinorType.DATEDAY.getType(), day)));
+        PartitionPruner pruner = PartitionPruner.forColumn(schema, constraints, "created").get();
+
+        Assert.assertTrue(pruner.mayMatchRange("'2020-01-01'", true, "'2020-02-01'", false));
+        Assert.assertFalse(pruner.mayMatchRange("'2020-02-01'", true, "'2020-03-01'", false));
+        Assert.assertFalse(pruner.mayMatchRange("TO_DATE(' 2019-12-01 00:00:00', 'SYYYY-MM-DD HH24:MI:SS', 'NLS_CALENDAR=GREGORIAN')", true,
+                "TO_DATE(' 2020-01-01 00:00:00', 'SYYYY-MM-DD HH24:MI:SS', 'NLS_CALENDAR=GREGORIAN')", false));
+        Assert.assertTrue(pruner.mayMatchRange("2020-01-01T00:00", true, null, false));
+    }
+
+    @Test
+    public void listPartitionTest()
+    {
+        Constraints constraints = constraints("id", SortedRangeSet.of(false, Range.equal(allocator, Types.MinorType.INT.getType(), 3)));
+        PartitionPruner pruner = PartitionPruner.forColumn(schema, constraints, "id").get();
+
+        Assert.assertTrue(pruner.mayMatchAny(PartitionPruner.splitLiterals("1, 2, 3")));
+        Assert.assertFalse(pruner.mayMatchAny(PartitionPruner.splitLiterals("'4','5'")));
+        Assert.assertTrue(pruner.mayMatchAny(PartitionPruner.splitLiterals("DEFAULT")));
+    }
+
+    @Test
+    public void notPrunableTest()
+    {
+        Assert.assertFalse(PartitionPruner.forColumn(schema, constraints("id", SortedRangeSet.of(true, Range.equal(allocator, Types.MinorType.INT.getType(), 3))), "id").isPresent());
+        Assert.assertFalse(PartitionPruner.forColumn(schema, constraints("name", SortedRangeSet.of(false, Range.equal(allocator, Types.MinorType.VARCHAR.getType(), "a"))), "name").isPresent());
+        Assert.assertFalse(PartitionPruner.forColumn(schema, constraints("id", SortedRangeSet.of(false, Range.equal(allocator, Types.MinorType.INT.getType(), 3))), "created").isPresent());
+    }
+
+    @Test
+    public void splitLiteralsTest()
+    {
+        Assert.assertEquals(Arrays.asList("TO_DATE(' 2020-01-01', 'SYYYY-MM-DD')", "10", "'a,b'"),
+                PartitionPruner.splitLiterals("TO_DATE(' 2020-01-01', 'SYYYY-MM-DD'), 10, 'a,b'"));
+        Assert.assertEquals("2020-01-01", PartitionPruner.literalValue("TIMESTAMP' 2020-01-01'"));
+        Assert.assertEquals("it's", PartitionPruner.literalValue("'it''s'"));
+        Assert.assertEquals(Collections.singletonList("MAXVALUE"), PartitionPruner.splitLiterals("MAXVALUE"));
+    }
+
+    private static Constraints constraints(String column, SortedRangeSet valueSet)
+    {
+        return new Constraints(ImmutableMap.of(column, valueSet), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT);
+    }
+}
@@ -0,0 +1,168 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.manager;
+
+import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.Extractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.IntExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.VarCharExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.holders.NullableVarCharHolder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.apache.arrow.vector.holders.NullableIntHolder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ResultSetPrefetcherTest
+{
+    private static final int ROW_COUNT = 25;
+
+    private final AtomicInteger rowNumber = new AtomicInteger(0);
+    private ResultSet resultSet;
+    private QueryStatusChecker queryStatusChecker;
+    private List<Extractor> sourceExtractors;
+
+    @Before
+    public void setup()
+            throws SQLException
+    {
+        resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.next()).thenAnswer(invocation -> rowNumber.incrementAndGet() <= ROW_COUNT);
+        queryStatusChecker = Mockito.mock(QueryStatusChecker.class);
+        Mockito.when(queryStatusChecker.isQueryRunning()).thenReturn(true);
+        sourceExtractors = Arrays.asList(
+                (IntExtractor) (Object context, NullableIntHolder dst) ->
+                {
+                    dst.value = rowNumber.get();
+                    dst.isSet = 1;
+                },
+                (VarCharExtractor) (Object context, NullableVarCharHolder dst) ->
+                {
+                    // Every third row is null
+                    if (rowNumber.get() % 3 != 0) {
+                        dst.value = "row" + rowNumber.get();
+                        dst.isSet = 1;
+                    }
+                });
+    }
+
+    @Test
+    public void prefetchRows()
+            throws Exception
+    {
+        try (ResultSetPrefetcher prefetcher = new ResultSetPrefetcher(resultSet, sourceExtractors, 4, 2, queryStatusChecker)) {
+            IntExtractor intExtractor = (IntExtractor) prefetcher.getExtractor(0);
+            VarCharExtractor varCharExtractor = (VarCharExtractor) prefetcher.getExtractor(1);
+            NullableIntHolder intHolder = new NullableIntHolder();
+            NullableVarCharHolder varCharHolder = new NullableVarCharHolder();
+            prefetcher.start();
+
+            int expected = 0;
+            ResultSetPrefetcher.RowBatch batch;
+            while ((batch = prefetcher.nextBatch()) != null) {
+                Assert.assertTrue(batch.getRowCount() <= 4);
+                for (int row = 0; row < batch.getRowCount(); row++) {
+                    expected++;
+                    batch.setPosition(row);
+                    intExtractor.extract(batch, intHolder);
+                    varCharExtractor.extract(batch, varCharHolder);
+                    Assert.assertEquals(1, intHolder.isSet);
+                    Assert.assertEquals(expected, intHolder.value);
+                    if (expected % 3 == 0) {
+                        Assert.assertEquals(0, varCharHolder.isSet);
+                        Assert.assertNull(varCharHolder.value);
+                    }
+                    else {
+                        Assert.assertEquals(1, varCharHolder.isSet);
+                        Assert.assertEquals("row" + expected, varCharHolder.value);
+                    }
+                }
+            }
+            Assert.assertEquals(ROW_COUNT, expected);
+            Assert.assertFalse(prefetcher.isStoppedEarly());
+        }
+    }
+
+    @Test
+    public void prefetchFailure()
+            throws Exception
+    {
+        Mockito.when(resultSet.next()).thenReturn(true, true, true).thenThrow(new SQLException("connection reset"));
+        try (ResultSetPrefetcher prefetcher = new ResultSetPrefetcher(resultSet, sourceExtractors, 2, 1, queryStatusChecker)) {
+            prefetcher.start();
+            ResultSetPrefetcher.RowBatch batch = prefetcher.nextBatch();
+            Assert.assertEquals(2, batch.getRowCount());
+            try {
+                prefetcher.nextBatch();
+                Assert.fail("Expected the ResultSet failure");
+            }
+            catch (SQLException ex) {
+                Assert.assertEquals("connection reset", ex.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void stopWhenQueryNotRunning()
+            throws Exception
+    {
+        Mockito.when(queryStatusChecker.isQueryRunning()).thenReturn(false);
+        try (ResultSetPrefetcher prefetcher = new ResultSetPrefetcher(resultSet, sourceExtractors, 4, 2, queryStatusChecker)) {
+            prefetcher.start();
+            Assert.assertEquals(4, prefetcher.nextBatch().getRowCount());
+            Assert.assertNull(prefetcher.nextBatch());
+            // The last batch was emitted without a failure, but the ResultSet was not exhausted
+            Assert.assertTrue(prefetcher.isStoppedEarly());
+        }
+        Assert.assertEquals(4, rowNumber.get());
+    }
+
+    @Test(timeout = 10_000)
+    public void closeCancelsBeforeStopping()
+            throws Exception
+    {
+        // The 1500th fetch blocks, ignoring interrupts like a driver waiting on the network, until the statement is cancelled.
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            if (rowNumber.incrementAndGet() == 1500) {
+                fetching.countDown();
+                Uninterruptibles.awaitUninterruptibly(cancelled);
+            }
+            return true;
+        }).when(resultSet).next();
+        try (ResultSetPrefetcher prefetcher = new ResultSetPrefetcher(resultSet, sourceExtractors, 1000, 1, queryStatusChecker, cancelled::countDown)) {
+            prefetcher.start();
+            Assert.assertEquals(1000, prefetcher.nextBatch().getRowCount());
+            fetching.await();
+        }
+        Assert.assertEquals(0, cancelled.getCount());
+        // the background thread stops at the row it was fetching rather than at the end of the batch
+        Assert.assertEquals(1500, rowNumber.get());
+    }
+}
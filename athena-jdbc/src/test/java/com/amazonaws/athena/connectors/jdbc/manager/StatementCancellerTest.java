@@ -0,0 +1,57 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.manager;
+
+import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+public class StatementCancellerTest
+{
+    @Test
+    public void cancelOnQueryTermination()
+            throws SQLException
+    {
+        Connection connection = Mockito.mock(Connection.class);
+        PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        Mockito.doThrow(new SQLException("not supported")).when(connection).setNetworkTimeout(Mockito.any(), Mockito.anyInt());
+        QueryStatusChecker queryStatusChecker = Mockito.mock(QueryStatusChecker.class);
+        ArgumentCaptor<Runnable> listener = ArgumentCaptor.forClass(Runnable.class);
+
+        try (StatementCanceller statementCanceller = new StatementCanceller(connection, statement, queryStatusChecker)) {
+            Mockito.verify(queryStatusChecker).addTerminationListener(listener.capture());
+            Assert.assertFalse(statementCanceller.isCancelled());
+
+            listener.getValue().run();
+            statementCanceller.cancel();
+            Assert.assertTrue(statementCanceller.isCancelled());
+        }
+
+        Mockito.verify(statement, Mockito.times(1)).cancel();
+        Mockito.verify(connection, Mockito.times(1)).setNetworkTimeout(Mockito.any(), Mockito.anyInt());
+        Mockito.verify(queryStatusChecker).removeTerminationListener(listener.getValue());
+    }
+}
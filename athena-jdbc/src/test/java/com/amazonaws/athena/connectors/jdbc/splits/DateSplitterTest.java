@@ -0,0 +1,50 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.splits;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+public class DateSplitterTest
+{
+    @Test
+    public void splitTest()
+    {
+        SplitRange<LocalDate> range = new SplitRange<>(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 10));
+        DateSplitter splitter = new DateSplitter(new SplitInfo<>(range, "testColumn", Types.DATE, 2));
+        Assert.assertEquals(Arrays.asList(new SplitRange<>(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 5)),
+                new SplitRange<>(LocalDate.of(2020, 1, 6), LocalDate.of(2020, 1, 10))), ImmutableList.copyOf(splitter));
+
+        DateSplitter clauseSplitter = new DateSplitter(new SplitInfo<>(range, "testColumn", Types.DATE, 2));
+        Assert.assertEquals("(testColumn >= {d '2020-01-01'} AND testColumn <= {d '2020-01-05'})", clauseSplitter.nextRangeClause());
+        Assert.assertEquals("(testColumn >= {d '2020-01-06'} AND testColumn <= {d '2020-01-10'})", clauseSplitter.nextRangeClause());
+        Assert.assertFalse(clauseSplitter.hasNext());
+
+        DateSplitter unboundedSplitter = new DateSplitter(new SplitInfo<>(range, "testColumn", Types.DATE, 2));
+        Assert.assertEquals("testColumn <= {d '2020-01-05'}", unboundedSplitter.nextUnboundedRangeClause());
+        Assert.assertEquals("testColumn >= {d '2020-01-06'}", unboundedSplitter.nextUnboundedRangeClause());
+        Assert.assertFalse(unboundedSplitter.hasNext());
+    }
+}
@@ -0,0 +1,71 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.splits;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class DecimalSplitterTest
+{
+    @Test
+    public void splitTest()
+    {
+        DecimalSplitter splitter = new DecimalSplitter(new SplitInfo<>(new SplitRange<>(new BigDecimal("0.00"), new BigDecimal("1.00")), "testColumn", Types.DECIMAL, 4));
+        Assert.assertEquals(Arrays.asList(
+                "(testColumn >= 0.00 AND testColumn < 0.25)",
+                "(testColumn >= 0.25 AND testColumn < 0.50)",
+                "(testColumn >= 0.50 AND testColumn < 0.75)",
+                "(testColumn >= 0.75 AND testColumn <= 1.00)"), clauses(splitter));
+    }
+
+    @Test
+    public void splitNarrowRangeTest()
+    {
+        DecimalSplitter splitter = new DecimalSplitter(new SplitInfo<>(new SplitRange<>(new BigDecimal("0.00"), new BigDecimal("0.01")), "testColumn", Types.DECIMAL, 4));
+        Assert.assertEquals(Collections.singletonList("(testColumn >= 0.00 AND testColumn <= 0.01)"), clauses(splitter));
+    }
+
+    @Test
+    public void splitUnboundedTest()
+    {
+        DecimalSplitter splitter = new DecimalSplitter(new SplitInfo<>(new SplitRange<>(new BigDecimal("0.00"), new BigDecimal("1.00")), "testColumn", Types.DECIMAL, 4));
+        Assert.assertEquals("testColumn < 0.25", splitter.nextUnboundedRangeClause());
+        Assert.assertEquals("(testColumn >= 0.25 AND testColumn < 0.50)", splitter.nextUnboundedRangeClause());
+        Assert.assertEquals("(testColumn >= 0.50 AND testColumn < 0.75)", splitter.nextUnboundedRangeClause());
+        Assert.assertEquals("testColumn >= 0.75", splitter.nextUnboundedRangeClause());
+        Assert.assertFalse(splitter.hasNext());
+    }
+
+    private static List<String> clauses(Splitter<?> splitter)
+    {
+        List<String> clauses = new ArrayList<>();
+        while (splitter.hasNext()) {
+            clauses.add(splitter.nextRangeClause());
+        }
+        return clauses;
+    }
+}
@@ -0,0 +1,66 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.splits;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class LongSplitterTest
+{
+    @Test
+    public void splitTest()
+    {
+        LongSplitter splitter = new LongSplitter(new SplitInfo<>(new SplitRange<>(1L, 10L), "testColumn", Types.BIGINT, 3));
+        Assert.assertEquals(Arrays.asList(new SplitRange<>(1L, 4L), new SplitRange<>(5L, 7L), new SplitRange<>(8L, 10L)), ImmutableList.copyOf(splitter));
+
+        LongSplitter clauseSplitter = new LongSplitter(new SplitInfo<>(new SplitRange<>(1L, 2L), "testColumn", Types.BIGINT, 10));
+        Assert.assertEquals("(testColumn >= 1 AND testColumn <= 1)", clauseSplitter.nextRangeClause());
+        Assert.assertEquals("(testColumn >= 2 AND testColumn <= 2)", clauseSplitter.nextRangeClause());
+        Assert.assertFalse(clauseSplitter.hasNext());
+    }
+
+    @Test
+    public void splitFullRangeTest()
+    {
+        LongSplitter splitter = new LongSplitter(new SplitInfo<>(new SplitRange<>(Long.MIN_VALUE, Long.MAX_VALUE), "testColumn", Types.BIGINT, 2));
+        Assert.assertEquals(Arrays.asList(new SplitRange<>(Long.MIN_VALUE, -1L), new SplitRange<>(0L, Long.MAX_VALUE)), ImmutableList.copyOf(splitter));
+
+        LongSplitter singleSplitter = new LongSplitter(new SplitInfo<>(new SplitRange<>(Long.MIN_VALUE, Long.MAX_VALUE), "testColumn", Types.BIGINT, 1));
+        Assert.assertEquals(Collections.singletonList(new SplitRange<>(Long.MIN_VALUE, Long.MAX_VALUE)), ImmutableList.copyOf(singleSplitter));
+    }
+
+    @Test
+    public void splitUnboundedTest()
+    {
+        LongSplitter splitter = new LongSplitter(new SplitInfo<>(new SplitRange<>(1L, 10L), "testColumn", Types.BIGINT, 3));
+        Assert.assertEquals("testColumn <= 4", splitter.nextUnboundedRangeClause());
+        Assert.assertEquals("(testColumn >= 5 AND testColumn <= 7)", splitter.nextUnboundedRangeClause());
+        Assert.assertEquals("testColumn >= 8", splitter.nextUnboundedRangeClause());
+        Assert.assertFalse(splitter.hasNext());
+
+        LongSplitter singleSplitter = new LongSplitter(new SplitInfo<>(new SplitRange<>(1L, 10L), "testColumn", Types.BIGINT, 1));
+        Assert.assertEquals("testColumn IS NOT NULL", singleSplitter.nextUnboundedRangeClause());
+    }
+}
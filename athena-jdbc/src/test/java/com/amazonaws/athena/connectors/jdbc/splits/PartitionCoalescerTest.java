@@ -0,0 +1,53 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.splits;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class PartitionCoalescerTest
+{
+    @Test
+    public void coalesceTest()
+    {
+        ImmutableMap<String, Long> rowCounts = ImmutableMap.of("p1", 40L, "p2", 50L, "p3", 30L, "p4", 500L);
+        Assert.assertEquals(Arrays.asList(Arrays.asList("p1", "p2"), Collections.singletonList("p3"), Collections.singletonList("p4"), Collections.singletonList("p5")),
+                PartitionCoalescer.coalesce(Arrays.asList("p1", "p2", "p3", "p4", "p5"), rowCounts, 100, 10));
+    }
+
+    @Test
+    public void maxPartitionsPerSplitTest()
+    {
+        ImmutableMap<String, Long> rowCounts = ImmutableMap.of("p1", 1L, "p2", 1L, "p3", 1L);
+        Assert.assertEquals(Arrays.asList(Arrays.asList("p1", "p2"), Collections.singletonList("p3")),
+                PartitionCoalescer.coalesce(Arrays.asList("p1", "p2", "p3"), rowCounts, 100, 2));
+    }
+
+    @Test
+    public void noStatisticsTest()
+    {
+        Assert.assertEquals(Arrays.asList(Collections.singletonList("p1"), Collections.singletonList("p2")),
+                PartitionCoalescer.coalesce(Arrays.asList("p1", "p2"), Collections.emptyMap(), 100, 10));
+    }
+}
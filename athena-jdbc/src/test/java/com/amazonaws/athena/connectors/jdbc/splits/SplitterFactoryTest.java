@@ -24,8 +24,11 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.math.BigDecimal;
+import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.Optional;
 
@@ -81,7 +84,11 @@ public class SplitterFactoryTest
             throws SQLException
     {
         Mockito.when(resultSet.getMetaData().getColumnType(1)).thenReturn(Types.DATE);
-        Assert.assertFalse(splitterFactory.getSplitter(TEST_COLUMN_NAME, resultSet, MAX_SPLITS).isPresent());
+        Mockito.when(resultSet.getDate(1)).thenReturn(Date.valueOf("2020-01-01"));
+        Mockito.when(resultSet.getDate(2)).thenReturn(Date.valueOf("2020-12-31"));
+        Optional<Splitter> splitter = splitterFactory.getSplitter(TEST_COLUMN_NAME, resultSet, MAX_SPLITS);
+        Assert.assertTrue(splitter.isPresent());
+        Assert.assertEquals(DateSplitter.class, splitter.get().getClass());
     }
 
     @Test
@@ -89,6 +96,61 @@ public class SplitterFactoryTest
             throws SQLException
     {
         Mockito.when(resultSet.getMetaData().getColumnType(1)).thenReturn(Types.DECIMAL);
+        Mockito.when(resultSet.getMetaData().getScale(1)).thenReturn(2);
+        Mockito.when(resultSet.getBigDecimal(1)).thenReturn(new BigDecimal("0.50"));
+        Mockito.when(resultSet.getBigDecimal(2)).thenReturn(new BigDecimal("99.50"));
+        Optional<Splitter> splitter = splitterFactory.getSplitter(TEST_COLUMN_NAME, resultSet, MAX_SPLITS);
+        Assert.assertTrue(splitter.isPresent());
+        Assert.assertEquals(DecimalSplitter.class, splitter.get().getClass());
+    }
+
+    @Test
+    public void getIntegralDecimalSplitter()
+            throws SQLException
+    {
+        Mockito.when(resultSet.getMetaData().getColumnType(1)).thenReturn(Types.NUMERIC);
+        Mockito.when(resultSet.getMetaData().getScale(1)).thenReturn(0);
+        Mockito.when(resultSet.getBigDecimal(1)).thenReturn(new BigDecimal("1"));
+        Mockito.when(resultSet.getBigDecimal(2)).thenReturn(new BigDecimal("100000000000"));
+        Optional<Splitter> splitter = splitterFactory.getSplitter(TEST_COLUMN_NAME, resultSet, MAX_SPLITS);
+        Assert.assertTrue(splitter.isPresent());
+        Assert.assertEquals(LongSplitter.class, splitter.get().getClass());
+    }
+
+    @Test
+    public void getBigIntSplitter()
+            throws SQLException
+    {
+        Mockito.when(resultSet.getMetaData().getColumnType(1)).thenReturn(Types.BIGINT);
+        Mockito.when(resultSet.getLong(1)).thenReturn(1L);
+        Mockito.when(resultSet.getLong(2)).thenReturn(Long.MAX_VALUE);
+        Optional<Splitter> splitter = splitterFactory.getSplitter(TEST_COLUMN_NAME, resultSet, MAX_SPLITS);
+        Assert.assertTrue(splitter.isPresent());
+        Assert.assertEquals(LongSplitter.class, splitter.get().getClass());
+    }
+
+    @Test
+    public void getTimestampSplitter()
+            throws SQLException
+    {
+        Mockito.when(resultSet.getMetaData().getColumnType(1)).thenReturn(Types.TIMESTAMP);
+        Mockito.when(resultSet.getTimestamp(1)).thenReturn(Timestamp.valueOf("2020-01-01 00:00:00"));
+        Mockito.when(resultSet.getTimestamp(2)).thenReturn(Timestamp.valueOf("2020-01-02 00:00:00"));
+        Optional<Splitter> splitter = splitterFactory.getSplitter(TEST_COLUMN_NAME, resultSet, MAX_SPLITS);
+        Assert.assertTrue(splitter.isPresent());
+        Assert.assertEquals(TimestampSplitter.class, splitter.get().getClass());
+    }
+
+    @Test
+    public void getSplitterForEmptyTable()
+            throws SQLException
+    {
+        Mockito.when(resultSet.getMetaData().getColumnType(1)).thenReturn(Types.INTEGER);
+        Mockito.when(resultSet.wasNull()).thenReturn(true);
+        Assert.assertFalse(splitterFactory.getSplitter(TEST_COLUMN_NAME, resultSet, MAX_SPLITS).isPresent());
+
+        Mockito.when(resultSet.getMetaData().getColumnType(1)).thenReturn(Types.TIMESTAMP);
+        Mockito.when(resultSet.getTimestamp(1)).thenReturn(null);
         Assert.assertFalse(splitterFactory.getSplitter(TEST_COLUMN_NAME, resultSet, MAX_SPLITS).isPresent());
     }
 }
@@ -0,0 +1,57 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.splits;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class TimestampSplitterTest
+{
+    @Test
+    public void splitTest()
+    {
+        SplitRange<LocalDateTime> range = new SplitRange<>(LocalDateTime.of(2020, 1, 1, 0, 0), LocalDateTime.of(2020, 1, 2, 0, 0));
+        TimestampSplitter splitter = new TimestampSplitter(new SplitInfo<>(range, "testColumn", Types.TIMESTAMP, 4));
+        Assert.assertEquals(Arrays.asList(
+                new SplitRange<>(LocalDateTime.of(2020, 1, 1, 0, 0), LocalDateTime.of(2020, 1, 1, 6, 0)),
+                new SplitRange<>(LocalDateTime.of(2020, 1, 1, 6, 0), LocalDateTime.of(2020, 1, 1, 12, 0)),
+                new SplitRange<>(LocalDateTime.of(2020, 1, 1, 12, 0), LocalDateTime.of(2020, 1, 1, 18, 0)),
+                new SplitRange<>(LocalDateTime.of(2020, 1, 1, 18, 0), LocalDateTime.of(2020, 1, 2, 0, 0))), ImmutableList.copyOf(splitter));
+
+        TimestampSplitter clauseSplitter = new TimestampSplitter(new SplitInfo<>(range, "testColumn", Types.TIMESTAMP, 2));
+        Assert.assertEquals("(testColumn >= {ts '2020-01-01 00:00:00.0'} AND testColumn < {ts '2020-01-01 12:00:00.0'})", clauseSplitter.nextRangeClause());
+        Assert.assertEquals("(testColumn >= {ts '2020-01-01 12:00:00.0'} AND testColumn <= {ts '2020-01-02 00:00:00.0'})", clauseSplitter.nextRangeClause());
+        Assert.assertFalse(clauseSplitter.hasNext());
+    }
+
+    @Test
+    public void splitSingleValueTest()
+    {
+        LocalDateTime value = LocalDateTime.of(2020, 1, 1, 0, 0);
+        TimestampSplitter splitter = new TimestampSplitter(new SplitInfo<>(new SplitRange<>(value, value), "testColumn", Types.TIMESTAMP, 4));
+        Assert.assertEquals(Collections.singletonList(new SplitRange<>(value, value)), ImmutableList.copyOf(splitter));
+    }
+}
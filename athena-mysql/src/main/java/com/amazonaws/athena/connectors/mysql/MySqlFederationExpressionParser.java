@@ -20,13 +20,25 @@
 package com.amazonaws.athena.connectors.mysql;
 
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcFederationExpressionParser;
+import com.amazonaws.athena.connectors.jdbc.manager.ScalarFunctions;
 import com.google.common.base.Joiner;
+import com.google.common.collect.Sets;
 import org.apache.arrow.vector.types.pojo.ArrowType;
 
 import java.util.List;
+import java.util.Set;
 
 public class MySqlFederationExpressionParser extends JdbcFederationExpressionParser
 {
+    // MySQL counts a negative SUBSTRING start position from the end of the string, like Athena.
+    private static final Set<ScalarFunctions> SUPPORTED_SCALAR_FUNCTIONS = Sets.immutableEnumSet(
+            ScalarFunctions.ABS_FUNCTION_NAME, ScalarFunctions.LOWER_FUNCTION_NAME,
+            ScalarFunctions.UPPER_FUNCTION_NAME, ScalarFunctions.LENGTH_FUNCTION_NAME,
+            ScalarFunctions.TRIM_FUNCTION_NAME, ScalarFunctions.LTRIM_FUNCTION_NAME,
+            ScalarFunctions.RTRIM_FUNCTION_NAME, ScalarFunctions.SUBSTR_FUNCTION_NAME,
+            ScalarFunctions.SUBSTRING_FUNCTION_NAME, ScalarFunctions.CONCAT_FUNCTION_NAME,
+            ScalarFunctions.YEAR_FUNCTION_NAME, ScalarFunctions.MONTH_FUNCTION_NAME, ScalarFunctions.DAY_FUNCTION_NAME);
+
     public MySqlFederationExpressionParser(String quoteChar)
     {
         super(quoteChar);
@@ -36,5 +48,21 @@ public class MySqlFederationExpressionParser extends JdbcFederationExpressionPar
     public String writeArrayConstructorClause(ArrowType type, List<String> arguments)
     {
         return Joiner.on(", ").join(arguments);
-    }    
+    }
+
+    @Override
+    public Set<ScalarFunctions> getSupportedScalarFunctions()
+    {
+        return SUPPORTED_SCALAR_FUNCTIONS;
+    }
+
+    @Override
+    protected String writeScalarFunctionClause(ScalarFunctions function, ArrowType type, List<String> arguments)
+    {
+        if (function == ScalarFunctions.CONCAT_FUNCTION_NAME) {
+            // || is a logical OR unless PIPES_AS_CONCAT is set
+            return "CONCAT(" + Joiner.on(", ").join(arguments) + ")";
+        }
+        return super.writeScalarFunctionClause(function, type, arguments);
+    }
 }
@@ -26,7 +26,6 @@ import com.amazonaws.athena.connector.lambda.data.BlockWriter;
 import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
-import com.amazonaws.athena.connector.lambda.domain.predicate.functions.StandardFunctions;
 import com.amazonaws.athena.connector.lambda.domain.spill.SpillLocation;
 import com.amazonaws.athena.connector.lambda.metadata.GetDataSourceCapabilitiesRequest;
 import com.amazonaws.athena.connector.lambda.metadata.GetDataSourceCapabilitiesResponse;
@@ -45,7 +44,9 @@ import com.amazonaws.athena.connectors.jdbc.connection.GenericJdbcConnectionFact
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcConnectionFactory;
 import com.amazonaws.athena.connectors.jdbc.manager.JDBCUtil;
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcMetadataHandler;
+import com.amazonaws.athena.connectors.jdbc.manager.PartitionPruner;
 import com.amazonaws.athena.connectors.jdbc.manager.PreparedStatementBuilder;
+import com.amazonaws.athena.connectors.jdbc.splits.PartitionCoalescer;
 import com.amazonaws.services.athena.AmazonAthena;
 import com.amazonaws.services.secretsmanager.AWSSecretsManager;
 import com.google.common.annotations.VisibleForTesting;
@@ -60,11 +61,18 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static com.amazonaws.athena.connectors.mysql.MySqlConstants.MYSQL_DEFAULT_PORT;
 import static com.amazonaws.athena.connectors.mysql.MySqlConstants.MYSQL_DRIVER_CLASS;
@@ -80,11 +88,22 @@ public class MySqlMetadataHandler
     static final Map<String, String> JDBC_PROPERTIES = ImmutableMap.of("databaseTerm", "SCHEMA");
     static final String GET_PARTITIONS_QUERY = "SELECT DISTINCT partition_name FROM INFORMATION_SCHEMA.PARTITIONS WHERE TABLE_NAME = ? AND TABLE_SCHEMA = ? " +
             "AND partition_name IS NOT NULL";
+    static final String GET_PARTITION_ROW_COUNTS_QUERY = "SELECT partition_name, SUM(TABLE_ROWS) AS row_count FROM INFORMATION_SCHEMA.PARTITIONS " +
+            "WHERE TABLE_NAME = ? AND TABLE_SCHEMA = ? AND partition_name IS NOT NULL GROUP BY partition_name";
+    static final String GET_PARTITION_BOUNDS_QUERY = "SELECT partition_name, partition_method, partition_expression, partition_description " +
+            "FROM INFORMATION_SCHEMA.PARTITIONS WHERE TABLE_NAME = ? AND TABLE_SCHEMA = ? AND partition_name IS NOT NULL ORDER BY partition_ordinal_position";
+    static final String GET_ROW_COUNT_QUERY = "SELECT TABLE_ROWS AS row_count FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = ? AND TABLE_SCHEMA = ?";
     static final String BLOCK_PARTITION_COLUMN_NAME = "partition_name";
     static final String ALL_PARTITIONS = "*";
     static final String PARTITION_COLUMN_NAME = "partition_name";
     private static final Logger LOGGER = LoggerFactory.getLogger(MySqlMetadataHandler.class);
     private static final int MAX_SPLITS_PER_REQUEST = 1000_000;
+    private static final int MAX_PARTITIONS_PER_SPLIT = 100;
+    private static final String ROW_COUNT = "row_count";
+    private static final String PARTITION_METHOD = "partition_method";
+    private static final String PARTITION_EXPRESSION = "partition_expression";
+    private static final String PARTITION_DESCRIPTION = "partition_description";
+    private static final Pattern PARTITION_COLUMN_PATTERN = Pattern.compile("`?([^`,()]+)`?");
 
     static final String LIST_PAGINATED_TABLES_QUERY = "SELECT table_name as \"TABLE_NAME\", table_schema as \"TABLE_SCHEM\" FROM information_schema.tables WHERE table_schema = ? ORDER BY TABLE_NAME LIMIT ?, ?";
 
@@ -131,9 +150,7 @@ public class MySqlMetadataHandler
         ));
         capabilities.put(DataSourceOptimizations.SUPPORTS_COMPLEX_EXPRESSION_PUSHDOWN.withSupportedSubTypes(
             ComplexExpressionPushdownSubType.SUPPORTED_FUNCTION_EXPRESSION_TYPES
-                    .withSubTypeProperties(Arrays.stream(StandardFunctions.values())
-                            .map(standardFunctions -> standardFunctions.getFunctionName().getFunctionName())
-                            .toArray(String[]::new))
+                    .withSubTypeProperties(new MySqlFederationExpressionParser(MySqlRecordHandler.MYSQL_QUOTE_CHARACTER).getSupportedFunctionNames())
         ));
 
         jdbcQueryPassthrough.addQueryPassthroughCapabilityIfEnabled(capabilities, configOptions);
@@ -171,11 +188,15 @@ public class MySqlMetadataHandler
                     });
                 }
                 else {
+                    Set<String> prunedPartitions = getPrunedPartitions(connection, getTableLayoutRequest);
                     do {
                         final String partitionName = resultSet.getString(PARTITION_COLUMN_NAME);
+                        if (prunedPartitions.contains(partitionName)) {
+                            LOGGER.info("Partition {} pruned by constraints", partitionName);
+                            continue;
+                        }
 
-                        // 1. Returns all partitions of table, we are not supporting constraints push down to filter partitions.
-                        // 2. This API is not paginated, we could use order by and limit clause with offsets here.
+                        // This API is not paginated, we could use order by and limit clause with offsets here.
                         blockWriter.writeRows((Block block, int rowNum) -> {
                             block.setValue(BLOCK_PARTITION_COLUMN_NAME, rowNum, partitionName);
                             LOGGER.info("Adding partition {}", partitionName);
@@ -189,6 +210,60 @@ public class MySqlMetadataHandler
         }
     }
 
+    /**
+     * Evaluates the PARTITION_DESCRIPTION of every partition against the constraints on the partition key. Only RANGE and
+     * LIST partitioning on a single plain column is pruned; a RANGE partition holds the values from the previous
+     * partition's bound (inclusive) to its own (exclusive).
+     *
+     * @param connection connection to the database.
+     * @param getTableLayoutRequest request holding the table, its schema and the constraints.
+     * @return names of the partitions which cannot hold rows matching the constraints.
+     */
+    private Set<String> getPrunedPartitions(Connection connection, GetTableLayoutRequest getTableLayoutRequest)
+    {
+        Set<String> prunedPartitions = new HashSet<>();
+        if (getTableLayoutRequest.getConstraints().getSummary().isEmpty()) {
+            return prunedPartitions;
+        }
+        List<String> parameters = Arrays.asList(getTableLayoutRequest.getTableName().getTableName(), getTableLayoutRequest.getTableName().getSchemaName());
+        try (PreparedStatement preparedStatement = new PreparedStatementBuilder().withConnection(connection).withQuery(GET_PARTITION_BOUNDS_QUERY).withParameters(parameters).build();
+                ResultSet resultSet = preparedStatement.executeQuery()) {
+            String previousPartition = null;
+            String lowerBound = null;
+            while (resultSet.next()) {
+                String partitionName = resultSet.getString(PARTITION_COLUMN_NAME);
+                if (partitionName.equals(previousPartition)) {
+                    // one row per subpartition
+                    continue;
+                }
+                previousPartition = partitionName;
+                String method = String.valueOf(resultSet.getString(PARTITION_METHOD));
+                String description = resultSet.getString(PARTITION_DESCRIPTION);
+                Matcher columnMatcher = PARTITION_COLUMN_PATTERN.matcher(String.valueOf(resultSet.getString(PARTITION_EXPRESSION)).trim());
+                Optional<PartitionPruner> pruner = (columnMatcher.matches() && description != null)
+                        ? PartitionPruner.forColumn(getTableLayoutRequest.getSchema(), getTableLayoutRequest.getConstraints(), columnMatcher.group(1))
+                        : Optional.empty();
+                boolean mayMatch = true;
+                if (pruner.isPresent() && method.startsWith("RANGE")) {
+                    String upperBound = "MAXVALUE".equals(description) ? null : description;
+                    mayMatch = pruner.get().mayMatchRange(lowerBound, true, upperBound, false);
+                    lowerBound = upperBound;
+                }
+                else if (pruner.isPresent() && method.startsWith("LIST")) {
+                    mayMatch = pruner.get().mayMatchAny(PartitionPruner.splitLiterals(description));
+                }
+                if (!mayMatch) {
+                    prunedPartitions.add(partitionName);
+                }
+            }
+        }
+        catch (Exception ex) {
+            LOGGER.warn("Unable to read partition bounds of table {}, partitions are not pruned.", getTableLayoutRequest.getTableName(), ex);
+            return Collections.emptySet();
+        }
+        return prunedPartitions;
+    }
+
     @Override
     public GetSplitsResponse doGetSplits(
             final BlockAllocator blockAllocator, final GetSplitsRequest getSplitsRequest)
@@ -203,29 +278,105 @@ public class MySqlMetadataHandler
         Set<Split> splits = new HashSet<>();
         Block partitions = getSplitsRequest.getPartitions();
 
-        // TODO consider splitting further depending on #rows or data size. Could use Hash key for splitting if no partitions.
+        // Unpartitioned tables are split on key ranges when they have a suitable key column.
+        Set<Split> rangeSplits = makeRangeSplits(getSplitsRequest, BLOCK_PARTITION_COLUMN_NAME, ALL_PARTITIONS);
+        if (!rangeSplits.isEmpty()) {
+            return new GetSplitsResponse(getSplitsRequest.getCatalogName(), rangeSplits, null);
+        }
+
+        FieldReader locationReader = partitions.getFieldReader(BLOCK_PARTITION_COLUMN_NAME);
+        List<String> partitionNames = new ArrayList<>();
         for (int curPartition = partitionContd; curPartition < partitions.getRowCount(); curPartition++) {
-            FieldReader locationReader = partitions.getFieldReader(BLOCK_PARTITION_COLUMN_NAME);
             locationReader.setPosition(curPartition);
+            partitionNames.add(String.valueOf(locationReader.readText()));
+        }
+
+        // Small partitions are read together through a PARTITION (p1, p2, ...) list, based on INFORMATION_SCHEMA statistics.
+        Map<String, Long> rowCounts = partitionNames.size() > 1 ? getPartitionRowCounts(getSplitsRequest.getTableName()) : Collections.emptyMap();
+        int curPartition = partitionContd;
+        for (List<String> group : PartitionCoalescer.coalesce(partitionNames, rowCounts, getRowsPerSplit(), MAX_PARTITIONS_PER_SPLIT)) {
+            curPartition += group.size();
 
             SpillLocation spillLocation = makeSpillLocation(getSplitsRequest);
 
-            LOGGER.info("{}: Input partition is {}", getSplitsRequest.getQueryId(), locationReader.readText());
+            LOGGER.info("{}: Input partitions are {}", getSplitsRequest.getQueryId(), group);
 
             Split.Builder splitBuilder = Split.newBuilder(spillLocation, makeEncryptionKey())
-                    .add(BLOCK_PARTITION_COLUMN_NAME, String.valueOf(locationReader.readText()));
+                    .add(BLOCK_PARTITION_COLUMN_NAME, String.join(",", group));
 
             splits.add(splitBuilder.build());
 
-            if (splits.size() >= MAX_SPLITS_PER_REQUEST) {
+            if (splits.size() >= getMaxSplitsPerRequest()) {
                 //We exceeded the number of split we want to return in a single request, return and provide a continuation token.
-                return new GetSplitsResponse(getSplitsRequest.getCatalogName(), splits, encodeContinuationToken(curPartition + 1));
+                return new GetSplitsResponse(getSplitsRequest.getCatalogName(), splits, encodeContinuationToken(curPartition));
             }
         }
 
         return new GetSplitsResponse(getSplitsRequest.getCatalogName(), splits, null);
     }
 
+    /**
+     * @return number of splits after which a partitioned table's splits are returned with a continuation token.
+     */
+    @VisibleForTesting
+    int getMaxSplitsPerRequest()
+    {
+        return MAX_SPLITS_PER_REQUEST;
+    }
+
+    /**
+     * Reads INFORMATION_SCHEMA.PARTITIONS.TABLE_ROWS (summed over subpartitions) of every partition of the table.
+     *
+     * @param tableName partitioned table.
+     * @return estimated rows per partition name, empty if statistics cannot be read.
+     */
+    private Map<String, Long> getPartitionRowCounts(TableName tableName)
+    {
+        Map<String, Long> rowCounts = new HashMap<>();
+        List<String> parameters = Arrays.asList(tableName.getTableName(), tableName.getSchemaName());
+        try (Connection connection = getJdbcConnectionFactory().getConnection(getCredentialProvider());
+                PreparedStatement preparedStatement = new PreparedStatementBuilder().withConnection(connection).withQuery(GET_PARTITION_ROW_COUNTS_QUERY).withParameters(parameters).build();
+                ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                long rowCount = resultSet.getLong(ROW_COUNT);
+                if (!resultSet.wasNull()) {
+                    rowCounts.put(resultSet.getString(PARTITION_COLUMN_NAME), rowCount);
+                }
+            }
+        }
+        catch (Exception ex) {
+            LOGGER.warn("Unable to read partition statistics of table {}.", tableName, ex);
+            return Collections.emptyMap();
+        }
+        return rowCounts;
+    }
+
+    @Override
+    protected OptionalLong getEstimatedRowCount(final Connection jdbcConnection, final TableName tableName)
+            throws SQLException
+    {
+        List<String> parameters = Arrays.asList(tableName.getTableName(), tableName.getSchemaName());
+        try (PreparedStatement preparedStatement = new PreparedStatementBuilder().withConnection(jdbcConnection).withQuery(GET_ROW_COUNT_QUERY).withParameters(parameters).build();
+                ResultSet resultSet = preparedStatement.executeQuery()) {
+            if (resultSet.next()) {
+                long rowCount = resultSet.getLong(ROW_COUNT);
+                if (!resultSet.wasNull()) {
+                    return OptionalLong.of(rowCount);
+                }
+            }
+        }
+        return OptionalLong.empty();
+    }
+
+    /**
+     * CRC32 returns an unsigned integer.
+     */
+    @Override
+    protected String getHashSplitClause(final String column, final int bucketCount, final int bucket)
+    {
+        return String.format("MOD(CRC32(%s), %d) = %d", column, bucketCount, bucket);
+    }
+
     @VisibleForTesting
     protected List<TableName> getPaginatedTables(Connection connection, String databaseName, int token, int limit) throws SQLException
     {
@@ -29,6 +29,8 @@ import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
 import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
 import com.amazonaws.athena.connector.lambda.data.BlockUtils;
 import com.amazonaws.athena.connectors.jdbc.manager.FederationExpressionParser;
+import com.amazonaws.athena.connectors.jdbc.manager.JdbcFederationExpressionParser;
+import com.amazonaws.athena.connectors.jdbc.manager.ScalarFunctions;
 import com.amazonaws.athena.connector.lambda.domain.predicate.expression.ConstantExpression;
 import com.amazonaws.athena.connector.lambda.domain.predicate.expression.FederationExpression;
 import com.amazonaws.athena.connector.lambda.domain.predicate.expression.FunctionCallExpression;
@@ -39,15 +41,18 @@ import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.commons.lang3.NotImplementedException;
 import org.junit.Before;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.expression.ConstantExpression.DEFAULT_CONSTANT_EXPRESSION_BLOCK_NAME;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 // TODO in the future - create a base FederationExpressionParser test class.
 public class MySqlFederationExpressionParserTest {
@@ -174,6 +179,27 @@ public class MySqlFederationExpressionParserTest {
         assertEquals(inClause, "(`coinValueColumn` IN (25, 10, 5, 1))");
     }
 
+    @Test
+    public void testCreateSqlForComplexExpressionContent_ScalarFunction()
+    {
+        FunctionName lowerFunction = ScalarFunctions.LOWER_FUNCTION_NAME.getFunctionName();
+        assertEquals("(LOWER(`name`))", federationExpressionParser.mapFunctionToDataSourceSyntax(lowerFunction, ArrowType.Utf8.INSTANCE, ImmutableList.of("`name`")));
+        FunctionName substrFunction = ScalarFunctions.SUBSTR_FUNCTION_NAME.getFunctionName();
+        assertEquals("(SUBSTRING(`name` FROM ? FOR ?))", federationExpressionParser.mapFunctionToDataSourceSyntax(substrFunction, ArrowType.Utf8.INSTANCE, ImmutableList.of("`name`", "?", "?")));
+        FunctionName concatFunction = ScalarFunctions.CONCAT_FUNCTION_NAME.getFunctionName();
+        assertEquals("(CONCAT(`first`, ?, `last`))", federationExpressionParser.mapFunctionToDataSourceSyntax(concatFunction, ArrowType.Utf8.INSTANCE, ImmutableList.of("`first`", "?", "`last`")));
+        FunctionName yearFunction = ScalarFunctions.YEAR_FUNCTION_NAME.getFunctionName();
+        assertEquals("(EXTRACT(YEAR FROM `created`))", federationExpressionParser.mapFunctionToDataSourceSyntax(yearFunction, intType, ImmutableList.of("`created`")));
+
+        assertTrue(Arrays.asList(((JdbcFederationExpressionParser) federationExpressionParser).getSupportedFunctionNames()).containsAll(ImmutableList.of("$add", "lower", "substr", "concat")));
+    }
+
+    @Test(expected = NotImplementedException.class)
+    public void testCreateSqlForComplexExpressionContent_UnknownFunction()
+    {
+        federationExpressionParser.mapFunctionToDataSourceSyntax(new FunctionName("soundex"), ArrowType.Utf8.INSTANCE, ImmutableList.of("`name`"));
+    }
+
     @Test
     public void testComplexExpressions_Simple()
     {
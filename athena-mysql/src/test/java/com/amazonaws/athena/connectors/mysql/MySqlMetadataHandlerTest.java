@@ -315,6 +315,58 @@ public class MySqlMetadataHandlerTest
         Assert.assertEquals(expectedSplits, actualSplits);
     }
 
+    @Test
+    public void doGetSplitsCoalescesPartitions()
+            throws Exception
+    {
+        MySqlMetadataHandler coalescingHandler = new MySqlMetadataHandler(databaseConnectionConfig, this.secretsManager, this.athena, this.jdbcConnectionFactory,
+                com.google.common.collect.ImmutableMap.of(MySqlMetadataHandler.ROWS_PER_SPLIT, "100"))
+        {
+            @Override
+            int getMaxSplitsPerRequest()
+            {
+                return 1;
+            }
+        };
+        BlockAllocator blockAllocator = new BlockAllocatorImpl();
+        Constraints constraints = Mockito.mock(Constraints.class);
+        TableName tableName = new TableName("testSchema", "testTable");
+        Schema partitionSchema = coalescingHandler.getPartitionSchema("testCatalogName");
+        Set<String> partitionCols = partitionSchema.getFields().stream().map(Field::getName).collect(Collectors.toSet());
+        GetTableLayoutRequest getTableLayoutRequest = new GetTableLayoutRequest(this.federatedIdentity, "testQueryId", "testCatalogName", tableName, constraints, partitionSchema, partitionCols);
+
+        PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(this.connection.prepareStatement(MySqlMetadataHandler.GET_PARTITIONS_QUERY)).thenReturn(preparedStatement);
+        ResultSet resultSet = mockResultSet(new String[] {"partition_name"}, new int[] {Types.VARCHAR}, new Object[][] {{"p0"}, {"p1"}, {"p2"}}, new AtomicInteger(-1));
+        Mockito.when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        Mockito.when(this.connection.getMetaData().getSearchStringEscape()).thenReturn(null);
+
+        // p0 and p1 fit into 100 rows together, p2 would overflow the group
+        PreparedStatement rowCountStatement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(this.connection.prepareStatement(MySqlMetadataHandler.GET_PARTITION_ROW_COUNTS_QUERY)).thenReturn(rowCountStatement);
+        Object[][] rowCounts = {{"p0", 40L}, {"p1", 50L}, {"p2", 30L}};
+        AtomicInteger rowCountRow = new AtomicInteger(-1);
+        ResultSet rowCountResultSet = mockResultSet(new String[] {"partition_name", "row_count"}, rowCounts, rowCountRow);
+        Mockito.when(rowCountResultSet.getLong("row_count")).thenAnswer(invocation -> rowCounts[rowCountRow.get()][1]);
+        Mockito.when(rowCountStatement.executeQuery()).thenReturn(rowCountResultSet);
+
+        GetTableLayoutResponse getTableLayoutResponse = coalescingHandler.doGetTableLayout(blockAllocator, getTableLayoutRequest);
+
+        BlockAllocator splitBlockAllocator = new BlockAllocatorImpl();
+        GetSplitsRequest getSplitsRequest = new GetSplitsRequest(this.federatedIdentity, "testQueryId", "testCatalogName", tableName, getTableLayoutResponse.getPartitions(), new ArrayList<>(partitionCols), constraints, null);
+        GetSplitsResponse getSplitsResponse = coalescingHandler.doGetSplits(splitBlockAllocator, getSplitsRequest);
+
+        // the group is read through a PARTITION (p0,p1) list and the continuation token skips both partitions
+        Assert.assertEquals(Collections.singleton(Collections.singletonMap(MySqlMetadataHandler.BLOCK_PARTITION_COLUMN_NAME, "p0,p1")),
+                getSplitsResponse.getSplits().stream().map(Split::getProperties).collect(Collectors.toSet()));
+        Assert.assertEquals("2", getSplitsResponse.getContinuationToken());
+
+        GetSplitsRequest continuationRequest = new GetSplitsRequest(this.federatedIdentity, "testQueryId", "testCatalogName", tableName, getTableLayoutResponse.getPartitions(), new ArrayList<>(partitionCols), constraints, getSplitsResponse.getContinuationToken());
+        GetSplitsResponse continuationResponse = coalescingHandler.doGetSplits(splitBlockAllocator, continuationRequest);
+        Assert.assertEquals(Collections.singleton(Collections.singletonMap(MySqlMetadataHandler.BLOCK_PARTITION_COLUMN_NAME, "p2")),
+                continuationResponse.getSplits().stream().map(Split::getProperties).collect(Collectors.toSet()));
+    }
+
     @org.testng.annotations.Test(expectedExceptions = {RuntimeException.class}, expectedExceptionsMessageRegExp = "More than one table that matches 'testtable' was returned from Database testSchema")
     public void doGetTableCaseInsensitiveDuplicateTableNames()
             throws Exception
@@ -165,6 +165,32 @@ public class MySqlRecordHandlerTest
         Mockito.verify(preparedStatement, Mockito.times(1)).setBoolean(11, true);
     }
 
+    @Test
+    public void buildSplitSqlForCoalescedPartitions()
+            throws SQLException
+    {
+        TableName tableName = new TableName("testSchema", "testTable");
+
+        SchemaBuilder schemaBuilder = SchemaBuilder.newBuilder();
+        schemaBuilder.addField(FieldBuilder.newBuilder("testCol1", Types.MinorType.INT.getType()).build());
+        schemaBuilder.addField(FieldBuilder.newBuilder("partition_name", Types.MinorType.VARCHAR.getType()).build());
+        Schema schema = schemaBuilder.build();
+
+        Split split = Mockito.mock(Split.class);
+        Mockito.when(split.getProperties()).thenReturn(Collections.singletonMap("partition_name", "p0,p1"));
+        Mockito.when(split.getProperty(Mockito.eq("partition_name"))).thenReturn("p0,p1");
+
+        Constraints constraints = new Constraints(Collections.emptyMap(), ImmutableList.of(), ImmutableList.of(), Constraints.DEFAULT_NO_LIMIT);
+
+        String expectedSql = "SELECT `testCol1` FROM `testSchema`.`testTable` PARTITION(p0,p1) ";
+        PreparedStatement expectedPreparedStatement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(this.connection.prepareStatement(Mockito.eq(expectedSql))).thenReturn(expectedPreparedStatement);
+
+        PreparedStatement preparedStatement = this.mySqlRecordHandler.buildSplitSql(this.connection, "testCatalogName", tableName, schema, constraints, split);
+
+        Assert.assertEquals(expectedPreparedStatement, preparedStatement);
+    }
+
     private ValueSet getSingleValueSet(Object value) {
         Range range = Mockito.mock(Range.class, Mockito.RETURNS_DEEP_STUBS);
         Mockito.when(range.isSingleValue()).thenReturn(true);
@@ -20,13 +20,24 @@
 package com.amazonaws.athena.connectors.oracle;
 
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcFederationExpressionParser;
+import com.amazonaws.athena.connectors.jdbc.manager.ScalarFunctions;
 import com.google.common.base.Joiner;
+import com.google.common.collect.Sets;
 import org.apache.arrow.vector.types.pojo.ArrowType;
 
 import java.util.List;
+import java.util.Set;
 
 public class OracleFederationExpressionParser extends JdbcFederationExpressionParser
 {
+    // Neither SUBSTR, which treats a start position of 0 as 1, nor ||, which treats null as an empty string, matches Athena.
+    private static final Set<ScalarFunctions> SUPPORTED_SCALAR_FUNCTIONS = Sets.immutableEnumSet(
+            ScalarFunctions.ABS_FUNCTION_NAME, ScalarFunctions.LOWER_FUNCTION_NAME,
+            ScalarFunctions.UPPER_FUNCTION_NAME, ScalarFunctions.LENGTH_FUNCTION_NAME,
+            ScalarFunctions.TRIM_FUNCTION_NAME, ScalarFunctions.LTRIM_FUNCTION_NAME,
+            ScalarFunctions.RTRIM_FUNCTION_NAME, ScalarFunctions.YEAR_FUNCTION_NAME,
+            ScalarFunctions.MONTH_FUNCTION_NAME, ScalarFunctions.DAY_FUNCTION_NAME);
+
     public OracleFederationExpressionParser(String quoteChar)
     {
         super(quoteChar);
@@ -36,5 +47,20 @@ public class OracleFederationExpressionParser extends JdbcFederationExpressionPa
     public String writeArrayConstructorClause(ArrowType type, List<String> arguments)
     {
         return Joiner.on(", ").join(arguments);
-    }    
+    }
+
+    @Override
+    public Set<ScalarFunctions> getSupportedScalarFunctions()
+    {
+        return SUPPORTED_SCALAR_FUNCTIONS;
+    }
+
+    @Override
+    protected String writeScalarFunctionClause(ScalarFunctions function, ArrowType type, List<String> arguments)
+    {
+        if (function == ScalarFunctions.LENGTH_FUNCTION_NAME) {
+            return "LENGTH(" + arguments.get(0) + ")";
+        }
+        return super.writeScalarFunctionClause(function, type, arguments);
+    }
 }
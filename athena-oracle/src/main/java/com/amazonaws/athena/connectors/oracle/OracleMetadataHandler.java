@@ -29,6 +29,7 @@ import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
 import com.amazonaws.athena.connector.lambda.data.SupportedTypes;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
+import com.amazonaws.athena.connector.lambda.domain.predicate.functions.FunctionName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.functions.StandardFunctions;
 import com.amazonaws.athena.connector.lambda.domain.spill.SpillLocation;
 import com.amazonaws.athena.connector.lambda.metadata.GetDataSourceCapabilitiesRequest;
@@ -51,7 +52,9 @@ import com.amazonaws.athena.connectors.jdbc.connection.JdbcConnectionFactory;
 import com.amazonaws.athena.connectors.jdbc.manager.JDBCUtil;
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcArrowTypeConverter;
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcMetadataHandler;
+import com.amazonaws.athena.connectors.jdbc.manager.PartitionPruner;
 import com.amazonaws.athena.connectors.jdbc.manager.PreparedStatementBuilder;
+import com.amazonaws.athena.connectors.jdbc.manager.ScalarFunctions;
 import com.amazonaws.services.athena.AmazonAthena;
 import com.amazonaws.services.secretsmanager.AWSSecretsManager;
 import com.google.common.annotations.VisibleForTesting;
@@ -72,11 +75,15 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.functions.StandardFunctions.IS_DISTINCT_FROM_OPERATOR_FUNCTION_NAME;
 import static com.amazonaws.athena.connector.lambda.domain.predicate.functions.StandardFunctions.MODULUS_FUNCTION_NAME;
@@ -90,12 +97,19 @@ public class OracleMetadataHandler
         extends JdbcMetadataHandler
 {
     static final String GET_PARTITIONS_QUERY = "Select DISTINCT PARTITION_NAME FROM USER_TAB_PARTITIONS where table_name= ?";
+    static final String GET_PARTITION_KEY_QUERY = "SELECT t.PARTITIONING_TYPE, k.COLUMN_NAME FROM ALL_PART_TABLES t JOIN ALL_PART_KEY_COLUMNS k " +
+            "ON k.OWNER = t.OWNER AND k.NAME = t.TABLE_NAME AND k.OBJECT_TYPE = 'TABLE' WHERE t.OWNER = ? AND t.TABLE_NAME = ?";
+    static final String GET_PARTITION_BOUNDS_QUERY = "SELECT PARTITION_NAME, HIGH_VALUE FROM ALL_TAB_PARTITIONS WHERE TABLE_OWNER = ? AND TABLE_NAME = ? " +
+            "ORDER BY PARTITION_POSITION";
+    static final String GET_ROW_COUNT_QUERY = "SELECT NUM_ROWS FROM ALL_TABLES WHERE OWNER = ? AND TABLE_NAME = ?";
     static final String BLOCK_PARTITION_COLUMN_NAME = "PARTITION_NAME";
     static final String ALL_PARTITIONS = "0";
     static final String PARTITION_COLUMN_NAME = "PARTITION_NAME";
     private static final Logger LOGGER = LoggerFactory.getLogger(OracleMetadataHandler.class);
     private static final int MAX_SPLITS_PER_REQUEST = 1000_000;
     private static final String COLUMN_NAME = "COLUMN_NAME";
+    private static final String PARTITIONING_TYPE = "PARTITIONING_TYPE";
+    private static final String HIGH_VALUE = "HIGH_VALUE";
 
     static final String LIST_PAGINATED_TABLES_QUERY = "SELECT TABLE_NAME as \"TABLE_NAME\", OWNER as \"TABLE_SCHEM\" FROM all_tables WHERE owner = ? ORDER BY TABLE_NAME OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
 
@@ -170,11 +184,15 @@ public class OracleMetadataHandler
                     });
                 }
                 else {
+                    Set<String> prunedPartitions = getPrunedPartitions(connection, getTableLayoutRequest);
                     do {
                         final String partitionName = resultSet.getString(PARTITION_COLUMN_NAME);
+                        if (prunedPartitions.contains(partitionName)) {
+                            LOGGER.debug("Partition {} pruned by constraints", partitionName);
+                            continue;
+                        }
 
-                        // 1. Returns all partitions of table, we are not supporting constraints push down to filter partitions.
-                        // 2. This API is not paginated, we could use order by and limit clause with offsets here.
+                        // This API is not paginated, we could use order by and limit clause with offsets here.
                         blockWriter.writeRows((Block block, int rowNum) -> {
                             block.setValue(BLOCK_PARTITION_COLUMN_NAME, rowNum, partitionName);
                             LOGGER.debug("Adding partition {}", partitionName);
@@ -188,6 +206,64 @@ public class OracleMetadataHandler
         }
     }
 
+    /**
+     * Evaluates the HIGH_VALUE of every partition against the constraints on the partition key. Only RANGE and LIST
+     * partitioning on a single column is pruned; a RANGE partition holds the values from the previous partition's
+     * HIGH_VALUE (inclusive) to its own (exclusive).
+     *
+     * @param connection connection to the database.
+     * @param getTableLayoutRequest request holding the table, its schema and the constraints.
+     * @return names of the partitions which cannot hold rows matching the constraints.
+     */
+    private Set<String> getPrunedPartitions(Connection connection, GetTableLayoutRequest getTableLayoutRequest)
+    {
+        Set<String> prunedPartitions = new HashSet<>();
+        if (getTableLayoutRequest.getConstraints().getSummary().isEmpty()) {
+            return prunedPartitions;
+        }
+        List<String> parameters = Arrays.asList(getTableLayoutRequest.getTableName().getSchemaName(),
+                getTableLayoutRequest.getTableName().getTableName().toUpperCase());
+        try (PreparedStatement keyStatement = new PreparedStatementBuilder().withConnection(connection).withQuery(GET_PARTITION_KEY_QUERY).withParameters(parameters).build();
+                ResultSet keyResultSet = keyStatement.executeQuery()) {
+            if (!keyResultSet.next()) {
+                return prunedPartitions;
+            }
+            String partitioningType = String.valueOf(keyResultSet.getString(PARTITIONING_TYPE));
+            Optional<PartitionPruner> pruner = PartitionPruner.forColumn(getTableLayoutRequest.getSchema(), getTableLayoutRequest.getConstraints(),
+                    keyResultSet.getString(COLUMN_NAME));
+            if (keyResultSet.next() || !pruner.isPresent() || !("RANGE".equals(partitioningType) || "LIST".equals(partitioningType))) {
+                // multi-column keys and hash partitioning are not pruned
+                return prunedPartitions;
+            }
+
+            try (PreparedStatement boundsStatement = new PreparedStatementBuilder().withConnection(connection).withQuery(GET_PARTITION_BOUNDS_QUERY).withParameters(parameters).build();
+                    ResultSet boundsResultSet = boundsStatement.executeQuery()) {
+                String lowerBound = null;
+                while (boundsResultSet.next()) {
+                    String partitionName = boundsResultSet.getString(PARTITION_COLUMN_NAME);
+                    String highValue = boundsResultSet.getString(HIGH_VALUE);
+                    boolean mayMatch;
+                    if ("RANGE".equals(partitioningType)) {
+                        String upperBound = "MAXVALUE".equals(highValue) ? null : highValue;
+                        mayMatch = pruner.get().mayMatchRange(lowerBound, true, upperBound, false);
+                        lowerBound = upperBound;
+                    }
+                    else {
+                        mayMatch = highValue == null || pruner.get().mayMatchAny(PartitionPruner.splitLiterals(highValue));
+                    }
+                    if (!mayMatch) {
+                        prunedPartitions.add(partitionName);
+                    }
+                }
+            }
+        }
+        catch (Exception ex) {
+            LOGGER.warn("Unable to read partition bounds of table {}, partitions are not pruned.", getTableLayoutRequest.getTableName(), ex);
+            return Collections.emptySet();
+        }
+        return prunedPartitions;
+    }
+
     /**
      *
      * @param blockAllocator
@@ -208,7 +284,12 @@ public class OracleMetadataHandler
         Set<Split> splits = new HashSet<>();
         Block partitions = getSplitsRequest.getPartitions();
 
-        // TODO consider splitting further depending on #rows or data size. Could use Hash key for splitting if no partitions.
+        // Unpartitioned tables are split on key ranges when they have a suitable key column.
+        Set<Split> rangeSplits = makeRangeSplits(getSplitsRequest, BLOCK_PARTITION_COLUMN_NAME, ALL_PARTITIONS);
+        if (!rangeSplits.isEmpty()) {
+            return new GetSplitsResponse(getSplitsRequest.getCatalogName(), rangeSplits, null);
+        }
+
         for (int curPartition = partitionContd; curPartition < partitions.getRowCount(); curPartition++) {
             FieldReader locationReader = partitions.getFieldReader(BLOCK_PARTITION_COLUMN_NAME);
             locationReader.setPosition(curPartition);
@@ -231,6 +312,35 @@ public class OracleMetadataHandler
         return new GetSplitsResponse(getSplitsRequest.getCatalogName(), splits, null);
     }
 
+    /**
+     * Reads ALL_TABLES.NUM_ROWS, which is populated by DBMS_STATS.
+     */
+    @Override
+    protected OptionalLong getEstimatedRowCount(final Connection jdbcConnection, final TableName tableName)
+            throws SQLException
+    {
+        List<String> parameters = Arrays.asList(tableName.getSchemaName(), tableName.getTableName());
+        try (PreparedStatement preparedStatement = new PreparedStatementBuilder().withConnection(jdbcConnection).withQuery(GET_ROW_COUNT_QUERY).withParameters(parameters).build();
+                ResultSet resultSet = preparedStatement.executeQuery()) {
+            if (resultSet.next()) {
+                long rowCount = resultSet.getLong("NUM_ROWS");
+                if (!resultSet.wasNull()) {
+                    return OptionalLong.of(rowCount);
+                }
+            }
+        }
+        return OptionalLong.empty();
+    }
+
+    /**
+     * ORA_HASH returns a bucket between 0 and its max bucket argument.
+     */
+    @Override
+    protected String getHashSplitClause(final String column, final int bucketCount, final int bucket)
+    {
+        return String.format("ORA_HASH(%s, %d) = %d", column, bucketCount - 1, bucket);
+    }
+
     @VisibleForTesting
     protected List<TableName> getPaginatedTables(Connection connection, String databaseName, int token, int limit) throws SQLException
     {
@@ -272,9 +382,12 @@ public class OracleMetadataHandler
         ));
         capabilities.put(DataSourceOptimizations.SUPPORTS_COMPLEX_EXPRESSION_PUSHDOWN.withSupportedSubTypes(
                 ComplexExpressionPushdownSubType.SUPPORTED_FUNCTION_EXPRESSION_TYPES
-                        .withSubTypeProperties(Arrays.stream(StandardFunctions.values())
+                        .withSubTypeProperties(Stream.concat(Arrays.stream(StandardFunctions.values())
                                 .filter(values -> !unsupportedFunctions.contains(values))
-                                .map(standardFunctions -> standardFunctions.getFunctionName().getFunctionName())
+                                .map(StandardFunctions::getFunctionName),
+                                new OracleFederationExpressionParser(OracleRecordHandler.ORACLE_QUOTE_CHARACTER).getSupportedScalarFunctions().stream()
+                                        .map(ScalarFunctions::getFunctionName))
+                                .map(FunctionName::getFunctionName)
                                 .toArray(String[]::new))
         ));
         capabilities.put(DataSourceOptimizations.SUPPORTS_TOP_N_PUSHDOWN.withSupportedSubTypes(
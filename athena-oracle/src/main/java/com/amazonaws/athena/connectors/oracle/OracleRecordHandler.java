@@ -25,6 +25,7 @@ import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
 import com.amazonaws.athena.connectors.jdbc.connection.DatabaseConnectionConfig;
 import com.amazonaws.athena.connectors.jdbc.connection.DatabaseConnectionInfo;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcConnectionFactory;
+import com.amazonaws.athena.connectors.jdbc.manager.FetchSizePolicy;
 import com.amazonaws.athena.connectors.jdbc.manager.JDBCUtil;
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcRecordHandler;
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcSplitQueryBuilder;
@@ -56,7 +57,9 @@ public class OracleRecordHandler
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(OracleRecordHandler.class);
     private static final int FETCH_SIZE = 1000;
-    private static final String ORACLE_QUOTE_CHARACTER = "\"";
+    // The driver allocates its fetch buffers from the declared column widths rather than the values read.
+    private static final FetchSizePolicy FETCH_SIZE_POLICY = new FetchSizePolicy(FETCH_SIZE, 10_000);
+    static final String ORACLE_QUOTE_CHARACTER = "\"";
 
     private final JdbcSplitQueryBuilder jdbcSplitQueryBuilder;
 
@@ -106,4 +109,10 @@ public class OracleRecordHandler
 
         return preparedStatement;
     }
+
+    @Override
+    protected FetchSizePolicy getFetchSizePolicy()
+    {
+        return FETCH_SIZE_POLICY;
+    }
 }
@@ -28,17 +28,22 @@ import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
 import com.amazonaws.athena.connector.lambda.metadata.*;
+import com.amazonaws.athena.connector.lambda.metadata.optimizations.DataSourceOptimizations;
 import com.amazonaws.athena.connector.lambda.security.FederatedIdentity;
 import com.amazonaws.athena.connectors.jdbc.TestBase;
 import com.amazonaws.athena.connectors.jdbc.connection.DatabaseConnectionConfig;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcConnectionFactory;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcCredentialProvider;
+import com.amazonaws.athena.connectors.jdbc.manager.ScalarFunctions;
 import com.amazonaws.services.athena.AmazonAthena;
 import com.amazonaws.services.secretsmanager.AWSSecretsManager;
 import com.amazonaws.services.secretsmanager.model.GetSecretValueRequest;
 import com.amazonaws.services.secretsmanager.model.GetSecretValueResult;
+import com.google.common.collect.ImmutableList;
+import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.commons.lang3.NotImplementedException;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -335,4 +340,39 @@ public class OracleMetadataHandlerTest
         Assert.assertEquals(inputTableName, getTableResponse.getTableName());
         Assert.assertEquals("testCatalog", getTableResponse.getCatalogName());
     }
+
+    @Test
+    public void scalarFunctionPushdown()
+    {
+        OracleFederationExpressionParser parser = new OracleFederationExpressionParser(OracleRecordHandler.ORACLE_QUOTE_CHARACTER);
+        ArrowType intType = new ArrowType.Int(32, true);
+        Assert.assertEquals("(LENGTH(\"name\"))", parser.mapFunctionToDataSourceSyntax(ScalarFunctions.LENGTH_FUNCTION_NAME.getFunctionName(), intType, ImmutableList.of("\"name\"")));
+        Assert.assertEquals("(LOWER(\"name\"))", parser.mapFunctionToDataSourceSyntax(ScalarFunctions.LOWER_FUNCTION_NAME.getFunctionName(), ArrowType.Utf8.INSTANCE, ImmutableList.of("\"name\"")));
+        Assert.assertEquals("(EXTRACT(YEAR FROM \"created\"))", parser.mapFunctionToDataSourceSyntax(ScalarFunctions.YEAR_FUNCTION_NAME.getFunctionName(), intType, ImmutableList.of("\"created\"")));
+
+        List<String> supportedFunctions = getSupportedFunctionNames();
+        Assert.assertTrue(supportedFunctions.containsAll(ImmutableList.of("length", "lower", "trim", "year")));
+        // SUBSTR counts a start position of 0 as 1 and || treats null as an empty string
+        assertNotPushedDown(parser, supportedFunctions, ScalarFunctions.SUBSTR_FUNCTION_NAME, ScalarFunctions.SUBSTRING_FUNCTION_NAME, ScalarFunctions.CONCAT_FUNCTION_NAME);
+    }
+
+    private List<String> getSupportedFunctionNames()
+    {
+        return this.oracleMetadataHandler.doGetDataSourceCapabilities(new BlockAllocatorImpl(), new GetDataSourceCapabilitiesRequest(this.federatedIdentity, "testQueryId", "testCatalog"))
+                .getCapabilities().get(DataSourceOptimizations.SUPPORTS_COMPLEX_EXPRESSION_PUSHDOWN.getOptimization()).get(0).getProperties();
+    }
+
+    private void assertNotPushedDown(OracleFederationExpressionParser parser, List<String> supportedFunctions, ScalarFunctions... functions)
+    {
+        for (ScalarFunctions function : functions) {
+            Assert.assertFalse(supportedFunctions.contains(function.getFunctionName().getFunctionName()));
+            try {
+                parser.mapFunctionToDataSourceSyntax(function.getFunctionName(), ArrowType.Utf8.INSTANCE, ImmutableList.of("\"name\"", "?"));
+                Assert.fail("Expected " + function.getFunctionName().getFunctionName() + " not to be pushed down");
+            }
+            catch (NotImplementedException expected) {
+                // The function is evaluated by Athena
+            }
+        }
+    }
 }
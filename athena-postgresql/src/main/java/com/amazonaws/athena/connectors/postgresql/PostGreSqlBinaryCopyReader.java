@@ -0,0 +1,240 @@
+/*-
+ * #%L
+ * athena-postgresql
+ * %%
+ * Copyright (C) 2019 - 2022 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.postgresql;
+
+import com.amazonaws.athena.connectors.jdbc.manager.ColumnValueReader;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.TimeZone;
+
+/**
+ * Decodes the output of COPY ... TO STDOUT WITH (FORMAT binary) one tuple at a time. The fields of the current tuple are
+ * kept in a reusable buffer and decoded on access, using the binary send format of their PostgreSQL type.
+ *
+ * Stream layout: an 11 byte signature, int32 flags and an int32 sized header extension, then for every tuple an int16
+ * field count followed by each field as an int32 length (-1 for null) and its bytes. A field count of -1 ends the data.
+ */
+public class PostGreSqlBinaryCopyReader
+        implements ColumnValueReader
+{
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    // PostgreSQL dates and timestamps count from 2000-01-01.
+    private static final int POSTGRES_EPOCH_DAY = 10_957;
+    private static final long POSTGRES_EPOCH_MILLIS = 946_684_800_000L;
+    private static final int NUMERIC_POSITIVE = 0x0000;
+    private static final int NUMERIC_NEGATIVE = 0x4000;
+    private static final int NUMERIC_DIGITS_PER_LONG = 4;
+    private static final BigInteger NUMERIC_BASE = BigInteger.valueOf(10_000);
+
+    private final DataInputStream input;
+    private final int[] offsets;
+    private final int[] lengths;
+    private byte[] tuple = new byte[4096];
+    private ByteBuffer tupleBuffer = ByteBuffer.wrap(tuple);
+
+    /**
+     * @param input COPY output, positioned at the signature.
+     * @param fieldCount number of fields of every tuple.
+     */
+    public PostGreSqlBinaryCopyReader(InputStream input, int fieldCount)
+            throws IOException
+    {
+        this.input = new DataInputStream(input);
+        this.offsets = new int[fieldCount];
+        this.lengths = new int[fieldCount];
+
+        byte[] signature = new byte[SIGNATURE.length];
+        this.input.readFully(signature);
+        if (!Arrays.equals(SIGNATURE, signature)) {
+            throw new IOException("Not a binary COPY stream");
+        }
+        this.input.readInt();
+        int extensionLength = this.input.readInt();
+        this.input.skipBytes(extensionLength);
+    }
+
+    /**
+     * Reads the next tuple.
+     *
+     * @return false once the end of the data has been reached.
+     */
+    public boolean next()
+            throws IOException
+    {
+        short fieldCount = input.readShort();
+        if (fieldCount == -1) {
+            return false;
+        }
+        if (fieldCount != offsets.length) {
+            throw new IOException("Expected " + offsets.length + " fields but tuple has " + fieldCount);
+        }
+        int position = 0;
+        for (int i = 0; i < fieldCount; i++) {
+            int length = input.readInt();
+            lengths[i] = length;
+            offsets[i] = position;
+            if (length > 0) {
+                ensureCapacity(position + length);
+                input.readFully(tuple, position, length);
+                position += length;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isNull(int field)
+    {
+        return lengths[field] < 0;
+    }
+
+    @Override
+    public boolean getBoolean(int field)
+    {
+        return tuple[offsets[field]] != 0;
+    }
+
+    @Override
+    public byte getByte(int field)
+    {
+        return (byte) getShort(field);
+    }
+
+    @Override
+    public short getShort(int field)
+    {
+        return tupleBuffer.getShort(offsets[field]);
+    }
+
+    @Override
+    public int getInt(int field)
+    {
+        return tupleBuffer.getInt(offsets[field]);
+    }
+
+    @Override
+    public long getLong(int field)
+    {
+        return tupleBuffer.getLong(offsets[field]);
+    }
+
+    @Override
+    public float getFloat(int field)
+    {
+        return tupleBuffer.getFloat(offsets[field]);
+    }
+
+    @Override
+    public double getDouble(int field)
+    {
+        return tupleBuffer.getDouble(offsets[field]);
+    }
+
+    @Override
+    public String getText(int field)
+    {
+        return new String(tuple, offsets[field], lengths[field], StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte[] getBytes(int field)
+    {
+        return Arrays.copyOfRange(tuple, offsets[field], offsets[field] + lengths[field]);
+    }
+
+    /**
+     * @return days since 1970-01-01 of a date field.
+     */
+    @Override
+    public int getEpochDay(int field)
+    {
+        return getInt(field) + POSTGRES_EPOCH_DAY;
+    }
+
+    /**
+     * @return milliseconds since 1970-01-01 00:00:00 of a timestamp field, read as UTC.
+     */
+    public long getEpochMilli(int field)
+    {
+        return Math.floorDiv(getLong(field), 1000L) + POSTGRES_EPOCH_MILLIS;
+    }
+
+    /**
+     * @return milliseconds since 1970-01-01 00:00:00 UTC of a timestamp field whose wall clock time is, like
+     * java.sql.Timestamp, read in the default time zone.
+     */
+    @Override
+    public long getDateMilli(int field)
+    {
+        long millis = getEpochMilli(field);
+        return millis - TimeZone.getDefault().getOffset(millis);
+    }
+
+    /**
+     * Decodes a numeric field: int16 digit count, int16 weight of the first digit, int16 sign and int16 display scale,
+     * followed by the base 10000 digits.
+     */
+    @Override
+    public BigDecimal getDecimal(int field)
+    {
+        int offset = offsets[field];
+        int digitCount = tupleBuffer.getShort(offset);
+        int weight = tupleBuffer.getShort(offset + 2);
+        int sign = tupleBuffer.getShort(offset + 4) & 0xFFFF;
+        int displayScale = tupleBuffer.getShort(offset + 6);
+        if (sign != NUMERIC_POSITIVE && sign != NUMERIC_NEGATIVE) {
+            // NaN and infinities
+            throw new NumberFormatException("Special numeric value can not be represented as a decimal");
+        }
+
+        BigInteger unscaled;
+        if (digitCount <= NUMERIC_DIGITS_PER_LONG) {
+            long value = 0;
+            for (int i = 0; i < digitCount; i++) {
+                value = value * 10_000 + tupleBuffer.getShort(offset + 8 + 2 * i);
+            }
+            unscaled = BigInteger.valueOf(value);
+        }
+        else {
+            unscaled = BigInteger.ZERO;
+            for (int i = 0; i < digitCount; i++) {
+                unscaled = unscaled.multiply(NUMERIC_BASE).add(BigInteger.valueOf(tupleBuffer.getShort(offset + 8 + 2 * i)));
+            }
+        }
+        BigDecimal value = new BigDecimal(unscaled, (digitCount - weight - 1) * 4).setScale(displayScale, RoundingMode.UNNECESSARY);
+        return (sign == NUMERIC_NEGATIVE) ? value.negate() : value;
+    }
+
+    private void ensureCapacity(int capacity)
+    {
+        if (capacity > tuple.length) {
+            tuple = Arrays.copyOf(tuple, Math.max(capacity, tuple.length * 2));
+            tupleBuffer = ByteBuffer.wrap(tuple);
+        }
+    }
+}
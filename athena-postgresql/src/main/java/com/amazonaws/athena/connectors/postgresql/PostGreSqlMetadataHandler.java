@@ -26,7 +26,6 @@ import com.amazonaws.athena.connector.lambda.data.BlockWriter;
 import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
-import com.amazonaws.athena.connector.lambda.domain.predicate.functions.StandardFunctions;
 import com.amazonaws.athena.connector.lambda.domain.spill.SpillLocation;
 import com.amazonaws.athena.connector.lambda.metadata.GetDataSourceCapabilitiesRequest;
 import com.amazonaws.athena.connector.lambda.metadata.GetDataSourceCapabilitiesResponse;
@@ -45,9 +44,13 @@ import com.amazonaws.athena.connectors.jdbc.connection.GenericJdbcConnectionFact
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcConnectionFactory;
 import com.amazonaws.athena.connectors.jdbc.manager.JDBCUtil;
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcMetadataHandler;
+import com.amazonaws.athena.connectors.jdbc.manager.PartitionPruner;
 import com.amazonaws.athena.connectors.jdbc.manager.PreparedStatementBuilder;
+import com.amazonaws.athena.connectors.jdbc.splits.PartitionCoalescer;
 import com.amazonaws.services.athena.AmazonAthena;
 import com.amazonaws.services.secretsmanager.AWSSecretsManager;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -62,15 +65,23 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static com.amazonaws.athena.connectors.postgresql.PostGreSqlConstants.POSTGRESQL_DEFAULT_PORT;
 import static com.amazonaws.athena.connectors.postgresql.PostGreSqlConstants.POSTGRESQL_DRIVER_CLASS;
 import static com.amazonaws.athena.connectors.postgresql.PostGreSqlConstants.POSTGRES_NAME;
+import static com.amazonaws.athena.connectors.postgresql.PostGreSqlConstants.POSTGRES_QUOTE_CHARACTER;
 
 /**
  * Handles metadata for PostGreSql. User must have access to `schemata`, `tables`, `columns`, `partitions` tables in
@@ -85,6 +96,19 @@ public class PostGreSqlMetadataHandler
             "ON pg_inherits.inhparent = parent.oid JOIN pg_class child ON pg_inherits.inhrelid = child.oid JOIN pg_namespace nmsp_parent " +
             "ON nmsp_parent.oid = parent.relnamespace JOIN pg_namespace nmsp_child ON nmsp_child.oid = child.relnamespace where nmsp_parent.nspname = ? " +
             "AND parent.relname = ?";
+    static final String GET_PARTITION_ROW_COUNTS_QUERY = "SELECT nmsp_child.nspname AS child_schema, child.relname AS child, child.reltuples::bigint AS row_count " +
+            "FROM pg_inherits JOIN pg_class parent ON pg_inherits.inhparent = parent.oid JOIN pg_class child ON pg_inherits.inhrelid = child.oid " +
+            "JOIN pg_namespace nmsp_parent ON nmsp_parent.oid = parent.relnamespace JOIN pg_namespace nmsp_child ON nmsp_child.oid = child.relnamespace " +
+            "where nmsp_parent.nspname = ? AND parent.relname = ?";
+    static final String GET_PARTITION_BOUNDS_QUERY = "SELECT nmsp_child.nspname AS child_schema, child.relname AS child, " +
+            "pg_get_expr(child.relpartbound, child.oid) AS partition_bound, pg_get_partkeydef(parent.oid) AS partition_key " +
+            "FROM pg_inherits JOIN pg_class parent ON pg_inherits.inhparent = parent.oid JOIN pg_class child ON pg_inherits.inhrelid = child.oid " +
+            "JOIN pg_namespace nmsp_parent ON nmsp_parent.oid = parent.relnamespace JOIN pg_namespace nmsp_child ON nmsp_child.oid = child.relnamespace " +
+            "where nmsp_parent.nspname = ? AND parent.relname = ?";
+    static final String GET_ROW_COUNT_QUERY = "SELECT c.reltuples::bigint AS row_count FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE n.nspname = ? AND c.relname = ?";
+    static final String GET_PAGE_COUNT_QUERY = "SELECT c.reltuples::bigint AS row_count, c.relpages AS page_count FROM pg_class c " +
+            "JOIN pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = ? AND c.relname = ? AND c.relkind IN ('r', 'm')";
     public static final String BLOCK_PARTITION_COLUMN_NAME = "partition_name";
     public static final String BLOCK_PARTITION_SCHEMA_COLUMN_NAME = "partition_schema_name";
     private static final String MATERIALIZED_VIEWS = "Materialized Views";
@@ -93,6 +117,26 @@ public class PostGreSqlMetadataHandler
     private static final String PARTITION_SCHEMA_NAME = "child_schema";
     private static final String PARTITION_NAME = "child";
     private static final int MAX_SPLITS_PER_REQUEST = 1000_000;
+    /**
+     * Split property listing, as a JSON array of {@link TableName}, the partitions read by a coalesced split.
+     */
+    public static final String COALESCED_PARTITIONS = "coalesced_partitions";
+    /**
+     * Split properties bounding the heap blocks read by a block range split, the end is absent for the last range.
+     */
+    public static final String BLOCK_RANGE_START = "block_range_start";
+    public static final String BLOCK_RANGE_END = "block_range_end";
+    private static final String ROW_COUNT = "row_count";
+    private static final String PAGE_COUNT = "page_count";
+    // TID range scans, which read only the blocks of a ctid range, were added in PostgreSQL 14.
+    private static final int MIN_BLOCK_RANGE_SPLIT_VERSION = 14;
+    private static final int MAX_PARTITIONS_PER_SPLIT = 100;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String PARTITION_BOUND = "partition_bound";
+    private static final String PARTITION_KEY = "partition_key";
+    private static final Pattern PARTITION_KEY_PATTERN = Pattern.compile("(?:RANGE|LIST) \\(\"?([^\",()]+)\"?\\)");
+    private static final Pattern RANGE_BOUND_PATTERN = Pattern.compile("FOR VALUES FROM \\((.+)\\) TO \\((.+)\\)");
+    private static final Pattern LIST_BOUND_PATTERN = Pattern.compile("FOR VALUES IN \\((.+)\\)");
 
     static final String LIST_PAGINATED_TABLES_QUERY = "SELECT a.\"TABLE_NAME\", a.\"TABLE_SCHEM\" FROM ((SELECT table_name as \"TABLE_NAME\", table_schema as \"TABLE_SCHEM\" FROM information_schema.tables WHERE table_schema = ?) UNION (SELECT matviewname as \"TABLE_NAME\", schemaname as \"TABLE_SCHEM\" from pg_catalog.pg_matviews mv where has_table_privilege(format('%I.%I', mv.schemaname, mv.matviewname), 'select') and schemaname = ?)) AS a ORDER BY a.\"TABLE_NAME\" LIMIT ? OFFSET ?";
 
@@ -136,9 +180,7 @@ public class PostGreSqlMetadataHandler
         ));
         capabilities.put(DataSourceOptimizations.SUPPORTS_COMPLEX_EXPRESSION_PUSHDOWN.withSupportedSubTypes(
             ComplexExpressionPushdownSubType.SUPPORTED_FUNCTION_EXPRESSION_TYPES
-            .withSubTypeProperties(Arrays.stream(StandardFunctions.values())
-                    .map(standardFunctions -> standardFunctions.getFunctionName().getFunctionName())
-                    .toArray(String[]::new))
+            .withSubTypeProperties(new PostgreSqlFederationExpressionParser(POSTGRES_QUOTE_CHARACTER).getSupportedFunctionNames())
         ));
 
         jdbcQueryPassthrough.addQueryPassthroughCapabilityIfEnabled(capabilities, configOptions);
@@ -175,12 +217,16 @@ public class PostGreSqlMetadataHandler
                     });
                 }
                 else {
+                    Set<TableName> prunedPartitions = getPrunedPartitions(connection, getTableLayoutRequest);
                     do {
                         final String partitionSchemaName = resultSet.getString(PARTITION_SCHEMA_NAME);
                         final String partitionName = resultSet.getString(PARTITION_NAME);
+                        if (prunedPartitions.contains(new TableName(partitionSchemaName, partitionName))) {
+                            LOGGER.info("{}: Partition {}.{} pruned by constraints", getTableLayoutRequest.getQueryId(), partitionSchemaName, partitionName);
+                            continue;
+                        }
 
-                        // 1. Returns all partitions of table, we are not supporting constraints push down to filter partitions.
-                        // 2. This API is not paginated, we could use order by and limit clause with offsets here.
+                        // This API is not paginated, we could use order by and limit clause with offsets here.
                         blockWriter.writeRows((Block block, int rowNum) -> {
                             block.setValue(BLOCK_PARTITION_SCHEMA_COLUMN_NAME, rowNum, partitionSchemaName);
                             block.setValue(BLOCK_PARTITION_COLUMN_NAME, rowNum, partitionName);
@@ -194,6 +240,59 @@ public class PostGreSqlMetadataHandler
         }
     }
 
+    /**
+     * Evaluates the bound of every partition, as printed by pg_get_expr(relpartbound), against the constraints on the
+     * partition key. Only single column RANGE and LIST partitioning is pruned, DEFAULT partitions are always kept.
+     *
+     * @param connection connection to the database.
+     * @param getTableLayoutRequest request holding the table, its schema and the constraints.
+     * @return partitions which cannot hold rows matching the constraints.
+     */
+    private Set<TableName> getPrunedPartitions(Connection connection, GetTableLayoutRequest getTableLayoutRequest)
+    {
+        Set<TableName> prunedPartitions = new HashSet<>();
+        if (getTableLayoutRequest.getConstraints().getSummary().isEmpty()) {
+            return prunedPartitions;
+        }
+        List<String> parameters = Arrays.asList(getTableLayoutRequest.getTableName().getSchemaName(),
+                getTableLayoutRequest.getTableName().getTableName());
+        try (PreparedStatement preparedStatement = new PreparedStatementBuilder().withConnection(connection).withQuery(GET_PARTITION_BOUNDS_QUERY).withParameters(parameters).build();
+                ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                Matcher keyMatcher = PARTITION_KEY_PATTERN.matcher(String.valueOf(resultSet.getString(PARTITION_KEY)));
+                Optional<PartitionPruner> pruner = keyMatcher.matches()
+                        ? PartitionPruner.forColumn(getTableLayoutRequest.getSchema(), getTableLayoutRequest.getConstraints(), keyMatcher.group(1))
+                        : Optional.empty();
+                if (pruner.isPresent() && !mayMatch(pruner.get(), String.valueOf(resultSet.getString(PARTITION_BOUND)))) {
+                    prunedPartitions.add(new TableName(resultSet.getString(PARTITION_SCHEMA_NAME), resultSet.getString(PARTITION_NAME)));
+                }
+            }
+        }
+        catch (Exception ex) {
+            LOGGER.warn("Unable to read partition bounds of table {}, partitions are not pruned.", getTableLayoutRequest.getTableName(), ex);
+            return Collections.emptySet();
+        }
+        return prunedPartitions;
+    }
+
+    private static boolean mayMatch(PartitionPruner pruner, String partitionBound)
+    {
+        Matcher rangeMatcher = RANGE_BOUND_PATTERN.matcher(partitionBound);
+        if (rangeMatcher.matches()) {
+            return pruner.mayMatchRange(toRangeBound(rangeMatcher.group(1)), true, toRangeBound(rangeMatcher.group(2)), false);
+        }
+        Matcher listMatcher = LIST_BOUND_PATTERN.matcher(partitionBound);
+        if (listMatcher.matches()) {
+            return pruner.mayMatchAny(PartitionPruner.splitLiterals(listMatcher.group(1)));
+        }
+        return true;
+    }
+
+    private static String toRangeBound(String literal)
+    {
+        return ("MINVALUE".equals(literal) || "MAXVALUE".equals(literal)) ? null : literal;
+    }
+
     @Override
     public GetSplitsResponse doGetSplits(BlockAllocator blockAllocator, GetSplitsRequest getSplitsRequest)
     {
@@ -231,29 +330,35 @@ public class PostGreSqlMetadataHandler
 
                     splitterUsed = true;
                 }
+
+                if (!splitterUsed) {
+                    splits.addAll(makeBlockRangeSplits(getSplitsRequest));
+                    splitterUsed = !splits.isEmpty();
+                }
             }
         }
 
         if (!splitterUsed) {
+            FieldReader partitionsSchemaFieldReader = partitions.getFieldReader(BLOCK_PARTITION_SCHEMA_COLUMN_NAME);
+            FieldReader partitionsFieldReader = partitions.getFieldReader(BLOCK_PARTITION_COLUMN_NAME);
+            List<TableName> partitionTables = new ArrayList<>();
             for (int curPartition = partitionContd; curPartition < partitions.getRowCount(); curPartition++) {
-                FieldReader partitionsSchemaFieldReader = partitions.getFieldReader(BLOCK_PARTITION_SCHEMA_COLUMN_NAME);
                 partitionsSchemaFieldReader.setPosition(curPartition);
-                FieldReader partitionsFieldReader = partitions.getFieldReader(BLOCK_PARTITION_COLUMN_NAME);
                 partitionsFieldReader.setPosition(curPartition);
+                partitionTables.add(new TableName(String.valueOf(partitionsSchemaFieldReader.readText()), String.valueOf(partitionsFieldReader.readText())));
+            }
 
-                //Every split must have a unique location if we wish to spill to avoid failures
-                SpillLocation spillLocation = makeSpillLocation(getSplitsRequest);
-
-                LOGGER.info("{}: Input partition is {}", getSplitsRequest.getQueryId(), String.valueOf(partitionsFieldReader.readText()));
-                Split.Builder splitBuilder = Split.newBuilder(spillLocation, makeEncryptionKey())
-                        .add(BLOCK_PARTITION_SCHEMA_COLUMN_NAME, String.valueOf(partitionsSchemaFieldReader.readText()))
-                        .add(BLOCK_PARTITION_COLUMN_NAME, String.valueOf(partitionsFieldReader.readText()));
-
-                splits.add(splitBuilder.build());
+            // Small partitions are read together and large ones are split on key ranges, based on pg_class statistics.
+            Map<TableName, Long> rowCounts = partitionTables.size() > 1 ? getPartitionRowCounts(getSplitsRequest.getTableName()) : Collections.emptyMap();
+            int curPartition = partitionContd;
+            for (List<TableName> group : PartitionCoalescer.coalesce(partitionTables, rowCounts, getRowsPerSplit(), MAX_PARTITIONS_PER_SPLIT)) {
+                curPartition += group.size();
+                LOGGER.info("{}: Input partitions are {}", getSplitsRequest.getQueryId(), group);
+                splits.addAll(makePartitionSplits(getSplitsRequest, group, rowCounts.get(group.get(0))));
 
-                if (splits.size() >= MAX_SPLITS_PER_REQUEST) {
+                if (splits.size() >= getMaxSplitsPerRequest()) {
                     //We exceeded the number of split we want to return in a single request, return and provide a continuation token.
-                    return new GetSplitsResponse(getSplitsRequest.getCatalogName(), splits, encodeContinuationToken(curPartition + 1));
+                    return new GetSplitsResponse(getSplitsRequest.getCatalogName(), splits, encodeContinuationToken(curPartition));
                 }
             }
         }
@@ -261,6 +366,180 @@ public class PostGreSqlMetadataHandler
         return new GetSplitsResponse(getSplitsRequest.getCatalogName(), splits, null);
     }
 
+    /**
+     * @return number of splits after which a partitioned table's splits are returned with a continuation token.
+     */
+    @VisibleForTesting
+    int getMaxSplitsPerRequest()
+    {
+        return MAX_SPLITS_PER_REQUEST;
+    }
+
+    /**
+     * Splits a table without a key to split on into ranges of heap blocks, read through ctid predicates. The block count
+     * comes from pg_class.relpages and the last range is left open since the table may have grown since it was analyzed.
+     *
+     * @param getSplitsRequest request of an unpartitioned table.
+     * @return block range splits, empty when the table is small, has no statistics or the server cannot scan TID ranges.
+     */
+    private Set<Split> makeBlockRangeSplits(GetSplitsRequest getSplitsRequest)
+    {
+        Set<Split> splits = new HashSet<>();
+        if (!supportsBlockRangeSplits()) {
+            return splits;
+        }
+        TableName tableName = getSplitsRequest.getTableName();
+        List<String> parameters = Arrays.asList(tableName.getSchemaName(), tableName.getTableName());
+        try (Connection connection = getJdbcConnectionFactory().getConnection(getCredentialProvider())) {
+            if (connection.getMetaData().getDatabaseMajorVersion() < MIN_BLOCK_RANGE_SPLIT_VERSION) {
+                return splits;
+            }
+            try (PreparedStatement preparedStatement = new PreparedStatementBuilder().withConnection(connection).withQuery(GET_PAGE_COUNT_QUERY).withParameters(parameters).build();
+                    ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (!resultSet.next() || resultSet.getLong(ROW_COUNT) < 0) {
+                    return splits;
+                }
+                long pageCount = resultSet.getLong(PAGE_COUNT);
+                int numSplits = (int) Math.min(getSplitCount(resultSet.getLong(ROW_COUNT)), pageCount);
+                if (numSplits <= 1) {
+                    return splits;
+                }
+                long pagesPerSplit = (pageCount + numSplits - 1) / numSplits;
+                for (long start = 0; start < pageCount; start += pagesPerSplit) {
+                    Split.Builder splitBuilder = Split.newBuilder(makeSpillLocation(getSplitsRequest), makeEncryptionKey())
+                            .add(BLOCK_PARTITION_SCHEMA_COLUMN_NAME, ALL_PARTITIONS)
+                            .add(BLOCK_PARTITION_COLUMN_NAME, ALL_PARTITIONS)
+                            .add(BLOCK_RANGE_START, String.valueOf(start));
+                    if (start + pagesPerSplit < pageCount) {
+                        splitBuilder.add(BLOCK_RANGE_END, String.valueOf(start + pagesPerSplit));
+                    }
+                    splits.add(splitBuilder.build());
+                }
+            }
+        }
+        catch (Exception ex) {
+            LOGGER.warn("Unable to split table {} on block ranges.", tableName, ex);
+            return Collections.emptySet();
+        }
+        LOGGER.info("{}: Table {} split into {} block ranges", getSplitsRequest.getQueryId(), tableName, splits.size());
+        return splits;
+    }
+
+    /**
+     * @return whether tables may be split on ctid block ranges, false for engines deriving from PostgreSQL without ctid.
+     */
+    protected boolean supportsBlockRangeSplits()
+    {
+        return true;
+    }
+
+    /**
+     * Creates the splits of a group of partitions produced by {@link PartitionCoalescer}. A group of several partitions
+     * becomes one split listing them in {@link #COALESCED_PARTITIONS}; a single partition larger than the rows per split
+     * target is split on key ranges when it has a suitable key column.
+     */
+    private Set<Split> makePartitionSplits(GetSplitsRequest getSplitsRequest, List<TableName> group, Long rowCount)
+    {
+        TableName partition = group.get(0);
+        List<String> rangeClauses = (group.size() == 1 && rowCount != null && rowCount > getRowsPerSplit())
+                ? getPartitionSplitClauses(partition, rowCount)
+                : Collections.emptyList();
+
+        Set<Split> splits = new HashSet<>();
+        if (rangeClauses.isEmpty()) {
+            //Every split must have a unique location if we wish to spill to avoid failures
+            Split.Builder splitBuilder = Split.newBuilder(makeSpillLocation(getSplitsRequest), makeEncryptionKey())
+                    .add(BLOCK_PARTITION_SCHEMA_COLUMN_NAME, partition.getSchemaName())
+                    .add(BLOCK_PARTITION_COLUMN_NAME, partition.getTableName());
+            if (group.size() > 1) {
+                splitBuilder.add(COALESCED_PARTITIONS, encodePartitions(group));
+            }
+            splits.add(splitBuilder.build());
+            return splits;
+        }
+
+        for (String rangeClause : rangeClauses) {
+            splits.add(Split.newBuilder(makeSpillLocation(getSplitsRequest), makeEncryptionKey())
+                    .add(BLOCK_PARTITION_SCHEMA_COLUMN_NAME, partition.getSchemaName())
+                    .add(BLOCK_PARTITION_COLUMN_NAME, partition.getTableName())
+                    .add(SPLIT_RANGE_CLAUSE, rangeClause)
+                    .build());
+        }
+        return splits;
+    }
+
+    private List<String> getPartitionSplitClauses(TableName partition, long rowCount)
+    {
+        try (Connection connection = getJdbcConnectionFactory().getConnection(getCredentialProvider())) {
+            return getSplitClauses(connection, partition, getSplitCount(rowCount));
+        }
+        catch (Exception ex) {
+            LOGGER.warn("Unable to split partition {}.", partition, ex);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Reads pg_class.reltuples of every partition of the table. Partitions which have never been analyzed report -1 and
+     * are left out, so they are neither coalesced nor split.
+     *
+     * @param tableName partitioned table.
+     * @return estimated rows per partition, empty if statistics cannot be read.
+     */
+    private Map<TableName, Long> getPartitionRowCounts(TableName tableName)
+    {
+        Map<TableName, Long> rowCounts = new HashMap<>();
+        List<String> parameters = Arrays.asList(tableName.getSchemaName(), tableName.getTableName());
+        try (Connection connection = getJdbcConnectionFactory().getConnection(getCredentialProvider());
+                PreparedStatement preparedStatement = new PreparedStatementBuilder().withConnection(connection).withQuery(GET_PARTITION_ROW_COUNTS_QUERY).withParameters(parameters).build();
+                ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                long rowCount = resultSet.getLong(ROW_COUNT);
+                if (rowCount >= 0) {
+                    rowCounts.put(new TableName(resultSet.getString(PARTITION_SCHEMA_NAME), resultSet.getString(PARTITION_NAME)), rowCount);
+                }
+            }
+        }
+        catch (Exception ex) {
+            LOGGER.warn("Unable to read partition statistics of table {}.", tableName, ex);
+            return Collections.emptyMap();
+        }
+        return rowCounts;
+    }
+
+    private static String encodePartitions(List<TableName> partitions)
+    {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(partitions);
+        }
+        catch (JsonProcessingException ex) {
+            throw new RuntimeException("Unable to encode partitions " + partitions, ex);
+        }
+    }
+
+    @Override
+    protected OptionalLong getEstimatedRowCount(final Connection jdbcConnection, final TableName tableName)
+            throws SQLException
+    {
+        List<String> parameters = Arrays.asList(tableName.getSchemaName(), tableName.getTableName());
+        try (PreparedStatement preparedStatement = new PreparedStatementBuilder().withConnection(jdbcConnection).withQuery(GET_ROW_COUNT_QUERY).withParameters(parameters).build();
+                ResultSet resultSet = preparedStatement.executeQuery()) {
+            if (resultSet.next() && resultSet.getLong(ROW_COUNT) >= 0) {
+                return OptionalLong.of(resultSet.getLong(ROW_COUNT));
+            }
+        }
+        return OptionalLong.empty();
+    }
+
+    /**
+     * HASHTEXT returns an int4 which may be negative, the remainder is taken before ABS so that it can not overflow.
+     */
+    @Override
+    protected String getHashSplitClause(final String column, final int bucketCount, final int bucket)
+    {
+        return String.format("ABS(MOD(HASHTEXT(CAST(%s AS TEXT)), %d)) = %d", column, bucketCount, bucket);
+    }
+
     @Override
     protected ListTablesResponse listPaginatedTables(final Connection connection, final ListTablesRequest listTablesRequest) throws SQLException
     {
@@ -20,12 +20,19 @@
 package com.amazonaws.athena.connectors.postgresql;
 
 import com.amazonaws.athena.connector.lambda.domain.Split;
+import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connectors.jdbc.manager.FederationExpressionParser;
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcSplitQueryBuilder;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Strings;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Extends {@link JdbcSplitQueryBuilder} and implements PostGreSql specific SQL clauses for split.
@@ -35,11 +42,29 @@ import java.util.List;
 public class PostGreSqlQueryStringBuilder
         extends JdbcSplitQueryBuilder
 {
+    // TableName also serializes its derived qualifiedTableName, which has no matching creator property.
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
     public PostGreSqlQueryStringBuilder(final String quoteCharacters, final FederationExpressionParser federationExpressionParser)
     {
         super(quoteCharacters, federationExpressionParser);
     }
 
+    @Override
+    protected String getFromClauseWithSplit(String catalog, String schema, String table, String projection, Split split)
+    {
+        String coalescedPartitions = split.getProperty(PostGreSqlMetadataHandler.COALESCED_PARTITIONS);
+        if (coalescedPartitions == null) {
+            return getFromClauseWithSplit(catalog, schema, table, split);
+        }
+
+        // Child tables may order their columns differently than the parent, so every branch selects them by name.
+        String partitionQueries = decodePartitions(coalescedPartitions).stream()
+                .map(partition -> String.format("SELECT %s FROM %s.%s", projection, quote(partition.getSchemaName()), quote(partition.getTableName())))
+                .collect(Collectors.joining(" UNION ALL "));
+        return String.format(" FROM (%s) AS %s ", partitionQueries, quote(table));
+    }
+
     @Override
     protected String getFromClauseWithSplit(String catalog, String schema, String table, Split split)
     {
@@ -66,6 +91,11 @@ public class PostGreSqlQueryStringBuilder
     @Override
     protected List<String> getPartitionWhereClauses(final Split split)
     {
+        String blockRangeStart = split.getProperty(PostGreSqlMetadataHandler.BLOCK_RANGE_START);
+        if (blockRangeStart != null) {
+            return getBlockRangeClauses(Long.parseLong(blockRangeStart), split.getProperty(PostGreSqlMetadataHandler.BLOCK_RANGE_END));
+        }
+
         if (split.getProperty(PostGreSqlMetadataHandler.BLOCK_PARTITION_SCHEMA_COLUMN_NAME).equals("*")
                 && !split.getProperty(PostGreSqlMetadataHandler.BLOCK_PARTITION_COLUMN_NAME).equals("*")) {
             return Collections.singletonList(split.getProperty(PostGreSqlMetadataHandler.BLOCK_PARTITION_COLUMN_NAME));
@@ -73,4 +103,26 @@ public class PostGreSqlQueryStringBuilder
 
         return Collections.emptyList();
     }
+
+    private static List<String> getBlockRangeClauses(long start, String end)
+    {
+        List<String> clauses = new ArrayList<>();
+        if (start > 0) {
+            clauses.add(String.format("ctid >= '(%d,0)'::tid", start));
+        }
+        if (end != null) {
+            clauses.add(String.format("ctid < '(%d,0)'::tid", Long.parseLong(end)));
+        }
+        return clauses;
+    }
+
+    private static List<TableName> decodePartitions(String coalescedPartitions)
+    {
+        try {
+            return OBJECT_MAPPER.readValue(coalescedPartitions, new TypeReference<List<TableName>>() {});
+        }
+        catch (IOException ex) {
+            throw new RuntimeException("Unable to decode partitions " + coalescedPartitions, ex);
+        }
+    }
 }
@@ -19,16 +19,25 @@
  */
 package com.amazonaws.athena.connectors.postgresql;
 
+import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
+import com.amazonaws.athena.connector.lambda.data.Block;
+import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
+import com.amazonaws.athena.connector.lambda.data.writers.GeneratedRowWriter;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.Extractor;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
 import com.amazonaws.athena.connectors.jdbc.connection.DatabaseConnectionConfig;
 import com.amazonaws.athena.connectors.jdbc.connection.DatabaseConnectionInfo;
 import com.amazonaws.athena.connectors.jdbc.connection.GenericJdbcConnectionFactory;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcConnectionFactory;
+import com.amazonaws.athena.connectors.jdbc.manager.ColumnValueExtractors;
+import com.amazonaws.athena.connectors.jdbc.manager.FetchSizePolicy;
 import com.amazonaws.athena.connectors.jdbc.manager.JDBCUtil;
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcRecordHandler;
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcSplitQueryBuilder;
+import com.amazonaws.athena.connectors.jdbc.manager.TypeAndValue;
 import com.amazonaws.services.athena.AmazonAthena;
 import com.amazonaws.services.athena.AmazonAthenaClientBuilder;
 import com.amazonaws.services.s3.AmazonS3;
@@ -36,14 +45,23 @@ import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.secretsmanager.AWSSecretsManager;
 import com.amazonaws.services.secretsmanager.AWSSecretsManagerClientBuilder;
 import com.google.common.annotations.VisibleForTesting;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.commons.lang3.Validate;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
+import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static com.amazonaws.athena.connectors.postgresql.PostGreSqlConstants.POSTGRESQL_DEFAULT_PORT;
 import static com.amazonaws.athena.connectors.postgresql.PostGreSqlConstants.POSTGRESQL_DRIVER_CLASS;
@@ -56,6 +74,14 @@ public class PostGreSqlRecordHandler
     private static final Logger LOGGER = LoggerFactory.getLogger(PostGreSqlRecordHandler.class);
 
     private static final int FETCH_SIZE = 1000;
+    private static final FetchSizePolicy FETCH_SIZE_POLICY = new FetchSizePolicy(FETCH_SIZE, 50_000);
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Enables reading splits through COPY ... TO STDOUT WITH (FORMAT binary) instead of a cursor. Only splits whose SQL
+     * has no bind parameters and whose columns all have a binary decoding are read this way.
+     */
+    public static final String BINARY_COPY_ENABLED = "postgresql_binary_copy_enabled";
 
     private final JdbcSplitQueryBuilder jdbcSplitQueryBuilder;
 
@@ -99,4 +125,127 @@ public class PostGreSqlRecordHandler
 
         return preparedStatement;
     }
+
+    @Override
+    protected FetchSizePolicy getFetchSizePolicy()
+    {
+        return FETCH_SIZE_POLICY;
+    }
+
+    @Override
+    public void readWithConstraint(BlockSpiller blockSpiller, ReadRecordsRequest readRecordsRequest, QueryStatusChecker queryStatusChecker)
+            throws Exception
+    {
+        if (!Boolean.parseBoolean(configOptions.getOrDefault(BINARY_COPY_ENABLED, "false"))
+                || readRecordsRequest.getConstraints().isQueryPassThrough()
+                || !readWithBinaryCopy(blockSpiller, readRecordsRequest, queryStatusChecker)) {
+            super.readWithConstraint(blockSpiller, readRecordsRequest, queryStatusChecker);
+        }
+    }
+
+    /**
+     * Reads the split through a binary COPY of its SQL, decoding each tuple straight into the row writer's holders.
+     * Constraints are still evaluated by the row writer.
+     *
+     * @return false, before any row is written, when the split can not be read this way.
+     */
+    @VisibleForTesting
+    boolean readWithBinaryCopy(BlockSpiller blockSpiller, ReadRecordsRequest readRecordsRequest, QueryStatusChecker queryStatusChecker)
+            throws Exception
+    {
+        Map<String, String> partitionValues = readRecordsRequest.getSplit().getProperties();
+        List<String> copyColumns = new ArrayList<>();
+        GeneratedRowWriter.RowWriterBuilder rowWriterBuilder = GeneratedRowWriter.newBuilder(readRecordsRequest.getConstraints());
+        for (Field next : readRecordsRequest.getSchema().getFields()) {
+            Extractor extractor = ColumnValueExtractors.makeExtractor(next, copyColumns.size(), partitionValues);
+            String copyType = getCopyType(next);
+            if (extractor == null || (copyType == null && !partitionValues.containsKey(next.getName()))) {
+                return false;
+            }
+            if (!partitionValues.containsKey(next.getName())) {
+                copyColumns.add(String.format("%s::%s", quote(next.getName()), copyType));
+            }
+            rowWriterBuilder.withExtractor(next.getName(), extractor);
+        }
+
+        List<TypeAndValue> accumulator = new ArrayList<>();
+        String sql = jdbcSplitQueryBuilder.buildSqlString(null, readRecordsRequest.getTableName().getSchemaName(), readRecordsRequest.getTableName().getTableName(),
+                readRecordsRequest.getSchema(), readRecordsRequest.getConstraints(), readRecordsRequest.getSplit(), accumulator);
+        if (copyColumns.isEmpty() || !accumulator.isEmpty()) {
+            // COPY can not bind parameters
+            return false;
+        }
+        String copySql = String.format("COPY (SELECT %s FROM (%s) AS copy_source) TO STDOUT WITH (FORMAT binary)", String.join(", ", copyColumns), sql);
+
+        try (Connection connection = getJdbcConnectionFactory().getConnection(getCredentialProvider())) {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                return false;
+            }
+            PGCopyInputStream copyStream;
+            try {
+                copyStream = new PGCopyInputStream(connection.unwrap(PGConnection.class), copySql);
+            }
+            catch (SQLException ex) {
+                LOGGER.warn("{}: Unable to start binary COPY, reading through a cursor instead.", readRecordsRequest.getQueryId(), ex);
+                return false;
+            }
+            LOGGER.info("Generated SQL : {}", copySql);
+
+            // Closing the stream cancels the COPY if it has not completed.
+            try (InputStream input = new BufferedInputStream(copyStream, COPY_BUFFER_SIZE)) {
+                PostGreSqlBinaryCopyReader reader = new PostGreSqlBinaryCopyReader(input, copyColumns.size());
+                GeneratedRowWriter rowWriter = rowWriterBuilder.build();
+                int rowsReturnedFromDatabase = 0;
+                while (reader.next()) {
+                    if (!queryStatusChecker.isQueryRunning()) {
+                        return true;
+                    }
+                    blockSpiller.writeRows((Block block, int rowNum) -> rowWriter.writeRow(block, rowNum, reader) ? 1 : 0);
+                    rowsReturnedFromDatabase++;
+                }
+                LOGGER.info("{} rows returned by database.", rowsReturnedFromDatabase);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the PostgreSQL type, with a binary decoding in {@link PostGreSqlBinaryCopyReader}, which a column is cast to
+     * in the COPY, or null if the field's type has none.
+     */
+    private static String getCopyType(Field field)
+    {
+        switch (Types.getMinorTypeForArrowType(field.getType())) {
+            case BIT:
+                return "bool";
+            case TINYINT:
+            case SMALLINT:
+                return "int2";
+            case INT:
+                return "int4";
+            case BIGINT:
+                return "int8";
+            case FLOAT4:
+                return "float4";
+            case FLOAT8:
+                return "float8";
+            case DECIMAL:
+                return "numeric";
+            case DATEDAY:
+                return "date";
+            case DATEMILLI:
+                return "timestamp";
+            case VARCHAR:
+                return "text";
+            case VARBINARY:
+                return "bytea";
+            default:
+                return null;
+        }
+    }
+
+    private static String quote(String name)
+    {
+        return POSTGRES_QUOTE_CHARACTER + name.replace(POSTGRES_QUOTE_CHARACTER, POSTGRES_QUOTE_CHARACTER + POSTGRES_QUOTE_CHARACTER) + POSTGRES_QUOTE_CHARACTER;
+    }
 }
@@ -20,13 +20,24 @@
 package com.amazonaws.athena.connectors.postgresql;
 
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcFederationExpressionParser;
+import com.amazonaws.athena.connectors.jdbc.manager.ScalarFunctions;
 import com.google.common.base.Joiner;
+import com.google.common.collect.Sets;
 import org.apache.arrow.vector.types.pojo.ArrowType;
 
 import java.util.List;
+import java.util.Set;
 
 public class PostgreSqlFederationExpressionParser extends JdbcFederationExpressionParser 
 {
+    // SUBSTRING is not pushed down, Postgres clamps a start position below 1 rather than counting from the end of the string.
+    private static final Set<ScalarFunctions> SUPPORTED_SCALAR_FUNCTIONS = Sets.immutableEnumSet(
+            ScalarFunctions.ABS_FUNCTION_NAME, ScalarFunctions.LOWER_FUNCTION_NAME,
+            ScalarFunctions.UPPER_FUNCTION_NAME, ScalarFunctions.LENGTH_FUNCTION_NAME,
+            ScalarFunctions.TRIM_FUNCTION_NAME, ScalarFunctions.LTRIM_FUNCTION_NAME,
+            ScalarFunctions.RTRIM_FUNCTION_NAME, ScalarFunctions.CONCAT_FUNCTION_NAME,
+            ScalarFunctions.YEAR_FUNCTION_NAME, ScalarFunctions.MONTH_FUNCTION_NAME, ScalarFunctions.DAY_FUNCTION_NAME);
+
     public PostgreSqlFederationExpressionParser(String quoteChar)
     {
         super(quoteChar);
@@ -37,4 +48,10 @@ public class PostgreSqlFederationExpressionParser extends JdbcFederationExpressi
     {
         return Joiner.on(", ").join(arguments);
     }
+
+    @Override
+    public Set<ScalarFunctions> getSupportedScalarFunctions()
+    {
+        return SUPPORTED_SCALAR_FUNCTIONS;
+    }
 }
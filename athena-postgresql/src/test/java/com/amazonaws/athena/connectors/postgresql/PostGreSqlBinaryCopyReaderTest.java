@@ -0,0 +1,112 @@
+/*-
+ * #%L
+ * athena-postgresql
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.postgresql;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+public class PostGreSqlBinaryCopyReaderTest
+{
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+
+    @Test
+    public void readTuples()
+            throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.write(SIGNATURE);
+        output.writeInt(0);
+        output.writeInt(2);
+        output.writeShort(0);
+
+        output.writeShort(5);
+        output.writeInt(4);
+        output.writeInt(42);
+        byte[] text = "gr\u00fc\u00dfe".getBytes(StandardCharsets.UTF_8);
+        output.writeInt(text.length);
+        output.write(text);
+        output.writeInt(-1);
+        // 12345.67: digits 1 2345 6700, weight 1, display scale 2
+        output.writeInt(14);
+        output.writeShort(3);
+        output.writeShort(1);
+        output.writeShort(0x4000);
+        output.writeShort(2);
+        output.writeShort(1);
+        output.writeShort(2345);
+        output.writeShort(6700);
+        output.writeInt(4);
+        output.writeInt((int) (LocalDate.of(2020, 1, 1).toEpochDay() - LocalDate.of(2000, 1, 1).toEpochDay()));
+
+        output.writeShort(5);
+        output.writeInt(4);
+        output.writeInt(-7);
+        output.writeInt(0);
+        output.writeInt(8);
+        output.writeLong(1_500_000L);
+        // 0.05: digit 500, weight -1, display scale 2
+        output.writeInt(10);
+        output.writeShort(1);
+        output.writeShort(-1);
+        output.writeShort(0);
+        output.writeShort(2);
+        output.writeShort(500);
+        output.writeInt(-1);
+
+        output.writeShort(-1);
+
+        PostGreSqlBinaryCopyReader reader = new PostGreSqlBinaryCopyReader(new ByteArrayInputStream(bytes.toByteArray()), 5);
+
+        Assert.assertTrue(reader.next());
+        Assert.assertEquals(42, reader.getInt(0));
+        Assert.assertEquals("gr\u00fc\u00dfe", reader.getText(1));
+        Assert.assertTrue(reader.isNull(2));
+        Assert.assertFalse(reader.isNull(3));
+        Assert.assertEquals(new BigDecimal("-12345.67"), reader.getDecimal(3));
+        Assert.assertEquals(LocalDate.of(2020, 1, 1).toEpochDay(), reader.getEpochDay(4));
+
+        Assert.assertTrue(reader.next());
+        Assert.assertEquals(-7, reader.getInt(0));
+        Assert.assertEquals("", reader.getText(1));
+        Assert.assertEquals(LocalDateTime.of(2000, 1, 1, 0, 0, 1, 500_000_000).toInstant(ZoneOffset.UTC).toEpochMilli(), reader.getEpochMilli(2));
+        Assert.assertEquals(new BigDecimal("0.05"), reader.getDecimal(3));
+        Assert.assertTrue(reader.isNull(4));
+
+        Assert.assertFalse(reader.next());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectTextFormat()
+            throws IOException
+    {
+        new PostGreSqlBinaryCopyReader(new ByteArrayInputStream("1\tfoo\n\\.\n".getBytes(StandardCharsets.UTF_8)), 2);
+    }
+}
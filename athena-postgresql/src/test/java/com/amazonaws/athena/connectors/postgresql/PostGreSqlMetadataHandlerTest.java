@@ -27,6 +27,7 @@ import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.metadata.GetDataSourceCapabilitiesRequest;
 import com.amazonaws.athena.connector.lambda.metadata.GetSplitsRequest;
 import com.amazonaws.athena.connector.lambda.metadata.GetSplitsResponse;
 import com.amazonaws.athena.connector.lambda.metadata.GetTableLayoutRequest;
@@ -35,21 +36,28 @@ import com.amazonaws.athena.connector.lambda.metadata.GetTableRequest;
 import com.amazonaws.athena.connector.lambda.metadata.GetTableResponse;
 import com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest;
 import com.amazonaws.athena.connector.lambda.metadata.ListTablesResponse;
+import com.amazonaws.athena.connector.lambda.metadata.optimizations.DataSourceOptimizations;
 import com.amazonaws.athena.connector.lambda.security.FederatedIdentity;
 import com.amazonaws.athena.connectors.jdbc.TestBase;
 import com.amazonaws.athena.connectors.jdbc.connection.DatabaseConnectionConfig;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcConnectionFactory;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcCredentialProvider;
+import com.amazonaws.athena.connectors.jdbc.manager.ScalarFunctions;
 import com.amazonaws.services.athena.AmazonAthena;
 import com.amazonaws.services.secretsmanager.AWSSecretsManager;
 import com.amazonaws.services.secretsmanager.model.GetSecretValueRequest;
 import com.amazonaws.services.secretsmanager.model.GetSecretValueResult;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import org.apache.arrow.vector.types.DateUnit;
 import org.apache.arrow.vector.types.FloatingPointPrecision;
 import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.commons.lang3.NotImplementedException;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -322,6 +330,64 @@ public class PostGreSqlMetadataHandlerTest
         Assert.assertEquals(expectedSplits, actualSplits);
     }
 
+    @Test
+    public void doGetSplitsCoalescesPartitions()
+            throws Exception
+    {
+        PostGreSqlMetadataHandler coalescingHandler = new PostGreSqlMetadataHandler(databaseConnectionConfig, this.secretsManager, this.athena, this.jdbcConnectionFactory,
+                ImmutableMap.of(PostGreSqlMetadataHandler.ROWS_PER_SPLIT, "100"))
+        {
+            @Override
+            int getMaxSplitsPerRequest()
+            {
+                return 1;
+            }
+        };
+        BlockAllocator blockAllocator = new BlockAllocatorImpl();
+        Constraints constraints = Mockito.mock(Constraints.class);
+        TableName tableName = new TableName("testSchema", "testTable");
+        Schema partitionSchema = coalescingHandler.getPartitionSchema("testCatalogName");
+        Set<String> partitionCols = partitionSchema.getFields().stream().map(Field::getName).collect(Collectors.toSet());
+        GetTableLayoutRequest getTableLayoutRequest = new GetTableLayoutRequest(this.federatedIdentity, "testQueryId", "testCatalogName", tableName, constraints, partitionSchema, partitionCols);
+
+        PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(this.connection.prepareStatement(PostGreSqlMetadataHandler.GET_PARTITIONS_QUERY)).thenReturn(preparedStatement);
+        ResultSet resultSet = mockResultSet(new String[] {"child_schema", "child"}, new int[] {Types.VARCHAR, Types.VARCHAR},
+                new Object[][] {{"s0", "p0"}, {"s0", "p1"}, {"s0", "p2"}}, new AtomicInteger(-1));
+        Mockito.when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        Mockito.when(this.connection.getMetaData().getSearchStringEscape()).thenReturn(null);
+
+        // p0 and p1 fit into 100 rows together, p2 would overflow the group
+        PreparedStatement rowCountStatement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(this.connection.prepareStatement(PostGreSqlMetadataHandler.GET_PARTITION_ROW_COUNTS_QUERY)).thenReturn(rowCountStatement);
+        Object[][] rowCounts = {{"s0", "p0", 40L}, {"s0", "p1", 50L}, {"s0", "p2", 30L}};
+        AtomicInteger rowCountRow = new AtomicInteger(-1);
+        ResultSet rowCountResultSet = mockResultSet(new String[] {"child_schema", "child", "row_count"}, rowCounts, rowCountRow);
+        Mockito.when(rowCountResultSet.getLong("row_count")).thenAnswer(invocation -> rowCounts[rowCountRow.get()][2]);
+        Mockito.when(rowCountStatement.executeQuery()).thenReturn(rowCountResultSet);
+
+        GetTableLayoutResponse getTableLayoutResponse = coalescingHandler.doGetTableLayout(blockAllocator, getTableLayoutRequest);
+
+        BlockAllocator splitBlockAllocator = new BlockAllocatorImpl();
+        GetSplitsRequest getSplitsRequest = new GetSplitsRequest(this.federatedIdentity, "testQueryId", "testCatalogName", tableName, getTableLayoutResponse.getPartitions(), new ArrayList<>(partitionCols), constraints, null);
+        GetSplitsResponse getSplitsResponse = coalescingHandler.doGetSplits(splitBlockAllocator, getSplitsRequest);
+
+        // the group is read through a UNION ALL over the partitions listed in the split and the continuation token skips both
+        Assert.assertEquals(1, getSplitsResponse.getSplits().size());
+        Split split = getSplitsResponse.getSplits().iterator().next();
+        Assert.assertEquals("s0", split.getProperty(PostGreSqlMetadataHandler.BLOCK_PARTITION_SCHEMA_COLUMN_NAME));
+        Assert.assertEquals("p0", split.getProperty(PostGreSqlMetadataHandler.BLOCK_PARTITION_COLUMN_NAME));
+        List<TableName> coalescedPartitions = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .readValue(split.getProperty(PostGreSqlMetadataHandler.COALESCED_PARTITIONS), new TypeReference<List<TableName>>() {});
+        Assert.assertEquals(Arrays.asList(new TableName("s0", "p0"), new TableName("s0", "p1")), coalescedPartitions);
+        Assert.assertEquals("2", getSplitsResponse.getContinuationToken());
+
+        GetSplitsRequest continuationRequest = new GetSplitsRequest(this.federatedIdentity, "testQueryId", "testCatalogName", tableName, getTableLayoutResponse.getPartitions(), new ArrayList<>(partitionCols), constraints, getSplitsResponse.getContinuationToken());
+        GetSplitsResponse continuationResponse = coalescingHandler.doGetSplits(splitBlockAllocator, continuationRequest);
+        Assert.assertEquals(Collections.singleton(ImmutableMap.of("partition_schema_name", "s0", "partition_name", "p2")),
+                continuationResponse.getSplits().stream().map(Split::getProperties).collect(Collectors.toSet()));
+    }
+
     @Test
     public void doGetTableWithArrayColumns()
             throws Exception
@@ -485,4 +551,39 @@ public class PostGreSqlMetadataHandlerTest
 
        logger.info("doGetTableWithArrayColumns - exit");
   }
+
+    @Test
+    public void scalarFunctionPushdown()
+    {
+        PostgreSqlFederationExpressionParser parser = new PostgreSqlFederationExpressionParser(PostGreSqlConstants.POSTGRES_QUOTE_CHARACTER);
+        Assert.assertEquals("(\"first\" || ? || \"last\")", parser.mapFunctionToDataSourceSyntax(ScalarFunctions.CONCAT_FUNCTION_NAME.getFunctionName(), ArrowType.Utf8.INSTANCE,
+                ImmutableList.of("\"first\"", "?", "\"last\"")));
+        Assert.assertEquals("(CHAR_LENGTH(\"name\"))", parser.mapFunctionToDataSourceSyntax(ScalarFunctions.LENGTH_FUNCTION_NAME.getFunctionName(), new ArrowType.Int(32, true),
+                ImmutableList.of("\"name\"")));
+
+        List<String> supportedFunctions = getSupportedFunctionNames();
+        Assert.assertTrue(supportedFunctions.containsAll(ImmutableList.of("concat", "length", "upper", "month")));
+        // Postgres clamps a start position below 1 rather than counting from the end of the string
+        assertNotPushedDown(parser, supportedFunctions, ScalarFunctions.SUBSTR_FUNCTION_NAME, ScalarFunctions.SUBSTRING_FUNCTION_NAME);
+    }
+
+    private List<String> getSupportedFunctionNames()
+    {
+        return this.postGreSqlMetadataHandler.doGetDataSourceCapabilities(new BlockAllocatorImpl(), new GetDataSourceCapabilitiesRequest(this.federatedIdentity, "testQueryId", "testCatalog"))
+                .getCapabilities().get(DataSourceOptimizations.SUPPORTS_COMPLEX_EXPRESSION_PUSHDOWN.getOptimization()).get(0).getProperties();
+    }
+
+    private void assertNotPushedDown(PostgreSqlFederationExpressionParser parser, List<String> supportedFunctions, ScalarFunctions... functions)
+    {
+        for (ScalarFunctions function : functions) {
+            Assert.assertFalse(supportedFunctions.contains(function.getFunctionName().getFunctionName()));
+            try {
+                parser.mapFunctionToDataSourceSyntax(function.getFunctionName(), ArrowType.Utf8.INSTANCE, ImmutableList.of("\"name\"", "?"));
+                Assert.fail("Expected " + function.getFunctionName().getFunctionName() + " not to be pushed down");
+            }
+            catch (NotImplementedException expected) {
+                // The function is evaluated by Athena
+            }
+        }
+    }
 }
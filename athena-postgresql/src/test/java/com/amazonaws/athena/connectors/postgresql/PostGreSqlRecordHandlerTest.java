@@ -19,6 +19,8 @@
  */
 package com.amazonaws.athena.connectors.postgresql;
 
+import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
+import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
 import com.amazonaws.athena.connector.lambda.data.FieldBuilder;
 import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
 import com.amazonaws.athena.connector.lambda.domain.Split;
@@ -28,6 +30,7 @@ import com.amazonaws.athena.connector.lambda.domain.predicate.Marker;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
 import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
+import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
 import com.amazonaws.athena.connectors.jdbc.TestBase;
 import com.amazonaws.athena.connectors.jdbc.connection.DatabaseConnectionConfig;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcConnectionFactory;
@@ -45,6 +48,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.postgresql.PGConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,6 +58,7 @@ import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import static com.amazonaws.athena.connectors.postgresql.PostGreSqlConstants.POSTGRES_NAME;
@@ -214,6 +219,128 @@ public class PostGreSqlRecordHandlerTest extends TestBase
         logger.info("buildSplitSqlForDateTest - exit");
     }
 
+    @Test
+    public void buildSplitSqlForBlockRangeTest()
+            throws SQLException
+    {
+        TableName tableName = new TableName("testSchema", "testTable");
+
+        SchemaBuilder schemaBuilder = SchemaBuilder.newBuilder();
+        schemaBuilder.addField(FieldBuilder.newBuilder("testCol1", Types.MinorType.INT.getType()).build());
+        Schema schema = schemaBuilder.build();
+
+        Split split = Mockito.mock(Split.class);
+        Mockito.when(split.getProperties()).thenReturn(ImmutableMap.of("partition_schema_name", "*", "partition_name", "*",
+                PostGreSqlMetadataHandler.BLOCK_RANGE_START, "100", PostGreSqlMetadataHandler.BLOCK_RANGE_END, "200"));
+        Mockito.when(split.getProperty(Mockito.eq(PostGreSqlMetadataHandler.BLOCK_PARTITION_SCHEMA_COLUMN_NAME))).thenReturn("*");
+        Mockito.when(split.getProperty(Mockito.eq(PostGreSqlMetadataHandler.BLOCK_PARTITION_COLUMN_NAME))).thenReturn("*");
+        Mockito.when(split.getProperty(Mockito.eq(PostGreSqlMetadataHandler.BLOCK_RANGE_START))).thenReturn("100");
+        Mockito.when(split.getProperty(Mockito.eq(PostGreSqlMetadataHandler.BLOCK_RANGE_END))).thenReturn("200");
+
+        Constraints constraints = Mockito.mock(Constraints.class);
+        Mockito.when(constraints.getSummary()).thenReturn(Collections.emptyMap());
+
+        String expectedSql = "SELECT \"testCol1\" FROM \"testSchema\".\"testTable\"  WHERE ctid >= '(100,0)'::tid AND ctid < '(200,0)'::tid";
+        PreparedStatement expectedPreparedStatement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(this.connection.prepareStatement(Mockito.eq(expectedSql))).thenReturn(expectedPreparedStatement);
+
+        PreparedStatement preparedStatement = this.postGreSqlRecordHandler.buildSplitSql(this.connection, "testCatalogName", tableName, schema, constraints, split);
+
+        Assert.assertEquals(expectedPreparedStatement, preparedStatement);
+    }
+
+    @Test
+    public void buildSplitSqlForCoalescedPartitionsTest()
+            throws SQLException
+    {
+        TableName tableName = new TableName("testSchema", "testTable");
+
+        SchemaBuilder schemaBuilder = SchemaBuilder.newBuilder();
+        schemaBuilder.addField(FieldBuilder.newBuilder("testCol1", Types.MinorType.INT.getType()).build());
+        Schema schema = schemaBuilder.build();
+
+        String coalescedPartitions = "[{\"schemaName\":\"s0\",\"tableName\":\"p0\",\"qualifiedTableName\":\"s0.p0\"},"
+                + "{\"schemaName\":\"s0\",\"tableName\":\"p1\",\"qualifiedTableName\":\"s0.p1\"}]";
+        Split split = Mockito.mock(Split.class);
+        Mockito.when(split.getProperties()).thenReturn(ImmutableMap.of("partition_schema_name", "s0", "partition_name", "p0",
+                PostGreSqlMetadataHandler.COALESCED_PARTITIONS, coalescedPartitions));
+        Mockito.when(split.getProperty(Mockito.eq(PostGreSqlMetadataHandler.BLOCK_PARTITION_SCHEMA_COLUMN_NAME))).thenReturn("s0");
+        Mockito.when(split.getProperty(Mockito.eq(PostGreSqlMetadataHandler.BLOCK_PARTITION_COLUMN_NAME))).thenReturn("p0");
+        Mockito.when(split.getProperty(Mockito.eq(PostGreSqlMetadataHandler.COALESCED_PARTITIONS))).thenReturn(coalescedPartitions);
+
+        Constraints constraints = Mockito.mock(Constraints.class);
+        Mockito.when(constraints.getSummary()).thenReturn(Collections.emptyMap());
+
+        String expectedSql = "SELECT \"testCol1\" FROM (SELECT \"testCol1\" FROM \"s0\".\"p0\" UNION ALL SELECT \"testCol1\" FROM \"s0\".\"p1\") AS \"testTable\" ";
+        PreparedStatement expectedPreparedStatement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(this.connection.prepareStatement(Mockito.eq(expectedSql))).thenReturn(expectedPreparedStatement);
+
+        PreparedStatement preparedStatement = this.postGreSqlRecordHandler.buildSplitSql(this.connection, "testCatalogName", tableName, schema, constraints, split);
+
+        Assert.assertEquals(expectedPreparedStatement, preparedStatement);
+    }
+
+    @Test
+    public void readWithBinaryCopyFallsBackWithBindParameters()
+            throws Exception
+    {
+        // COPY can not bind parameters, so a split with a pushed down predicate is read through a cursor
+        ReadRecordsRequest request = newBinaryCopyRequest(ImmutableMap.of("testCol1", getSingleValueSet(1)));
+
+        Assert.assertFalse(this.postGreSqlRecordHandler.readWithBinaryCopy(Mockito.mock(BlockSpiller.class), request, Mockito.mock(QueryStatusChecker.class)));
+        Mockito.verify(this.jdbcConnectionFactory, Mockito.never()).getConnection(nullable(JdbcCredentialProvider.class));
+    }
+
+    @Test
+    public void readWithBinaryCopyFallsBackWithoutPGConnection()
+            throws Exception
+    {
+        Mockito.when(this.connection.isWrapperFor(PGConnection.class)).thenReturn(false);
+
+        Assert.assertFalse(this.postGreSqlRecordHandler.readWithBinaryCopy(Mockito.mock(BlockSpiller.class),
+                newBinaryCopyRequest(Collections.emptyMap()), Mockito.mock(QueryStatusChecker.class)));
+        Mockito.verify(this.connection, Mockito.never()).unwrap(PGConnection.class);
+        Mockito.verify(this.connection).close();
+    }
+
+    @Test
+    public void readWithBinaryCopyFallsBackWhenCopyFailsToStart()
+            throws Exception
+    {
+        PGConnection pgConnection = Mockito.mock(PGConnection.class);
+        Mockito.when(pgConnection.getCopyAPI()).thenThrow(new SQLException("COPY is not allowed"));
+        Mockito.when(this.connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+        Mockito.when(this.connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        BlockSpiller blockSpiller = Mockito.mock(BlockSpiller.class);
+
+        Assert.assertFalse(this.postGreSqlRecordHandler.readWithBinaryCopy(blockSpiller, newBinaryCopyRequest(Collections.emptyMap()),
+                Mockito.mock(QueryStatusChecker.class)));
+        Mockito.verify(blockSpiller, Mockito.never()).writeRows(any());
+        Mockito.verify(this.connection).close();
+    }
+
+    private ReadRecordsRequest newBinaryCopyRequest(Map<String, ValueSet> summary)
+    {
+        Schema schema = SchemaBuilder.newBuilder()
+                .addField(FieldBuilder.newBuilder("testCol1", Types.MinorType.INT.getType()).build())
+                .addField(FieldBuilder.newBuilder("testCol2", Types.MinorType.VARCHAR.getType()).build())
+                .build();
+        Split split = Mockito.mock(Split.class);
+        Mockito.when(split.getProperties()).thenReturn(ImmutableMap.of("partition_schema_name", "s0", "partition_name", "p0"));
+        Mockito.when(split.getProperty(Mockito.eq(PostGreSqlMetadataHandler.BLOCK_PARTITION_SCHEMA_COLUMN_NAME))).thenReturn("s0");
+        Mockito.when(split.getProperty(Mockito.eq(PostGreSqlMetadataHandler.BLOCK_PARTITION_COLUMN_NAME))).thenReturn("p0");
+        Constraints constraints = Mockito.mock(Constraints.class);
+        Mockito.when(constraints.getSummary()).thenReturn(summary);
+
+        ReadRecordsRequest request = Mockito.mock(ReadRecordsRequest.class);
+        Mockito.when(request.getQueryId()).thenReturn("queryId");
+        Mockito.when(request.getTableName()).thenReturn(new TableName("testSchema", "testTable"));
+        Mockito.when(request.getSchema()).thenReturn(schema);
+        Mockito.when(request.getSplit()).thenReturn(split);
+        Mockito.when(request.getConstraints()).thenReturn(constraints);
+        return request;
+    }
+
     private ValueSet getSingleValueSet(Object value) {
         Range range = Mockito.mock(Range.class, Mockito.RETURNS_DEEP_STUBS);
         Mockito.when(range.isSingleValue()).thenReturn(true);
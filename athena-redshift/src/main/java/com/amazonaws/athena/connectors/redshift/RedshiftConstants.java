@@ -24,6 +24,10 @@ public class RedshiftConstants
     public static final String REDSHIFT_NAME = "redshift";
     public static final String REDSHIFT_DRIVER_CLASS = "com.amazon.redshift.jdbc.Driver";
     public static final int REDSHIFT_DEFAULT_PORT = 5439;
+    // Opt-in, reads each split from Parquet files which Redshift UNLOADs under the split's spill location
+    public static final String UNLOAD_ENABLED = "redshift_unload_enabled";
+    // IAM role which Redshift assumes to write the unloaded files
+    public static final String UNLOAD_IAM_ROLE = "redshift_unload_iam_role";
 
     private RedshiftConstants() {}
 }
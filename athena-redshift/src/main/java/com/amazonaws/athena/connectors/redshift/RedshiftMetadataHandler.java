@@ -21,7 +21,6 @@ package com.amazonaws.athena.connectors.redshift;
 
 import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
-import com.amazonaws.athena.connector.lambda.domain.predicate.functions.StandardFunctions;
 import com.amazonaws.athena.connector.lambda.metadata.GetDataSourceCapabilitiesRequest;
 import com.amazonaws.athena.connector.lambda.metadata.GetDataSourceCapabilitiesResponse;
 import com.amazonaws.athena.connector.lambda.metadata.optimizations.DataSourceOptimizations;
@@ -36,6 +35,7 @@ import com.amazonaws.athena.connectors.jdbc.connection.GenericJdbcConnectionFact
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcConnectionFactory;
 import com.amazonaws.athena.connectors.jdbc.manager.JDBCUtil;
 import com.amazonaws.athena.connectors.postgresql.PostGreSqlMetadataHandler;
+import com.amazonaws.athena.connectors.postgresql.PostgreSqlFederationExpressionParser;
 import com.amazonaws.services.athena.AmazonAthena;
 import com.amazonaws.services.secretsmanager.AWSSecretsManager;
 import com.google.common.collect.ImmutableMap;
@@ -47,9 +47,9 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Arrays;
 import java.util.List;
 
+import static com.amazonaws.athena.connectors.postgresql.PostGreSqlConstants.POSTGRES_QUOTE_CHARACTER;
 import static com.amazonaws.athena.connectors.redshift.RedshiftConstants.REDSHIFT_DEFAULT_PORT;
 import static com.amazonaws.athena.connectors.redshift.RedshiftConstants.REDSHIFT_DRIVER_CLASS;
 import static com.amazonaws.athena.connectors.redshift.RedshiftConstants.REDSHIFT_NAME;
@@ -116,9 +116,7 @@ public class RedshiftMetadataHandler
         ));
         capabilities.put(DataSourceOptimizations.SUPPORTS_COMPLEX_EXPRESSION_PUSHDOWN.withSupportedSubTypes(
             ComplexExpressionPushdownSubType.SUPPORTED_FUNCTION_EXPRESSION_TYPES
-            .withSubTypeProperties(Arrays.stream(StandardFunctions.values())
-                    .map(standardFunctions -> standardFunctions.getFunctionName().getFunctionName())
-                    .toArray(String[]::new))
+            .withSubTypeProperties(new PostgreSqlFederationExpressionParser(POSTGRES_QUOTE_CHARACTER).getSupportedFunctionNames())
         ));
         capabilities.put(DataSourceOptimizations.SUPPORTS_TOP_N_PUSHDOWN.withSupportedSubTypes(
             TopNPushdownSubType.SUPPORTS_ORDER_BY
@@ -128,6 +126,24 @@ public class RedshiftMetadataHandler
         return new GetDataSourceCapabilitiesResponse(request.getCatalogName(), capabilities.build());
     }
 
+    /**
+     * Redshift tables have no ctid system column.
+     */
+    @Override
+    protected boolean supportsBlockRangeSplits()
+    {
+        return false;
+    }
+
+    /**
+     * Redshift has no HASHTEXT, FNV_HASH returns a bigint which may be negative.
+     */
+    @Override
+    protected String getHashSplitClause(final String column, final int bucketCount, final int bucket)
+    {
+        return String.format("ABS(MOD(FNV_HASH(%s), %d)) = %d", column, bucketCount, bucket);
+    }
+
     @Override
     protected List<TableName> getPaginatedResults(Connection connection, String databaseName, int token, int limit) throws SQLException
     {
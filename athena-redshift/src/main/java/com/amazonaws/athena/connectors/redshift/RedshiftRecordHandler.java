@@ -19,12 +19,20 @@
  */
 package com.amazonaws.athena.connectors.redshift;
 
+import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
+import com.amazonaws.athena.connector.lambda.data.Block;
+import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
+import com.amazonaws.athena.connector.lambda.data.DateTimeFormatterUtil;
+import com.amazonaws.athena.connector.lambda.domain.spill.S3SpillLocation;
+import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
 import com.amazonaws.athena.connectors.jdbc.connection.DatabaseConnectionConfig;
 import com.amazonaws.athena.connectors.jdbc.connection.DatabaseConnectionInfo;
 import com.amazonaws.athena.connectors.jdbc.connection.GenericJdbcConnectionFactory;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcConnectionFactory;
 import com.amazonaws.athena.connectors.jdbc.manager.JDBCUtil;
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcSplitQueryBuilder;
+import com.amazonaws.athena.connectors.jdbc.manager.StatementCanceller;
+import com.amazonaws.athena.connectors.jdbc.manager.TypeAndValue;
 import com.amazonaws.athena.connectors.postgresql.PostGreSqlMetadataHandler;
 import com.amazonaws.athena.connectors.postgresql.PostGreSqlMuxCompositeHandler;
 import com.amazonaws.athena.connectors.postgresql.PostGreSqlQueryStringBuilder;
@@ -34,21 +42,67 @@ import com.amazonaws.services.athena.AmazonAthena;
 import com.amazonaws.services.athena.AmazonAthenaClientBuilder;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
 import com.amazonaws.services.secretsmanager.AWSSecretsManager;
 import com.amazonaws.services.secretsmanager.AWSSecretsManagerClientBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Strings;
+import org.apache.arrow.dataset.file.FileFormat;
+import org.apache.arrow.dataset.file.FileSystemDatasetFactory;
+import org.apache.arrow.dataset.jni.NativeMemoryPool;
+import org.apache.arrow.dataset.scanner.ScanOptions;
+import org.apache.arrow.dataset.scanner.Scanner;
+import org.apache.arrow.dataset.source.Dataset;
+import org.apache.arrow.dataset.source.DatasetFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
 import org.apache.arrow.util.VisibleForTesting;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowReader;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
 import static com.amazonaws.athena.connectors.postgresql.PostGreSqlConstants.POSTGRES_QUOTE_CHARACTER;
 import static com.amazonaws.athena.connectors.redshift.RedshiftConstants.REDSHIFT_DEFAULT_PORT;
 import static com.amazonaws.athena.connectors.redshift.RedshiftConstants.REDSHIFT_DRIVER_CLASS;
 import static com.amazonaws.athena.connectors.redshift.RedshiftConstants.REDSHIFT_NAME;
+import static com.amazonaws.athena.connectors.redshift.RedshiftConstants.UNLOAD_ENABLED;
+import static com.amazonaws.athena.connectors.redshift.RedshiftConstants.UNLOAD_IAM_ROLE;
 
 public class RedshiftRecordHandler
         extends PostGreSqlRecordHandler
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(RedshiftRecordHandler.class);
+    private static final int UNLOAD_BATCH_SIZE = 32768;
+    // ALLOWOVERWRITE lets a retried split unload over the files of a failed attempt, the manifest only lists the new files
+    static final String UNLOAD_QUERY = "UNLOAD ('%s') TO '%s' IAM_ROLE '%s' FORMAT AS PARQUET PARALLEL ON MANIFEST ALLOWOVERWRITE";
+    // Unloaded files are written under the split's spill location, apart from its spilled blocks
+    static final String UNLOAD_DIRECTORY = "/unload/";
+    static final String UNLOAD_MANIFEST = "manifest";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final AmazonS3 amazonS3;
+    private final JdbcSplitQueryBuilder jdbcSplitQueryBuilder;
 
     /**
      * Instantiates handler to be used by Lambda function directly.
@@ -62,7 +116,7 @@ public class RedshiftRecordHandler
 
     public RedshiftRecordHandler(DatabaseConnectionConfig databaseConnectionConfig, java.util.Map<String, String> configOptions)
     {
-        super(databaseConnectionConfig, AmazonS3ClientBuilder.defaultClient(), AWSSecretsManagerClientBuilder.defaultClient(), AmazonAthenaClientBuilder.defaultClient(),
+        this(databaseConnectionConfig, AmazonS3ClientBuilder.defaultClient(), AWSSecretsManagerClientBuilder.defaultClient(), AmazonAthenaClientBuilder.defaultClient(),
                 new GenericJdbcConnectionFactory(databaseConnectionConfig, PostGreSqlMetadataHandler.JDBC_PROPERTIES, new DatabaseConnectionInfo(REDSHIFT_DRIVER_CLASS, REDSHIFT_DEFAULT_PORT)), new PostGreSqlQueryStringBuilder(POSTGRES_QUOTE_CHARACTER, new PostgreSqlFederationExpressionParser(POSTGRES_QUOTE_CHARACTER)), configOptions);
     }
 
@@ -70,5 +124,299 @@ public class RedshiftRecordHandler
     RedshiftRecordHandler(DatabaseConnectionConfig databaseConnectionConfig, AmazonS3 amazonS3, AWSSecretsManager secretsManager, AmazonAthena athena, JdbcConnectionFactory jdbcConnectionFactory, JdbcSplitQueryBuilder jdbcSplitQueryBuilder, java.util.Map<String, String> configOptions)
     {
         super(databaseConnectionConfig, amazonS3, secretsManager, athena, jdbcConnectionFactory, jdbcSplitQueryBuilder, configOptions);
+        this.amazonS3 = amazonS3;
+        this.jdbcSplitQueryBuilder = jdbcSplitQueryBuilder;
+    }
+
+    @Override
+    public void readWithConstraint(BlockSpiller blockSpiller, ReadRecordsRequest readRecordsRequest, QueryStatusChecker queryStatusChecker)
+            throws Exception
+    {
+        if (!isUnloadEnabled() || readRecordsRequest.getConstraints().isQueryPassThrough()
+                || !readWithUnload(blockSpiller, readRecordsRequest, queryStatusChecker)) {
+            super.readWithConstraint(blockSpiller, readRecordsRequest, queryStatusChecker);
+        }
+    }
+
+    private boolean isUnloadEnabled()
+    {
+        return Boolean.parseBoolean(configOptions.getOrDefault(UNLOAD_ENABLED, "false")) && !Strings.isNullOrEmpty(configOptions.get(UNLOAD_IAM_ROLE));
+    }
+
+    /**
+     * UNLOADs the projected columns of the split's rows, with the pushed down constraints applied by Redshift, to Parquet
+     * files under the split's spill location and reads the files listed in the UNLOAD manifest. The unloaded files are
+     * deleted before returning, whether or not they were read.
+     *
+     * @return false, before any row is written, when the split can not be unloaded or the UNLOAD failed.
+     */
+    @VisibleForTesting
+    boolean readWithUnload(BlockSpiller blockSpiller, ReadRecordsRequest readRecordsRequest, QueryStatusChecker queryStatusChecker)
+            throws Exception
+    {
+        String unloadQuery = makeUnloadQuery(readRecordsRequest);
+        if (unloadQuery == null) {
+            LOGGER.info("{}: Split can not be unloaded, reading it through JDBC instead.", readRecordsRequest.getQueryId());
+            return false;
+        }
+
+        S3SpillLocation spillLocation = (S3SpillLocation) readRecordsRequest.getSplit().getSpillLocation();
+        String unloadKey = spillLocation.getKey() + UNLOAD_DIRECTORY;
+        try {
+            List<String> unloadFiles;
+            try {
+                unloadFiles = unload(readRecordsRequest, queryStatusChecker, unloadQuery, spillLocation.getBucket(), unloadKey);
+            }
+            catch (Exception ex) {
+                if (!queryStatusChecker.isQueryRunning()) {
+                    // The UNLOAD was cancelled, nothing is left to read
+                    return true;
+                }
+                LOGGER.warn("{}: Unable to unload split, reading it through JDBC instead.", readRecordsRequest.getQueryId(), ex);
+                return false;
+            }
+            for (String unloadFile : unloadFiles) {
+                if (!queryStatusChecker.isQueryRunning()) {
+                    break;
+                }
+                readUnloadFile(blockSpiller, readRecordsRequest, queryStatusChecker, unloadFile);
+            }
+            return true;
+        }
+        finally {
+            deleteUnloadedFiles(spillLocation.getBucket(), unloadKey);
+        }
+    }
+
+    /**
+     * UNLOAD can not bind parameters, so the values of the constraints are inlined as literals.
+     *
+     * @return null when no table column is projected or a constraint value can not be inlined.
+     */
+    private String makeUnloadQuery(ReadRecordsRequest readRecordsRequest)
+    {
+        Map<String, String> partitionValues = readRecordsRequest.getSplit().getProperties();
+        if (readRecordsRequest.getSchema().getFields().stream().allMatch(field -> partitionValues.containsKey(field.getName()))) {
+            return null;
+        }
+        List<TypeAndValue> accumulator = new ArrayList<>();
+        String sql = jdbcSplitQueryBuilder.buildSqlString(null, readRecordsRequest.getTableName().getSchemaName(), readRecordsRequest.getTableName().getTableName(),
+                readRecordsRequest.getSchema(), readRecordsRequest.getConstraints(), readRecordsRequest.getSplit(), accumulator);
+        String inlined = inlineParameters(sql, accumulator);
+        // UNLOAD does not allow a LIMIT in the outer SELECT
+        return (inlined == null) ? null : String.format("SELECT * FROM (%s) AS unload_source", inlined);
+    }
+
+    /**
+     * Runs the UNLOAD, which is cancelled if the query stops, and reads its manifest.
+     *
+     * @return URIs of the unloaded files.
+     */
+    private List<String> unload(ReadRecordsRequest readRecordsRequest, QueryStatusChecker queryStatusChecker, String unloadQuery, String bucket, String unloadKey)
+            throws Exception
+    {
+        String unloadPath = String.format("s3://%s/%s", bucket, unloadKey);
+        String unloadSql = String.format(UNLOAD_QUERY, escape(unloadQuery), escape(unloadPath), escape(configOptions.get(UNLOAD_IAM_ROLE)));
+        try (Connection connection = getJdbcConnectionFactory().getConnection(getCredentialProvider());
+                Statement statement = connection.createStatement();
+                StatementCanceller statementCanceller = new StatementCanceller(connection, statement, queryStatusChecker)) {
+            LOGGER.info("{}: Unloading split to {}", readRecordsRequest.getQueryId(), unloadPath);
+            statement.execute(unloadSql);
+        }
+
+        List<String> unloadFiles = new ArrayList<>();
+        for (JsonNode entry : OBJECT_MAPPER.readTree(amazonS3.getObjectAsString(bucket, unloadKey + UNLOAD_MANIFEST)).path("entries")) {
+            unloadFiles.add(entry.path("url").asText());
+        }
+        LOGGER.info("{}: Unloaded split to {} files", readRecordsRequest.getQueryId(), unloadFiles.size());
+        return unloadFiles;
+    }
+
+    /**
+     * Deletes every object under the unload location, which also covers the files of a partially failed UNLOAD. Files are
+     * only left behind when the Lambda dies while reading them, the spill bucket's lifecycle rules expire those.
+     */
+    private void deleteUnloadedFiles(String bucket, String unloadKey)
+    {
+        try {
+            ListObjectsV2Request listRequest = new ListObjectsV2Request().withBucketName(bucket).withPrefix(unloadKey);
+            ListObjectsV2Result listResult;
+            do {
+                listResult = amazonS3.listObjectsV2(listRequest);
+                List<DeleteObjectsRequest.KeyVersion> keys = listResult.getObjectSummaries().stream()
+                        .map(summary -> new DeleteObjectsRequest.KeyVersion(summary.getKey()))
+                        .collect(Collectors.toList());
+                if (!keys.isEmpty()) {
+                    amazonS3.deleteObjects(new DeleteObjectsRequest(bucket).withKeys(keys));
+                }
+                listRequest.setContinuationToken(listResult.getNextContinuationToken());
+            }
+            while (listResult.isTruncated());
+        }
+        catch (RuntimeException ex) {
+            LOGGER.warn("Unable to delete unloaded files under s3://{}/{}", bucket, unloadKey, ex);
+        }
+    }
+
+    /**
+     * Reads a Parquet file which Redshift unloaded for the split. The constraints were applied by the UNLOAD and are
+     * evaluated again as the rows are written.
+     */
+    @VisibleForTesting
+    void readUnloadFile(BlockSpiller blockSpiller, ReadRecordsRequest readRecordsRequest, QueryStatusChecker queryStatusChecker, String unloadFile)
+            throws Exception
+    {
+        Map<String, String> partitionValues = readRecordsRequest.getSplit().getProperties();
+        List<Field> fields = readRecordsRequest.getSchema().getFields();
+        String[] columns = fields.stream()
+                .map(Field::getName)
+                .filter(name -> !partitionValues.containsKey(name))
+                .toArray(String[]::new);
+        LOGGER.info("{}: Reading unloaded file {}", readRecordsRequest.getQueryId(), unloadFile);
+
+        try (BufferAllocator allocator = new RootAllocator();
+                DatasetFactory datasetFactory = new FileSystemDatasetFactory(allocator, NativeMemoryPool.getDefault(), FileFormat.PARQUET, unloadFile);
+                Dataset dataset = datasetFactory.finish();
+                Scanner scanner = dataset.newScan(new ScanOptions(UNLOAD_BATCH_SIZE, Optional.of(columns)));
+                ArrowReader reader = scanner.scanBatches()) {
+            FieldVector[] vectors = new FieldVector[fields.size()];
+            Types.MinorType[] types = new Types.MinorType[fields.size()];
+            int rowsReturnedFromFile = 0;
+            while (reader.loadNextBatch()) {
+                if (!queryStatusChecker.isQueryRunning()) {
+                    return;
+                }
+                VectorSchemaRoot root = reader.getVectorSchemaRoot();
+                for (int i = 0; i < fields.size(); i++) {
+                    String name = fields.get(i).getName();
+                    vectors[i] = partitionValues.containsKey(name) ? null : root.getVector(name);
+                    types[i] = Types.getMinorTypeForArrowType(fields.get(i).getType());
+                }
+                for (int row = 0; row < root.getRowCount(); row++) {
+                    int sourceRow = row;
+                    blockSpiller.writeRows((Block block, int rowNum) -> {
+                        for (int i = 0; i < vectors.length; i++) {
+                            Object value = (vectors[i] == null) ? partitionValues.get(fields.get(i).getName()) : coerce(vectors[i], sourceRow, types[i]);
+                            if (!block.offerValue(i, rowNum, value)) {
+                                return 0;
+                            }
+                        }
+                        return 1;
+                    });
+                }
+                rowsReturnedFromFile += root.getRowCount();
+            }
+            LOGGER.info("{} rows read from unloaded file.", rowsReturnedFromFile);
+        }
+    }
+
+    /**
+     * Converts a value of the Parquet file to the Java type which Blocks accept for the field's type.
+     */
+    private static Object coerce(FieldVector vector, int row, Types.MinorType type)
+    {
+        if (vector.isNull(row)) {
+            return null;
+        }
+        Object value = vector.getObject(row);
+        switch (type) {
+            case BIGINT:
+                return ((Number) value).longValue();
+            case INT:
+                return ((Number) value).intValue();
+            case SMALLINT:
+                return ((Number) value).shortValue();
+            case TINYINT:
+                return ((Number) value).byteValue();
+            case FLOAT8:
+                return ((Number) value).doubleValue();
+            case FLOAT4:
+                return ((Number) value).floatValue();
+            case DATEMILLI:
+                ArrowType arrowType = vector.getField().getType();
+                if (value instanceof Long && arrowType instanceof ArrowType.Timestamp) {
+                    // Timestamps with a time zone are read as the instant since the epoch
+                    return Instant.EPOCH.plus((Long) value, DateTimeFormatterUtil.arrowTimeUnitToChronoUnit(((ArrowType.Timestamp) arrowType).getUnit()))
+                            .atZone(ZoneOffset.UTC)
+                            .toLocalDateTime();
+                }
+                return value;
+            case VARCHAR:
+                return value.toString();
+            default:
+                return value;
+        }
+    }
+
+    /**
+     * Replaces each parameter marker of the query with the literal of its value.
+     *
+     * @return null if a value has a type without a literal.
+     */
+    @VisibleForTesting
+    static String inlineParameters(String sql, List<TypeAndValue> parameters)
+    {
+        StringBuilder inlined = new StringBuilder(sql.length());
+        int parameter = 0;
+        char quote = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char next = sql.charAt(i);
+            if (quote != 0) {
+                quote = (next == quote) ? 0 : quote;
+            }
+            else if (next == '\'' || next == '"') {
+                quote = next;
+            }
+            else if (next == '?') {
+                String literal = parameter < parameters.size() ? toLiteral(parameters.get(parameter++)) : null;
+                if (literal == null) {
+                    return null;
+                }
+                inlined.append(literal);
+                continue;
+            }
+            inlined.append(next);
+        }
+        return parameter == parameters.size() ? inlined.toString() : null;
+    }
+
+    private static String toLiteral(TypeAndValue typeAndValue)
+    {
+        Object value = typeAndValue.getValue();
+        switch (Types.getMinorTypeForArrowType(typeAndValue.getType())) {
+            case BIGINT:
+            case INT:
+            case SMALLINT:
+            case TINYINT:
+                return String.valueOf(((Number) value).longValue());
+            case FLOAT8:
+                double doubleValue = ((Number) value).doubleValue();
+                return Double.isFinite(doubleValue) ? String.format("CAST(%s AS DOUBLE PRECISION)", BigDecimal.valueOf(doubleValue).toPlainString()) : null;
+            case FLOAT4:
+                float floatValue = ((Number) value).floatValue();
+                return Float.isFinite(floatValue) ? String.format("CAST(%s AS REAL)", new BigDecimal(Float.toString(floatValue)).toPlainString()) : null;
+            case DECIMAL:
+                return ((BigDecimal) value).toPlainString();
+            case BIT:
+                return ((boolean) value) ? "TRUE" : "FALSE";
+            case DATEDAY:
+                return String.format("DATE '%s'", LocalDate.ofEpochDay(((Number) value).longValue()));
+            case DATEMILLI:
+                return String.format("TIMESTAMP '%s'", ((LocalDateTime) value).toString().replace('T', ' '));
+            case VARCHAR:
+                String stringValue = String.valueOf(value);
+                // Only quotes are escaped, strings which would need a backslash escape are read through JDBC
+                return stringValue.chars().anyMatch(c -> c == '\\' || Character.isISOControl(c)) ? null : "'" + stringValue.replace("'", "''") + "'";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Escapes a value for a single quoted Redshift string literal.
+     */
+    private static String escape(String value)
+    {
+        return value.replace("\\", "\\\\").replace("'", "''");
     }
 }
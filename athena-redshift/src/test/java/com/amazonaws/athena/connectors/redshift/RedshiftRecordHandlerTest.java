@@ -19,6 +19,12 @@
  */
 package com.amazonaws.athena.connectors.redshift;
 
+import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
+import com.amazonaws.athena.connector.lambda.data.Block;
+import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
+import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
+import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
+import com.amazonaws.athena.connector.lambda.data.BlockWriter;
 import com.amazonaws.athena.connector.lambda.data.FieldBuilder;
 import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
 import com.amazonaws.athena.connector.lambda.domain.Split;
@@ -28,36 +34,68 @@ import com.amazonaws.athena.connector.lambda.domain.predicate.Marker;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
 import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
+import com.amazonaws.athena.connector.lambda.domain.spill.S3SpillLocation;
+import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
+import com.amazonaws.athena.connector.lambda.security.FederatedIdentity;
 import com.amazonaws.athena.connectors.jdbc.TestBase;
 import com.amazonaws.athena.connectors.jdbc.connection.DatabaseConnectionConfig;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcConnectionFactory;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcCredentialProvider;
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcSplitQueryBuilder;
+import com.amazonaws.athena.connectors.jdbc.manager.TypeAndValue;
 import com.amazonaws.athena.connectors.postgresql.PostGreSqlMetadataHandler;
 import com.amazonaws.athena.connectors.postgresql.PostGreSqlQueryStringBuilder;
 import com.amazonaws.athena.connectors.postgresql.PostgreSqlFederationExpressionParser;
 import com.amazonaws.services.athena.AmazonAthena;
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.secretsmanager.AWSSecretsManager;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import org.apache.arrow.dataset.file.DatasetFileWriter;
+import org.apache.arrow.dataset.file.FileFormat;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.complex.reader.FieldReader;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
 import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static com.amazonaws.athena.connectors.redshift.RedshiftConstants.REDSHIFT_NAME;
 import static org.mockito.ArgumentMatchers.nullable;
@@ -75,6 +113,9 @@ public class RedshiftRecordHandlerTest
     private AWSSecretsManager secretsManager;
     private AmazonAthena athena;
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Before
     public void setup()
             throws Exception
@@ -232,4 +273,207 @@ public class RedshiftRecordHandlerTest
         Mockito.when(valueSet.getRanges().getOrderedRanges()).thenReturn(Collections.singletonList(range));
         return valueSet;
     }
+
+    @Test
+    public void readWithUnload()
+            throws Exception
+    {
+        RedshiftRecordHandler unloadRecordHandler = newUnloadRecordHandler();
+        BlockAllocator blockAllocator = new BlockAllocatorImpl();
+        LocalDateTime created = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+        Constraints constraints = new Constraints(Collections.singletonMap("id", SortedRangeSet.of(false, Range.greaterThan(blockAllocator, Types.MinorType.BIGINT.getType(), 0L))),
+                Collections.emptyList(), Collections.emptyList(), Constraints.DEFAULT_NO_LIMIT, Collections.emptyMap());
+        ReadRecordsRequest readRecordsRequest = newUnloadRequest(constraints);
+        String unloadKey = ((S3SpillLocation) readRecordsRequest.getSplit().getSpillLocation()).getKey() + RedshiftRecordHandler.UNLOAD_DIRECTORY;
+
+        Statement statement = Mockito.mock(Statement.class);
+        Mockito.when(this.connection.createStatement()).thenReturn(statement);
+        // The local file stands in for the file which Redshift unloads to the spill bucket
+        Mockito.when(this.amazonS3.getObjectAsString("bucket", unloadKey + RedshiftRecordHandler.UNLOAD_MANIFEST))
+                .thenReturn("{\"entries\": [{\"url\": \"" + writeUnloadFile(created) + "\", \"meta\": {\"content_length\": 1}}]}");
+        mockUnloadedObjects(unloadKey + "0000_part_00.parquet", unloadKey + RedshiftRecordHandler.UNLOAD_MANIFEST);
+
+        Block block = blockAllocator.createBlock(readRecordsRequest.getSchema());
+        BlockSpiller blockSpiller = mockBlockSpiller(block);
+        QueryStatusChecker queryStatusChecker = Mockito.mock(QueryStatusChecker.class);
+        Mockito.when(queryStatusChecker.isQueryRunning()).thenReturn(true);
+
+        unloadRecordHandler.readWithConstraint(blockSpiller, readRecordsRequest, queryStatusChecker);
+
+        ArgumentCaptor<String> unloadSql = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(statement).execute(unloadSql.capture());
+        Assert.assertTrue(unloadSql.getValue(), unloadSql.getValue().startsWith("UNLOAD ('SELECT * FROM (SELECT \"id\", \"name\", \"created\" FROM \"testSchema\".\"testTable\""));
+        Assert.assertTrue(unloadSql.getValue(), unloadSql.getValue().contains("\"id\" > 0"));
+        Assert.assertTrue(unloadSql.getValue(), unloadSql.getValue().endsWith("TO 's3://bucket/" + unloadKey
+                + "' IAM_ROLE 'arn:aws:iam::123456789012:role/unload' FORMAT AS PARQUET PARALLEL ON MANIFEST ALLOWOVERWRITE"));
+        ArgumentCaptor<DeleteObjectsRequest> deleteRequest = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        Mockito.verify(this.amazonS3).deleteObjects(deleteRequest.capture());
+        Assert.assertEquals(ImmutableList.of(unloadKey + "0000_part_00.parquet", unloadKey + RedshiftRecordHandler.UNLOAD_MANIFEST),
+                deleteRequest.getValue().getKeys().stream().map(DeleteObjectsRequest.KeyVersion::getKey).collect(Collectors.toList()));
+
+        Assert.assertEquals(2, block.getRowCount());
+        FieldReader id = block.getFieldReader("id");
+        FieldReader name = block.getFieldReader("name");
+        FieldReader createdReader = block.getFieldReader("created");
+        FieldReader partition = block.getFieldReader(PostGreSqlMetadataHandler.BLOCK_PARTITION_COLUMN_NAME);
+        id.setPosition(0);
+        name.setPosition(0);
+        createdReader.setPosition(0);
+        partition.setPosition(0);
+        Assert.assertEquals(Long.valueOf(1L), id.readLong());
+        Assert.assertEquals("a", name.readText().toString());
+        Assert.assertEquals(created, createdReader.readLocalDateTime());
+        Assert.assertEquals(PostGreSqlMetadataHandler.ALL_PARTITIONS, partition.readText().toString());
+        id.setPosition(1);
+        name.setPosition(1);
+        createdReader.setPosition(1);
+        Assert.assertEquals(Long.valueOf(2L), id.readLong());
+        Assert.assertFalse(name.isSet());
+        Assert.assertEquals(created.plusNanos(1_000_000), createdReader.readLocalDateTime());
+        blockAllocator.close();
+    }
+
+    @Test
+    public void readWithUnloadFallsBackWhenUnloadFails()
+            throws Exception
+    {
+        RedshiftRecordHandler unloadRecordHandler = newUnloadRecordHandler();
+        ReadRecordsRequest readRecordsRequest = newUnloadRequest(new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(),
+                Constraints.DEFAULT_NO_LIMIT, Collections.emptyMap()));
+        String unloadKey = ((S3SpillLocation) readRecordsRequest.getSplit().getSpillLocation()).getKey() + RedshiftRecordHandler.UNLOAD_DIRECTORY;
+        Statement statement = Mockito.mock(Statement.class);
+        Mockito.when(this.connection.createStatement()).thenReturn(statement);
+        Mockito.when(statement.execute(Mockito.anyString())).thenThrow(new SQLException("S3ServiceException: Access Denied"));
+        mockUnloadedObjects(unloadKey + "0000_part_00.parquet");
+        BlockSpiller blockSpiller = Mockito.mock(BlockSpiller.class);
+        QueryStatusChecker queryStatusChecker = Mockito.mock(QueryStatusChecker.class);
+        Mockito.when(queryStatusChecker.isQueryRunning()).thenReturn(true);
+
+        Assert.assertFalse(unloadRecordHandler.readWithUnload(blockSpiller, readRecordsRequest, queryStatusChecker));
+
+        Mockito.verify(blockSpiller, Mockito.never()).writeRows(Mockito.any());
+        Mockito.verify(this.amazonS3, Mockito.never()).getObjectAsString(Mockito.anyString(), Mockito.anyString());
+        // The files of a partially failed UNLOAD are deleted
+        Mockito.verify(this.amazonS3).deleteObjects(Mockito.any(DeleteObjectsRequest.class));
+    }
+
+    @Test
+    public void readWithUnloadFallsBackWithoutLiteral()
+            throws Exception
+    {
+        RedshiftRecordHandler unloadRecordHandler = newUnloadRecordHandler();
+        BlockAllocator blockAllocator = new BlockAllocatorImpl();
+        Constraints constraints = new Constraints(Collections.singletonMap("name", SortedRangeSet.of(false, Range.equal(blockAllocator, Types.MinorType.VARCHAR.getType(), "a\\b"))),
+                Collections.emptyList(), Collections.emptyList(), Constraints.DEFAULT_NO_LIMIT, Collections.emptyMap());
+        BlockSpiller blockSpiller = Mockito.mock(BlockSpiller.class);
+
+        Assert.assertFalse(unloadRecordHandler.readWithUnload(blockSpiller, newUnloadRequest(constraints), Mockito.mock(QueryStatusChecker.class)));
+
+        Mockito.verify(this.jdbcConnectionFactory, Mockito.never()).getConnection(nullable(JdbcCredentialProvider.class));
+        Mockito.verifyNoInteractions(this.amazonS3);
+        blockAllocator.close();
+    }
+
+    @Test
+    public void inlineParameters()
+    {
+        List<TypeAndValue> parameters = Arrays.asList(
+                new TypeAndValue(Types.MinorType.BIGINT.getType(), 5L),
+                new TypeAndValue(Types.MinorType.DATEDAY.getType(), 19_000),
+                new TypeAndValue(Types.MinorType.VARCHAR.getType(), "a?'b"));
+        Assert.assertEquals("SELECT \"a?\" FROM t WHERE x = 5 AND d = DATE '2022-01-08' AND s = 'a?''b' AND c = '?'",
+                RedshiftRecordHandler.inlineParameters("SELECT \"a?\" FROM t WHERE x = ? AND d = ? AND s = ? AND c = '?'", parameters));
+        Assert.assertNull(RedshiftRecordHandler.inlineParameters("SELECT * FROM t WHERE s = ?",
+                Collections.singletonList(new TypeAndValue(Types.MinorType.VARCHAR.getType(), "a\\b"))));
+        Assert.assertNull(RedshiftRecordHandler.inlineParameters("SELECT * FROM t WHERE b = ?",
+                Collections.singletonList(new TypeAndValue(Types.MinorType.VARBINARY.getType(), new byte[0]))));
+    }
+
+    private RedshiftRecordHandler newUnloadRecordHandler()
+    {
+        DatabaseConnectionConfig databaseConnectionConfig = new DatabaseConnectionConfig("testCatalog", REDSHIFT_NAME,
+                "redshift://jdbc:redshift://hostname/user=A&password=B");
+        return new RedshiftRecordHandler(databaseConnectionConfig, amazonS3, secretsManager, athena, jdbcConnectionFactory, jdbcSplitQueryBuilder,
+                ImmutableMap.of(RedshiftConstants.UNLOAD_ENABLED, "true", RedshiftConstants.UNLOAD_IAM_ROLE, "arn:aws:iam::123456789012:role/unload"));
+    }
+
+    private ReadRecordsRequest newUnloadRequest(Constraints constraints)
+    {
+        Schema schema = SchemaBuilder.newBuilder()
+                .addField(FieldBuilder.newBuilder("id", Types.MinorType.BIGINT.getType()).build())
+                .addField(FieldBuilder.newBuilder("name", Types.MinorType.VARCHAR.getType()).build())
+                .addField(FieldBuilder.newBuilder("created", Types.MinorType.DATEMILLI.getType()).build())
+                .addField(FieldBuilder.newBuilder(PostGreSqlMetadataHandler.BLOCK_PARTITION_SCHEMA_COLUMN_NAME, Types.MinorType.VARCHAR.getType()).build())
+                .addField(FieldBuilder.newBuilder(PostGreSqlMetadataHandler.BLOCK_PARTITION_COLUMN_NAME, Types.MinorType.VARCHAR.getType()).build())
+                .build();
+        S3SpillLocation spillLocation = S3SpillLocation.newBuilder()
+                .withBucket("bucket")
+                .withPrefix("spill")
+                .withQueryId("testQueryId")
+                .withSplitId("testSplitId")
+                .withIsDirectory(true)
+                .build();
+        Split split = Split.newBuilder(spillLocation, null)
+                .add(PostGreSqlMetadataHandler.BLOCK_PARTITION_SCHEMA_COLUMN_NAME, PostGreSqlMetadataHandler.ALL_PARTITIONS)
+                .add(PostGreSqlMetadataHandler.BLOCK_PARTITION_COLUMN_NAME, PostGreSqlMetadataHandler.ALL_PARTITIONS)
+                .build();
+        return new ReadRecordsRequest(Mockito.mock(FederatedIdentity.class), "testCatalog", "testQueryId",
+                new TableName("testSchema", "testTable"), schema, split, constraints, 1024, 1024);
+    }
+
+    private void mockUnloadedObjects(String... keys)
+    {
+        ListObjectsV2Result listResult = new ListObjectsV2Result();
+        for (String key : keys) {
+            S3ObjectSummary summary = new S3ObjectSummary();
+            summary.setKey(key);
+            listResult.getObjectSummaries().add(summary);
+        }
+        Mockito.when(this.amazonS3.listObjectsV2(Mockito.any(ListObjectsV2Request.class))).thenReturn(listResult);
+    }
+
+    private static BlockSpiller mockBlockSpiller(Block block)
+    {
+        BlockSpiller blockSpiller = Mockito.mock(BlockSpiller.class);
+        Mockito.doAnswer(invocation -> {
+            BlockWriter.RowWriter rowWriter = invocation.getArgument(0);
+            block.setRowCount(block.getRowCount() + rowWriter.writeRows(block, block.getRowCount()));
+            return null;
+        }).when(blockSpiller).writeRows(Mockito.any());
+        return blockSpiller;
+    }
+
+    /**
+     * Writes a Parquet file with an INT4, a nullable VARCHAR and a TIMESTAMPTZ column as UNLOAD does.
+     */
+    private String writeUnloadFile(LocalDateTime created)
+            throws Exception
+    {
+        File directory = temporaryFolder.newFolder();
+        try (BufferAllocator allocator = new RootAllocator()) {
+            IntVector id = new IntVector("id", allocator);
+            id.setSafe(0, 1);
+            id.setSafe(1, 2);
+            VarCharVector name = new VarCharVector("name", allocator);
+            name.setSafe(0, "a".getBytes(StandardCharsets.UTF_8));
+            name.setNull(1);
+            TimeStampMicroTZVector createdVector = new TimeStampMicroTZVector("created", allocator, "UTC");
+            long createdMicros = TimeUnit.SECONDS.toMicros(created.toEpochSecond(ZoneOffset.UTC));
+            createdVector.setSafe(0, createdMicros);
+            createdVector.setSafe(1, createdMicros + 1_000);
+
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            try (VectorSchemaRoot root = VectorSchemaRoot.of(id, name, createdVector);
+                    ArrowStreamWriter writer = new ArrowStreamWriter(root, null, stream)) {
+                root.setRowCount(2);
+                writer.start();
+                writer.writeBatch();
+                writer.end();
+            }
+            try (ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(stream.toByteArray()), allocator)) {
+                DatasetFileWriter.write(allocator, reader, FileFormat.PARQUET, directory.toURI().toString());
+            }
+        }
+        return directory.listFiles()[0].toURI().toString();
+    }
 }
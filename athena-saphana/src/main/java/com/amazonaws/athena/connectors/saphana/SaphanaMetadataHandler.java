@@ -237,7 +237,11 @@ public class SaphanaMetadataHandler extends JdbcMetadataHandler
         int partitionContd = decodeContinuationToken(getSplitsRequest);
         Set<Split> splits = new HashSet<>();
         Block partitions = getSplitsRequest.getPartitions();
-        // TODO consider splitting further depending on #rows or data size. Could use Hash key for splitting if no partitions.
+        // Unpartitioned tables are split on key ranges when they have a suitable key column.
+        Set<Split> rangeSplits = makeRangeSplits(getSplitsRequest, SaphanaConstants.BLOCK_PARTITION_COLUMN_NAME, SaphanaConstants.ALL_PARTITIONS);
+        if (!rangeSplits.isEmpty()) {
+            return new GetSplitsResponse(getSplitsRequest.getCatalogName(), rangeSplits, null);
+        }
         for (int curPartition = partitionContd; curPartition < partitions.getRowCount(); curPartition++) {
             FieldReader locationReader = partitions.getFieldReader(SaphanaConstants.BLOCK_PARTITION_COLUMN_NAME);
             locationReader.setPosition(curPartition);
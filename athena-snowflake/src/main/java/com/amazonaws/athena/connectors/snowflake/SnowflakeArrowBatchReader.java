@@ -0,0 +1,295 @@
+/*-
+ * #%L
+ * athena-snowflake
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.snowflake;
+
+import com.amazonaws.athena.connectors.jdbc.manager.ColumnValueReader;
+import net.snowflake.client.jdbc.ArrowBatches;
+import net.snowflake.client.jdbc.internal.apache.arrow.vector.BaseIntVector;
+import net.snowflake.client.jdbc.internal.apache.arrow.vector.BitVector;
+import net.snowflake.client.jdbc.internal.apache.arrow.vector.DateDayVector;
+import net.snowflake.client.jdbc.internal.apache.arrow.vector.DecimalVector;
+import net.snowflake.client.jdbc.internal.apache.arrow.vector.Float4Vector;
+import net.snowflake.client.jdbc.internal.apache.arrow.vector.Float8Vector;
+import net.snowflake.client.jdbc.internal.apache.arrow.vector.ValueVector;
+import net.snowflake.client.jdbc.internal.apache.arrow.vector.VarCharVector;
+import net.snowflake.client.jdbc.internal.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.Types;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the Arrow record batches of a Snowflake result one row at a time, decoding values straight from the column
+ * vectors instead of through the JDBC getters. The driver shades Arrow, so its vectors are read in place rather than
+ * transferred into Blocks.
+ *
+ * Snowflake encodes NUMBER columns as integer vectors of the narrowest width holding the values of a batch, with the
+ * scale in the field metadata, or as decimal vectors. Every batch is checked against the column types it is read as.
+ */
+public class SnowflakeArrowBatchReader
+        implements ColumnValueReader, AutoCloseable
+{
+    // Field metadata holding the scale of Snowflake's FIXED (NUMBER) columns
+    private static final String SCALE_METADATA = "scale";
+
+    /**
+     * Supplies the column vectors of the next batch, or null after the last one.
+     */
+    public interface BatchSource
+    {
+        List<ValueVector> nextBatch()
+                throws SQLException;
+
+        /**
+         * Releases the batches which were fetched but not handed out.
+         */
+        default void close() {}
+    }
+
+    private final BatchSource source;
+    private final List<Types.MinorType> columnTypes;
+    private final int[] scales;
+    private List<ValueVector> vectors = Collections.emptyList();
+    private int rowCount;
+    private int row = -1;
+
+    /**
+     * @param source batches of the result.
+     * @param columnTypes type each column of the result is read as.
+     */
+    public SnowflakeArrowBatchReader(BatchSource source, List<Types.MinorType> columnTypes)
+    {
+        this.source = source;
+        this.columnTypes = columnTypes;
+        this.scales = new int[columnTypes.size()];
+    }
+
+    /**
+     * @param batches Arrow batches of a Snowflake result. Fetching one {@link net.snowflake.client.jdbc.ArrowBatch} yields
+     * one {@link VectorSchemaRoot} per record batch, which are handed out one at a time.
+     * @return source of the record batches of the result.
+     */
+    public static BatchSource fromArrowBatches(ArrowBatches batches)
+    {
+        return new ArrowBatchesSource(batches);
+    }
+
+    /**
+     * @return true if columns of the given type can be read from Snowflake's Arrow batches.
+     */
+    public static boolean isSupported(Types.MinorType type)
+    {
+        switch (type) {
+            case BIT:
+            case TINYINT:
+            case SMALLINT:
+            case INT:
+            case BIGINT:
+            case FLOAT4:
+            case FLOAT8:
+            case DECIMAL:
+            case DATEDAY:
+            case VARCHAR:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Moves to the next row, fetching the next batch once the current one is read.
+     *
+     * @return false once all batches have been read.
+     * @throws SQLFeatureNotSupportedException if a batch has a column encoding which can not be read as its type.
+     */
+    public boolean next()
+            throws SQLException
+    {
+        while (++row >= rowCount) {
+            closeVectors();
+            List<ValueVector> batch = source.nextBatch();
+            if (batch == null) {
+                return false;
+            }
+            vectors = batch;
+            checkBatch();
+            rowCount = vectors.isEmpty() ? 0 : vectors.get(0).getValueCount();
+            row = -1;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isNull(int column)
+    {
+        return vectors.get(column).isNull(row);
+    }
+
+    @Override
+    public boolean getBoolean(int column)
+    {
+        return ((BitVector) vectors.get(column)).get(row) != 0;
+    }
+
+    @Override
+    public long getLong(int column)
+    {
+        ValueVector vector = vectors.get(column);
+        if (vector instanceof BaseIntVector) {
+            return ((BaseIntVector) vector).getValueAsLong(row);
+        }
+        return ((DecimalVector) vector).getObject(row).longValueExact();
+    }
+
+    @Override
+    public double getDouble(int column)
+    {
+        ValueVector vector = vectors.get(column);
+        if (vector instanceof Float8Vector) {
+            return ((Float8Vector) vector).get(row);
+        }
+        if (vector instanceof Float4Vector) {
+            return ((Float4Vector) vector).get(row);
+        }
+        return getDecimal(column).doubleValue();
+    }
+
+    @Override
+    public BigDecimal getDecimal(int column)
+    {
+        ValueVector vector = vectors.get(column);
+        if (vector instanceof BaseIntVector) {
+            return BigDecimal.valueOf(((BaseIntVector) vector).getValueAsLong(row), scales[column]);
+        }
+        return ((DecimalVector) vector).getObject(row);
+    }
+
+    @Override
+    public int getEpochDay(int column)
+    {
+        return ((DateDayVector) vectors.get(column)).get(row);
+    }
+
+    @Override
+    public String getText(int column)
+    {
+        return new String(((VarCharVector) vectors.get(column)).get(row), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close()
+    {
+        closeVectors();
+        source.close();
+    }
+
+    private void checkBatch()
+            throws SQLException
+    {
+        if (vectors.size() != columnTypes.size()) {
+            throw new SQLFeatureNotSupportedException("Expected " + columnTypes.size() + " columns but batch has " + vectors.size());
+        }
+        for (int column = 0; column < vectors.size(); column++) {
+            ValueVector vector = vectors.get(column);
+            Map<String, String> metadata = vector.getField().getMetadata();
+            scales[column] = (metadata == null) ? 0 : Integer.parseInt(metadata.getOrDefault(SCALE_METADATA, "0"));
+            if (!canRead(vector, scales[column], columnTypes.get(column))) {
+                throw new SQLFeatureNotSupportedException("Unable to read " + vector.getClass().getSimpleName() + " with scale "
+                        + scales[column] + " as " + columnTypes.get(column));
+            }
+        }
+    }
+
+    private static boolean canRead(ValueVector vector, int scale, Types.MinorType type)
+    {
+        boolean fixed = vector instanceof BaseIntVector || vector instanceof DecimalVector;
+        switch (type) {
+            case BIT:
+                return vector instanceof BitVector;
+            case TINYINT:
+            case SMALLINT:
+            case INT:
+            case BIGINT:
+                return fixed && (vector instanceof DecimalVector ? ((DecimalVector) vector).getScale() : scale) == 0;
+            case FLOAT4:
+            case FLOAT8:
+                return fixed || vector instanceof Float8Vector || vector instanceof Float4Vector;
+            case DECIMAL:
+                return fixed;
+            case DATEDAY:
+                return vector instanceof DateDayVector;
+            case VARCHAR:
+                return vector instanceof VarCharVector;
+            default:
+                return false;
+        }
+    }
+
+    private void closeVectors()
+    {
+        for (ValueVector vector : vectors) {
+            vector.close();
+        }
+        vectors = Collections.emptyList();
+        rowCount = 0;
+    }
+
+    private static class ArrowBatchesSource
+            implements BatchSource
+    {
+        private final ArrowBatches batches;
+        private final Deque<VectorSchemaRoot> roots = new ArrayDeque<>();
+
+        private ArrowBatchesSource(ArrowBatches batches)
+        {
+            this.batches = batches;
+        }
+
+        @Override
+        public List<ValueVector> nextBatch()
+                throws SQLException
+        {
+            while (roots.isEmpty()) {
+                if (!batches.hasNext()) {
+                    return null;
+                }
+                roots.addAll(batches.next().fetch());
+            }
+            // The reader closes the vectors, which releases the root's buffers.
+            return new ArrayList<>(roots.poll().getFieldVectors());
+        }
+
+        @Override
+        public void close()
+        {
+            while (!roots.isEmpty()) {
+                roots.poll().close();
+            }
+        }
+    }
+}
@@ -26,14 +26,14 @@ public final class SnowflakeConstants
     public static final String SNOWFLAKE_DRIVER_CLASS = "com.snowflake.client.jdbc.SnowflakeDriver";
     public static final int SNOWFLAKE_DEFAULT_PORT = 1025;
     /**
-     * This constant limits the number of partitions. The default set to 50. A large number may cause a timeout issue.
-     * We arrived at this number after performance testing with datasets of different size
+     * This constant limits the number of keyset splits of a table, and with it the size of the sample the split
+     * boundaries are computed from.
      */
-    public static final int MAX_PARTITION_COUNT = 50;
+    public static final int MAX_KEYSET_SPLIT_COUNT = 10_000;
     /**
-     * This constant limits the number of records to be returned in a single split.
+     * Number of sampled primary key values per keyset split. Snowflake samples at most 1,000,000 rows.
      */
-    public static final int SINGLE_SPLIT_LIMIT_COUNT = 10000;
+    public static final int KEYSET_SAMPLE_ROWS_PER_SPLIT = 100;
     public static final String SNOWFLAKE_QUOTE_CHARACTER = "\"";
 
     private SnowflakeConstants() {}
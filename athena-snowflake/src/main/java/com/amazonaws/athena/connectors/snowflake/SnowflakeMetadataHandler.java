@@ -69,6 +69,7 @@ import org.apache.arrow.vector.types.pojo.Schema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
@@ -81,11 +82,13 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import static com.amazonaws.athena.connectors.snowflake.SnowflakeConstants.MAX_PARTITION_COUNT;
-import static com.amazonaws.athena.connectors.snowflake.SnowflakeConstants.SINGLE_SPLIT_LIMIT_COUNT;
+import static com.amazonaws.athena.connectors.snowflake.SnowflakeConstants.KEYSET_SAMPLE_ROWS_PER_SPLIT;
+import static com.amazonaws.athena.connectors.snowflake.SnowflakeConstants.MAX_KEYSET_SPLIT_COUNT;
+import static com.amazonaws.athena.connectors.snowflake.SnowflakeConstants.SNOWFLAKE_QUOTE_CHARACTER;
 
 /**
  * Handles metadata for Snowflake. User must have access to `schemata`, `tables`, `columns` in
@@ -108,7 +111,15 @@ public class SnowflakeMetadataHandler extends JdbcMetadataHandler
             "AND TABLE_NAME = ? ";
     static final String SHOW_PRIMARY_KEYS_QUERY = "SHOW PRIMARY KEYS IN ";
     static final String PRIMARY_KEY_COLUMN_NAME = "column_name";
-    static final String COUNTS_COLUMN_NAME = "COUNTS";
+    static final String PRIMARY_KEY_SEQUENCE_COLUMN_NAME = "key_sequence";
+    /**
+     * Smallest sampled key of every NTILE bucket but the first, which are the lower bounds of the keyset splits.
+     */
+    static final String KEYSET_BOUNDARIES_QUERY = "SELECT MIN(%1$s) FROM (SELECT %1$s, NTILE(%2$d) OVER (ORDER BY %1$s) AS split_bucket " +
+            "FROM %3$s SAMPLE (%4$d ROWS) WHERE %1$s IS NOT NULL) WHERE split_bucket > 1 GROUP BY split_bucket ORDER BY split_bucket";
+    private static final Set<Integer> NUMERIC_JDBC_TYPES = ImmutableSet.of(java.sql.Types.TINYINT, java.sql.Types.SMALLINT,
+            java.sql.Types.INTEGER, java.sql.Types.BIGINT, java.sql.Types.REAL, java.sql.Types.FLOAT, java.sql.Types.DOUBLE,
+            java.sql.Types.NUMERIC, java.sql.Types.DECIMAL);
     private static final String CASE_UPPER = "upper";
     private static final String CASE_LOWER = "lower";
     /**
@@ -185,49 +196,29 @@ public class SnowflakeMetadataHandler extends JdbcMetadataHandler
         return schemaBuilder.build();
     }
 
-    private Optional<String> getPrimaryKey(TableName tableName) throws Exception 
-    {
-        List<String> primaryKeys = new ArrayList<String>();
-        try (Connection connection = getJdbcConnectionFactory().getConnection(getCredentialProvider())) {
-            try (PreparedStatement preparedStatement = connection.prepareStatement(SHOW_PRIMARY_KEYS_QUERY + tableName.getTableName());
-                ResultSet rs = preparedStatement.executeQuery()) {
-                while (rs.next()) {
-                    // Concatenate multiple primary keys if they exist
-                    primaryKeys.add(rs.getString(PRIMARY_KEY_COLUMN_NAME));
-                }
-            }
-        }
-        String primaryKey = String.join(", ", primaryKeys);
-        if (!Strings.isNullOrEmpty(primaryKey) && hasUniquePrimaryKey(tableName, primaryKey)) {
-            return Optional.of(primaryKey);
-        }
-        return Optional.empty(); 
-    }
-
     /**
-    * Snowflake does not enforce primary key constraints, so we double-check user has unique primary key
-    * before partitioning.
-    */
-    private boolean hasUniquePrimaryKey(TableName tableName, String primaryKey) throws Exception 
+     * @return the leading column of the primary key of the table, if it has one.
+     */
+    private Optional<String> getLeadingPrimaryKeyColumn(Connection connection, TableName tableName) throws SQLException
     {
-        try (Connection connection = getJdbcConnectionFactory().getConnection(getCredentialProvider())) {
-            try (PreparedStatement preparedStatement = connection.prepareStatement("SELECT " + primaryKey +  ", count(*) as COUNTS FROM " + tableName.getTableName() + " GROUP BY " + primaryKey + " ORDER BY COUNTS DESC"); 
-                 ResultSet rs = preparedStatement.executeQuery()) {
-                if (rs.next()) {
-                    if (rs.getInt(COUNTS_COLUMN_NAME) == 1) {
-                        // Since it is in descending order and 1 is this first count seen, 
-                        // this table has a unique primary key 
-                        return true;
-                    }   
+        String leadingColumn = null;
+        int leadingKeySequence = Integer.MAX_VALUE;
+        try (PreparedStatement preparedStatement = connection.prepareStatement(SHOW_PRIMARY_KEYS_QUERY + tableName.getTableName());
+             ResultSet rs = preparedStatement.executeQuery()) {
+            while (rs.next()) {
+                int keySequence = rs.getInt(PRIMARY_KEY_SEQUENCE_COLUMN_NAME);
+                if (keySequence < leadingKeySequence) {
+                    leadingKeySequence = keySequence;
+                    leadingColumn = rs.getString(PRIMARY_KEY_COLUMN_NAME);
                 }
             }
         }
-        LOGGER.warn("Primary key ,{}, is not unique. Falling back to single partition...", primaryKey);
-        return false;
+        return Optional.ofNullable(Strings.emptyToNull(leadingColumn));
     }
 
     /**
-     * Snowflake manual partition logic based upon number of records
+     * Snowflake tables are read as a single partition, which {@link #doGetSplits} splits further on primary key ranges
+     * when the table is large enough. Empty tables have no partitions.
      * @param blockWriter
      * @param getTableLayoutRequest
      * @param queryStatusChecker
@@ -239,59 +230,23 @@ public class SnowflakeMetadataHandler extends JdbcMetadataHandler
     {
         LOGGER.info("{}: Schema {}, table {}", getTableLayoutRequest.getQueryId(), getTableLayoutRequest.getTableName().getSchemaName(),
                 getTableLayoutRequest.getTableName().getTableName());
-        /**
-         * "MAX_PARTITION_COUNT" is currently set to 50 to limit the number of partitions.
-         * this is to handle timeout issues because of huge partitions
-         */
-        LOGGER.info(" Total Partition Limit" + MAX_PARTITION_COUNT);
         boolean viewFlag = checkForView(getTableLayoutRequest);
-        //if the input table is a view , there will be single split
-        if (viewFlag) {
-            blockWriter.writeRows((Block block, int rowNum) -> {
-                block.setValue(BLOCK_PARTITION_COLUMN_NAME, rowNum, ALL_PARTITIONS);
-                return 1;
-            });
-        }
-        else {
-            double totalRecordCount = 0;
-            LOGGER.info(COUNT_RECORDS_QUERY);
-            List<String> parameters = Arrays.asList(getTableLayoutRequest.getTableName().getSchemaName(), getTableLayoutRequest.getTableName().getTableName());
-
-            try (Connection connection = getJdbcConnectionFactory().getConnection(getCredentialProvider());
-                 PreparedStatement preparedStatement = new PreparedStatementBuilder().withConnection(connection)
-                         .withQuery(COUNT_RECORDS_QUERY).withParameters(parameters).build();
-                 ResultSet rs = preparedStatement.executeQuery()) {
-                while (rs.next()) {
-                    totalRecordCount = rs.getLong(1);
-                }
-                if (totalRecordCount > 0) {
-                    Optional<String> primaryKey = getPrimaryKey(getTableLayoutRequest.getTableName());
-                    long recordsInPartition = (long) (Math.ceil(totalRecordCount / MAX_PARTITION_COUNT));
-                    long partitionRecordCount = (totalRecordCount <= SINGLE_SPLIT_LIMIT_COUNT || !primaryKey.isPresent()) ? (long) totalRecordCount : recordsInPartition;
-                    LOGGER.info(" Total Page Count: " +  partitionRecordCount);
-                    double numberOfPartitions = (int) Math.ceil(totalRecordCount / partitionRecordCount);
-                    long offset = 0;
-                    /**
-                     * Custom pagination based partition logic will be applied with limit and offset clauses.
-                     * It will have maximum 50 partitions and number of records in each partition is decided by dividing total number of records by 50
-                     * the partition values we are setting the limit and offset values like p-limit-3000-offset-0
-                     */
-                    for (int i = 1; i <= numberOfPartitions; i++) { 
-                        final String partitionVal = BLOCK_PARTITION_COLUMN_NAME + "-primary-" + primaryKey.orElse("") + "-limit-" + partitionRecordCount + "-offset-" + offset;
-                        LOGGER.info("partitionVal {} ", partitionVal);
-                        blockWriter.writeRows((Block block, int rowNum) ->
-                        {
-                            block.setValue(BLOCK_PARTITION_COLUMN_NAME, rowNum, partitionVal);
-                            return 1;
-                        });
-                        offset = offset + partitionRecordCount;
-                    }
-                }
-                else {
-                    LOGGER.info("No Records Found for table {}", getTableLayoutRequest.getTableName().getTableName());
-                }
+        //if the input table is a view, there is no record count to check
+        if (!viewFlag) {
+            long totalRecordCount;
+            try (Connection connection = getJdbcConnectionFactory().getConnection(getCredentialProvider())) {
+                totalRecordCount = getEstimatedRowCount(connection, getTableLayoutRequest.getTableName()).orElse(0);
             }
+            if (totalRecordCount <= 0) {
+                LOGGER.info("No Records Found for table {}", getTableLayoutRequest.getTableName().getTableName());
+                return;
+            }
+            LOGGER.info("Total record count: {}", totalRecordCount);
         }
+        blockWriter.writeRows((Block block, int rowNum) -> {
+            block.setValue(BLOCK_PARTITION_COLUMN_NAME, rowNum, ALL_PARTITIONS);
+            return 1;
+        });
     }
 
     /**
@@ -324,6 +279,10 @@ public class SnowflakeMetadataHandler extends JdbcMetadataHandler
             LOGGER.info("QPT Split Requested");
             return setupQueryPassthroughSplit(getSplitsRequest);
         }
+        Set<Split> keysetSplits = makeRangeSplits(getSplitsRequest, BLOCK_PARTITION_COLUMN_NAME, ALL_PARTITIONS);
+        if (!keysetSplits.isEmpty()) {
+            return new GetSplitsResponse(getSplitsRequest.getCatalogName(), keysetSplits, null);
+        }
         int partitionContd = decodeContinuationToken(getSplitsRequest);
         Set<Split> splits = new HashSet<>();
         Block partitions = getSplitsRequest.getPartitions();
@@ -344,6 +303,113 @@ public class SnowflakeMetadataHandler extends JdbcMetadataHandler
         return new GetSplitsResponse(getSplitsRequest.getCatalogName(), splits, null);
     }
 
+    /**
+     * Builds keyset predicates which partition the table on the leading primary key column. The split boundaries are
+     * the quantiles of a row sample of the key, computed once per query, so each split reads one contiguous key range
+     * and, unlike LIMIT/OFFSET pages, neither sorts the table nor skips the rows of the preceding splits. Snowflake does
+     * not enforce primary keys, but the ranges cover every row whether or not the key is unique.
+     *
+     * @param jdbcConnection JDBC connection. See {@link Connection}.
+     * @param tableName table to split.
+     * @param numSplits number of ranges to generate, fewer are generated when the sampled keys repeat.
+     * @return range predicates covering all rows of the table, empty if the table has no primary key or numSplits is at most 1.
+     * @throws SQLException JDBC database exception.
+     */
+    @Override
+    protected List<String> getSplitClauses(final Connection jdbcConnection, final TableName tableName, final int numSplits)
+            throws SQLException
+    {
+        List<String> splitClauses = new ArrayList<>();
+        int keysetSplitCount = Math.min(numSplits, MAX_KEYSET_SPLIT_COUNT);
+        if (keysetSplitCount <= 1) {
+            return splitClauses;
+        }
+        Optional<String> primaryKey = getLeadingPrimaryKeyColumn(jdbcConnection, tableName);
+        if (!primaryKey.isPresent()) {
+            LOGGER.info("No primary key to split table {} on", tableName);
+            return splitClauses;
+        }
+
+        String column = quote(primaryKey.get());
+        String boundariesQuery = String.format(KEYSET_BOUNDARIES_QUERY, column, keysetSplitCount,
+                quote(tableName.getSchemaName()) + "." + quote(tableName.getTableName()),
+                (long) keysetSplitCount * KEYSET_SAMPLE_ROWS_PER_SPLIT);
+        LOGGER.info("Keyset boundaries query: {}", boundariesQuery);
+        List<String> boundaries = new ArrayList<>();
+        try (PreparedStatement preparedStatement = jdbcConnection.prepareStatement(boundariesQuery);
+             ResultSet rs = preparedStatement.executeQuery()) {
+            boolean numeric = NUMERIC_JDBC_TYPES.contains(rs.getMetaData().getColumnType(1));
+            while (rs.next()) {
+                String boundary = rs.getString(1);
+                if (boundary == null) {
+                    continue;
+                }
+                String literal = toLiteral(boundary, numeric);
+                // Skewed keys can start several buckets with the same value
+                if (!boundaries.contains(literal)) {
+                    boundaries.add(literal);
+                }
+            }
+        }
+        if (boundaries.isEmpty()) {
+            return splitClauses;
+        }
+
+        // rows with a null key match none of the ranges, the first split picks them up
+        splitClauses.add(String.format("(%s < %s OR %s IS NULL)", column, boundaries.get(0), column));
+        for (int i = 1; i < boundaries.size(); i++) {
+            splitClauses.add(String.format("%s >= %s AND %s < %s", column, boundaries.get(i - 1), column, boundaries.get(i)));
+        }
+        splitClauses.add(String.format("%s >= %s", column, boundaries.get(boundaries.size() - 1)));
+        return splitClauses;
+    }
+
+    /**
+     * Unlike the default, the number of keyset splits is not bounded by {@link #RANGE_SPLIT_COUNT}, so that splits stay
+     * near {@link #ROWS_PER_SPLIT} rows however large the table is.
+     */
+    @Override
+    protected int getSplitCount(final long estimatedRowCount)
+    {
+        long rowsPerSplit = Math.max(1, getRowsPerSplit());
+        long splits = estimatedRowCount / rowsPerSplit + (estimatedRowCount % rowsPerSplit == 0 ? 0 : 1);
+        return (int) Math.max(1, Math.min(MAX_KEYSET_SPLIT_COUNT, splits));
+    }
+
+    /**
+     * Reads the number of rows of a table from information_schema.tables, which Snowflake keeps exact.
+     */
+    @Override
+    protected OptionalLong getEstimatedRowCount(final Connection jdbcConnection, final TableName tableName)
+            throws SQLException
+    {
+        List<String> parameters = Arrays.asList(tableName.getSchemaName(), tableName.getTableName());
+        try (PreparedStatement preparedStatement = new PreparedStatementBuilder().withConnection(jdbcConnection)
+                .withQuery(COUNT_RECORDS_QUERY).withParameters(parameters).build();
+             ResultSet rs = preparedStatement.executeQuery()) {
+            return rs.next() ? OptionalLong.of(rs.getLong(1)) : OptionalLong.empty();
+        }
+    }
+
+    private static String toLiteral(String value, boolean numeric)
+    {
+        if (numeric) {
+            try {
+                return new BigDecimal(value).toPlainString();
+            }
+            catch (NumberFormatException ex) {
+                // NaN and inf, which Snowflake reads from string literals
+            }
+        }
+        return "'" + value.replace("\\", "\\\\").replace("'", "''") + "'";
+    }
+
+    private static String quote(String identifier)
+    {
+        return SNOWFLAKE_QUOTE_CHARACTER + identifier.replace(SNOWFLAKE_QUOTE_CHARACTER, SNOWFLAKE_QUOTE_CHARACTER + SNOWFLAKE_QUOTE_CHARACTER)
+                + SNOWFLAKE_QUOTE_CHARACTER;
+    }
+
     private int decodeContinuationToken(GetSplitsRequest request)
     {
         if (request.hasContinuationToken()) {
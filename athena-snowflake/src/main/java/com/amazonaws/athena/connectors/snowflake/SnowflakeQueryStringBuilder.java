@@ -36,8 +36,6 @@ import java.util.List;
 public class SnowflakeQueryStringBuilder
         extends JdbcSplitQueryBuilder
 {
-    private static final String EMPTY_STRING = "";
-
     public SnowflakeQueryStringBuilder(final String quoteCharacters, final FederationExpressionParser federationExpressionParser)
     {
         super(quoteCharacters, federationExpressionParser);
@@ -62,34 +60,4 @@ public class SnowflakeQueryStringBuilder
     {
         return Collections.emptyList();
     }
-
-    /**
-     * logic to apply limits in query, if partition value does not contain "-", no limit and offset condition
-     * to be applied, else apply limits and offset as per "p-limit-3000-offset-0" pattern.
-     * @param split
-     * @return
-     */
-    @Override
-    protected String appendLimitOffset(Split split)
-    {
-        String primaryKey = "";
-        String xLimit = "";
-        String xOffset = "";
-        String partitionVal = split.getProperty(split.getProperties().keySet().iterator().next()); //p-primary-<PRIMARYKEY>-limit-3000-offset-0
-        if (!partitionVal.contains("-")) {
-            return EMPTY_STRING;
-        }
-        else {
-            String[] arr = partitionVal.split("-");
-            primaryKey = arr[2];
-            xLimit = arr[4];
-            xOffset = arr[6];
-        }
-
-        // if no primary key, single split only
-        if (primaryKey.equals("")) {
-            return "";
-        }
-        return "ORDER BY " + primaryKey + " limit " + xLimit + " offset " + xOffset;
-    }
 }
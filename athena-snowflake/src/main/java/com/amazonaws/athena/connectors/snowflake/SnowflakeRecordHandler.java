@@ -20,16 +20,24 @@
  */
 package com.amazonaws.athena.connectors.snowflake;
 
+import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
+import com.amazonaws.athena.connector.lambda.data.Block;
+import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
+import com.amazonaws.athena.connector.lambda.data.writers.GeneratedRowWriter;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.Extractor;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
 import com.amazonaws.athena.connectors.jdbc.connection.DatabaseConnectionConfig;
 import com.amazonaws.athena.connectors.jdbc.connection.DatabaseConnectionInfo;
 import com.amazonaws.athena.connectors.jdbc.connection.GenericJdbcConnectionFactory;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcConnectionFactory;
+import com.amazonaws.athena.connectors.jdbc.manager.ColumnValueExtractors;
 import com.amazonaws.athena.connectors.jdbc.manager.JDBCUtil;
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcRecordHandler;
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcSplitQueryBuilder;
+import com.amazonaws.athena.connectors.jdbc.manager.StatementCanceller;
 import com.amazonaws.services.athena.AmazonAthena;
 import com.amazonaws.services.athena.AmazonAthenaClientBuilder;
 import com.amazonaws.services.s3.AmazonS3;
@@ -37,18 +45,38 @@ import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.secretsmanager.AWSSecretsManager;
 import com.amazonaws.services.secretsmanager.AWSSecretsManagerClientBuilder;
 import com.google.common.annotations.VisibleForTesting;
+import net.snowflake.client.jdbc.ArrowBatches;
+import net.snowflake.client.jdbc.SnowflakeResultSet;
+import net.snowflake.client.jdbc.SnowflakeStatement;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static com.amazonaws.athena.connectors.snowflake.SnowflakeConstants.SNOWFLAKE_QUOTE_CHARACTER;
 
 public class SnowflakeRecordHandler extends JdbcRecordHandler
 {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SnowflakeRecordHandler.class);
     private static final int FETCH_SIZE = 1000;
+    private static final String RESULT_FORMAT_PARAMETER = "JDBC_QUERY_RESULT_FORMAT";
+    private static final String ARROW_RESULT_FORMAT = "ARROW";
+    /**
+     * Enables reading splits from the Arrow record batches of the Snowflake result instead of through the JDBC getters.
+     * Only splits whose columns all have an Arrow decoding are read this way.
+     */
+    public static final String ARROW_BATCHES_ENABLED = "snowflake_arrow_batches_enabled";
     private final JdbcSplitQueryBuilder jdbcSplitQueryBuilder;
     /**
      * Instantiates handler to be used by Lambda function directly.
@@ -95,4 +123,84 @@ public class SnowflakeRecordHandler extends JdbcRecordHandler
         preparedStatement.setFetchSize(FETCH_SIZE);
         return preparedStatement;
     }
+
+    @Override
+    public void readWithConstraint(BlockSpiller blockSpiller, ReadRecordsRequest readRecordsRequest, QueryStatusChecker queryStatusChecker)
+            throws Exception
+    {
+        if (!Boolean.parseBoolean(configOptions.getOrDefault(ARROW_BATCHES_ENABLED, "false"))
+                || readRecordsRequest.getConstraints().isQueryPassThrough()
+                || !readWithArrowBatches(blockSpiller, readRecordsRequest, queryStatusChecker)) {
+            super.readWithConstraint(blockSpiller, readRecordsRequest, queryStatusChecker);
+        }
+    }
+
+    /**
+     * Reads the split from the Arrow record batches of its result, decoding each row straight from the column vectors
+     * into the row writer's holders. Constraints are still evaluated by the row writer.
+     *
+     * @return false, before any row is written, when the split can not be read this way.
+     */
+    private boolean readWithArrowBatches(BlockSpiller blockSpiller, ReadRecordsRequest readRecordsRequest, QueryStatusChecker queryStatusChecker)
+            throws Exception
+    {
+        Map<String, String> partitionValues = readRecordsRequest.getSplit().getProperties();
+        List<Types.MinorType> columnTypes = new ArrayList<>();
+        GeneratedRowWriter.RowWriterBuilder rowWriterBuilder = GeneratedRowWriter.newBuilder(readRecordsRequest.getConstraints());
+        for (Field next : readRecordsRequest.getSchema().getFields()) {
+            Extractor extractor = ColumnValueExtractors.makeExtractor(next, columnTypes.size(), partitionValues);
+            Types.MinorType columnType = Types.getMinorTypeForArrowType(next.getType());
+            if (extractor == null || (!SnowflakeArrowBatchReader.isSupported(columnType) && !partitionValues.containsKey(next.getName()))) {
+                return false;
+            }
+            if (!partitionValues.containsKey(next.getName())) {
+                columnTypes.add(columnType);
+            }
+            rowWriterBuilder.withExtractor(next.getName(), extractor);
+        }
+        if (columnTypes.isEmpty()) {
+            return false;
+        }
+
+        try (Connection connection = getJdbcConnectionFactory().getConnection(getCredentialProvider());
+                PreparedStatement preparedStatement = buildSplitSql(connection, readRecordsRequest.getCatalogName(), readRecordsRequest.getTableName(),
+                        readRecordsRequest.getSchema(), readRecordsRequest.getConstraints(), readRecordsRequest.getSplit())) {
+            if (!preparedStatement.isWrapperFor(SnowflakeStatement.class)) {
+                return false;
+            }
+            // A statement parameter rather than ALTER SESSION, which would change the result format of the pooled connection.
+            preparedStatement.unwrap(SnowflakeStatement.class).setParameter(RESULT_FORMAT_PARAMETER, ARROW_RESULT_FORMAT);
+            try (StatementCanceller statementCanceller = new StatementCanceller(connection, preparedStatement, queryStatusChecker);
+                    ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (!resultSet.isWrapperFor(SnowflakeResultSet.class)) {
+                    return false;
+                }
+                ArrowBatches batches = resultSet.unwrap(SnowflakeResultSet.class).getArrowBatches();
+                try (SnowflakeArrowBatchReader reader = new SnowflakeArrowBatchReader(SnowflakeArrowBatchReader.fromArrowBatches(batches), columnTypes)) {
+                    boolean hasRow;
+                    try {
+                        hasRow = reader.next();
+                    }
+                    catch (SQLFeatureNotSupportedException ex) {
+                        LOGGER.warn("{}: Unable to read Arrow batches, reading through the JDBC getters instead.", readRecordsRequest.getQueryId(), ex);
+                        statementCanceller.cancel();
+                        return false;
+                    }
+                    GeneratedRowWriter rowWriter = rowWriterBuilder.build();
+                    int rowsReturnedFromDatabase = 0;
+                    while (hasRow) {
+                        if (!queryStatusChecker.isQueryRunning()) {
+                            statementCanceller.cancel();
+                            return true;
+                        }
+                        blockSpiller.writeRows((Block block, int rowNum) -> rowWriter.writeRow(block, rowNum, reader) ? 1 : 0);
+                        rowsReturnedFromDatabase++;
+                        hasRow = reader.next();
+                    }
+                    LOGGER.info("{} rows returned by database.", rowsReturnedFromDatabase);
+                }
+            }
+        }
+        return true;
+    }
 }
@@ -0,0 +1,209 @@
+/*-
+ * #%L
+ * athena-snowflake
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.snowflake;
+
+import net.snowflake.client.jdbc.ArrowBatch;
+import net.snowflake.client.jdbc.ArrowBatches;
+import net.snowflake.client.jdbc.internal.apache.arrow.memory.BufferAllocator;
+import net.snowflake.client.jdbc.internal.apache.arrow.memory.RootAllocator;
+import net.snowflake.client.jdbc.internal.apache.arrow.vector.BigIntVector;
+import net.snowflake.client.jdbc.internal.apache.arrow.vector.DateDayVector;
+import net.snowflake.client.jdbc.internal.apache.arrow.vector.SmallIntVector;
+import net.snowflake.client.jdbc.internal.apache.arrow.vector.ValueVector;
+import net.snowflake.client.jdbc.internal.apache.arrow.vector.VarCharVector;
+import net.snowflake.client.jdbc.internal.apache.arrow.vector.VectorSchemaRoot;
+import net.snowflake.client.jdbc.internal.apache.arrow.vector.types.pojo.ArrowType;
+import net.snowflake.client.jdbc.internal.apache.arrow.vector.types.pojo.Field;
+import net.snowflake.client.jdbc.internal.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.Types;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+public class SnowflakeArrowBatchReaderTest
+{
+    private BufferAllocator allocator;
+
+    @Before
+    public void setup()
+    {
+        allocator = new RootAllocator();
+    }
+
+    @After
+    public void tearDown()
+    {
+        allocator.close();
+    }
+
+    @Test
+    public void readBatches()
+            throws SQLException
+    {
+        // Snowflake narrows the integer vector of a NUMBER column per batch
+        BigIntVector id = new BigIntVector("id", allocator);
+        id.setSafe(0, 1L);
+        id.setNull(1);
+        id.setValueCount(2);
+        BigIntVector amount = newScaledVector("amount", 2);
+        amount.setSafe(0, 1234567L);
+        amount.setSafe(1, -5L);
+        amount.setValueCount(2);
+        VarCharVector name = new VarCharVector("name", allocator);
+        name.setSafe(0, "gr\u00fc\u00dfe".getBytes(StandardCharsets.UTF_8));
+        name.setNull(1);
+        name.setValueCount(2);
+        DateDayVector day = new DateDayVector("day", allocator);
+        day.setSafe(0, 19_000);
+        day.setSafe(1, -1);
+        day.setValueCount(2);
+
+        SmallIntVector nextId = new SmallIntVector("id", allocator);
+        nextId.setSafe(0, 3);
+        nextId.setValueCount(1);
+        BigIntVector nextAmount = newScaledVector("amount", 2);
+        nextAmount.setSafe(0, 100L);
+        nextAmount.setValueCount(1);
+        VarCharVector nextName = new VarCharVector("name", allocator);
+        nextName.setSafe(0, "c".getBytes(StandardCharsets.UTF_8));
+        nextName.setValueCount(1);
+        DateDayVector nextDay = new DateDayVector("day", allocator);
+        nextDay.setNull(0);
+        nextDay.setValueCount(1);
+
+        List<Types.MinorType> columnTypes = Arrays.asList(Types.MinorType.BIGINT, Types.MinorType.DECIMAL, Types.MinorType.VARCHAR, Types.MinorType.DATEDAY);
+        Iterator<List<ValueVector>> batches = Arrays.<List<ValueVector>>asList(
+                Arrays.asList(id, amount, name, day),
+                Collections.emptyList(),
+                Arrays.asList(nextId, nextAmount, nextName, nextDay)).iterator();
+        try (SnowflakeArrowBatchReader reader = new SnowflakeArrowBatchReader(() -> batches.hasNext() ? batches.next() : null, columnTypes)) {
+            Assert.assertTrue(reader.next());
+            Assert.assertEquals(1L, reader.getLong(0));
+            Assert.assertEquals(new BigDecimal("12345.67"), reader.getDecimal(1));
+            Assert.assertEquals(12345.67, reader.getDouble(1), 0.0);
+            Assert.assertEquals("gr\u00fc\u00dfe", reader.getText(2));
+            Assert.assertEquals(19_000, reader.getEpochDay(3));
+
+            Assert.assertTrue(reader.next());
+            Assert.assertTrue(reader.isNull(0));
+            Assert.assertEquals(new BigDecimal("-0.05"), reader.getDecimal(1));
+            Assert.assertTrue(reader.isNull(2));
+            Assert.assertEquals(-1, reader.getEpochDay(3));
+
+            Assert.assertTrue(reader.next());
+            Assert.assertEquals(3L, reader.getLong(0));
+            Assert.assertEquals(new BigDecimal("1.00"), reader.getDecimal(1));
+            Assert.assertEquals("c", reader.getText(2));
+            Assert.assertTrue(reader.isNull(3));
+
+            Assert.assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void readArrowBatches()
+            throws SQLException
+    {
+        // Each fetched chunk holds one root per record batch, and a chunk may hold none
+        ArrowBatch first = Mockito.mock(ArrowBatch.class);
+        Mockito.when(first.fetch()).thenReturn(Arrays.asList(newRoot(1L, 2L), newRoot(3L)));
+        ArrowBatch empty = Mockito.mock(ArrowBatch.class);
+        Mockito.when(empty.fetch()).thenReturn(Collections.emptyList());
+        ArrowBatch last = Mockito.mock(ArrowBatch.class);
+        Mockito.when(last.fetch()).thenReturn(Collections.singletonList(newRoot(4L)));
+        ArrowBatches batches = Mockito.mock(ArrowBatches.class);
+        Mockito.when(batches.hasNext()).thenReturn(true, true, true, false);
+        Mockito.when(batches.next()).thenReturn(first, empty, last);
+
+        try (SnowflakeArrowBatchReader reader = new SnowflakeArrowBatchReader(SnowflakeArrowBatchReader.fromArrowBatches(batches),
+                Collections.singletonList(Types.MinorType.BIGINT))) {
+            for (long expected = 1L; expected <= 4L; expected++) {
+                Assert.assertTrue(reader.next());
+                Assert.assertEquals(expected, reader.getLong(0));
+            }
+            Assert.assertFalse(reader.next());
+        }
+        Mockito.verify(batches, Mockito.times(3)).next();
+    }
+
+    @Test
+    public void closeReleasesFetchedRoots()
+            throws SQLException
+    {
+        ArrowBatch batch = Mockito.mock(ArrowBatch.class);
+        Mockito.when(batch.fetch()).thenReturn(Arrays.asList(newRoot(1L), newRoot(2L), newRoot(3L)));
+        ArrowBatches batches = Mockito.mock(ArrowBatches.class);
+        Mockito.when(batches.hasNext()).thenReturn(true, false);
+        Mockito.when(batches.next()).thenReturn(batch);
+
+        try (SnowflakeArrowBatchReader reader = new SnowflakeArrowBatchReader(SnowflakeArrowBatchReader.fromArrowBatches(batches),
+                Collections.singletonList(Types.MinorType.BIGINT))) {
+            Assert.assertTrue(reader.next());
+            Assert.assertEquals(1L, reader.getLong(0));
+        }
+        // The roots which were never read are closed with the reader
+        Assert.assertEquals(0L, allocator.getAllocatedMemory());
+    }
+
+    @Test
+    public void rejectUnreadableBatch()
+            throws SQLException
+    {
+        BigIntVector amount = newScaledVector("amount", 2);
+        amount.setSafe(0, 100L);
+        amount.setValueCount(1);
+        Iterator<List<ValueVector>> batches = Collections.<List<ValueVector>>singletonList(Collections.singletonList(amount)).iterator();
+        try (SnowflakeArrowBatchReader reader = new SnowflakeArrowBatchReader(() -> batches.hasNext() ? batches.next() : null,
+                Collections.singletonList(Types.MinorType.BIGINT))) {
+            reader.next();
+            Assert.fail("Expected the scaled NUMBER column to be rejected as BIGINT");
+        }
+        catch (SQLFeatureNotSupportedException ex) {
+            Assert.assertTrue(ex.getMessage().contains("BigIntVector"));
+        }
+    }
+
+    private VectorSchemaRoot newRoot(long... values)
+    {
+        BigIntVector id = new BigIntVector("id", allocator);
+        for (int i = 0; i < values.length; i++) {
+            id.setSafe(i, values[i]);
+        }
+        id.setValueCount(values.length);
+        return VectorSchemaRoot.of(id);
+    }
+
+    private BigIntVector newScaledVector(String name, int scale)
+    {
+        FieldType fieldType = new FieldType(true, new ArrowType.Int(64, true), null, Collections.singletonMap("scale", String.valueOf(scale)));
+        return new BigIntVector(new Field(name, fieldType, null), allocator);
+    }
+}
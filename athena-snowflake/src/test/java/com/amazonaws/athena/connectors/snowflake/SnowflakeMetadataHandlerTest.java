@@ -29,6 +29,7 @@ import com.amazonaws.athena.connectors.jdbc.TestBase;
 import com.amazonaws.athena.connectors.jdbc.connection.DatabaseConnectionConfig;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcConnectionFactory;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcCredentialProvider;
+import com.amazonaws.athena.connectors.jdbc.manager.JdbcMetadataHandler;
 import com.amazonaws.services.athena.AmazonAthena;
 import com.amazonaws.services.secretsmanager.AWSSecretsManager;
 import com.amazonaws.services.secretsmanager.model.GetSecretValueRequest;
@@ -45,7 +46,6 @@ import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
-import static com.amazonaws.athena.connectors.snowflake.SnowflakeConstants.MAX_PARTITION_COUNT;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.nullable;
 
@@ -98,59 +98,28 @@ public class SnowflakeMetadataHandlerTest
         GetTableLayoutRequest getTableLayoutRequest = new GetTableLayoutRequest(this.federatedIdentity, "testQueryId", "testCatalogName", tableName, constraints, partitionSchema, partitionCols);
         PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
         Mockito.when(this.connection.prepareStatement(SnowflakeMetadataHandler.COUNT_RECORDS_QUERY)).thenReturn(preparedStatement);
-        String[] columns = {"partition"};
-        int[] types = {Types.VARCHAR};
-        Object[][] values = {{"partition : partition-primary-pkey-limit-500000-offset-0"},{"partition : partition-primary-pkey-limit-500000-offset-500000"}};
-        ResultSet resultSet = mockResultSet(columns, types, values, new AtomicInteger(-1));
+        ResultSet resultSet = mockCountResultSet(10001L);
         Mockito.when(preparedStatement.executeQuery()).thenReturn(resultSet);
         Mockito.when(this.connection.getMetaData().getSearchStringEscape()).thenReturn(null);
-        double totalActualRecordCount = 10001;
-        Mockito.when(resultSet.getLong(1)).thenReturn((long) totalActualRecordCount);
-
-        PreparedStatement primaryKeyPreparedStatement = Mockito.mock(PreparedStatement.class); 
-        String[] primaryKeyColumns = new String[] {SnowflakeMetadataHandler.PRIMARY_KEY_COLUMN_NAME};
-        String[][] primaryKeyValues = new String[][]{new String[] {"pkey"}};
-        ResultSet primaryKeyResultSet = mockResultSet(primaryKeyColumns, primaryKeyValues, new AtomicInteger(-1));
-        Mockito.when(this.connection.prepareStatement(SnowflakeMetadataHandler.SHOW_PRIMARY_KEYS_QUERY + "testTable")).thenReturn(primaryKeyPreparedStatement);
-        Mockito.when(primaryKeyPreparedStatement.executeQuery()).thenReturn(primaryKeyResultSet);
-
-        PreparedStatement countsPreparedStatement = Mockito.mock(PreparedStatement.class);
-        String GET_PKEY_COUNTS_QUERY = "SELECT pkey, count(*) as COUNTS FROM testTable GROUP BY pkey ORDER BY COUNTS DESC"; 
-        String[] countsColumns = new String[] {"pkey", SnowflakeMetadataHandler.COUNTS_COLUMN_NAME};
-        Object[][] countsValues = {{"a", 1}};
-        ResultSet countsResultSet = mockResultSet(countsColumns, countsValues, new AtomicInteger(-1));
-        Mockito.when(this.connection.prepareStatement(GET_PKEY_COUNTS_QUERY)).thenReturn(countsPreparedStatement);
-        Mockito.when(countsPreparedStatement.executeQuery()).thenReturn(countsResultSet);
 
         GetTableLayoutResponse getTableLayoutResponse = this.snowflakeMetadataHandler.doGetTableLayout(blockAllocator, getTableLayoutRequest);
-        List<String> expectedValues = new ArrayList<>();
-        for (int i = 0; i < getTableLayoutResponse.getPartitions().getRowCount(); i++) {
-            expectedValues.add(BlockUtils.rowToString(getTableLayoutResponse.getPartitions(), i));
-        }
         List<String> actualValues = new ArrayList<>();
-        long pageCount = (long) (Math.ceil(totalActualRecordCount / MAX_PARTITION_COUNT));
-        long partitionActualRecordCount = (totalActualRecordCount <= 10000) ? (long) totalActualRecordCount : pageCount;
-        double limit = (int) Math.ceil(totalActualRecordCount / partitionActualRecordCount);
-        long offset = 0;
-        for (int i = 1; i <= limit; i++) {
-            if (i > 1) {
-                offset = offset + partitionActualRecordCount;
-            }
-            actualValues.add("[partition : partition-primary-pkey-limit-" +partitionActualRecordCount + "-offset-" + offset + "]");
+        for (int i = 0; i < getTableLayoutResponse.getPartitions().getRowCount(); i++) {
+            actualValues.add(BlockUtils.rowToString(getTableLayoutResponse.getPartitions(), i));
         }
-        Assert.assertEquals((int)limit, getTableLayoutResponse.getPartitions().getRowCount());
-        Assert.assertEquals(expectedValues, actualValues);
+        Assert.assertEquals(Arrays.asList("[partition : *]"), actualValues);
         SchemaBuilder expectedSchemaBuilder = SchemaBuilder.newBuilder();
         expectedSchemaBuilder.addField(FieldBuilder.newBuilder("partition", org.apache.arrow.vector.types.Types.MinorType.VARCHAR.getType()).build());
         Schema expectedSchema = expectedSchemaBuilder.build();
         Assert.assertEquals(expectedSchema, getTableLayoutResponse.getPartitions().getSchema());
         Assert.assertEquals(tableName, getTableLayoutResponse.getTableName());
         Mockito.verify(preparedStatement, Mockito.times(1)).setString(1, tableName.getSchemaName());
-        Mockito.verify(resultSet, Mockito.times(2)).getLong(1);
+        Mockito.verify(preparedStatement, Mockito.times(1)).setString(2, tableName.getTableName());
+        Mockito.verify(resultSet, Mockito.times(1)).getLong(1);
     }
 
     @Test
-    public void doGetTableLayoutSinglePartition()
+    public void doGetTableLayoutEmptyTable()
             throws Exception {
         BlockAllocator blockAllocator = new BlockAllocatorImpl();
         Constraints constraints = Mockito.mock(Constraints.class);
@@ -159,56 +128,19 @@ public class SnowflakeMetadataHandlerTest
         Set<String> partitionCols = new HashSet<>(Arrays.asList("partition"));
         GetTableLayoutRequest getTableLayoutRequest = new GetTableLayoutRequest(this.federatedIdentity, "testQueryId", "testCatalogName", tableName, constraints, partitionSchema, partitionCols);
         PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
-
         Mockito.when(this.connection.prepareStatement(SnowflakeMetadataHandler.COUNT_RECORDS_QUERY)).thenReturn(preparedStatement);
-
-        String[] columns = {"partition"};
-        int[] types = {Types.VARCHAR};
-        Object[][] values = {{"partition : partition-primary-pkey-limit-500000-offset-0"}};
-        ResultSet resultSet = mockResultSet(columns, types, values, new AtomicInteger(-1));
+        ResultSet resultSet = mockCountResultSet(0L);
         Mockito.when(preparedStatement.executeQuery()).thenReturn(resultSet);
-
         Mockito.when(this.connection.getMetaData().getSearchStringEscape()).thenReturn(null);
-        Mockito.when(resultSet.getLong(1)).thenReturn(1001L);
-
-        PreparedStatement primaryKeyPreparedStatement = Mockito.mock(PreparedStatement.class);
-        String[] primaryKeyColumns = new String[] {SnowflakeMetadataHandler.PRIMARY_KEY_COLUMN_NAME};
-        String[][] primaryKeyValues = new String[][]{new String[] {""}};
-        ResultSet primaryKeyResultSet = mockResultSet(primaryKeyColumns, primaryKeyValues, new AtomicInteger(-1));
-        Mockito.when(this.connection.prepareStatement(SnowflakeMetadataHandler.SHOW_PRIMARY_KEYS_QUERY +              "testTable")).thenReturn(primaryKeyPreparedStatement);
-        Mockito.when(primaryKeyPreparedStatement.executeQuery()).thenReturn(primaryKeyResultSet);
-
-        PreparedStatement countsPreparedStatement = Mockito.mock(PreparedStatement.class);
-        String GET_PKEY_COUNTS_QUERY = "SELECT pkey, count(*) as COUNTS FROM testTable GROUP BY pkey ORDER BY COUNTS DESC";
-        String[] countsColumns = new String[] {"pkey", SnowflakeMetadataHandler.COUNTS_COLUMN_NAME};
-        Object[][] countsValues = {{"a", 1}};
-        ResultSet countsResultSet = mockResultSet(countsColumns, countsValues, new AtomicInteger(-1));
-        Mockito.when(this.connection.prepareStatement(GET_PKEY_COUNTS_QUERY)).thenReturn(countsPreparedStatement);
-        Mockito.when(countsPreparedStatement.executeQuery()).thenReturn(countsResultSet);
 
         GetTableLayoutResponse getTableLayoutResponse = this.snowflakeMetadataHandler.doGetTableLayout(blockAllocator, getTableLayoutRequest);
 
-        Assert.assertEquals(values.length, getTableLayoutResponse.getPartitions().getRowCount());
-
-        List<String> expectedValues = new ArrayList<>();
-        for (int i = 0; i < getTableLayoutResponse.getPartitions().getRowCount(); i++) {
-            expectedValues.add(BlockUtils.rowToString(getTableLayoutResponse.getPartitions(), i));
-        }
-        Assert.assertEquals(expectedValues, Arrays.asList("[partition : partition-primary--limit-1001-offset-0]"));
-
-        SchemaBuilder expectedSchemaBuilder = SchemaBuilder.newBuilder();
-        expectedSchemaBuilder.addField(FieldBuilder.newBuilder("partition", org.apache.arrow.vector.types.Types.MinorType.VARCHAR.getType()).build());
-        Schema expectedSchema = expectedSchemaBuilder.build();
-        Assert.assertEquals(expectedSchema, getTableLayoutResponse.getPartitions().getSchema());
+        Assert.assertEquals(0, getTableLayoutResponse.getPartitions().getRowCount());
         Assert.assertEquals(tableName, getTableLayoutResponse.getTableName());
-
-        Mockito.verify(preparedStatement, Mockito.times(1)).setString(1, tableName.getSchemaName());
-        Mockito.verify(preparedStatement, Mockito.times(1)).setString(2, tableName.getTableName());
-        Mockito.verify(resultSet, Mockito.times(1)).getLong(1);
     }
 
     @Test
-    public void doGetTableLayoutMaxPartition()
+    public void doGetSplitsKeyset()
             throws Exception {
         BlockAllocator blockAllocator = new BlockAllocatorImpl();
         Constraints constraints = Mockito.mock(Constraints.class);
@@ -218,56 +150,44 @@ public class SnowflakeMetadataHandlerTest
         GetTableLayoutRequest getTableLayoutRequest = new GetTableLayoutRequest(this.federatedIdentity, "testQueryId", "testCatalogName", tableName, constraints, partitionSchema, partitionCols);
         PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
         Mockito.when(this.connection.prepareStatement(SnowflakeMetadataHandler.COUNT_RECORDS_QUERY)).thenReturn(preparedStatement);
-        //By changing the value of variable totalActualRecordCount,we can check the maximum number of partitions supported by the table dynamically
-        double totalActualRecordCount = 7256888;
-        long pageCount = (long) (Math.ceil(totalActualRecordCount / MAX_PARTITION_COUNT));
-        long partitionActualRecordCount = (totalActualRecordCount <= 10000) ? (long) totalActualRecordCount : pageCount;
-        double limit = (int) Math.ceil(totalActualRecordCount / partitionActualRecordCount);
-        long offset = 0;
-        String[] columns = {"partition"};
-        int[] types = {Types.VARCHAR};
-        Object[][] values = {{"partition : partition-primary-pkey-limit-500000-offset-0"}};
-        ResultSet resultSet = mockResultSet(columns, types, values, new AtomicInteger(-1));
-        Mockito.when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        // 8 splits of the default 1,000,000 rows, well beyond the former limit of 50 LIMIT/OFFSET pages per 10,000 rows
+        Mockito.when(preparedStatement.executeQuery()).thenReturn(mockCountResultSet(7256888L), mockCountResultSet(7256888L));
         Mockito.when(this.connection.getMetaData().getSearchStringEscape()).thenReturn(null);
-        Mockito.when(resultSet.getLong(1)).thenReturn((long)totalActualRecordCount);
-        
+
         PreparedStatement primaryKeyPreparedStatement = Mockito.mock(PreparedStatement.class);
-        String[] primaryKeyColumns = new String[] {SnowflakeMetadataHandler.PRIMARY_KEY_COLUMN_NAME};
-        String[][] primaryKeyValues = new String[][]{new String[] {"pkey"}};
+        String[] primaryKeyColumns = new String[] {SnowflakeMetadataHandler.PRIMARY_KEY_COLUMN_NAME, SnowflakeMetadataHandler.PRIMARY_KEY_SEQUENCE_COLUMN_NAME};
+        Object[][] primaryKeyValues = {{"id2", 2}, {"pkey", 1}};
         ResultSet primaryKeyResultSet = mockResultSet(primaryKeyColumns, primaryKeyValues, new AtomicInteger(-1));
         Mockito.when(this.connection.prepareStatement(SnowflakeMetadataHandler.SHOW_PRIMARY_KEYS_QUERY + "testTable")).thenReturn(primaryKeyPreparedStatement);
         Mockito.when(primaryKeyPreparedStatement.executeQuery()).thenReturn(primaryKeyResultSet);
 
-        PreparedStatement countsPreparedStatement = Mockito.mock(PreparedStatement.class);
-        String GET_PKEY_COUNTS_QUERY = "SELECT pkey, count(*) as COUNTS FROM testTable GROUP BY pkey ORDER BY COUNTS DESC";
-        String[] countsColumns = new String[] {"pkey", SnowflakeMetadataHandler.COUNTS_COLUMN_NAME};
-        Object[][] countsValues = {{"a", 1}};
-        ResultSet countsResultSet = mockResultSet(countsColumns, countsValues, new AtomicInteger(-1));
-        Mockito.when(this.connection.prepareStatement(GET_PKEY_COUNTS_QUERY)).thenReturn(countsPreparedStatement);
-        Mockito.when(countsPreparedStatement.executeQuery()).thenReturn(countsResultSet);
-    
+        PreparedStatement boundariesPreparedStatement = Mockito.mock(PreparedStatement.class);
+        String boundariesQuery = String.format(SnowflakeMetadataHandler.KEYSET_BOUNDARIES_QUERY, "\"pkey\"", 8, "\"testSchema\".\"testTable\"", 800L);
+        Object[][] boundaryValues = {{"100"}, {"200"}, {"200"}, {"300"}};
+        ResultSet boundariesResultSet = mockResultSet(new String[] {"boundary"}, new int[] {Types.BIGINT}, boundaryValues, new AtomicInteger(-1));
+        Mockito.when(this.connection.prepareStatement(boundariesQuery)).thenReturn(boundariesPreparedStatement);
+        Mockito.when(boundariesPreparedStatement.executeQuery()).thenReturn(boundariesResultSet);
+
         GetTableLayoutResponse getTableLayoutResponse = this.snowflakeMetadataHandler.doGetTableLayout(blockAllocator, getTableLayoutRequest);
-        List<String> actualValues = new ArrayList<>();
-        List<String> expectedValues = new ArrayList<>();
-        for (int i = 0; i < getTableLayoutResponse.getPartitions().getRowCount(); i++) {
-            expectedValues.add(BlockUtils.rowToString(getTableLayoutResponse.getPartitions(), i));
-        }
-        for (int i = 1; i <= limit; i++) {
-            if (i > 1) {
-                offset = offset + partitionActualRecordCount;
-            }
-            actualValues.add("[partition : partition-primary-pkey-limit-" +partitionActualRecordCount + "-offset-" + offset + "]");
+        GetSplitsRequest getSplitsRequest = new GetSplitsRequest(this.federatedIdentity, "testQueryId", "testCatalogName", tableName, getTableLayoutResponse.getPartitions(), new ArrayList<>(partitionCols), constraints, null);
+        GetSplitsResponse getSplitsResponse = this.snowflakeMetadataHandler.doGetSplits(new BlockAllocatorImpl(), getSplitsRequest);
+
+        Set<Map<String, String>> expectedSplits = new HashSet<>();
+        for (String rangeClause : Arrays.asList("(\"pkey\" < 100 OR \"pkey\" IS NULL)", "\"pkey\" >= 100 AND \"pkey\" < 200",
+                "\"pkey\" >= 200 AND \"pkey\" < 300", "\"pkey\" >= 300")) {
+            expectedSplits.add(com.google.common.collect.ImmutableMap.of("partition", "*", JdbcMetadataHandler.SPLIT_RANGE_CLAUSE, rangeClause));
         }
-        Assert.assertEquals(expectedValues,actualValues);
-        SchemaBuilder expectedSchemaBuilder = SchemaBuilder.newBuilder();
-        expectedSchemaBuilder.addField(FieldBuilder.newBuilder("partition", org.apache.arrow.vector.types.Types.MinorType.VARCHAR.getType()).build());
-        Schema expectedSchema = expectedSchemaBuilder.build();
-        Assert.assertEquals(expectedSchema, getTableLayoutResponse.getPartitions().getSchema());
-        Assert.assertEquals(tableName, getTableLayoutResponse.getTableName());
-        Mockito.verify(preparedStatement, Mockito.times(1)).setString(1, tableName.getSchemaName());
-        Mockito.verify(preparedStatement, Mockito.times(1)).setString(2, tableName.getTableName());
-        Mockito.verify(resultSet, Mockito.times(1)).getLong(1);
+        Set<Map<String, String>> actualSplits = getSplitsResponse.getSplits().stream().map(Split::getProperties).collect(Collectors.toSet());
+        Assert.assertEquals(expectedSplits, actualSplits);
+        Assert.assertNull(getSplitsResponse.getContinuationToken());
+    }
+
+    private ResultSet mockCountResultSet(long rowCount)
+            throws SQLException
+    {
+        ResultSet resultSet = mockResultSet(new String[] {"row_count"}, new int[] {Types.BIGINT}, new Object[][] {{rowCount}}, new AtomicInteger(-1));
+        Mockito.when(resultSet.getLong(1)).thenReturn(rowCount);
+        return resultSet;
     }
 
     @Test(expected = RuntimeException.class)
@@ -20,13 +20,23 @@
 package com.amazonaws.athena.connectors.sqlserver;
 
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcFederationExpressionParser;
+import com.amazonaws.athena.connectors.jdbc.manager.ScalarFunctions;
 import com.google.common.base.Joiner;
+import com.google.common.collect.Sets;
 import org.apache.arrow.vector.types.pojo.ArrowType;
 
 import java.util.List;
+import java.util.Set;
 
 public class SqlServerFederationExpressionParser extends JdbcFederationExpressionParser
 {
+    // LEN ignores trailing spaces and SUBSTRING shortens the result of a start position below 1, neither matches Athena.
+    private static final Set<ScalarFunctions> SUPPORTED_SCALAR_FUNCTIONS = Sets.immutableEnumSet(
+            ScalarFunctions.ABS_FUNCTION_NAME, ScalarFunctions.LOWER_FUNCTION_NAME,
+            ScalarFunctions.UPPER_FUNCTION_NAME, ScalarFunctions.TRIM_FUNCTION_NAME,
+            ScalarFunctions.LTRIM_FUNCTION_NAME, ScalarFunctions.RTRIM_FUNCTION_NAME,
+            ScalarFunctions.YEAR_FUNCTION_NAME, ScalarFunctions.MONTH_FUNCTION_NAME, ScalarFunctions.DAY_FUNCTION_NAME);
+
     public SqlServerFederationExpressionParser(String quoteChar)
     {
         super(quoteChar);
@@ -36,5 +46,29 @@ public class SqlServerFederationExpressionParser extends JdbcFederationExpressio
     public String writeArrayConstructorClause(ArrowType type, List<String> arguments)
     {
         return Joiner.on(", ").join(arguments);
-    }    
+    }
+
+    @Override
+    public Set<ScalarFunctions> getSupportedScalarFunctions()
+    {
+        return SUPPORTED_SCALAR_FUNCTIONS;
+    }
+
+    @Override
+    protected String writeScalarFunctionClause(ScalarFunctions function, ArrowType type, List<String> arguments)
+    {
+        switch (function) {
+            case TRIM_FUNCTION_NAME:
+                // TRIM requires SQL Server 2017
+                return "LTRIM(RTRIM(" + arguments.get(0) + "))";
+            case YEAR_FUNCTION_NAME:
+                return "YEAR(" + arguments.get(0) + ")";
+            case MONTH_FUNCTION_NAME:
+                return "MONTH(" + arguments.get(0) + ")";
+            case DAY_FUNCTION_NAME:
+                return "DAY(" + arguments.get(0) + ")";
+            default:
+                return super.writeScalarFunctionClause(function, type, arguments);
+        }
+    }
 }
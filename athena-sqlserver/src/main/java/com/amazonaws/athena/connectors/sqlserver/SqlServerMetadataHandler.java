@@ -29,7 +29,6 @@ import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
 import com.amazonaws.athena.connector.lambda.data.SupportedTypes;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
-import com.amazonaws.athena.connector.lambda.domain.predicate.functions.StandardFunctions;
 import com.amazonaws.athena.connector.lambda.domain.spill.SpillLocation;
 import com.amazonaws.athena.connector.lambda.metadata.GetDataSourceCapabilitiesRequest;
 import com.amazonaws.athena.connector.lambda.metadata.GetDataSourceCapabilitiesResponse;
@@ -53,6 +52,7 @@ import com.amazonaws.athena.connectors.jdbc.connection.JdbcConnectionFactory;
 import com.amazonaws.athena.connectors.jdbc.manager.JDBCUtil;
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcArrowTypeConverter;
 import com.amazonaws.athena.connectors.jdbc.manager.JdbcMetadataHandler;
+import com.amazonaws.athena.connectors.jdbc.manager.PartitionPruner;
 import com.amazonaws.athena.connectors.jdbc.manager.PreparedStatementBuilder;
 import com.amazonaws.services.athena.AmazonAthena;
 import com.amazonaws.services.secretsmanager.AWSSecretsManager;
@@ -67,6 +67,7 @@ import org.apache.arrow.vector.types.pojo.Schema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
@@ -74,12 +75,15 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -128,6 +132,12 @@ public class SqlServerMetadataHandler extends JdbcMetadataHandler
             "    AND ic.column_id = c.column_id   " +
             "WHERE t.object_id = (select object_id from sys.objects o where o.name = ? " +
             "and schema_id = (select schema_id from sys.schemas s where s.name = ?))";
+    /**
+     * Boundaries of a RANGE partition function, partition n lies between boundary n - 1 and boundary n.
+     */
+    static final String GET_PARTITION_BOUNDARIES_QUERY = "SELECT pf.boundary_value_on_right, prv.boundary_id, prv.value AS boundary_value " +
+            "FROM sys.partition_functions pf JOIN sys.partition_range_values prv ON prv.function_id = pf.function_id " +
+            "WHERE pf.name = ? ORDER BY prv.boundary_id";
     static final String VIEW_CHECK_QUERY = "select TYPE_DESC from sys.objects where name = ? and schema_id = (select schema_id from sys.schemas s where s.name = ?)";
     static final String LIST_PAGINATED_TABLES_QUERY = "SELECT t.name AS \"TABLE_NAME\", s.name AS \"TABLE_SCHEM\" FROM sys.tables t INNER JOIN sys.schemas s ON t.schema_id = s.schema_id ORDER BY table_name OFFSET ? ROWS FETCH NEXT ? ROWS ONLY;";
 
@@ -196,9 +206,7 @@ public class SqlServerMetadataHandler extends JdbcMetadataHandler
         ));
         capabilities.put(DataSourceOptimizations.SUPPORTS_COMPLEX_EXPRESSION_PUSHDOWN.withSupportedSubTypes(
                 ComplexExpressionPushdownSubType.SUPPORTED_FUNCTION_EXPRESSION_TYPES
-                        .withSubTypeProperties(Arrays.stream(StandardFunctions.values())
-                                .map(standardFunctions -> standardFunctions.getFunctionName().getFunctionName())
-                                .toArray(String[]::new))
+                        .withSubTypeProperties(new SqlServerFederationExpressionParser(SqlServerConstants.SQLSERVER_QUOTE_CHARACTER).getSupportedFunctionNames())
         ));
         capabilities.put(DataSourceOptimizations.SUPPORTS_TOP_N_PUSHDOWN.withSupportedSubTypes(
                 TopNPushdownSubType.SUPPORTS_ORDER_BY
@@ -267,18 +275,26 @@ public class SqlServerMetadataHandler extends JdbcMetadataHandler
                     List<String> partitionDetails = getPartitionDetails(params);
                     String partitionInfo = (!partitionDetails.isEmpty() && partitionDetails.size() == 2) ?
                             ":::" + partitionDetails.get(0) + ":::" + partitionDetails.get(1) : "";
+                    Set<String> prunedPartitions = (partitionDetails.size() == 2)
+                            ? getPrunedPartitions(connection, getTableLayoutRequest, partitionDetails.get(0), partitionDetails.get(1))
+                            : Collections.emptySet();
 
                     // Include the first partition because it's not retrieved from GET_PARTITIONS_QUERY
-                    blockWriter.writeRows((Block block, int rowNum) ->
-                    {
-                        block.setValue(PARTITION_NUMBER, rowNum, "1" + partitionInfo);
-                        return 1;
-                    });
+                    if (!prunedPartitions.contains("1")) {
+                        blockWriter.writeRows((Block block, int rowNum) ->
+                        {
+                            block.setValue(PARTITION_NUMBER, rowNum, "1" + partitionInfo);
+                            return 1;
+                        });
+                    }
                     if (resultSet.next()) {
                         do {
                             final String partitionNumber = resultSet.getString(PARTITION_NUMBER);
-                            // 1. Returns all partitions of table, we are not supporting constraints push down to filter partitions.
-                            // 2. This API is not paginated, we could use order by and limit clause with offsets here.
+                            if (prunedPartitions.contains(partitionNumber)) {
+                                LOGGER.debug("Partition {} pruned by constraints", partitionNumber);
+                                continue;
+                            }
+                            // This API is not paginated, we could use order by and limit clause with offsets here.
                             blockWriter.writeRows((Block block, int rowNum) ->
                             {
                                 block.setValue(PARTITION_NUMBER, rowNum, partitionNumber + partitionInfo);
@@ -307,6 +323,12 @@ public class SqlServerMetadataHandler extends JdbcMetadataHandler
             return setupQueryPassthroughSplit(getSplitsRequest);
         }
 
+        // Unpartitioned tables are split on key ranges, or hash buckets, when they have a suitable key column.
+        Set<Split> rangeSplits = makeRangeSplits(getSplitsRequest, PARTITION_NUMBER, ALL_PARTITIONS);
+        if (!rangeSplits.isEmpty()) {
+            return new GetSplitsResponse(getSplitsRequest.getCatalogName(), rangeSplits, null);
+        }
+
         int partitionContd = decodeContinuationToken(getSplitsRequest);
         LOGGER.info("partitionContd: {}", partitionContd);
         Set<Split> splits = new HashSet<>();
@@ -341,6 +363,15 @@ public class SqlServerMetadataHandler extends JdbcMetadataHandler
         return new GetSplitsResponse(getSplitsRequest.getCatalogName(), splits, null);
     }
 
+    /**
+     * CHECKSUM returns an int which may be negative, the remainder is taken before ABS so that it can not overflow.
+     */
+    @Override
+    protected String getHashSplitClause(final String column, final int bucketCount, final int bucket)
+    {
+        return String.format("ABS(CHECKSUM(%s) %% %d) = %d", column, bucketCount, bucket);
+    }
+
     private int decodeContinuationToken(GetSplitsRequest request)
     {
         if (request.hasContinuationToken()) {
@@ -355,6 +386,58 @@ public class SqlServerMetadataHandler extends JdbcMetadataHandler
         return String.valueOf(partition);
     }
 
+    /**
+     * Evaluates the boundaries of the table's partition function against the constraints on the partitioning column.
+     * With RANGE RIGHT partition n holds [boundary n - 1, boundary n), with RANGE LEFT (boundary n - 1, boundary n].
+     *
+     * @param connection connection to the database.
+     * @param getTableLayoutRequest request holding the table, its schema and the constraints.
+     * @param partitionFunction name of the partition function.
+     * @param partitioningColumn name of the partitioning column.
+     * @return numbers of the partitions which cannot hold rows matching the constraints.
+     */
+    private Set<String> getPrunedPartitions(Connection connection, GetTableLayoutRequest getTableLayoutRequest, String partitionFunction, String partitioningColumn)
+    {
+        Set<String> prunedPartitions = new HashSet<>();
+        Optional<PartitionPruner> pruner = PartitionPruner.forColumn(getTableLayoutRequest.getSchema(), getTableLayoutRequest.getConstraints(), partitioningColumn);
+        if (!pruner.isPresent()) {
+            return prunedPartitions;
+        }
+        try (PreparedStatement preparedStatement = new PreparedStatementBuilder().withConnection(connection).withQuery(GET_PARTITION_BOUNDARIES_QUERY)
+                .withParameters(Collections.singletonList(partitionFunction)).build();
+                ResultSet resultSet = preparedStatement.executeQuery()) {
+            boolean rangeRight = false;
+            List<String> boundaries = new ArrayList<>();
+            while (resultSet.next()) {
+                rangeRight = resultSet.getBoolean("boundary_value_on_right");
+                boundaries.add(toBoundaryLiteral(resultSet.getObject("boundary_value")));
+            }
+            for (int partition = 1; partition <= boundaries.size() + 1; partition++) {
+                String lowerBound = (partition == 1) ? null : boundaries.get(partition - 2);
+                String upperBound = (partition > boundaries.size()) ? null : boundaries.get(partition - 1);
+                if (!pruner.get().mayMatchRange(lowerBound, rangeRight, upperBound, !rangeRight)) {
+                    prunedPartitions.add(String.valueOf(partition));
+                }
+            }
+        }
+        catch (Exception ex) {
+            LOGGER.warn("Unable to read boundaries of partition function {}, partitions are not pruned.", partitionFunction, ex);
+            return Collections.emptySet();
+        }
+        return prunedPartitions;
+    }
+
+    private static String toBoundaryLiteral(Object value)
+    {
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime().toString();
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        return String.valueOf(value);
+    }
+
     /**
      * If the table have partitions fetch those partition details from sql server metadata tables.
      * This information will be used while forming the custom query to get specific partition as a split
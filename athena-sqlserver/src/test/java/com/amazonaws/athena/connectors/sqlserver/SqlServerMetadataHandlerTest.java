@@ -27,6 +27,7 @@ import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.metadata.GetDataSourceCapabilitiesRequest;
 import com.amazonaws.athena.connector.lambda.metadata.GetSplitsRequest;
 import com.amazonaws.athena.connector.lambda.metadata.GetSplitsResponse;
 import com.amazonaws.athena.connector.lambda.metadata.GetTableLayoutRequest;
@@ -37,17 +38,22 @@ import com.amazonaws.athena.connector.lambda.metadata.ListSchemasRequest;
 import com.amazonaws.athena.connector.lambda.metadata.ListSchemasResponse;
 import com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest;
 import com.amazonaws.athena.connector.lambda.metadata.ListTablesResponse;
+import com.amazonaws.athena.connector.lambda.metadata.optimizations.DataSourceOptimizations;
 import com.amazonaws.athena.connector.lambda.security.FederatedIdentity;
 import com.amazonaws.athena.connectors.jdbc.TestBase;
 import com.amazonaws.athena.connectors.jdbc.connection.DatabaseConnectionConfig;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcConnectionFactory;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcCredentialProvider;
+import com.amazonaws.athena.connectors.jdbc.manager.ScalarFunctions;
 import com.amazonaws.services.athena.AmazonAthena;
 import com.amazonaws.services.secretsmanager.AWSSecretsManager;
 import com.amazonaws.services.secretsmanager.model.GetSecretValueRequest;
 import com.amazonaws.services.secretsmanager.model.GetSecretValueResult;
+import com.google.common.collect.ImmutableList;
+import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.commons.lang3.NotImplementedException;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -454,4 +460,41 @@ public class SqlServerMetadataHandlerTest
         Assert.assertEquals(new ListSchemasResponse("schemas", Collections.emptyList()).toString(),
                 sqlServerMetadataHandler.doListSchemaNames(this.allocator, listSchemasRequest).toString());
     }
+
+    @Test
+    public void scalarFunctionPushdown()
+    {
+        SqlServerFederationExpressionParser parser = new SqlServerFederationExpressionParser(SqlServerConstants.SQLSERVER_QUOTE_CHARACTER);
+        ArrowType intType = new ArrowType.Int(32, true);
+        Assert.assertEquals("(LTRIM(RTRIM(\"name\")))", parser.mapFunctionToDataSourceSyntax(ScalarFunctions.TRIM_FUNCTION_NAME.getFunctionName(), ArrowType.Utf8.INSTANCE, ImmutableList.of("\"name\"")));
+        Assert.assertEquals("(LTRIM(\"name\"))", parser.mapFunctionToDataSourceSyntax(ScalarFunctions.LTRIM_FUNCTION_NAME.getFunctionName(), ArrowType.Utf8.INSTANCE, ImmutableList.of("\"name\"")));
+        Assert.assertEquals("(YEAR(\"created\"))", parser.mapFunctionToDataSourceSyntax(ScalarFunctions.YEAR_FUNCTION_NAME.getFunctionName(), intType, ImmutableList.of("\"created\"")));
+        Assert.assertEquals("(DAY(\"created\"))", parser.mapFunctionToDataSourceSyntax(ScalarFunctions.DAY_FUNCTION_NAME.getFunctionName(), intType, ImmutableList.of("\"created\"")));
+
+        List<String> supportedFunctions = getSupportedFunctionNames();
+        Assert.assertTrue(supportedFunctions.containsAll(ImmutableList.of("trim", "ltrim", "year", "day")));
+        // LEN ignores trailing spaces and SUBSTRING shortens the result of a start position below 1
+        assertNotPushedDown(parser, supportedFunctions, ScalarFunctions.LENGTH_FUNCTION_NAME, ScalarFunctions.SUBSTR_FUNCTION_NAME,
+                ScalarFunctions.SUBSTRING_FUNCTION_NAME, ScalarFunctions.CONCAT_FUNCTION_NAME);
+    }
+
+    private List<String> getSupportedFunctionNames()
+    {
+        return this.sqlServerMetadataHandler.doGetDataSourceCapabilities(new BlockAllocatorImpl(), new GetDataSourceCapabilitiesRequest(this.federatedIdentity, "testQueryId", "testCatalog"))
+                .getCapabilities().get(DataSourceOptimizations.SUPPORTS_COMPLEX_EXPRESSION_PUSHDOWN.getOptimization()).get(0).getProperties();
+    }
+
+    private void assertNotPushedDown(SqlServerFederationExpressionParser parser, List<String> supportedFunctions, ScalarFunctions... functions)
+    {
+        for (ScalarFunctions function : functions) {
+            Assert.assertFalse(supportedFunctions.contains(function.getFunctionName().getFunctionName()));
+            try {
+                parser.mapFunctionToDataSourceSyntax(function.getFunctionName(), ArrowType.Utf8.INSTANCE, ImmutableList.of("\"name\"", "?"));
+                Assert.fail("Expected " + function.getFunctionName().getFunctionName() + " not to be pushed down");
+            }
+            catch (NotImplementedException expected) {
+                // The function is evaluated by Athena
+            }
+        }
+    }
 }
@@ -321,7 +321,12 @@ public class TeradataMetadataHandler extends JdbcMetadataHandler
         int partitionContd = decodeContinuationToken(getSplitsRequest);
         Set<Split> splits = new HashSet<>();
         Block partitions = getSplitsRequest.getPartitions();
-        // TODO consider splitting further depending on #rows or data size. Could use Hash key for splitting if no partitions.
+        // Unpartitioned tables are split on key ranges when they have a suitable key column.
+        Set<Split> rangeSplits = makeRangeSplits(getSplitsRequest, BLOCK_PARTITION_COLUMN_NAME, ALL_PARTITIONS);
+        if (!rangeSplits.isEmpty()) {
+            return new GetSplitsResponse(getSplitsRequest.getCatalogName(), rangeSplits, null);
+        }
+
         for (int curPartition = partitionContd; curPartition < partitions.getRowCount(); curPartition++) {
             FieldReader locationReader = partitions.getFieldReader(BLOCK_PARTITION_COLUMN_NAME);
             locationReader.setPosition(curPartition);
@@ -344,6 +349,15 @@ public class TeradataMetadataHandler extends JdbcMetadataHandler
         return new GetSplitsResponse(getSplitsRequest.getCatalogName(), splits, null);
     }
 
+    /**
+     * HASHBUCKET(HASHROW(column)) is the AMP hash bucket of the column, which is never negative.
+     */
+    @Override
+    protected String getHashSplitClause(final String column, final int bucketCount, final int bucket)
+    {
+        return String.format("HASHBUCKET(HASHROW(%s)) MOD %d = %d", column, bucketCount, bucket);
+    }
+
     private int decodeContinuationToken(GetSplitsRequest request)
     {
         if (request.hasContinuationToken()) {
@@ -25,5 +25,14 @@ public final class VerticaConstants
     public static final String VERTICA_DRIVER_CLASS = "com.vertica.jdbc.Driver";
     public static final int VERTICA_DEFAULT_PORT = 5433;
 
+    // Total size of the exported objects assigned to a split, splits are balanced by size around this target
+    public static final String SPLIT_TARGET_BYTES = "vertica_split_target_bytes";
+    public static final long DEFAULT_SPLIT_TARGET_BYTES = 128L * 1024 * 1024;
+    // Number of exported objects of a split which are read concurrently
+    public static final String SPLIT_READ_CONCURRENCY = "vertica_split_read_concurrency";
+    public static final int DEFAULT_SPLIT_READ_CONCURRENCY = 4;
+    // Split property holding the JSON array of the exported object keys read by the split
+    public static final String S3_OBJECT_KEYS = "s3ObjectKeys";
+
     private VerticaConstants() {}
 }
@@ -53,6 +53,8 @@ import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
 import org.apache.arrow.util.VisibleForTesting;
 import org.apache.arrow.vector.complex.reader.FieldReader;
@@ -71,12 +73,17 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.UUID;
 
+import static com.amazonaws.athena.connectors.vertica.VerticaConstants.DEFAULT_SPLIT_TARGET_BYTES;
+import static com.amazonaws.athena.connectors.vertica.VerticaConstants.S3_OBJECT_KEYS;
+import static com.amazonaws.athena.connectors.vertica.VerticaConstants.SPLIT_TARGET_BYTES;
 import static com.amazonaws.athena.connectors.vertica.VerticaConstants.VERTICA_DEFAULT_PORT;
 import static com.amazonaws.athena.connectors.vertica.VerticaConstants.VERTICA_DRIVER_CLASS;
 import static com.amazonaws.athena.connectors.vertica.VerticaConstants.VERTICA_NAME;
@@ -98,6 +105,7 @@ public class VerticaMetadataHandler
     private static final String EMPTY_STRING = StringUtils.EMPTY;
     private static final String TABLE_SCHEMA = "TABLE_SCHEM";
     private static final String[] TABLE_TYPES = {"TABLE"};
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private final QueryFactory queryFactory = new QueryFactory();
     private final VerticaSchemaUtils verticaSchemaUtils;
     private AmazonS3 amazonS3;
@@ -371,23 +379,25 @@ public class VerticaMetadataHandler
         executeQueriesOnVertica(connection, sqlStatement, awsRegionSql);
 
         /*
-         * For each generated S3 object, create a split and add data to the split.
+         * Group the generated S3 objects into splits of balanced size and add the keys of each group to its split.
          */
         Split split;
         List<S3ObjectSummary> s3ObjectSummaries = getlistExportedObjects(exportBucket, queryId);
 
         if(!s3ObjectSummaries.isEmpty())
         {
-            for (S3ObjectSummary objectSummary : s3ObjectSummaries)
+            long targetBytes = Long.parseLong(configOptions.getOrDefault(SPLIT_TARGET_BYTES, String.valueOf(DEFAULT_SPLIT_TARGET_BYTES)));
+            for (List<String> s3ObjectKeys : balanceObjects(s3ObjectSummaries, targetBytes))
             {
                 split = Split.newBuilder(makeSpillLocation(request), makeEncryptionKey())
                         .add("query_id", queryID)
                         .add("exportBucket", exportBucket)
-                        .add("s3ObjectKey", objectSummary.getKey())
+                        .add(S3_OBJECT_KEYS, toJson(s3ObjectKeys))
                         .build();
                 splits.add(split);
 
             }
+            logger.info("Assigned {} exported objects to {} splits", s3ObjectSummaries.size(), splits.size());
             return new GetSplitsResponse(catalogName, splits);
         }
         else
@@ -397,7 +407,7 @@ public class VerticaMetadataHandler
             split = Split.newBuilder(makeSpillLocation(request), makeEncryptionKey())
                     .add("query_id", queryID)
                     .add("exportBucket", exportBucket)
-                    .add("s3ObjectKey", EMPTY_STRING)
+                    .add(S3_OBJECT_KEYS, toJson(Collections.emptyList()))
                     .build();
             splits.add(split);
             return new GetSplitsResponse(catalogName,split);
@@ -405,6 +415,54 @@ public class VerticaMetadataHandler
 
     }
 
+    /**
+     * Assigns the exported objects to as many groups as their total size calls for given the target size of a group,
+     * but at most one group per object. Objects are assigned largest first to the group with the smallest total size,
+     * so the groups end up balanced by size even though Vertica exports objects of very different sizes.
+     *
+     * @param objects the exported objects.
+     * @param targetBytes the target total size of a group.
+     * @return the keys of the objects of each group.
+     */
+    @VisibleForTesting
+    static List<List<String>> balanceObjects(List<S3ObjectSummary> objects, long targetBytes)
+    {
+        long totalBytes = 0;
+        for (S3ObjectSummary object : objects) {
+            totalBytes += object.getSize();
+        }
+        long groupCount = Math.max(1, Math.min(objects.size(), (totalBytes + targetBytes - 1) / Math.max(1, targetBytes)));
+
+        List<List<String>> groups = new ArrayList<>();
+        long[] groupBytes = new long[(int) groupCount];
+        PriorityQueue<Integer> smallestGroups = new PriorityQueue<>(Comparator.<Integer>comparingLong(group -> groupBytes[group])
+                .thenComparingInt(group -> group));
+        for (int group = 0; group < groupCount; group++) {
+            groups.add(new ArrayList<>());
+            smallestGroups.add(group);
+        }
+
+        List<S3ObjectSummary> largestFirst = new ArrayList<>(objects);
+        largestFirst.sort(Comparator.comparingLong(S3ObjectSummary::getSize).reversed());
+        for (S3ObjectSummary object : largestFirst) {
+            int group = smallestGroups.poll();
+            groups.get(group).add(object.getKey());
+            groupBytes[group] += object.getSize();
+            smallestGroups.add(group);
+        }
+        return groups;
+    }
+
+    private static String toJson(List<String> s3ObjectKeys)
+    {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(s3ObjectKeys);
+        }
+        catch (JsonProcessingException e) {
+            throw new RuntimeException("Unable to serialize the exported object keys", e);
+        }
+    }
+
     /*
      * Generates the necessary Prepared Statements to set the AWS Auth and export S3 bucket Region on Vertica
      * and executes the queries
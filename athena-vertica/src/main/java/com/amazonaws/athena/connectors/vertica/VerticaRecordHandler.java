@@ -32,6 +32,8 @@ import com.amazonaws.athena.connector.lambda.data.writers.holders.NullableVarCha
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.handlers.RecordHandler;
 import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
+import com.amazonaws.athena.connectors.jdbc.manager.ColumnValueExtractors;
+import com.amazonaws.athena.connectors.jdbc.manager.ColumnValueReader;
 import com.amazonaws.services.athena.AmazonAthena;
 import com.amazonaws.services.athena.AmazonAthenaClientBuilder;
 import com.amazonaws.services.s3.AmazonS3;
@@ -39,9 +41,29 @@ import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.s3.model.*;
 import com.amazonaws.services.secretsmanager.AWSSecretsManager;
 import com.amazonaws.services.secretsmanager.AWSSecretsManagerClientBuilder;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.arrow.dataset.file.FileFormat;
+import org.apache.arrow.dataset.file.FileSystemDatasetFactory;
+import org.apache.arrow.dataset.jni.NativeMemoryPool;
+import org.apache.arrow.dataset.scanner.ScanOptions;
+import org.apache.arrow.dataset.scanner.Scanner;
+import org.apache.arrow.dataset.source.Dataset;
+import org.apache.arrow.dataset.source.DatasetFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
 import org.apache.arrow.util.VisibleForTesting;
+import org.apache.arrow.vector.BaseIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.FloatingPointVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.arrow.vector.holders.*;
+import org.apache.arrow.vector.ipc.ArrowReader;
 import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
@@ -56,7 +78,24 @@ import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.amazonaws.athena.connectors.vertica.VerticaConstants.DEFAULT_SPLIT_READ_CONCURRENCY;
+import static com.amazonaws.athena.connectors.vertica.VerticaConstants.S3_OBJECT_KEYS;
+import static com.amazonaws.athena.connectors.vertica.VerticaConstants.SPLIT_READ_CONCURRENCY;
 
 
 public class VerticaRecordHandler
@@ -65,6 +104,10 @@ public class VerticaRecordHandler
     private static final String SOURCE_TYPE = "vertica";
     private static final String VERTICA_QUOTE_CHARACTER = "\"";
     private static final String QUERY = "select * from S3Object s";
+    private static final int PARQUET_BATCH_SIZE = 32768;
+    // Max time, in milliseconds, to wait for a batch before checking whether the query is still running
+    private static final long BATCH_POLL_MS = 1000;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private AmazonS3 amazonS3;
 
     public VerticaRecordHandler(java.util.Map<String, String> configOptions)
@@ -100,61 +143,262 @@ public class VerticaRecordHandler
     {
         logger.info("readWithConstraint: schema[{}] tableName[{}]", recordsRequest.getSchema(), recordsRequest.getTableName());
 
-        Schema schemaName = recordsRequest.getSchema();
         Split split = recordsRequest.getSplit();
         String id = split.getProperty("query_id");
         String exportBucket = split.getProperty("exportBucket");
+        List<String> s3ObjectKeys = getS3ObjectKeys(split);
+
+        if(!s3ObjectKeys.isEmpty()) {
+            for (String s3ObjectKey : readParquetObjects(spiller, recordsRequest, queryStatusChecker, exportBucket, s3ObjectKeys)) {
+                readWithS3Select(spiller, recordsRequest, id, exportBucket, s3ObjectKey);
+            }
+        }
+
+    }
+
+    /**
+     * @return the keys of the exported objects read by the split, splits planned before objects were grouped hold a
+     * single key.
+     */
+    private static List<String> getS3ObjectKeys(Split split)
+            throws IOException
+    {
+        String s3ObjectKeys = split.getProperty(S3_OBJECT_KEYS);
+        if (s3ObjectKeys != null) {
+            return OBJECT_MAPPER.readValue(s3ObjectKeys, new TypeReference<List<String>>() {});
+        }
         String s3ObjectKey = split.getProperty("s3ObjectKey");
+        return (s3ObjectKey == null || s3ObjectKey.isEmpty()) ? Collections.emptyList() : Collections.singletonList(s3ObjectKey);
+    }
 
-        if(!s3ObjectKey.isEmpty()) {
-            //get column name and type from the Schema
-            HashMap<String, Types.MinorType> mapOfNamesAndTypes = new HashMap<>();
-            HashMap<String, Object> mapOfCols = new HashMap<>();
+    private void readWithS3Select(BlockSpiller spiller, ReadRecordsRequest recordsRequest, String id, String exportBucket, String s3ObjectKey)
+    {
+        Schema schemaName = recordsRequest.getSchema();
 
-            for (Field field : schemaName.getFields()) {
-                Types.MinorType minorTypeForArrowType = Types.getMinorTypeForArrowType(field.getType());
-                mapOfNamesAndTypes.put(field.getName(), minorTypeForArrowType);
-                mapOfCols.put(field.getName(), null);
-            }
+        //get column name and type from the Schema
+        HashMap<String, Types.MinorType> mapOfNamesAndTypes = new HashMap<>();
+        HashMap<String, Object> mapOfCols = new HashMap<>();
 
+        for (Field field : schemaName.getFields()) {
+            Types.MinorType minorTypeForArrowType = Types.getMinorTypeForArrowType(field.getType());
+            mapOfNamesAndTypes.put(field.getName(), minorTypeForArrowType);
+            mapOfCols.put(field.getName(), null);
+        }
 
-            // creating a RowContext class to hold the column name and value.
-            final RowContext rowContext = new RowContext(id);
 
-            //Generating the RowWriter and Extractor
-            GeneratedRowWriter.RowWriterBuilder builder = GeneratedRowWriter.newBuilder(recordsRequest.getConstraints());
-            for (Field next : recordsRequest.getSchema().getFields()) {
-                Extractor extractor = makeExtractor(next, mapOfNamesAndTypes, mapOfCols);
-                builder.withExtractor(next.getName(), extractor);
-            }
-            GeneratedRowWriter rowWriter = builder.build();
+        // creating a RowContext class to hold the column name and value.
+        final RowContext rowContext = new RowContext(id);
+
+        //Generating the RowWriter and Extractor
+        GeneratedRowWriter.RowWriterBuilder builder = GeneratedRowWriter.newBuilder(recordsRequest.getConstraints());
+        for (Field next : recordsRequest.getSchema().getFields()) {
+            Extractor extractor = makeExtractor(next, mapOfNamesAndTypes, mapOfCols);
+            builder.withExtractor(next.getName(), extractor);
+        }
+        GeneratedRowWriter rowWriter = builder.build();
 
         /*
          Using S3 Select to read the S3 Parquet file generated in the split
          */
-            //Creating the read Request
-            SelectObjectContentRequest request = generateBaseParquetRequest(exportBucket, s3ObjectKey);
-            try (SelectObjectContentResult result = amazonS3.selectObjectContent(request)) {
-                InputStream resultInputStream = result.getPayload().getRecordsInputStream();
-                BufferedReader streamReader = new BufferedReader(new InputStreamReader(resultInputStream, StandardCharsets.UTF_8));
-                String inputStr;
-                while ((inputStr = streamReader.readLine()) != null) {
-                    HashMap<String, Object> map = new HashMap<>();
-                    //we are reading the parquet files, but serializing the output it as JSON as SDK provides a Parquet InputSerialization, but only a JSON or CSV OutputSerializatio
-                    ObjectMapper objectMapper = new ObjectMapper();
-                    map = objectMapper.readValue(inputStr, HashMap.class);
-                    rowContext.setNameValue(map);
-
-                    //Passing the RowContext to BlockWriter;
-                    spiller.writeRows((Block block, int rowNum) -> rowWriter.writeRow(block, rowNum, rowContext) ? 1 : 0);
+        //Creating the read Request
+        SelectObjectContentRequest request = generateBaseParquetRequest(exportBucket, s3ObjectKey);
+        try (SelectObjectContentResult result = amazonS3.selectObjectContent(request)) {
+            InputStream resultInputStream = result.getPayload().getRecordsInputStream();
+            BufferedReader streamReader = new BufferedReader(new InputStreamReader(resultInputStream, StandardCharsets.UTF_8));
+            String inputStr;
+            while ((inputStr = streamReader.readLine()) != null) {
+                HashMap<String, Object> map = new HashMap<>();
+                //we are reading the parquet files, but serializing the output it as JSON as SDK provides a Parquet InputSerialization, but only a JSON or CSV OutputSerializatio
+                ObjectMapper objectMapper = new ObjectMapper();
+                map = objectMapper.readValue(inputStr, HashMap.class);
+                rowContext.setNameValue(map);
+
+                //Passing the RowContext to BlockWriter;
+                spiller.writeRows((Block block, int rowNum) -> rowWriter.writeRow(block, rowNum, rowContext) ? 1 : 0);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Error in connecting to S3 and selecting the object content for object : " + s3ObjectKey, e);
+        }
+    }
+
+
+    /**
+     * Reads the exported Parquet objects with the Arrow Dataset reader, decoding only the projected columns straight from
+     * their vectors. The constraints were applied by the export and are evaluated again by the row writer.
+     *
+     * Up to {@link VerticaConstants#SPLIT_READ_CONCURRENCY} objects are scanned concurrently by background threads, each
+     * of which decodes the next batch of its object only once the previous one was written. Rows are written by the
+     * calling thread since the spiller is not thread safe.
+     *
+     * @return the keys of the objects which failed before any of their rows was written, and have to be read through
+     * S3 Select.
+     */
+    private List<String> readParquetObjects(BlockSpiller spiller, ReadRecordsRequest recordsRequest, QueryStatusChecker queryStatusChecker,
+            String exportBucket, List<String> s3ObjectKeys)
+    {
+        List<Field> fields = recordsRequest.getSchema().getFields();
+        ParquetRowContext rowContext = new ParquetRowContext(fields.size());
+        GeneratedRowWriter.RowWriterBuilder builder = GeneratedRowWriter.newBuilder(recordsRequest.getConstraints());
+        for (int i = 0; i < fields.size(); i++) {
+            Extractor extractor = ColumnValueExtractors.makeExtractor(fields.get(i), i);
+            if (extractor == null) {
+                throw new RuntimeException("Unhandled type " + fields.get(i).getType());
+            }
+            builder.withExtractor(fields.get(i).getName(), extractor);
+        }
+        GeneratedRowWriter rowWriter = builder.build();
+
+        int concurrency = Math.max(1, Math.min(s3ObjectKeys.size(),
+                Integer.parseInt(configOptions.getOrDefault(SPLIT_READ_CONCURRENCY, String.valueOf(DEFAULT_SPLIT_READ_CONCURRENCY)))));
+        BlockingQueue<ParquetBatch> batches = new LinkedBlockingQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "vertica-parquet-read");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<String> failedKeys = new ArrayList<>();
+        try {
+            for (String s3ObjectKey : s3ObjectKeys) {
+                String uri = getObjectUri(exportBucket, s3ObjectKey);
+                executor.execute(() -> scanParquetObject(fields, s3ObjectKey, uri, batches));
+            }
+            Set<String> keysWithRows = new HashSet<>();
+            int pending = s3ObjectKeys.size();
+            while (pending > 0) {
+                if (!queryStatusChecker.isQueryRunning()) {
+                    return Collections.emptyList();
+                }
+                ParquetBatch batch = batches.poll(BATCH_POLL_MS, TimeUnit.MILLISECONDS);
+                if (batch == null) {
+                    continue;
+                }
+                if (batch.last) {
+                    pending--;
+                    if (batch.failure != null) {
+                        if (keysWithRows.contains(batch.s3ObjectKey)) {
+                            throw new RuntimeException("Error in reading the exported object : " + batch.s3ObjectKey, batch.failure);
+                        }
+                        logger.warn("Unable to read the exported object {} directly, reading it through S3 Select instead.",
+                                batch.s3ObjectKey, batch.failure);
+                        failedKeys.add(batch.s3ObjectKey);
+                    }
+                    continue;
+                }
+                try {
+                    System.arraycopy(batch.vectors, 0, rowContext.vectors, 0, batch.vectors.length);
+                    for (int row = 0; row < batch.rowCount; row++) {
+                        rowContext.row = row;
+                        spiller.writeRows((Block block, int rowNum) -> rowWriter.writeRow(block, rowNum, rowContext) ? 1 : 0);
+                        keysWithRows.add(batch.s3ObjectKey);
+                    }
+                }
+                finally {
+                    batch.released.countDown();
                 }
-            } catch (Exception e) {
-                throw new RuntimeException("Error in connecting to S3 and selecting the object content for object : " + s3ObjectKey, e);
             }
         }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while reading the exported objects", ex);
+        }
+        finally {
+            // Scans still waiting for their batch to be written are interrupted and release their native resources
+            executor.shutdownNow();
+        }
+        return failedKeys;
+    }
 
+    /**
+     * @return the URI the Arrow Dataset reader reads the exported object from.
+     */
+    @VisibleForTesting
+    String getObjectUri(String exportBucket, String s3ObjectKey)
+    {
+        return String.format("s3://%s/%s", exportBucket, s3ObjectKey);
+    }
+
+    /**
+     * Scans an exported object on a background thread, handing each batch to the reading thread and waiting for it to
+     * be written before decoding the next one. Always ends with a batch marking the end of the object, holding the
+     * failure of the scan if any.
+     */
+    @VisibleForTesting
+    void scanParquetObject(List<Field> fields, String s3ObjectKey, String uri, BlockingQueue<ParquetBatch> batches)
+    {
+        Throwable failure = null;
+        try (BufferAllocator allocator = new RootAllocator();
+                DatasetFactory datasetFactory = new FileSystemDatasetFactory(allocator, NativeMemoryPool.getDefault(), FileFormat.PARQUET, uri)) {
+            // Vertica may export the columns in a different case than the field names
+            Map<String, String> fileColumns = new HashMap<>();
+            for (Field fileField : datasetFactory.inspect().getFields()) {
+                fileColumns.put(fileField.getName().toLowerCase(), fileField.getName());
+            }
+            String[] columns = new String[fields.size()];
+            for (int i = 0; i < fields.size(); i++) {
+                columns[i] = fileColumns.get(fields.get(i).getName().toLowerCase());
+                if (columns[i] == null) {
+                    throw new IllegalStateException("Column " + fields.get(i).getName() + " was not exported");
+                }
+            }
+
+            try (Dataset dataset = datasetFactory.finish();
+                    Scanner scanner = dataset.newScan(new ScanOptions(PARQUET_BATCH_SIZE, Optional.of(columns)));
+                    ArrowReader reader = scanner.scanBatches()) {
+                while (reader.loadNextBatch()) {
+                    VectorSchemaRoot root = reader.getVectorSchemaRoot();
+                    FieldVector[] vectors = new FieldVector[fields.size()];
+                    for (int i = 0; i < fields.size(); i++) {
+                        vectors[i] = root.getVector(columns[i]);
+                        Types.MinorType fieldType = Types.getMinorTypeForArrowType(fields.get(i).getType());
+                        if (!canRead(vectors[i], fieldType)) {
+                            throw new IllegalStateException("Unable to read " + vectors[i].getClass().getSimpleName() + " as " + fieldType);
+                        }
+                    }
+                    ParquetBatch batch = new ParquetBatch(s3ObjectKey, vectors, root.getRowCount(), false, null);
+                    batches.add(batch);
+                    // The vectors are reused by the next batch
+                    batch.released.await();
+                }
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        catch (Exception | UnsatisfiedLinkError ex) {
+            failure = ex;
+        }
+        batches.add(new ParquetBatch(s3ObjectKey, null, 0, true, failure));
     }
 
+    private static boolean canRead(FieldVector vector, Types.MinorType fieldType)
+    {
+        switch (fieldType) {
+            case BIT:
+                return vector instanceof BitVector;
+            case TINYINT:
+            case SMALLINT:
+            case INT:
+            case BIGINT:
+                return vector instanceof BaseIntVector;
+            case FLOAT4:
+            case FLOAT8:
+                return vector instanceof FloatingPointVector || vector instanceof BaseIntVector;
+            case DECIMAL:
+                return vector instanceof DecimalVector;
+            case DATEDAY:
+                return vector instanceof DateDayVector;
+            case DATEMILLI:
+                // Timestamps are exported cast to VARCHAR
+                return vector instanceof VarCharVector;
+            case VARCHAR:
+                return true;
+            case VARBINARY:
+                return vector instanceof VarBinaryVector;
+            default:
+                return false;
+        }
+    }
 
     /**
      * Creates an Extractor for the given field.
@@ -313,6 +557,109 @@ public class VerticaRecordHandler
         }
     }
 
+    /**
+     * A batch of an exported object, or the end of the object, handed from its scanning thread to the reading thread.
+     */
+    @VisibleForTesting
+    static class ParquetBatch
+    {
+        private final String s3ObjectKey;
+        private final FieldVector[] vectors;
+        private final int rowCount;
+        private final boolean last;
+        private final Throwable failure;
+        final CountDownLatch released = new CountDownLatch(1);
+
+        ParquetBatch(String s3ObjectKey, FieldVector[] vectors, int rowCount, boolean last, Throwable failure)
+        {
+            this.s3ObjectKey = s3ObjectKey;
+            this.vectors = vectors;
+            this.rowCount = rowCount;
+            this.last = last;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * Positions the extractors of the direct Parquet read on a row of the current batch.
+     */
+    private static class ParquetRowContext
+            implements ColumnValueReader
+    {
+        private final FieldVector[] vectors;
+        private int row;
+
+        ParquetRowContext(int columns)
+        {
+            this.vectors = new FieldVector[columns];
+        }
+
+        @Override
+        public boolean isNull(int column)
+        {
+            return vectors[column].isNull(row);
+        }
+
+        @Override
+        public boolean getBoolean(int column)
+        {
+            return ((BitVector) vectors[column]).get(row) != 0;
+        }
+
+        @Override
+        public long getLong(int column)
+        {
+            return ((BaseIntVector) vectors[column]).getValueAsLong(row);
+        }
+
+        @Override
+        public double getDouble(int column)
+        {
+            FieldVector vector = vectors[column];
+            if (vector instanceof FloatingPointVector) {
+                return ((FloatingPointVector) vector).getValueAsDouble(row);
+            }
+            return ((BaseIntVector) vector).getValueAsLong(row);
+        }
+
+        @Override
+        public BigDecimal getDecimal(int column)
+        {
+            return ((DecimalVector) vectors[column]).getObject(row);
+        }
+
+        @Override
+        public int getEpochDay(int column)
+        {
+            return ((DateDayVector) vectors[column]).get(row);
+        }
+
+        /**
+         * Timestamps are exported cast to VARCHAR.
+         */
+        @Override
+        public long getDateMilli(int column)
+        {
+            return LocalDateTime.parse(getText(column).replace(' ', 'T')).atZone(BlockUtils.UTC_ZONE_ID).toInstant().toEpochMilli();
+        }
+
+        @Override
+        public String getText(int column)
+        {
+            FieldVector vector = vectors[column];
+            if (vector instanceof VarCharVector) {
+                return new String(((VarCharVector) vector).get(row), StandardCharsets.UTF_8);
+            }
+            return String.valueOf(vector.getObject(row));
+        }
+
+        @Override
+        public byte[] getBytes(int column)
+        {
+            return ((VarBinaryVector) vectors[column]).get(row);
+        }
+    }
+
     private static class RowContext
     {
 
@@ -381,10 +381,35 @@ public class VerticaMetadataHandlerTest extends TestBase
 
             assertNotNull(nextSplit.getProperty("query_id"));
             assertNotNull(nextSplit.getProperty("exportBucket"));
-            assertNotNull(nextSplit.getProperty("s3ObjectKey"));
+            assertEquals("[\"testKey\"]", nextSplit.getProperty(VerticaConstants.S3_OBJECT_KEYS));
         }
 
         assertTrue(!response.getSplits().isEmpty());
     }
 
+    @Test
+    public void balanceObjects()
+    {
+        List<S3ObjectSummary> objects = new ArrayList<>();
+        long[] sizes = {90, 10, 60, 40, 30, 20, 50};
+        for (int i = 0; i < sizes.length; i++) {
+            S3ObjectSummary object = new S3ObjectSummary();
+            object.setKey("object" + i);
+            object.setSize(sizes[i]);
+            objects.add(object);
+        }
+
+        // 300 bytes in splits of about 100 bytes
+        List<List<String>> groups = VerticaMetadataHandler.balanceObjects(objects, 100);
+        assertEquals(ImmutableList.of(
+                ImmutableList.of("object0", "object5"),
+                ImmutableList.of("object2", "object4", "object1"),
+                ImmutableList.of("object6", "object3")), groups);
+
+        // Never more splits than objects, nor less than one
+        assertEquals(sizes.length, VerticaMetadataHandler.balanceObjects(objects, 1).size());
+        assertEquals(ImmutableList.of(ImmutableList.of("object0", "object2", "object6", "object3", "object4", "object5", "object1")),
+                VerticaMetadataHandler.balanceObjects(objects, 1000));
+    }
+
 }
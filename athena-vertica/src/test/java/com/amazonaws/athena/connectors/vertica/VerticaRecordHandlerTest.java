@@ -0,0 +1,420 @@
+/*-
+ * #%L
+ * athena-vertica
+ * %%
+ * Copyright (C) 2019 - 2020 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.vertica;
+
+import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
+import com.amazonaws.athena.connector.lambda.data.Block;
+import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
+import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
+import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
+import com.amazonaws.athena.connector.lambda.data.BlockWriter;
+import com.amazonaws.athena.connector.lambda.data.FieldBuilder;
+import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
+import com.amazonaws.athena.connector.lambda.domain.Split;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.spill.S3SpillLocation;
+import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
+import com.amazonaws.athena.connector.lambda.security.FederatedIdentity;
+import com.amazonaws.services.athena.AmazonAthena;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.SelectObjectContentEventStream;
+import com.amazonaws.services.s3.model.SelectObjectContentRequest;
+import com.amazonaws.services.s3.model.SelectObjectContentResult;
+import com.amazonaws.services.s3.model.SelectRecordsInputStream;
+import com.amazonaws.services.secretsmanager.AWSSecretsManager;
+import com.google.common.collect.ImmutableMap;
+import org.apache.arrow.dataset.file.DatasetFileWriter;
+import org.apache.arrow.dataset.file.FileFormat;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.complex.reader.FieldReader;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.AdditionalAnswers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.amazonaws.athena.connectors.vertica.VerticaConstants.S3_OBJECT_KEYS;
+
+public class VerticaRecordHandlerTest
+        extends TestBase
+{
+    private static final String EXPORT_BUCKET = "export-bucket";
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+
+    private VerticaRecordHandler verticaRecordHandler;
+    private AmazonS3 amazonS3;
+    private Map<String, String> objectUris;
+    private Map<String, FakeScan> fakeScans;
+    private Queue<String> scanThreads;
+    private CountDownLatch interruptedScans;
+    private BufferAllocator vectorAllocator;
+    private List<FieldVector> fakeVectors;
+    private BlockAllocator blockAllocator;
+    private QueryStatusChecker queryStatusChecker;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Before
+    public void setup()
+    {
+        this.amazonS3 = Mockito.mock(AmazonS3.class);
+        this.objectUris = new HashMap<>();
+        this.fakeScans = new HashMap<>();
+        this.scanThreads = new ConcurrentLinkedQueue<>();
+        this.interruptedScans = new CountDownLatch(2);
+        this.vectorAllocator = new RootAllocator();
+        this.fakeVectors = new ArrayList<>();
+        // The local files stand in for the objects Vertica exports to the bucket
+        this.verticaRecordHandler = new VerticaRecordHandler(amazonS3, Mockito.mock(AWSSecretsManager.class), Mockito.mock(AmazonAthena.class), ImmutableMap.of())
+        {
+            @Override
+            String getObjectUri(String exportBucket, String s3ObjectKey)
+            {
+                return objectUris.get(s3ObjectKey);
+            }
+
+            @Override
+            void scanParquetObject(List<Field> fields, String s3ObjectKey, String uri, BlockingQueue<ParquetBatch> batches)
+            {
+                scanThreads.add(Thread.currentThread().getName());
+                FakeScan fakeScan = fakeScans.get(s3ObjectKey);
+                if (fakeScan == null) {
+                    super.scanParquetObject(fields, s3ObjectKey, uri, batches);
+                    return;
+                }
+                try {
+                    fakeScan.scan(s3ObjectKey, batches);
+                }
+                catch (InterruptedException ex) {
+                    interruptedScans.countDown();
+                }
+            }
+        };
+        this.blockAllocator = new BlockAllocatorImpl();
+        this.queryStatusChecker = Mockito.mock(QueryStatusChecker.class);
+        Mockito.when(queryStatusChecker.isQueryRunning()).thenReturn(true);
+    }
+
+    @After
+    public void tearDown()
+    {
+        blockAllocator.close();
+        fakeVectors.forEach(FieldVector::close);
+        vectorAllocator.close();
+    }
+
+    @Test
+    public void readParquetObject()
+            throws Exception
+    {
+        writeObject("object0.parquet", true);
+        Schema schema = newSchema(Types.MinorType.VARCHAR);
+        Block block = blockAllocator.createBlock(schema);
+
+        this.verticaRecordHandler.readWithConstraint(newSpiller(block), newRequest(schema, "object0.parquet"), queryStatusChecker);
+
+        // Only the projected columns are read, matching the exported columns regardless of their case
+        Assert.assertEquals(2, block.getRowCount());
+        FieldReader id = block.getFieldReader("id");
+        FieldReader name = block.getFieldReader("name");
+        FieldReader created = block.getFieldReader("created");
+        id.setPosition(0);
+        name.setPosition(0);
+        created.setPosition(0);
+        Assert.assertEquals(Long.valueOf(1L), id.readLong());
+        Assert.assertEquals("a", name.readText().toString());
+        Assert.assertEquals(CREATED, created.readLocalDateTime());
+        id.setPosition(1);
+        name.setPosition(1);
+        created.setPosition(1);
+        Assert.assertEquals(Long.valueOf(2L), id.readLong());
+        Assert.assertFalse(name.isSet());
+        Assert.assertEquals(CREATED.plusNanos(500_000_000), created.readLocalDateTime());
+        Mockito.verify(amazonS3, Mockito.never()).selectObjectContent(Mockito.any(SelectObjectContentRequest.class));
+    }
+
+    @Test
+    public void readMissingColumnThroughS3Select()
+            throws Exception
+    {
+        writeObject("object0.parquet", false);
+        mockS3Select("{\"id\":1,\"name\":\"a\",\"created\":\"2024-01-02T03:04:05\"}\n");
+        Schema schema = newSchema(Types.MinorType.VARCHAR);
+        Block block = blockAllocator.createBlock(schema);
+
+        this.verticaRecordHandler.readWithConstraint(newSpiller(block), newRequest(schema, "object0.parquet"), queryStatusChecker);
+
+        Assert.assertEquals(1, block.getRowCount());
+        FieldReader id = block.getFieldReader("id");
+        FieldReader created = block.getFieldReader("created");
+        id.setPosition(0);
+        created.setPosition(0);
+        Assert.assertEquals(Long.valueOf(1L), id.readLong());
+        Assert.assertEquals(CREATED, created.readLocalDateTime());
+        ArgumentCaptor<SelectObjectContentRequest> request = ArgumentCaptor.forClass(SelectObjectContentRequest.class);
+        Mockito.verify(amazonS3, Mockito.times(1)).selectObjectContent(request.capture());
+        Assert.assertEquals(EXPORT_BUCKET, request.getValue().getBucketName());
+        Assert.assertEquals("object0.parquet", request.getValue().getKey());
+    }
+
+    @Test
+    public void readUnreadableColumnThroughS3Select()
+            throws Exception
+    {
+        // A VARCHAR column can not be read as VARBINARY from its vector
+        writeObject("object0.parquet", true);
+        mockS3Select("{\"id\":1,\"name\":\"a\",\"created\":\"2024-01-02T03:04:05\"}\n");
+        Schema schema = newSchema(Types.MinorType.VARBINARY);
+        Block block = blockAllocator.createBlock(schema);
+
+        this.verticaRecordHandler.readWithConstraint(newSpiller(block), newRequest(schema, "object0.parquet"), queryStatusChecker);
+
+        Assert.assertEquals(1, block.getRowCount());
+        FieldReader name = block.getFieldReader("name");
+        name.setPosition(0);
+        Assert.assertArrayEquals("a".getBytes(StandardCharsets.UTF_8), name.readByteArray());
+        Mockito.verify(amazonS3, Mockito.times(1)).selectObjectContent(Mockito.any(SelectObjectContentRequest.class));
+    }
+
+    @Test
+    public void readObjectsConcurrently()
+            throws Exception
+    {
+        writeObject("object0.parquet", true);
+        writeObject("object1.parquet", false);
+        mockS3Select("{\"id\":3,\"name\":\"c\",\"created\":\"2024-01-02T03:04:05\"}\n");
+        Schema schema = newSchema(Types.MinorType.VARCHAR);
+        Block block = blockAllocator.createBlock(schema);
+
+        this.verticaRecordHandler.readWithConstraint(newSpiller(block), newRequest(schema, "object0.parquet", "object1.parquet"), queryStatusChecker);
+
+        // Both objects are scanned by the background threads, the one missing a column is read through S3 Select
+        Assert.assertEquals(2, scanThreads.size());
+        for (String scanThread : scanThreads) {
+            Assert.assertEquals("vertica-parquet-read", scanThread);
+        }
+        Assert.assertEquals(3, block.getRowCount());
+        FieldReader id = block.getFieldReader("id");
+        id.setPosition(2);
+        Assert.assertEquals(Long.valueOf(3L), id.readLong());
+        ArgumentCaptor<SelectObjectContentRequest> request = ArgumentCaptor.forClass(SelectObjectContentRequest.class);
+        Mockito.verify(amazonS3, Mockito.times(1)).selectObjectContent(request.capture());
+        Assert.assertEquals("object1.parquet", request.getValue().getKey());
+    }
+
+    @Test
+    public void failAfterRowsWereWritten()
+            throws Exception
+    {
+        writeObject("object0.parquet", false);
+        Schema schema = newSchema(Types.MinorType.VARCHAR);
+        Block block = blockAllocator.createBlock(schema);
+        AtomicInteger rowsWhenReleased = new AtomicInteger(-1);
+        fakeScans.put("object1.parquet", (s3ObjectKey, batches) -> {
+            VerticaRecordHandler.ParquetBatch batch = new VerticaRecordHandler.ParquetBatch(s3ObjectKey, newVectors(), 1, false, null);
+            batches.add(batch);
+            // The next batch is only decoded once the reading thread wrote this one
+            batch.released.await();
+            rowsWhenReleased.set(block.getRowCount());
+            batches.add(new VerticaRecordHandler.ParquetBatch(s3ObjectKey, null, 0, true, new IllegalStateException("Lost the object")));
+        });
+
+        try {
+            this.verticaRecordHandler.readWithConstraint(newSpiller(block), newRequest(schema, "object0.parquet", "object1.parquet"), queryStatusChecker);
+            Assert.fail("Expected the object which failed after its rows were written to fail the split");
+        }
+        catch (RuntimeException ex) {
+            Assert.assertTrue(ex.getMessage().contains("object1.parquet"));
+            Assert.assertEquals("Lost the object", ex.getCause().getMessage());
+        }
+        Assert.assertEquals(1, rowsWhenReleased.get());
+        // Reading the object again through S3 Select would write its rows twice
+        Mockito.verify(amazonS3, Mockito.never()).selectObjectContent(Mockito.any(SelectObjectContentRequest.class));
+    }
+
+    @Test
+    public void cancelStopsScans()
+            throws Exception
+    {
+        Schema schema = newSchema(Types.MinorType.VARCHAR);
+        Block block = blockAllocator.createBlock(schema);
+        FakeScan fakeScan = (s3ObjectKey, batches) -> {
+            while (true) {
+                VerticaRecordHandler.ParquetBatch batch = new VerticaRecordHandler.ParquetBatch(s3ObjectKey, newVectors(), 1, false, null);
+                batches.add(batch);
+                batch.released.await();
+            }
+        };
+        fakeScans.put("object0.parquet", fakeScan);
+        fakeScans.put("object1.parquet", fakeScan);
+        // The query stops once the first row was written
+        Mockito.when(queryStatusChecker.isQueryRunning()).thenAnswer(invocation -> block.getRowCount() == 0);
+
+        this.verticaRecordHandler.readWithConstraint(newSpiller(block), newRequest(schema, "object0.parquet", "object1.parquet"), queryStatusChecker);
+
+        Assert.assertEquals(1, block.getRowCount());
+        // Both scans are left waiting for their batch to be written until the executor is shut down
+        Assert.assertTrue(interruptedScans.await(10, TimeUnit.SECONDS));
+        Mockito.verify(amazonS3, Mockito.never()).selectObjectContent(Mockito.any(SelectObjectContentRequest.class));
+    }
+
+    private Schema newSchema(Types.MinorType nameType)
+    {
+        return SchemaBuilder.newBuilder()
+                .addField(FieldBuilder.newBuilder("id", Types.MinorType.BIGINT.getType()).build())
+                .addField(FieldBuilder.newBuilder("name", nameType.getType()).build())
+                .addField(FieldBuilder.newBuilder("created", Types.MinorType.DATEMILLI.getType()).build())
+                .build();
+    }
+
+    private ReadRecordsRequest newRequest(Schema schema, String... s3ObjectKeys)
+    {
+        Split split = Split.newBuilder(S3SpillLocation.newBuilder().withIsDirectory(true).build(), null)
+                .add("query_id", QUERY_ID)
+                .add("exportBucket", EXPORT_BUCKET)
+                .add(S3_OBJECT_KEYS, "[\"" + String.join("\",\"", s3ObjectKeys) + "\"]")
+                .build();
+        Constraints constraints = new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), Constraints.DEFAULT_NO_LIMIT);
+        return new ReadRecordsRequest(Mockito.mock(FederatedIdentity.class), DEFAULT_CATALOG, QUERY_ID, TABLE_NAME, schema, split, constraints, 1024, 1024);
+    }
+
+    /**
+     * @return the vectors of a batch holding a single row, as scanned from an exported object.
+     */
+    private synchronized FieldVector[] newVectors()
+    {
+        BigIntVector id = new BigIntVector("ID", vectorAllocator);
+        id.setSafe(0, 3L);
+        id.setValueCount(1);
+        VarCharVector name = new VarCharVector("NAME", vectorAllocator);
+        name.setSafe(0, "c".getBytes(StandardCharsets.UTF_8));
+        name.setValueCount(1);
+        VarCharVector created = new VarCharVector("CREATED", vectorAllocator);
+        created.setSafe(0, "2024-01-02 03:04:05".getBytes(StandardCharsets.UTF_8));
+        created.setValueCount(1);
+        FieldVector[] vectors = {id, name, created};
+        Collections.addAll(fakeVectors, vectors);
+        return vectors;
+    }
+
+    private BlockSpiller newSpiller(Block block)
+    {
+        BlockSpiller blockSpiller = Mockito.mock(BlockSpiller.class);
+        Mockito.doAnswer(invocation -> {
+            BlockWriter.RowWriter rowWriter = invocation.getArgument(0);
+            block.setRowCount(block.getRowCount() + rowWriter.writeRows(block, block.getRowCount()));
+            return null;
+        }).when(blockSpiller).writeRows(Mockito.any());
+        return blockSpiller;
+    }
+
+    private void mockS3Select(String records)
+    {
+        SelectRecordsInputStream recordsInputStream = Mockito.mock(SelectRecordsInputStream.class,
+                AdditionalAnswers.delegatesTo(new ByteArrayInputStream(records.getBytes(StandardCharsets.UTF_8))));
+        SelectObjectContentEventStream payload = Mockito.mock(SelectObjectContentEventStream.class);
+        Mockito.when(payload.getRecordsInputStream()).thenReturn(recordsInputStream);
+        Mockito.when(amazonS3.selectObjectContent(Mockito.any(SelectObjectContentRequest.class)))
+                .thenReturn(new SelectObjectContentResult().withPayload(payload));
+    }
+
+    /**
+     * Writes a Parquet object as Vertica exports it: upper case column names, an unprojected column and the timestamp
+     * cast to VARCHAR.
+     */
+    private void writeObject(String s3ObjectKey, boolean withCreated)
+            throws Exception
+    {
+        File directory = temporaryFolder.newFolder();
+        try (BufferAllocator allocator = new RootAllocator()) {
+            List<FieldVector> vectors = new ArrayList<>();
+            BigIntVector id = new BigIntVector("ID", allocator);
+            id.setSafe(0, 1L);
+            id.setSafe(1, 2L);
+            vectors.add(id);
+            VarCharVector name = new VarCharVector("NAME", allocator);
+            name.setSafe(0, "a".getBytes(StandardCharsets.UTF_8));
+            name.setNull(1);
+            vectors.add(name);
+            if (withCreated) {
+                VarCharVector created = new VarCharVector("CREATED", allocator);
+                created.setSafe(0, "2024-01-02 03:04:05".getBytes(StandardCharsets.UTF_8));
+                created.setSafe(1, "2024-01-02 03:04:05.5".getBytes(StandardCharsets.UTF_8));
+                vectors.add(created);
+            }
+            IntVector extra = new IntVector("EXTRA", allocator);
+            extra.setSafe(0, 7);
+            extra.setSafe(1, 8);
+            vectors.add(extra);
+
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            try (VectorSchemaRoot root = new VectorSchemaRoot(vectors);
+                    ArrowStreamWriter writer = new ArrowStreamWriter(root, null, stream)) {
+                root.setRowCount(2);
+                writer.start();
+                writer.writeBatch();
+                writer.end();
+            }
+            try (ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(stream.toByteArray()), allocator)) {
+                DatasetFileWriter.write(allocator, reader, FileFormat.PARQUET, directory.toURI().toString());
+            }
+        }
+        objectUris.put(s3ObjectKey, directory.listFiles()[0].toURI().toString());
+    }
+
+    private interface FakeScan
+    {
+        void scan(String s3ObjectKey, BlockingQueue<VerticaRecordHandler.ParquetBatch> batches)
+                throws InterruptedException;
+    }
+}